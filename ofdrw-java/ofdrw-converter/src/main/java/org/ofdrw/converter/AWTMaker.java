@@ -25,13 +25,13 @@ import org.ofdrw.core.pageDescription.CT_GraphicUnit;
 import org.ofdrw.core.pageDescription.color.color.CT_Color;
 import org.ofdrw.core.pageDescription.color.colorSpace.CT_ColorSpace;
 import org.ofdrw.core.pageDescription.color.colorSpace.OFDColorSpaceType;
-import org.ofdrw.core.pageDescription.drawParam.CT_DrawParam;
 import org.ofdrw.core.signatures.appearance.StampAnnot;
 import org.ofdrw.core.text.CT_CGTransform;
 import org.ofdrw.core.text.TextCode;
 import org.ofdrw.core.text.font.CT_Font;
 import org.ofdrw.reader.OFDReader;
 import org.ofdrw.reader.PageInfo;
+import org.ofdrw.reader.ResolvedDrawParam;
 import org.ofdrw.reader.ResourceManage;
 import org.ofdrw.reader.model.AnnotionEntity;
 import org.ofdrw.reader.model.StampAnnotEntity;
@@ -217,7 +217,7 @@ public abstract class AWTMaker {
 
         final String pageId = pageInfo.getId().toString();
         // 绘制电子印章图片
-        for (StampAnnotEntity stampAnnotEntity : reader.getStampAnnots()) {
+        for (StampAnnotEntity stampAnnotEntity : reader.getStampAnnots(pageId)) {
             List<StampAnnot> stampAnnots = stampAnnotEntity.getStampAnnots();
             for (StampAnnot stampAnnot : stampAnnots) {
                 if (stampAnnot.getPageRef().toString().equals(pageId)) {
@@ -227,8 +227,8 @@ public abstract class AWTMaker {
         }
 
         // 绘制注解对象
-        for (AnnotionEntity annotionEntity : reader.getAnnotationEntities()) {
-            if (pageId.equals(annotionEntity.getPageId()) && null != annotionEntity.getAnnots()) {
+        for (AnnotionEntity annotionEntity : reader.getAnnotationEntities(pageId)) {
+            if (null != annotionEntity.getAnnots()) {
                 for (Annot annot : annotionEntity.getAnnots()) {
                     Appearance appearance = annot.getAppearance();
                     writeContent(graphics, appearance, null, null);
@@ -239,7 +239,7 @@ public abstract class AWTMaker {
     }
 
 
-    private void writeContent(Graphics2D graphics, CT_PageBlock pageBlock, List<CT_DrawParam> drawParams, Matrix parentMatrix) {
+    private void writeContent(Graphics2D graphics, CT_PageBlock pageBlock, List<ResolvedDrawParam> drawParams, Matrix parentMatrix) {
         if (pageBlock == null) {
             return;
         }
@@ -261,7 +261,7 @@ public abstract class AWTMaker {
 
             for (PageBlockType object : pageBlock.getPageBlocks()) {
                 try {
-                    List<CT_DrawParam> subDrawParams = drawParams;
+                    List<ResolvedDrawParam> subDrawParams = drawParams;
                     if (object instanceof CT_GraphicUnit) {
                         subDrawParams = addDrawParams(subDrawParams, (CT_GraphicUnit) object);
                     }
@@ -285,8 +285,10 @@ public abstract class AWTMaker {
                         CT_Layer layer = (CT_Layer) object;
                         ST_RefID drawParamRef = layer.getDrawParam();
                         if (drawParamRef != null) {
-                            CT_DrawParam ctDrawParam = resourceManage.getDrawParam(drawParamRef.getRefId().toString());
-                            subDrawParams.add(ctDrawParam);
+                            ResolvedDrawParam ctDrawParam = resourceManage.getResolvedDrawParam(drawParamRef.getRefId().toString());
+                            if (ctDrawParam != null) {
+                                subDrawParams.add(ctDrawParam);
+                            }
                         }
                         writeContent(graphics, layer, subDrawParams, parentMatrix);
                     }
@@ -299,7 +301,7 @@ public abstract class AWTMaker {
         }
     }
 
-    private void writeComposite(Graphics2D graphics, CompositeObject compositeObject, List<CT_DrawParam> drawParams, Matrix parentMatrix) {
+    private void writeComposite(Graphics2D graphics, CompositeObject compositeObject, List<ResolvedDrawParam> drawParams, Matrix parentMatrix) {
         ST_RefID refID = compositeObject.getResourceID();
         if (refID == null) return;
 
@@ -325,10 +327,10 @@ public abstract class AWTMaker {
      *
      * DrawParam只在当前层级一下时有效，所以返回一个新列表
      * */
-    private List<CT_DrawParam> addDrawParams(List<CT_DrawParam> drawParams, ST_RefID refID) {
+    private List<ResolvedDrawParam> addDrawParams(List<ResolvedDrawParam> drawParams, ST_RefID refID) {
         drawParams = new ArrayList<>(drawParams);
         if (refID != null) {
-            CT_DrawParam ctDrawParam = resourceManage.getDrawParam(refID.getRefId().toString());
+            ResolvedDrawParam ctDrawParam = resourceManage.getResolvedDrawParam(refID.getRefId().toString());
             if (ctDrawParam != null) {
                 drawParams.add(ctDrawParam);
             }
@@ -336,12 +338,12 @@ public abstract class AWTMaker {
         return drawParams;
     }
 
-    private List<CT_DrawParam> addDrawParams(List<CT_DrawParam> drawParams, CT_GraphicUnit graphicUnit) {
+    private List<ResolvedDrawParam> addDrawParams(List<ResolvedDrawParam> drawParams, CT_GraphicUnit graphicUnit) {
         return addDrawParams(drawParams, graphicUnit.getDrawParam());
     }
 
 
-    private void writePath(Graphics2D graphics, PathObject pathObject, List<CT_DrawParam> drawParams, Matrix parentMatrix) {
+    private void writePath(Graphics2D graphics, PathObject pathObject, List<ResolvedDrawParam> drawParams, Matrix parentMatrix) {
         ST_Box boundary = pathObject.getBoundary();
         Matrix baseMatrix = renderBoundaryAndSetClip(graphics, boundary, parentMatrix);
         Matrix matrix = MatrixUtils.base();
@@ -375,7 +377,7 @@ public abstract class AWTMaker {
         }
     }
 
-    private void writeImage(Graphics2D graphics, ImageObject imageObject, List<CT_DrawParam> drawParams, Matrix parentMatrix) {
+    private void writeImage(Graphics2D graphics, ImageObject imageObject, List<ResolvedDrawParam> drawParams, Matrix parentMatrix) {
         ST_Box boundary = imageObject.getBoundary();
         Matrix baseMatrix = renderBoundaryAndSetClip(graphics, boundary, parentMatrix);
 
@@ -453,7 +455,7 @@ public abstract class AWTMaker {
         return alpha;
     };
 
-    private void writeText(Graphics2D graphics, TextObject textObject, List<CT_DrawParam> drawParams, Matrix parentMatrix) {
+    private void writeText(Graphics2D graphics, TextObject textObject, List<ResolvedDrawParam> drawParams, Matrix parentMatrix) {
         logger.debug("┏━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━TextObject━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━┓");
         Double fontSize = getTextObjectSize(textObject);
         AlphaComposite alpha = AlphaComposite.getInstance(AlphaComposite.SRC_OVER, getTextObjectAlpha(textObject));
@@ -755,40 +757,18 @@ public abstract class AWTMaker {
         return path;
     }
 
-    private Double getLineWidth(CT_GraphicUnit graphicUnit, List<CT_DrawParam> drawParams) {
+    private Double getLineWidth(CT_GraphicUnit graphicUnit, List<ResolvedDrawParam> drawParams) {
         Double lineWidth = graphicUnit.getLineWidth();
         if (lineWidth != null) return lineWidth;
         logger.debug("LineWidth 为空，使用默认值0.4毫米");
         return 0.4;
     }
 
-    private CT_Color getStrokeColorRelative(CT_DrawParam drawParam) {
-        CT_Color c = drawParam.getStrokeColor();
-        if (c != null) {
-            return c;
-        }
-        if (drawParam.getRelative() != null && resourceManage.getDrawParam(drawParam.getRelative().getRefId().toString()) != null) {
-            return getStrokeColorRelative(resourceManage.getDrawParam(drawParam.getRelative().getRefId().toString()));
-        }
-        return null;
-    }
-
-    private CT_Color getFillColorRelative(CT_DrawParam drawParam) {
-        CT_Color c = drawParam.getFillColor();
-        if (c != null) {
-            return c;
-        }
-        if (drawParam.getRelative() != null && resourceManage.getDrawParam(drawParam.getRelative().getRefId().toString()) != null) {
-            return getFillColorRelative(resourceManage.getDrawParam(drawParam.getRelative().getRefId().toString()));
-        }
-        return null;
-    }
-
-    private Color getStrokeColor(CT_Color color, CT_Color defaultColor, List<CT_DrawParam> drawParams) {
+    private Color getStrokeColor(CT_Color color, CT_Color defaultColor, List<ResolvedDrawParam> drawParams) {
         CT_Color c = color;
         if (c == null) {
-            for (CT_DrawParam drawParam : drawParams) {
-                c = getStrokeColorRelative(drawParam);
+            for (ResolvedDrawParam drawParam : drawParams) {
+                c = drawParam.getStrokeColor();
                 if (c != null)
                     break;
             }
@@ -799,11 +779,11 @@ public abstract class AWTMaker {
         return getColor(c);
     }
 
-    private Color getFillColor(CT_Color color, CT_Color defaultColor, List<CT_DrawParam> drawParams) {
+    private Color getFillColor(CT_Color color, CT_Color defaultColor, List<ResolvedDrawParam> drawParams) {
         CT_Color c = color;
         if (c == null) {
-            for (CT_DrawParam drawParam : drawParams) {
-                c = getFillColorRelative(drawParam);
+            for (ResolvedDrawParam drawParam : drawParams) {
+                c = drawParam.getFillColor();
                 if (c != null)
                     break;
             }
@@ -496,9 +496,24 @@ public final class FontLoader {
      * @return 字体
      */
     public TrueTypeFont loadExternalFont(@NotNull String absPath, @Nullable String familyName, @Nullable String fontName) {
+        return loadExternalFont(Paths.get(absPath), familyName, fontName);
+    }
+
+    /**
+     * 加载外部字体
+     * <p>
+     * 字体文件可以位于任意文件系统中（如ZIP原地读取模式下的OFD包内）
+     *
+     * @param fontFile   字体文件路径
+     * @param familyName 字族名，因为是可选参数忽略
+     * @param fontName   字体名
+     * @return 字体
+     */
+    public TrueTypeFont loadExternalFont(@NotNull Path fontFile, @Nullable String familyName, @Nullable String fontName) {
+        String absPath = fontFile.toString();
         try {
             // 内存中不用主动关闭
-            TTFDataStream raf = new MemoryTTFDataStream(new FileInputStream(absPath));
+            TTFDataStream raf = new MemoryTTFDataStream(Files.newInputStream(fontFile));
             int offset = absPath.toLowerCase().lastIndexOf('.');
             String suffix = offset == -1 ? ".ttf" : absPath.toLowerCase().substring(offset);
             switch (suffix) {
@@ -562,9 +577,9 @@ public final class FontLoader {
             ST_Loc fontFileLoc = ctFont.getFontFile();
 
             if (fontFileLoc != null) {
-                // 通过资源加载器获取文件的绝对路径
-                String fontAbsPath = rl.getFile(ctFont.getFontFile()).toAbsolutePath().toString();
-                trueTypeFont = loadExternalFont(fontAbsPath, ctFont.getFamilyName(), ctFont.getFontName());
+                // 通过资源加载器获取文件
+                Path fontFile = rl.getFile(ctFont.getFontFile());
+                trueTypeFont = loadExternalFont(fontFile, ctFont.getFamilyName(), ctFont.getFontName());
             }
             if (trueTypeFont == null) {
                 // 无法从内部加载时，通过相似字体查找
@@ -601,8 +616,7 @@ public final class FontLoader {
                 // 内嵌字体绝对路径
                 ST_Loc fontFileLoc = ctFont.getFontFile();
                 if (fontFileLoc != null) {
-                    String fontAbsPath = rl.getFile(ctFont.getFontFile()).toAbsolutePath().toString();
-                    buf = Files.readAllBytes(Paths.get(fontAbsPath));
+                    buf = Files.readAllBytes(rl.getFile(ctFont.getFontFile()));
                 } else {
 
                     // 无法从内部加载时，通过相似字体查找
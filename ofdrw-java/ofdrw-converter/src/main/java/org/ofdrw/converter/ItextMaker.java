@@ -51,11 +51,11 @@ import org.ofdrw.core.pageDescription.clips.CT_Clip;
 import org.ofdrw.core.pageDescription.color.color.CT_AxialShd;
 import org.ofdrw.core.pageDescription.color.color.CT_Color;
 import org.ofdrw.core.pageDescription.color.color.CT_RadialShd;
-import org.ofdrw.core.pageDescription.drawParam.CT_DrawParam;
 import org.ofdrw.core.signatures.appearance.StampAnnot;
 import org.ofdrw.core.text.font.CT_Font;
 import org.ofdrw.reader.OFDReader;
 import org.ofdrw.reader.PageInfo;
+import org.ofdrw.reader.ResolvedDrawParam;
 import org.ofdrw.reader.ResourceLocator;
 import org.ofdrw.reader.ResourceManage;
 import org.ofdrw.reader.model.AnnotionEntity;
@@ -299,14 +299,12 @@ public class ItextMaker {
         Color defaultFillColor = ColorConstants.BLACK;
         float defaultLineWidth = 0.353f;
         // 递归的获取绘制参数
-        CT_DrawParam ctDrawParam = null;
+        ResolvedDrawParam ctDrawParam = null;
         if (drawparam != null) {
-            ctDrawParam = resMgt.getDrawParamFinal(drawparam.toString());
+            ctDrawParam = resMgt.getResolvedDrawParam(drawparam.toString());
         }
         if (ctDrawParam != null) {
-            if (ctDrawParam.getLineWidth() != null) {
-                defaultLineWidth = ctDrawParam.getLineWidth().floatValue();
-            }
+            defaultLineWidth = (float) ctDrawParam.getLineWidth();
             if (ctDrawParam.getStrokeColor() != null) {
                 defaultStrokeColor = ColorConvert.pdfRGB(resMgt, ctDrawParam.getStrokeColor());
             }
@@ -336,11 +334,11 @@ public class ItextMaker {
                 writeText(resMgt, pdfCanvas, box, sealBox, annotBox, textObject, fillColor, alpha, compositeObjectAlpha, compositeObjectBoundary, compositeObjectCTM);
             } else if (block instanceof ImageObject) {
                 ImageObject imageObject = (ImageObject) block;
-                resMgt.superDrawParam(imageObject); // 补充图元参数
+                resMgt.resolveDrawParam(imageObject); // 补充图元参数
                 writeImage(resMgt, pdfCanvas, box, imageObject, annotBox, compositeObjectAlpha, compositeObjectBoundary, compositeObjectCTM);
             } else if (block instanceof PathObject) {
                 PathObject pathObject = (PathObject) block;
-                resMgt.superDrawParam(pathObject); // 补充图元参数
+                resMgt.resolveDrawParam(pathObject); // 补充图元参数
                 writePath(resMgt, pdfCanvas, box, sealBox, annotBox, pathObject, defaultFillColor, defaultStrokeColor, defaultLineWidth, compositeObjectAlpha, compositeObjectBoundary, compositeObjectCTM);
             } else if (block instanceof CompositeObject) {
                 CompositeObject compositeObject = (CompositeObject) block;
@@ -469,7 +467,7 @@ public class ItextMaker {
         }
 
         double scale = scaling(sealBox, pathObject);
-        CT_DrawParam ctDrawParam = resMgt.superDrawParam(pathObject);
+        ResolvedDrawParam ctDrawParam = resMgt.resolveDrawParam(pathObject);
         if (ctDrawParam != null) {
             // 使用绘制参数补充缺省的颜色
             if (pathObject.getStrokeColor() == null
@@ -480,8 +478,7 @@ public class ItextMaker {
                     && ctDrawParam.getFillColor() != null) {
                 pathObject.setFillColor(new CT_Color().setValue(ctDrawParam.getFillColor().getValue()));
             }
-            if (pathObject.getLineWidth() == null
-                    && ctDrawParam.getLineWidth() != null) {
+            if (pathObject.getLineWidth() == null) {
                 pathObject.setLineWidth(ctDrawParam.getLineWidth());
             }
         }
@@ -789,7 +786,7 @@ public class ItextMaker {
     private void writeText(ResourceManage resMgt, PdfCanvas pdfCanvas, ST_Box box, ST_Box sealBox, ST_Box annotBox, TextObject textObject, Color fillColor, int alpha, Integer compositeObjectAlpha, ST_Box compositeObjectBoundary, ST_Array compositeObjectCTM) throws IOException {
         double scale = scaling(sealBox, textObject);
         float fontSize = Double.valueOf(textObject.getSize() * scale).floatValue();
-        CT_DrawParam ctDrawParam = resMgt.superDrawParam(textObject);
+        ResolvedDrawParam ctDrawParam = resMgt.resolveDrawParam(textObject);
         // 使用绘制参数补充缺省的颜色
         if (ctDrawParam != null && textObject.getFillColor() == null
                 && ctDrawParam.getFillColor() != null) {
@@ -54,11 +54,11 @@ import org.ofdrw.core.pageDescription.color.color.CT_AxialShd;
 import org.ofdrw.core.pageDescription.color.color.CT_Color;
 import org.ofdrw.core.pageDescription.color.color.CT_RadialShd;
 import org.ofdrw.core.pageDescription.color.color.ColorClusterType;
-import org.ofdrw.core.pageDescription.drawParam.CT_DrawParam;
 import org.ofdrw.core.signatures.appearance.StampAnnot;
 import org.ofdrw.core.text.font.CT_Font;
 import org.ofdrw.reader.OFDReader;
 import org.ofdrw.reader.PageInfo;
+import org.ofdrw.reader.ResolvedDrawParam;
 import org.ofdrw.reader.ResourceLocator;
 import org.ofdrw.reader.ResourceManage;
 import org.ofdrw.reader.model.AnnotionEntity;
@@ -263,14 +263,12 @@ public class PdfboxMaker {
         PDColor defaultStrokeColor = new PDColor(new float[]{0.0f, 0.0f, 0.0f}, PDDeviceRGB.INSTANCE);
         float defaultLineWidth = 0.353f;
         // 递归的获取绘制参数
-        CT_DrawParam ctDrawParam = null;
+        ResolvedDrawParam ctDrawParam = null;
         if (drawparam != null) {
-            ctDrawParam = resMgt.getDrawParamFinal(drawparam.toString());
+            ctDrawParam = resMgt.getResolvedDrawParam(drawparam.toString());
         }
         if (ctDrawParam != null) {
-            if (ctDrawParam.getLineWidth() != null) {
-                defaultLineWidth = ctDrawParam.getLineWidth().floatValue();
-            }
+            defaultLineWidth = (float) ctDrawParam.getLineWidth();
             if (ctDrawParam.getStrokeColor() != null) {
                 defaultStrokeColor = convertPDColor(ctDrawParam.getStrokeColor().getValue());
             }
@@ -284,7 +282,7 @@ public class PdfboxMaker {
                 // text
                 PDColor fillColor = defaultFillColor;
                 TextObject textObject = (TextObject) block;
-                resMgt.superDrawParam(textObject);
+                resMgt.resolveDrawParam(textObject);
                 int alpha = 255;
                 if (textObject.getFillColor() != null) {
                     if (textObject.getFillColor().getValue() != null) {
@@ -300,12 +298,12 @@ public class PdfboxMaker {
             } else if (block instanceof ImageObject) {
                 // image
                 ImageObject imageObject = (ImageObject) block;
-                resMgt.superDrawParam(imageObject); // 补充图元参数
+                resMgt.resolveDrawParam(imageObject); // 补充图元参数
                 writeImage(resMgt, contentStream, box, imageObject, annotBox);
             } else if (block instanceof PathObject) {
                 // path
                 PathObject pathObject = (PathObject) block;
-                resMgt.superDrawParam(pathObject); // 补充图元参数
+                resMgt.resolveDrawParam(pathObject); // 补充图元参数
                 writePath(resMgt, contentStream, box, sealBox, annotBox, pathObject, defaultFillColor, defaultStrokeColor, defaultLineWidth, compositeObjectAlpha, compositeObjectBoundary, compositeObjectCTM);
             } else if (block instanceof CompositeObject) {
                 CompositeObject compositeObject = (CompositeObject) block;
@@ -452,7 +450,7 @@ public class PdfboxMaker {
         contentStream.saveGraphicsState();
         double scale = scaling(sealBox, pathObject);
         // 获取引用的绘制参数可能会null
-        CT_DrawParam ctDrawParam = resMgt.superDrawParam(pathObject);
+        ResolvedDrawParam ctDrawParam = resMgt.resolveDrawParam(pathObject);
         if (ctDrawParam != null) {
             // 使用绘制参数补充缺省的颜色
             if (pathObject.getStrokeColor() == null
@@ -463,7 +461,7 @@ public class PdfboxMaker {
                     && ctDrawParam.getFillColor() != null) {
                 pathObject.setFillColor(ctDrawParam.getFillColor());
             }
-            if (pathObject.getLineWidth() == null && ctDrawParam.getLineWidth() != null) {
+            if (pathObject.getLineWidth() == null) {
                 pathObject.setLineWidth(ctDrawParam.getLineWidth());
             }
         }
@@ -836,7 +834,7 @@ public class PdfboxMaker {
         }
 
         PDColor fillColor = defaultFontColor;
-        CT_DrawParam ctDrawParam = resMgt.superDrawParam(textObject);
+        ResolvedDrawParam ctDrawParam = resMgt.resolveDrawParam(textObject);
         if (ctDrawParam != null) {
             // 使用绘制参数补充缺省的颜色
             if (textObject.getFillColor() == null
@@ -988,7 +986,7 @@ public class PdfboxMaker {
         }
 
         ByteArrayInputStream fontStream = new ByteArrayInputStream(Files.readAllBytes(fontPath));
-        String name = fontPath.toFile().getName().toLowerCase();
+        String name = fontPath.getFileName().toString().toLowerCase();
         TrueTypeFont ttf = null;
         if (name.endsWith(".ttf")) {
             try {
@@ -1,7 +1,6 @@
 package org.ofdrw.core;
 
 import org.dom4j.*;
-import org.dom4j.tree.DefaultElement;
 
 import java.io.IOException;
 import java.io.Writer;
@@ -27,20 +26,29 @@ public abstract class DefaultElementProxy implements Element {
     private DefaultElementProxy() {
     }
 
+    /**
+     * 新建元素
+     * <p>
+     * 被代理的元素由 {@link TrackedDocumentFactory} 创建，
+     * 加入可追踪修改的文档后，其修改同样会被记录。
+     *
+     * @param name 元素名称
+     */
     public DefaultElementProxy(String name) {
-        this.proxy = new DefaultElement(name);
+        this.proxy = TrackedDocumentFactory.INSTANCE.createElement(name);
     }
 
     public DefaultElementProxy(QName qname) {
-        this.proxy = new DefaultElement(qname);
+        this.proxy = TrackedDocumentFactory.INSTANCE.createElement(qname);
     }
 
     public DefaultElementProxy(QName qname, int attributeCount) {
-        this.proxy = new DefaultElement(qname, attributeCount);
+        this.proxy = TrackedDocumentFactory.INSTANCE.createElement(qname, attributeCount);
     }
 
     public DefaultElementProxy(String name, Namespace namespace) {
-        this.proxy = new DefaultElement(name, namespace);
+        this.proxy = TrackedDocumentFactory.INSTANCE.createElement(
+                TrackedDocumentFactory.INSTANCE.createQName(name, namespace));
     }
 
 
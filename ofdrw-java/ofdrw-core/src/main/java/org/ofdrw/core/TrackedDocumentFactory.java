@@ -0,0 +1,365 @@
+package org.ofdrw.core;
+
+import org.dom4j.*;
+import org.dom4j.tree.*;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 可追踪修改的文档工厂
+ * <p>
+ * 由该工厂解析得到的文档，其中任意元素、属性、文本发生修改时，
+ * 文档的修改计数（版本号）都会递增，据此可以在不序列化元素的情况下判断文档是否被修改。
+ * <p>
+ * {@link DefaultElementProxy} 新建的元素同样由该工厂创建，修改操作最终委托给被代理的元素，
+ * 因此通过代理对象所做的修改、以及新建后加入文档的元素在之后的修改都会被记录。
+ * <p>
+ * 脱离文档的节点（如克隆得到的元素）在脱离期间的修改不会被记录；
+ * 若文档中加入了不是由该工厂创建的元素、属性或文本，那么文档不再支持修改追踪，
+ * {@link #versionOf(Element)} 对其总是返回 -1。
+ * <p>
+ * 通过 {@link #watch(Element, AtomicLong)} 可以将多个文档的修改汇总到同一个计数器。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 14:05:12
+ */
+public final class TrackedDocumentFactory extends DocumentFactory {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 工厂实例
+     */
+    public static final TrackedDocumentFactory INSTANCE = new TrackedDocumentFactory();
+
+    private TrackedDocumentFactory() {
+    }
+
+    /**
+     * 获取元素所属文档的版本号
+     * <p>
+     * 文档每发生一次修改版本号递增，版本号不变则文档未被修改。
+     *
+     * @param element 元素
+     * @return 版本号，元素不属于可追踪的文档或文档中含有不可追踪的节点时返回 -1
+     */
+    public static long versionOf(Element element) {
+        if (element == null) {
+            return -1;
+        }
+        Document doc = element.getDocument();
+        if (doc instanceof TrackedDocument && !((TrackedDocument) doc).untracked) {
+            return ((TrackedDocument) doc).version;
+        }
+        return -1;
+    }
+
+    /**
+     * 监视元素所属文档的修改
+     * <p>
+     * 文档每次修改时除了递增版本号，同时递增给定的计数器；
+     * 一个文档只关联一个计数器，重复调用时以最后一次为准。
+     *
+     * @param element 元素
+     * @param counter 修改计数器
+     * @return true - 已监视；false - 元素不属于可追踪的文档
+     */
+    public static boolean watch(Element element, AtomicLong counter) {
+        if (element == null) {
+            return false;
+        }
+        Document doc = element.getDocument();
+        if (doc instanceof TrackedDocument) {
+            ((TrackedDocument) doc).counter = counter;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 记录节点所属文档发生修改
+     *
+     * @param node 被修改的节点
+     */
+    static void touch(Node node) {
+        if (node == null) {
+            return;
+        }
+        Document doc = node.getDocument();
+        if (doc instanceof TrackedDocument) {
+            ((TrackedDocument) doc).modified();
+        }
+    }
+
+    /**
+     * 记录节点所属文档加入了新的节点
+     * <p>
+     * 加入的节点中含有不可追踪的节点时，文档不再支持修改追踪。
+     * 脱离文档的元素加入子节点时不检查，待其加入文档时一并检查。
+     *
+     * @param parent 父节点
+     * @param child  加入的节点
+     */
+    static void adopt(Node parent, Node child) {
+        Document doc = parent.getDocument();
+        if (!(doc instanceof TrackedDocument)) {
+            return;
+        }
+        TrackedDocument tracked = (TrackedDocument) doc;
+        tracked.modified();
+        if (!tracked.untracked && !isTracked(child)) {
+            tracked.untracked = true;
+        }
+    }
+
+    /**
+     * 判断节点及其所有后代节点是否均可追踪修改
+     * <p>
+     * 注释、处理指令、命名空间等节点不影响判断。
+     *
+     * @param node 节点
+     * @return true - 可追踪
+     */
+    static boolean isTracked(Node node) {
+        while (node instanceof DefaultElementProxy) {
+            node = ((DefaultElementProxy) node).getProxy();
+        }
+        if (node instanceof Element) {
+            if (!(node instanceof TrackedElement)) {
+                return false;
+            }
+            Element e = (Element) node;
+            for (int i = 0, n = e.attributeCount(); i < n; i++) {
+                if (!(e.attribute(i) instanceof TrackedAttribute)) {
+                    return false;
+                }
+            }
+            for (int i = 0, n = e.nodeCount(); i < n; i++) {
+                if (!isTracked(e.node(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (node instanceof Attribute) {
+            return node instanceof TrackedAttribute;
+        }
+        if (node instanceof CDATA) {
+            return node instanceof TrackedCDATA;
+        }
+        if (node instanceof Text) {
+            return node instanceof TrackedText;
+        }
+        return true;
+    }
+
+    @Override
+    public Document createDocument() {
+        TrackedDocument doc = new TrackedDocument();
+        doc.setDocumentFactory(this);
+        return doc;
+    }
+
+    @Override
+    public Element createElement(QName qname) {
+        return new TrackedElement(qname);
+    }
+
+    /**
+     * 创建元素并预留属性空间
+     *
+     * @param qname          元素名称
+     * @param attributeCount 预计的属性数量
+     * @return 可追踪修改的元素
+     */
+    public Element createElement(QName qname, int attributeCount) {
+        return new TrackedElement(qname, attributeCount);
+    }
+
+    @Override
+    public Attribute createAttribute(Element owner, QName qname, String value) {
+        return new TrackedAttribute(qname, value);
+    }
+
+    @Override
+    public Text createText(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException("Adding text to an XML document must not be null");
+        }
+        return new TrackedText(text);
+    }
+
+    @Override
+    public CDATA createCDATA(String text) {
+        return new TrackedCDATA(text);
+    }
+
+    /**
+     * 带有版本号的文档
+     */
+    static final class TrackedDocument extends DefaultDocument {
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * 修改计数
+         */
+        long version = 0;
+
+        /**
+         * 是否加入过不可追踪的节点
+         */
+        boolean untracked = false;
+
+        /**
+         * 监视文档修改的计数器，可为null
+         */
+        volatile AtomicLong counter;
+
+        /**
+         * 记录一次修改
+         */
+        void modified() {
+            version++;
+            AtomicLong c = counter;
+            if (c != null) {
+                c.incrementAndGet();
+            }
+        }
+
+        @Override
+        protected void childAdded(Node node) {
+            super.childAdded(node);
+            adopt(this, node);
+        }
+
+        @Override
+        protected void childRemoved(Node node) {
+            super.childRemoved(node);
+            modified();
+        }
+    }
+
+    /**
+     * 修改时通知文档的元素
+     */
+    static final class TrackedElement extends DefaultElement {
+        private static final long serialVersionUID = 1L;
+
+        TrackedElement(QName qname) {
+            super(qname);
+        }
+
+        TrackedElement(QName qname, int attributeCount) {
+            super(qname, attributeCount);
+        }
+
+        /**
+         * 子元素、属性、文本同样由可追踪的工厂创建
+         *
+         * @return 可追踪修改的文档工厂
+         */
+        @Override
+        protected DocumentFactory getDocumentFactory() {
+            return INSTANCE;
+        }
+
+        @Override
+        protected void childAdded(Node node) {
+            super.childAdded(node);
+            adopt(this, node);
+        }
+
+        @Override
+        protected void childRemoved(Node node) {
+            super.childRemoved(node);
+            touch(this);
+        }
+
+        @Override
+        public void setQName(QName name) {
+            super.setQName(name);
+            touch(this);
+        }
+
+        @Override
+        public void setText(String text) {
+            super.setText(text);
+            touch(this);
+        }
+
+        @Override
+        public void setContent(List<Node> content) {
+            super.setContent(content);
+            touch(this);
+        }
+
+        @Override
+        public void clearContent() {
+            super.clearContent();
+            touch(this);
+        }
+
+        @Override
+        public void setAttributes(List<Attribute> attributes) {
+            super.setAttributes(attributes);
+            if (attributes != null) {
+                for (Attribute attribute : attributes) {
+                    adopt(this, attribute);
+                }
+            }
+            touch(this);
+        }
+    }
+
+    /**
+     * 修改时通知文档的属性
+     */
+    static final class TrackedAttribute extends DefaultAttribute {
+        private static final long serialVersionUID = 1L;
+
+        TrackedAttribute(QName qname, String value) {
+            super(qname, value);
+        }
+
+        @Override
+        public void setValue(String value) {
+            super.setValue(value);
+            touch(this);
+        }
+    }
+
+    /**
+     * 修改时通知文档的文本
+     */
+    static final class TrackedText extends DefaultText {
+        private static final long serialVersionUID = 1L;
+
+        TrackedText(String text) {
+            super(text);
+        }
+
+        @Override
+        public void setText(String text) {
+            super.setText(text);
+            touch(this);
+        }
+    }
+
+    /**
+     * 修改时通知文档的CDATA
+     */
+    static final class TrackedCDATA extends DefaultCDATA {
+        private static final long serialVersionUID = 1L;
+
+        TrackedCDATA(String text) {
+            super(text);
+        }
+
+        @Override
+        public void setText(String text) {
+            super.setText(text);
+            touch(this);
+        }
+    }
+}
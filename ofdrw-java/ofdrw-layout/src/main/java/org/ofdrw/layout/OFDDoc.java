@@ -27,10 +27,14 @@ import org.ofdrw.layout.handler.VPageHandler;
 import org.ofdrw.pkg.container.DocDir;
 import org.ofdrw.pkg.container.OFDDir;
 import org.ofdrw.pkg.container.VirtualContainer;
+import org.ofdrw.pkg.storage.ContainerStorage;
+import org.ofdrw.pkg.storage.HeapStorage;
+import org.ofdrw.pkg.storage.MappedStorage;
 import org.ofdrw.reader.OFDReader;
 import org.ofdrw.reader.PageInfo;
 import org.ofdrw.reader.ResourceLocator;
 
+import java.io.BufferedOutputStream;
 import java.io.Closeable;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -39,6 +43,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.UUID;
@@ -159,6 +164,35 @@ public class OFDDoc implements Closeable {
      */
     private Watermark defaultWatermark = null;
 
+    /**
+     * 是否流式打包
+     * <p>
+     * true - 页面完成后立即写入输出的OFD包；false - 关闭时统一打包（默认）
+     */
+    private boolean streamingPackage = false;
+
+    /**
+     * 流式打包时由文档打开的文件输出流
+     */
+    private OutputStream streamFileOut;
+
+    /**
+     * 流式打包时的虚拟页面解析引擎
+     * <p>
+     * 在写入第一个页面时创建
+     */
+    private VPageParseEngine streamParseEngine;
+
+    /**
+     * 流式打包时最近加入、尚未写入OFD包的虚拟页面
+     */
+    private VirtualPage pendingVPage;
+
+    /**
+     * 流式打包时已经写入OFD包的页面数量
+     */
+    private int streamedPageCount = 0;
+
 
     /**
      * 在指定路径位置上创建一个OFD文件
@@ -166,7 +200,20 @@ public class OFDDoc implements Closeable {
      * @param outPath OFD输出路径
      */
     public OFDDoc(Path outPath) {
-        this();
+        this(outPath, null);
+    }
+
+    /**
+     * 在指定路径位置上创建一个OFD文件
+     * <p>
+     * 生成过程中的文件存放于指定的容器存储中，如 {@link HeapStorage}、{@link MappedStorage}，
+     * 文档关闭时存储将被释放。
+     *
+     * @param outPath OFD输出路径
+     * @param storage 容器存储，null 表示使用操作系统临时目录
+     */
+    public OFDDoc(Path outPath, ContainerStorage storage) {
+        this(storage);
         if (outPath == null) {
             throw new IllegalArgumentException("OFD文件存储路径(outPath)为空");
         }
@@ -186,7 +233,19 @@ public class OFDDoc implements Closeable {
      * @param outStream OFD输出流，由调用者负责关闭。
      */
     public OFDDoc(OutputStream outStream) {
-        this();
+        this(outStream, null);
+    }
+
+    /**
+     * 在指定路径位置上创建一个OFD文件
+     * <p>
+     * 生成过程中的文件存放于指定的容器存储中，文档关闭时存储将被释放。
+     *
+     * @param outStream OFD输出流，由调用者负责关闭。
+     * @param storage   容器存储，null 表示使用操作系统临时目录
+     */
+    public OFDDoc(OutputStream outStream, ContainerStorage storage) {
+        this(storage);
         if (outStream == null) {
             throw new IllegalArgumentException("OFD文件输出流(outStream)为空");
         }
@@ -246,10 +305,12 @@ public class OFDDoc implements Closeable {
 
     /**
      * 文档初始化构造器
+     *
+     * @param storage 容器存储，null 表示使用操作系统临时目录
      */
-    private OFDDoc() {
+    private OFDDoc(ContainerStorage storage) {
         // 初始化文档对象
-        containerInit();
+        containerInit(storage);
     }
 
 
@@ -271,8 +332,10 @@ public class OFDDoc implements Closeable {
 
     /**
      * 初始化OFD虚拟容器
+     *
+     * @param storage 容器存储，null 表示使用操作系统临时目录
      */
-    private void containerInit() {
+    private void containerInit(ContainerStorage storage) {
         CT_DocInfo docInfo = new CT_DocInfo()
                 .setDocID(UUID.randomUUID())
                 .setCreationDate(LocalDate.now())
@@ -293,7 +356,7 @@ public class OFDDoc implements Closeable {
                 // 空的页面引用集合，该集合将会在解析虚拟页面时得到填充
                 .setPages(new Pages());
 
-        ofdDir = OFDDir.newOFD()
+        ofdDir = (storage == null ? OFDDir.newOFD() : OFDDir.newOFD(storage))
                 .setOfd(ofd);
         // 创建一个新的文档
         DocDir docDir = ofdDir.newDoc();
@@ -354,6 +417,14 @@ public class OFDDoc implements Closeable {
      * @return this
      */
     public OFDDoc addVPage(VirtualPage virtualPage) {
+        if (isStreamingPackage() && virtualPage != null) {
+            // 加入新页面时上一个页面已经完成，解析后写入OFD包并释放
+            if (pendingVPage != null) {
+                streamPage(pendingVPage);
+            }
+            pendingVPage = virtualPage;
+            return this;
+        }
         vPageList.add(virtualPage);
         return this;
     }
@@ -690,10 +761,80 @@ public class OFDDoc implements Closeable {
         return this;
     }
 
+    /**
+     * 设置 是否流式打包
+     * <p>
+     * 开启后通过 {@link #addVPage(VirtualPage)} 加入下一个页面时，上一个页面即视为完成，
+     * 立即解析并将页面内容以及资源文件写入输出的OFD包，随后释放该页面，
+     * 适用于大量页面的文档直接输出到网络流。
+     * <p>
+     * 注意：
+     * <p>
+     * 1. 仅支持新建文档，修改文档（通过 {@link OFDReader} 构造）时该设置无效；
+     * <p>
+     * 2. 页面加入后只能在加入下一个页面前修改，之后的修改不会生效；
+     * <p>
+     * 3. 流式布局元素（{@link #add(Div)}）需要在关闭时统一分页，分页后的页面再逐页写入OFD包；
+     * <p>
+     * 4. 开启后 {@link #onRenderFinish(RenderFinishHandler)} 中无法再读取或修改已经完成的页面；
+     * <p>
+     * 5. 需要在加入页面前设置。
+     *
+     * @param streaming true - 流式打包；false - 关闭时统一打包
+     * @return this
+     */
+    public OFDDoc setStreamingPackage(boolean streaming) {
+        if (pendingVPage != null || streamedPageCount > 0 || (streaming && !vPageList.isEmpty())) {
+            throw new IllegalStateException("已经加入页面，无法修改流式打包设置");
+        }
+        this.streamingPackage = streaming;
+        return this;
+    }
+
+    /**
+     * 是否以流式打包的方式生成文档
+     *
+     * @return true - 流式打包
+     */
+    private boolean isStreamingPackage() {
+        return streamingPackage && reader == null;
+    }
+
+    /**
+     * 解析虚拟页面并写入OFD包
+     * <p>
+     * 第一次调用时开启容器的流式打包模式
+     *
+     * @param vPage 虚拟页面
+     */
+    private void streamPage(VirtualPage vPage) {
+        if (streamParseEngine == null) {
+            if (!ofdDir.isStreaming()) {
+                if (outPath != null) {
+                    try {
+                        streamFileOut = new BufferedOutputStream(Files.newOutputStream(outPath.toAbsolutePath()));
+                    } catch (IOException e) {
+                        throw new RuntimeException("无法创建OFD文件输出流，原因:" + e.getMessage(), e);
+                    }
+                    ofdDir.streamTo(streamFileOut);
+                } else {
+                    ofdDir.streamTo(outStream);
+                }
+            }
+            DocDir docDefault = ofdDir.obtainDocDefault();
+            streamParseEngine = new VPageParseEngine(pageLayout, docDefault, prm, MaxUnitID);
+        }
+        streamParseEngine.setBeforePageParseHandler(onPageHandler);
+        // 解析完成的页面由引擎提交到OFD包中
+        streamParseEngine.process(Collections.singletonList(vPage));
+        streamedPageCount++;
+    }
+
     /**
      * 关闭文档，生成OFD
      * <p>
-     * 注所有文档操作均在close方法执行完成后才会写入文件，打包生成OFD文档。
+     * 注所有文档操作均在close方法执行完成后才会写入文件，打包生成OFD文档，
+     * 流式打包模式（{@link #setStreamingPackage(boolean)}）下已完成的页面在加入下一个页面时就已写入。
      * 每个打开的文档都应该调用该方法。
      *
      * @throws IOException 文档操作异常
@@ -707,6 +848,12 @@ public class OFDDoc implements Closeable {
         }
 
         try {
+            if (pendingVPage != null) {
+                // 最后加入的页面
+                VirtualPage last = pendingVPage;
+                pendingVPage = null;
+                streamPage(last);
+            }
             if (!streamQueue.isEmpty()) {
                 /*
                  * 将流式布局转换为板式布局
@@ -728,7 +875,12 @@ public class OFDDoc implements Closeable {
             }
 
             // 虚拟页面布局
-            if (!vPageList.isEmpty()) {
+            if (isStreamingPackage()) {
+                // 逐页解析并写入OFD包，写入后释放
+                while (!vPageList.isEmpty()) {
+                    streamPage(vPageList.pop());
+                }
+            } else if (!vPageList.isEmpty()) {
                 DocDir docDefault = ofdDir.obtainDocDefault();
                 // 创建虚拟页面解析引擎，并持有文档上下文。
                 VPageParseEngine parseEngine = new VPageParseEngine(pageLayout, docDefault, prm, MaxUnitID);
@@ -738,7 +890,7 @@ public class OFDDoc implements Closeable {
             }
 
 
-            if (vPageList.isEmpty() && annotationRender == null && reader == null) {
+            if (vPageList.isEmpty() && streamedPageCount == 0 && annotationRender == null && reader == null) {
                 // 虚拟页面为空，也没有注解对象，也不是编辑模式，那么空的操作报错
                 throw new IllegalStateException("OFD文档中没有页面，无法生成OFD文档");
             }
@@ -750,7 +902,11 @@ public class OFDDoc implements Closeable {
             // 设置最大对象ID
             cdata.setMaxUnitID(MaxUnitID.get());
             // final. 执行打包程序
-            if (outPath != null) {
+            if (streamFileOut != null) {
+                ofdDir.jar(streamFileOut);
+            } else if (ofdDir.isStreaming()) {
+                ofdDir.jar(outStream);
+            } else if (outPath != null) {
                 ofdDir.jar(outPath.toAbsolutePath());
             } else if (outStream != null) {
                 ofdDir.jar(outStream);
@@ -758,11 +914,17 @@ public class OFDDoc implements Closeable {
                 throw new IllegalArgumentException("OFD文档输出地址错误或没有设置输出流");
             }
         } finally {
-            if (reader != null) {
-                reader.close();
-            } else if (ofdDir != null) {
-                // 清除在生成OFD过程中的工作区产生的文件
-                ofdDir.clean();
+            try {
+                if (streamFileOut != null) {
+                    streamFileOut.close();
+                }
+            } finally {
+                if (reader != null) {
+                    reader.close();
+                } else if (ofdDir != null) {
+                    // 清除在生成OFD过程中的工作区产生的文件
+                    ofdDir.clean();
+                }
             }
         }
     }
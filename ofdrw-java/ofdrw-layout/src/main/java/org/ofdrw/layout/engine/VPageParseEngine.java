@@ -22,6 +22,8 @@ import org.ofdrw.pkg.container.PageDir;
 import org.ofdrw.pkg.container.PagesDir;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -165,10 +167,30 @@ public class VPageParseEngine {
                 }
                 // 解析虚拟页面，并加入到容器中
                 convertPageContent(pageLoc, virtualPage, pageDir);
+                // 页面已经完成，流式打包模式下直接写入OFD包
+                commitPage(pageDir);
             }
         }
     }
 
+    /**
+     * 提交已完成的页面以及页面使用到的资源文件
+     * <p>
+     * 仅在流式打包模式下生效，见 {@link org.ofdrw.pkg.container.OFDDir#streamTo(java.io.OutputStream)}
+     *
+     * @param pageDir 页面容器
+     */
+    private void commitPage(PageDir pageDir) {
+        try {
+            pageDir.commit();
+            if (Files.isDirectory(docDir.getContainerPath().resolve(DocDir.ResDir))) {
+                docDir.getRes().commit();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("页面写入OFD包失败", e);
+        }
+    }
+
     /**
      * 转化虚拟页面的内容为实际OFD元素
      *
@@ -1,6 +1,7 @@
 package org.ofdrw.layout;
 
 import org.dom4j.DocumentException;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.ofdrw.core.annotation.Annotations;
 import org.ofdrw.core.annotation.pageannot.*;
@@ -14,6 +15,7 @@ import org.ofdrw.core.text.TextCode;
 import org.ofdrw.layout.edit.Annotation;
 import org.ofdrw.layout.element.AFloat;
 import org.ofdrw.layout.element.Paragraph;
+import org.ofdrw.layout.element.Position;
 import org.ofdrw.layout.element.Span;
 import org.ofdrw.pkg.container.DocDir;
 import org.ofdrw.pkg.container.OFDDir;
@@ -218,4 +220,30 @@ class OFDDocStreamTest {
         }
         System.out.println("生成文档位置: " + srcP.toAbsolutePath());
     }
-}
\ No newline at end of file
+
+    /**
+     * 流式打包：加入下一个页面时上一个页面已经写入OFD包并从工作区移除
+     */
+    @Test
+    void streamingPackage() throws IOException {
+        Path outP = Paths.get("target/StreamingPackage.ofd");
+        try (OFDDoc ofdDoc = new OFDDoc(outP)) {
+            ofdDoc.setStreamingPackage(true);
+            PageLayout layout = ofdDoc.getPageLayout();
+            Path pagesDir = ofdDoc.getOfdDir().getContainerPath().resolve("Doc_0").resolve("Pages");
+            for (int i = 1; i <= 3; i++) {
+                VirtualPage vPage = new VirtualPage(layout);
+                Paragraph p = new Paragraph("第" + i + "页", 8d);
+                p.setPosition(Position.Absolute).setXY(20d, 20d).setWidth(100d);
+                vPage.add(p);
+                ofdDoc.addVPage(vPage);
+                if (i > 1) {
+                    Assertions.assertTrue(Files.notExists(pagesDir.resolve("Page_" + (i - 2)).resolve("Content.xml")));
+                }
+            }
+        }
+        try (OFDReader reader = new OFDReader(outP)) {
+            Assertions.assertEquals(3, reader.getNumberOfPages());
+        }
+    }
+}
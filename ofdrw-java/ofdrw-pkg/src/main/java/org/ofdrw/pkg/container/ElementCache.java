@@ -0,0 +1,150 @@
+package org.ofdrw.pkg.container;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * 容器元素缓存上限
+ * <p>
+ * 默认情况下容器从文件加载的元素对象一直缓存至 {@link VirtualContainer#flush()}，
+ * 遍历页数很多的文档时所有页面的元素都将驻留在内存中。
+ * <p>
+ * 设置到 {@link OFDDir#setElementCache(ElementCache)} 后，整个容器树中从文件加载的元素按最近访问顺序记录，
+ * 数量超过上限时淘汰最久未访问的元素：未修改的元素直接丢弃，已修改的元素先写入文件再丢弃，
+ * 再次访问时重新从文件加载。
+ * <p>
+ * 注意：
+ * <p>
+ * 1. 通过 {@link VirtualContainer#putObj(String, org.dom4j.Element)} 加入且尚未写入文件的元素不参与淘汰；
+ * <p>
+ * 2. 元素被淘汰后，调用者继续持有的该元素对象与容器脱离，对其修改不会再写入文件，
+ * 修改元素时请重新从容器中获取；
+ * <p>
+ * 3. 已修改的元素写入文件失败时（如只读的存储）不被淘汰，缓存的元素数量可能超过上限；
+ * <p>
+ * 4. 与容器一样，该对象非线程安全。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 16:40:18
+ */
+public final class ElementCache {
+
+    /**
+     * 缓存元素数量上限
+     */
+    private final int maxEntries;
+
+    /**
+     * 按访问顺序记录的缓存元素
+     */
+    private final LinkedHashMap<Key, Boolean> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * 淘汰的元素数量
+     */
+    private long evictedCount = 0;
+
+    /**
+     * 创建元素缓存上限
+     *
+     * @param maxEntries 缓存元素数量上限，至少为1
+     */
+    public ElementCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("缓存元素数量上限(maxEntries)至少为1");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * 获取 缓存元素数量上限
+     *
+     * @return 数量上限
+     */
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * 获取 当前缓存的元素数量
+     *
+     * @return 元素数量
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 获取 淘汰的元素数量
+     *
+     * @return 淘汰数量
+     */
+    public long getEvictedCount() {
+        return evictedCount;
+    }
+
+    /**
+     * 记录元素被访问，超过上限时淘汰最久未访问的元素
+     * <p>
+     * 已修改的元素写入文件失败时仍驻留在容器中，保留其记录并尝试淘汰下一个元素，
+     * 此时缓存的元素数量可能暂时超过上限。
+     *
+     * @param container 元素所属容器
+     * @param fileName  文件名
+     */
+    void access(VirtualContainer container, String fileName) {
+        Key key = new Key(container, fileName);
+        entries.put(key, Boolean.TRUE);
+        Iterator<Key> it = entries.keySet().iterator();
+        while (entries.size() > maxEntries && it.hasNext()) {
+            Key eldest = it.next();
+            if (eldest.equals(key)) {
+                break;
+            }
+            if (eldest.container.evict(eldest.fileName)) {
+                it.remove();
+                evictedCount++;
+            }
+        }
+    }
+
+    /**
+     * 移除元素记录
+     *
+     * @param container 元素所属容器
+     * @param fileName  文件名
+     */
+    void remove(VirtualContainer container, String fileName) {
+        entries.remove(new Key(container, fileName));
+    }
+
+    /**
+     * 容器与文件名组成的键
+     */
+    private static final class Key {
+        final VirtualContainer container;
+        final String fileName;
+
+        Key(VirtualContainer container, String fileName) {
+            this.container = container;
+            this.fileName = fileName;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key k = (Key) o;
+            return container == k.container && fileName.equals(k.fileName);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(container) + fileName.hashCode();
+        }
+    }
+}
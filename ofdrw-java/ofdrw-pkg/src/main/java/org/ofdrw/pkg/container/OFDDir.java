@@ -1,6 +1,5 @@
 package org.ofdrw.pkg.container;
 
-import net.lingala.zip4j.ZipFile;
 import org.apache.commons.io.FilenameUtils;
 import org.dom4j.DocumentException;
 import org.dom4j.Element;
@@ -9,12 +8,23 @@ import org.ofdrw.core.basicStructure.ofd.DocBody;
 import org.ofdrw.core.basicStructure.ofd.OFD;
 import org.ofdrw.core.basicType.ST_Loc;
 import org.ofdrw.core.crypto.encryt.Encryptions;
+import org.ofdrw.pkg.storage.ChannelZipStorage;
+import org.ofdrw.pkg.storage.ContainerStorage;
+import org.ofdrw.pkg.storage.HeapStorage;
+import org.ofdrw.pkg.storage.ZipStorage;
+import org.ofdrw.pkg.tool.CompressionPolicy;
+import org.ofdrw.pkg.tool.OFDPackageWriter;
+import org.ofdrw.pkg.tool.ParallelZipPackager;
+import org.ofdrw.pkg.tool.SourcePackage;
 
 import java.io.*;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.*;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.attribute.FileTime;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.CRC32;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -48,6 +58,59 @@ public class OFDDir extends VirtualContainer {
      */
     private int maxDocIndex = 0;
 
+    /**
+     * 容器存储
+     * <p>
+     * 通过 {@link #newOFD(ContainerStorage)}、{@link #openZip(Path)} 创建时存在，
+     * 用于在清理容器时释放存储空间。
+     */
+    private ContainerStorage storage;
+
+    /**
+     * 流式打包写入器
+     * <p>
+     * 仅在流式打包模式下存在
+     */
+    private OFDPackageWriter packageWriter;
+
+    /**
+     * 打包压缩线程池
+     * <p>
+     * 设置后打包时在线程池中并行压缩文件
+     */
+    private ExecutorService packExecutor;
+
+    /**
+     * 打包时条目压缩策略
+     */
+    private CompressionPolicy compressionPolicy = CompressionPolicy.defaultPolicy();
+
+    /**
+     * 源OFD包
+     * <p>
+     * 设置后打包时未修改的文件直接复制源文件中的压缩数据
+     */
+    private SourcePackage sourcePackage;
+
+    /**
+     * 元素缓存上限
+     * <p>
+     * 设置后容器树中从文件加载的元素数量超过上限时淘汰
+     */
+    private ElementCache elementCache;
+
+    /**
+     * 打包时是否按阅读顺序排列条目
+     */
+    private boolean linearized = false;
+
+    /**
+     * 尚未到达的容器文件
+     * <p>
+     * 边接收边解压时存在
+     */
+    private PendingEntries pendingEntries;
+
     /**
      * 新建一个OFD文档
      *
@@ -63,6 +126,309 @@ public class OFDDir extends VirtualContainer {
         }
     }
 
+    /**
+     * 使用指定存储新建一个OFD文档
+     * <p>
+     * 容器中的文件均存放于存储中，例如使用 {@link HeapStorage} 在内存中完成文档的生成，
+     * 不产生临时目录的磁盘IO。
+     * <p>
+     * 调用 {@link #clean()} 或 {@link #close()} 时存储将被释放。
+     *
+     * @param storage 容器存储
+     * @return OFD文档
+     */
+    public static OFDDir newOFD(ContainerStorage storage) {
+        if (storage == null) {
+            throw new IllegalArgumentException("容器存储(storage)为空");
+        }
+        if (storage.isReadOnly()) {
+            throw new IllegalArgumentException("只读存储无法用于新建OFD文档");
+        }
+        return attach(storage);
+    }
+
+    /**
+     * 以ZIP原地读取模式打开OFD文件
+     * <p>
+     * 不再将OFD文件解压到临时目录，容器直接通过ZIP中央目录定位包内文件，
+     * 文件内容仅在首次访问时解压，适用于只读的解析场景。
+     * <p>
+     * 注意：
+     * <p>
+     * 1. 该模式下容器为只读，不支持向容器中写入文件，也不支持打包；
+     * <p>
+     * 2. 容器中获取的文件路径（{@link #getFile(String)}）属于ZIP文件系统，
+     * 请通过 {@link Files} 读取，而不是 {@link Path#toFile()}；
+     * <p>
+     * 3. 使用完成后请调用 {@link #clean()} 或 {@link #close()} 释放ZIP文件。
+     *
+     * @param ofdFile OFD文件路径
+     * @return OFD文档容器
+     * @throws IOException ZIP文件无法打开
+     */
+    public static OFDDir openZip(Path ofdFile) throws IOException {
+        return openZip(ofdFile, "UTF-8");
+    }
+
+    /**
+     * 以ZIP原地读取模式打开OFD文件
+     *
+     * @param ofdFile OFD文件路径
+     * @param charset ZIP文件名称字符集，如 GBK、UTF-8 等
+     * @return OFD文档容器
+     * @throws IOException ZIP文件无法打开
+     * @see #openZip(Path)
+     */
+    public static OFDDir openZip(Path ofdFile, String charset) throws IOException {
+        return attach(new ZipStorage(ofdFile, charset));
+    }
+
+    /**
+     * 以范围读取模式打开OFD包
+     * <p>
+     * 仅读取ZIP中央目录，包内文件在首次访问时才从通道中读取，
+     * 适用于远程存储等读取代价高的数据源，只需读取解析所需的部分条目，见 {@link ChannelZipStorage}。
+     * <p>
+     * 该模式下容器为只读，使用完成后请调用 {@link #clean()} 或 {@link #close()} 释放通道。
+     *
+     * @param ch OFD包数据源通道，容器释放时一同关闭
+     * @return OFD文档容器
+     * @throws IOException 中央目录读取异常
+     */
+    public static OFDDir openChannel(SeekableByteChannel ch) throws IOException {
+        ChannelZipStorage storage = new ChannelZipStorage(ch);
+        return attach(storage).setPendingEntries(storage);
+    }
+
+    /**
+     * 以存储根目录创建容器，并由容器持有存储
+     *
+     * @param storage 容器存储
+     * @return OFD文档容器
+     */
+    private static OFDDir attach(ContainerStorage storage) {
+        try {
+            OFDDir ofdDir = new OFDDir(storage.getRoot());
+            ofdDir.storage = storage;
+            return ofdDir;
+        } catch (RuntimeException e) {
+            try {
+                storage.close();
+            } catch (IOException ex) {
+                e.addSuppressed(ex);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 是否以ZIP原地读取模式打开
+     *
+     * @return true - ZIP原地读取模式；false - 工作目录模式
+     */
+    public boolean isZipMode() {
+        return storage instanceof ZipStorage;
+    }
+
+    /**
+     * 获取容器存储
+     *
+     * @return 容器存储，通过路径直接创建的容器返回null
+     */
+    @Nullable
+    public ContainerStorage getStorage() {
+        return storage;
+    }
+
+    /**
+     * 开启流式打包模式
+     * <p>
+     * 开启后，通过 {@link VirtualContainer#commit()} 提交的容器内容将直接写入输出流中的OFD包，
+     * 并从工作目录中移除，不再等待 {@link #jar(OutputStream)} 时统一打包。
+     * 生成大文档时，每完成一个页面即可提交，工作目录只保存尚未完成的内容。
+     * <p>
+     * 最后需要调用 {@link #jar(OutputStream)} 并传入相同的输出流，写入剩余内容并结束OFD包。
+     *
+     * @param out OFD包输出流，由调用者负责关闭
+     * @return this
+     */
+    public OFDDir streamTo(OutputStream out) {
+        if (out == null) {
+            throw new IllegalArgumentException("OFD包输出流(out)为空");
+        }
+        if (packageWriter != null) {
+            throw new IllegalStateException("已经处于流式打包模式");
+        }
+        this.packageWriter = new OFDPackageWriter(out).setCompressionPolicy(compressionPolicy);
+        return this;
+    }
+
+    /**
+     * 是否处于流式打包模式
+     *
+     * @return true - 流式打包模式
+     */
+    public boolean isStreaming() {
+        return packageWriter != null;
+    }
+
+    /**
+     * 设置 打包压缩线程池
+     * <p>
+     * 设置后 {@link #jar(OutputStream)}、{@link #jar(Path)} 将在线程池中并行压缩文件，
+     * 包内条目顺序与压缩数据保持确定，见 {@link ParallelZipPackager}。
+     *
+     * @param executor 压缩线程池，由调用者负责关闭；null 表示在当前线程中压缩（默认）
+     * @return this
+     */
+    public OFDDir setPackExecutor(ExecutorService executor) {
+        this.packExecutor = executor;
+        return this;
+    }
+
+    /**
+     * 设置 打包时条目压缩策略
+     * <p>
+     * 默认对图片、字体等已压缩的文件直接存储，其余文件DEFLATE压缩，
+     * 若需要与早期版本一致全部压缩，请使用 {@link CompressionPolicy#deflateAll()}。
+     *
+     * @param policy 压缩策略，null 表示默认策略
+     * @return this
+     */
+    public OFDDir setCompressionPolicy(CompressionPolicy policy) {
+        this.compressionPolicy = policy == null ? CompressionPolicy.defaultPolicy() : policy;
+        if (packageWriter != null) {
+            packageWriter.setCompressionPolicy(this.compressionPolicy);
+        }
+        return this;
+    }
+
+    /**
+     * 获取 打包时条目压缩策略
+     *
+     * @return 压缩策略
+     */
+    public CompressionPolicy getCompressionPolicy() {
+        return compressionPolicy;
+    }
+
+    /**
+     * 设置 源OFD包，开启增量保存
+     * <p>
+     * 容器目录应为源OFD文件解压得到的目录，打包时未修改的文件直接复制源文件中的压缩数据，
+     * 仅新增和修改过的文件重新压缩。
+     * <p>
+     * 输出到源OFD文件本身时不进行复制，所有文件重新压缩。
+     *
+     * @param source 源OFD包，null 表示关闭增量保存
+     * @return this
+     */
+    public OFDDir setSourcePackage(SourcePackage source) {
+        this.sourcePackage = source;
+        return this;
+    }
+
+    /**
+     * 获取 源OFD包
+     *
+     * @return 源OFD包，可能为null
+     */
+    @Nullable
+    public SourcePackage getSourcePackage() {
+        return sourcePackage;
+    }
+
+    /**
+     * 设置 打包时是否按阅读顺序排列条目（线性化）
+     * <p>
+     * 开启后 OFD.xml、Document.xml、资源描述文件与页面内容按阅读顺序排列在包的前部，
+     * 字体、图片等文件紧随首次使用它们的页面，便于流式接收时尽早解析首页，见 {@link ParallelZipPackager#setLinearized(boolean)}。
+     * <p>
+     * 流式打包模式（{@link #streamTo(OutputStream)}）下条目按写入顺序排列，该设置不生效。
+     *
+     * @param linearized true - 线性化；false - 按目录结构排列（默认）
+     * @return this
+     */
+    public OFDDir setLinearized(boolean linearized) {
+        this.linearized = linearized;
+        return this;
+    }
+
+    /**
+     * 获取 打包时是否按阅读顺序排列条目
+     *
+     * @return true - 线性化；false - 按目录结构排列
+     */
+    public boolean isLinearized() {
+        return linearized;
+    }
+
+    /**
+     * 设置 尚未到达的容器文件
+     * <p>
+     * 容器内容仍在写入时（如边接收边解压OFD包），访问尚未到达的文件将等待其到达。
+     *
+     * @param pending 尚未到达的容器文件，null 表示容器内容完整（默认）
+     * @return this
+     */
+    public OFDDir setPendingEntries(PendingEntries pending) {
+        this.pendingEntries = pending;
+        return this;
+    }
+
+    /**
+     * 获取 尚未到达的容器文件
+     *
+     * @return 尚未到达的容器文件，可能为null
+     */
+    @Nullable
+    @Override
+    public PendingEntries getPendingEntries() {
+        return pendingEntries;
+    }
+
+    /**
+     * 设置 元素缓存上限
+     * <p>
+     * 遍历页数很多的文档时，限制驻留在内存中的元素数量，
+     * 超过上限时最久未访问的元素被淘汰（已修改的元素先写入文件），再次访问时重新加载，见 {@link ElementCache}。
+     * <p>
+     * 应在访问容器中的元素之前设置。
+     *
+     * @param cache 缓存上限，null 表示不限制（默认）
+     * @return this
+     */
+    public OFDDir setElementCache(ElementCache cache) {
+        this.elementCache = cache;
+        return this;
+    }
+
+    /**
+     * 获取 元素缓存上限
+     *
+     * @return 缓存上限，可能为null
+     */
+    @Nullable
+    @Override
+    public ElementCache getElementCache() {
+        return elementCache;
+    }
+
+    /**
+     * 获取 打包压缩线程池
+     *
+     * @return 压缩线程池，可能为null
+     */
+    @Nullable
+    public ExecutorService getPackExecutor() {
+        return packExecutor;
+    }
+
+    @Override
+    protected OFDPackageWriter getPackageWriter() {
+        return packageWriter;
+    }
+
     /**
      * 指定路径创建或读取OFD文档容器
      * <p>
@@ -82,18 +448,15 @@ public class OFDDir extends VirtualContainer {
      * 容器初始化
      */
     private void initContainer() {
-        File fullDirFile = new File(getSysAbsPath());
-        File[] files = fullDirFile.listFiles();
-        if (files != null) {
-            // 遍历容器中已经有的文档目录，初始文档数量
-            for (File f : files) {
-                // 文档目录名为： Doc_N
-                if (f.getName().startsWith(DocDir.DocContainerPrefix)) {
-                    String numb = f.getName().replace(DocDir.DocContainerPrefix, "");
-                    int num = Integer.parseInt(numb);
-                    if (maxDocIndex <= num) {
-                        maxDocIndex = num + 1;
-                    }
+        List<String> files = listNames();
+        // 遍历容器中已经有的文档目录，初始文档数量
+        for (String f : files) {
+            // 文档目录名为： Doc_N
+            if (f.startsWith(DocDir.DocContainerPrefix)) {
+                String numb = f.replace(DocDir.DocContainerPrefix, "");
+                int num = Integer.parseInt(numb);
+                if (maxDocIndex <= num) {
+                    maxDocIndex = num + 1;
                 }
             }
         }
@@ -274,7 +637,7 @@ public class OFDDir extends VirtualContainer {
             throw new IllegalArgumentException("文件路径（path）为空");
         }
 
-        Path target = Paths.get(this.getSysAbsPath(), absPath);
+        Path target = resolveAbs(absPath);
         // 检查路径是否越界
         if (!target.startsWith(this.getContainerPath())) {
             throw new IllegalArgumentException("文件路径越界，不能写入到OFD虚拟容器外部");
@@ -282,6 +645,7 @@ public class OFDDir extends VirtualContainer {
 
         Files.createDirectories(target.getParent());
         Files.copy(path, target);
+        modified();
 
         // 获取文件的相对路径
         String relPath = this.getContainerPath().relativize(target).toString();
@@ -301,7 +665,7 @@ public class OFDDir extends VirtualContainer {
         if (absPath == null || absPath.trim().isEmpty()) {
             throw new IllegalArgumentException("文件绝对路径（absPath）为空");
         }
-        Path target = Paths.get(this.getSysAbsPath(), absPath);
+        Path target = resolveAbs(absPath);
         // 检查路径是否越界
         if (!target.startsWith(this.getContainerPath())) {
             throw new IllegalArgumentException("文件路径越界，不能读取OFD虚拟容器外部");
@@ -309,6 +673,20 @@ public class OFDDir extends VirtualContainer {
         return target;
     }
 
+    /**
+     * 解析容器内绝对路径为容器所在文件系统中的路径
+     *
+     * @param absPath 容器内绝对路径，例如："/Doc_0/Document.xml"
+     * @return 文件系统中的路径
+     */
+    private Path resolveAbs(String absPath) {
+        String relPath = FilenameUtils.separatorsToUnix(absPath.trim());
+        while (relPath.startsWith("/")) {
+            relPath = relPath.substring(1);
+        }
+        return this.getContainerPath().resolve(relPath).normalize();
+    }
+
 
     /**
      * 打包成OFD并输出到流
@@ -323,15 +701,45 @@ public class OFDDir extends VirtualContainer {
      * @throws IOException IO异常
      */
     public void jar(OutputStream outStream) throws IOException {
+        jar(outStream, sourcePackage);
+    }
+
+    /**
+     * 打包成OFD并输出到流
+     *
+     * @param outStream 输出流
+     * @param source    源OFD包，null 表示所有文件重新压缩
+     * @throws IOException IO异常
+     */
+    private void jar(OutputStream outStream, SourcePackage source) throws IOException {
         if (outStream == null) {
             throw new IllegalArgumentException("生成OFD文件输出流（outStream）不能为空");
         }
+        if (packageWriter != null) {
+            if (outStream != packageWriter.getTarget()) {
+                throw new IllegalArgumentException("流式打包模式下只能输出到 streamTo 指定的输出流");
+            }
+            // 提交剩余的全部内容并写入ZIP目录
+            this.commit();
+            packageWriter.finish();
+            return;
+        }
         // 刷入缓存中的内容
         this.flush();
+        if (packExecutor != null || source != null || linearized) {
+            // 并行压缩打包，增量复制未修改的条目，或按阅读顺序排列条目
+            new ParallelZipPackager(packExecutor)
+                    .setCompressionPolicy(compressionPolicy)
+                    .setSource(source)
+                    .setLinearized(linearized)
+                    .pack(getContainerPath(), outStream);
+            outStream.flush();
+            return;
+        }
         //打包
         ZipOutputStream zip = new ZipOutputStream(outStream);
         FileTime fileTime = FileTime.fromMillis(System.currentTimeMillis());
-        zip(getSysAbsPath(), "", fileTime, zip);
+        zip(getContainerPath(), "", fileTime, zip);
         zip.finish();
         outStream.flush();
     }
@@ -339,31 +747,39 @@ public class OFDDir extends VirtualContainer {
     /**
      * 打包OFD文件
      *
-     * @param workDirPath OFD虚拟容器目录
-     * @param dir         压缩包内根目录
-     * @param fileTime    文件时间
-     * @param zip         输出流
+     * @param workDir  OFD虚拟容器目录
+     * @param dir      压缩包内根目录
+     * @param fileTime 文件时间
+     * @param zip      输出流
      * @throws IOException IO异常
      */
-    private void zip(String workDirPath, String dir, FileTime fileTime, ZipOutputStream zip) throws IOException {
-        final File[] files = new File(workDirPath).listFiles();
-        if (files == null) {
+    private void zip(Path workDir, String dir, FileTime fileTime, ZipOutputStream zip) throws IOException {
+        if (!Files.isDirectory(workDir)) {
             throw new RuntimeException("目录中没有任何文件无法打包");
         }
-        for (File f : files) {
-            String entryName = f.getName();
-            if (dir != null && !"".equals(dir)) {
-                entryName = dir + entryName;
-            }
-            if (f.isDirectory()) {
-                entryName += "/";
-            }
-
-            putEntry(zip, fileTime, entryName);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(workDir)) {
+            for (Path f : files) {
+                String entryName = f.getFileName().toString();
+                boolean isDir = Files.isDirectory(f);
+                // ZIP文件系统中的目录名称以 "/" 结尾
+                if (entryName.endsWith("/")) {
+                    entryName = entryName.substring(0, entryName.length() - 1);
+                }
+                if (dir != null && !"".equals(dir)) {
+                    entryName = dir + entryName;
+                }
+                if (isDir) {
+                    entryName += "/";
+                    putEntry(zip, fileTime, entryName);
+                    zip(f, entryName, fileTime, zip);
+                    continue;
+                }
 
-            if (f.isDirectory()) {
-                zip(f.getAbsolutePath(), entryName, fileTime, zip);
-            } else {
+                if (compressionPolicy.methodOf(entryName, Files.size(f)) == ZipEntry.STORED) {
+                    putStoredEntry(zip, fileTime, entryName, f);
+                } else {
+                    putEntry(zip, fileTime, entryName);
+                }
                 writeStream(zip, f);
             }
         }
@@ -372,9 +788,9 @@ public class OFDDir extends VirtualContainer {
     /**
      * 写文件流
      */
-    private void writeStream(ZipOutputStream zip, File f) throws IOException {
-        try (InputStream fileStream = new BufferedInputStream(new FileInputStream(f))) {
-            byte[] buffer = new byte[1024];
+    private void writeStream(ZipOutputStream zip, Path f) throws IOException {
+        try (InputStream fileStream = new BufferedInputStream(Files.newInputStream(f))) {
+            byte[] buffer = new byte[8192];
             int i;
             while ((i = fileStream.read(buffer)) > 0) {
                 zip.write(buffer, 0, i);
@@ -395,6 +811,31 @@ public class OFDDir extends VirtualContainer {
         zip.putNextEntry(entry);
     }
 
+    /**
+     * 添加不压缩的Entry，不压缩的Entry需要预先计算CRC
+     */
+    private void putStoredEntry(ZipOutputStream zip, FileTime fileTime, String entryName, Path f) throws IOException {
+        CRC32 crc = new CRC32();
+        long size = 0;
+        try (InputStream in = Files.newInputStream(f)) {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, n);
+                size += n;
+            }
+        }
+        ZipEntry entry = new ZipEntry(entryName);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(size);
+        entry.setCompressedSize(size);
+        entry.setCrc(crc.getValue());
+        entry.setCreationTime(fileTime);
+        entry.setLastAccessTime(fileTime);
+        entry.setLastModifiedTime(fileTime);
+        zip.putNextEntry(entry);
+    }
+
     /**
      * 打包成OFD
      * <p>
@@ -411,35 +852,20 @@ public class OFDDir extends VirtualContainer {
         if (filePath == null) {
             throw new IllegalArgumentException("生成OFD文件路径（fileName）不能为空");
         }
+        if (packageWriter != null) {
+            throw new IllegalStateException("流式打包模式下请使用 jar(OutputStream) 结束OFD包");
+        }
+        SourcePackage source = sourcePackage;
         if (Files.exists(filePath)) {
+            if (source != null && Files.isSameFile(filePath, source.getFile())) {
+                // 覆盖源文件时无法从源文件复制
+                source = null;
+            }
             Files.delete(filePath);
         }
-        // 刷入缓存中的内容
-        this.flush();
-        String fullOfFilePath = filePath.toAbsolutePath().toString();
-        // 打包OFD文件
-        this.zip(getSysAbsPath(), fullOfFilePath);
-    }
-
-    /**
-     * 打包OFD文件
-     *
-     * @param workDirPath    OFD虚拟容器目录
-     * @param fullOfFilePath 生成文件的完整路径（包含后缀的路径）
-     * @throws IOException IO异常
-     */
-    private void zip(String workDirPath, String fullOfFilePath) throws IOException {
-        ZipFile ofdFile = new ZipFile(fullOfFilePath);
-        final File[] files = new File(workDirPath).listFiles();
-        if (files == null) {
-            throw new RuntimeException("目录中没有任何文件无法打包");
-        }
-        for (File f : files) {
-            if (f.isDirectory()) {
-                ofdFile.addFolder(f);
-            } else {
-                ofdFile.addFile(f);
-            }
+        // 按条目压缩策略写出ZIP流
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(filePath))) {
+            this.jar(out, source);
         }
     }
 
@@ -453,14 +879,12 @@ public class OFDDir extends VirtualContainer {
         if (iterator == null) {
             throw new IllegalArgumentException("包内文件迭代器(iterator)为空");
         }
-        String sysRoot = FilenameUtils.separatorsToUnix(this.getSysAbsPath());
-        Files.walkFileTree(this.getContainerPath(), new SimpleFileVisitor<Path>() {
+        final Path root = this.getContainerPath();
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
             @Override
             public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-                // 路径转换为Unix类型的绝对路径
-                String abxFilePath = FilenameUtils.separatorsToUnix(file.toAbsolutePath().toString());
-                // 替换文件系统的根路径，这样就为容器系统中的绝对路径
-                abxFilePath = abxFilePath.replace(sysRoot, "");
+                // 相对于容器根路径的路径，转换为Unix类型后即为容器系统中的绝对路径
+                String abxFilePath = "/" + FilenameUtils.separatorsToUnix(root.relativize(file).toString());
                 final boolean continueIterator = iterator.visit(abxFilePath, file);
                 if (!continueIterator) {
                     return FileVisitResult.TERMINATE;
@@ -469,4 +893,37 @@ public class OFDDir extends VirtualContainer {
             }
         });
     }
+
+    /**
+     * 删除整个虚拟容器
+     * <p>
+     * 使用容器存储时释放存储，ZIP原地读取模式下不会修改源文件，仅释放ZIP文件
+     */
+    @Override
+    public void clean() {
+        if (storage == null) {
+            super.clean();
+            return;
+        }
+        try {
+            storage.close();
+        } catch (IOException e) {
+            System.err.println("容器存储释放异常: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (storage == null) {
+            super.close();
+            return;
+        }
+        try {
+            if (!storage.isReadOnly()) {
+                super.close();
+            }
+        } finally {
+            storage.close();
+        }
+    }
 }
@@ -151,7 +151,7 @@ public class PageDir extends VirtualContainer {
     public Map<String, PageAnnot> getPageAnnots() throws IOException {
         Map<String, PageAnnot> res = new HashMap<>();
         // 过滤出注释文件
-        try (Stream<Path> stream = Files.list(this.getContainerPath())) {
+        try (Stream<Path> stream = this.list()) {
             stream.filter((item) -> {
                 String fileName = item.getFileName().toString().toLowerCase();
                 // 不是目录 并且 文件名以 Annot_ 开头
@@ -258,7 +258,7 @@ public class PageDir extends VirtualContainer {
     public Integer getMaxAnnotFileIndex() throws IOException {
         if (maxAnnotIndex < 0) {
             Holder<Integer> maxIndexHolder = new Holder<>(-1);
-            try (Stream<Path> stream = Files.list(this.getContainerPath())) {
+            try (Stream<Path> stream = this.list()) {
                 stream.forEach((item) -> {
                     String fileName = item.getFileName().toString().toLowerCase();
                     // 不是目录 并且 文件名以 Annot_ 开头
@@ -1,8 +1,8 @@
 package org.ofdrw.pkg.container;
 
-import java.io.File;
 import java.io.FileNotFoundException;
 import java.nio.file.Path;
+import java.util.List;
 
 /**
  * 页面容器
@@ -28,22 +28,19 @@ public class PagesDir extends VirtualContainer {
      * 初始化容器
      */
     private void initContainer() {
-        File fullDirFile = new File(getSysAbsPath());
-        File[] files = fullDirFile.listFiles();
-        if (files != null) {
-            // 遍历容器中已经有的页面目录，初始页面数量
-            for (File f : files) {
-                // 签名目录名为： Page_N
-                if (f.getName().startsWith(PageDir.PageContainerPrefix)) {
-                    String numb = f.getName().replace(PageDir.PageContainerPrefix, "");
-                    try{
-                        int num = Integer.parseInt(numb);
-                        if (maxPageIndex <= num) {
-                            maxPageIndex = num + 1;
-                        }
-                    } catch (NumberFormatException e){
-                        // ignore
+        List<String> files = listNames();
+        // 遍历容器中已经有的页面目录，初始页面数量
+        for (String f : files) {
+            // 签名目录名为： Page_N
+            if (f.startsWith(PageDir.PageContainerPrefix)) {
+                String numb = f.replace(PageDir.PageContainerPrefix, "");
+                try{
+                    int num = Integer.parseInt(numb);
+                    if (maxPageIndex <= num) {
+                        maxPageIndex = num + 1;
                     }
+                } catch (NumberFormatException e){
+                    // ignore
                 }
             }
         }
@@ -0,0 +1,39 @@
+package org.ofdrw.pkg.container;
+
+import java.nio.file.Path;
+
+/**
+ * 尚未到达的容器文件
+ * <p>
+ * 容器内容仍在写入（如边接收边解压OFD包）时，
+ * 容器在访问文件前通过该接口等待文件到达，设置见 {@link OFDDir#setPendingEntries(PendingEntries)}。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 17:55:12
+ */
+@FunctionalInterface
+public interface PendingEntries {
+
+    /**
+     * 等待文件或目录到达
+     * <p>
+     * 文件已经存在，或者所有内容都已到达（文件确实不存在）时立即返回；
+     * 文件出现在容器中时内容已经完整。
+     * <p>
+     * 等待过程中线程被中断时保留中断标志并返回。
+     *
+     * @param path 容器中的文件或目录路径
+     */
+    void await(Path path);
+
+    /**
+     * 列出目录内容前等待目录中的文件到达
+     * <p>
+     * 默认等待目录本身到达，按需读取的实现可以在此时准备好目录中的所有文件。
+     *
+     * @param dir 容器中的目录路径
+     */
+    default void awaitList(Path dir) {
+        await(dir);
+    }
+}
@@ -2,8 +2,13 @@ package org.ofdrw.pkg.container;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * 资源目录
@@ -13,10 +18,47 @@ import java.nio.file.Path;
  */
 public class ResDir extends VirtualContainer {
 
+    /**
+     * 资源内容摘要（SHA-256）与资源路径的索引
+     * <p>
+     * 仅在内容寻址模式下存在，记录通过 {@link #addWithPath(Path)} 加入的资源。
+     */
+    private Map<String, Path> digestIndex;
+
     public ResDir(Path fullDir) throws IllegalArgumentException {
         super(fullDir);
     }
 
+    /**
+     * 设置 是否开启内容寻址模式
+     * <p>
+     * 开启后加入资源时计算资源内容的摘要，内容相同的资源（即便文件名不同）只存储一份，
+     * 再次加入时直接返回已存在资源的路径，适用于模板化生成时反复加入相同的图片、印章等资源。
+     * <p>
+     * 摘要索引仅记录开启后加入的资源，在容器刷新（{@link #flush()}）后仍然有效；
+     * 已被删除的资源在下次查找时从索引中移除。
+     *
+     * @param enable true - 开启；false - 关闭（默认）
+     * @return this
+     */
+    public ResDir setContentAddressed(boolean enable) {
+        if (!enable) {
+            digestIndex = null;
+        } else if (digestIndex == null) {
+            digestIndex = new HashMap<>();
+        }
+        return this;
+    }
+
+    /**
+     * 获取 是否开启内容寻址模式
+     *
+     * @return true - 开启；false - 关闭
+     */
+    public boolean isContentAddressed() {
+        return digestIndex != null;
+    }
+
     /**
      * 向目录中加入资源
      * <p>
@@ -29,10 +71,7 @@ public class ResDir extends VirtualContainer {
      * @throws IOException 文件复制过程中发生的异常
      */
     public ResDir add(Path res) throws IOException {
-        if (res == null || Files.notExists(res)) {
-            return this;
-        }
-        this.putFile(res);
+        this.addWithPath(res);
         return this;
     }
 
@@ -42,6 +81,8 @@ public class ResDir extends VirtualContainer {
      * 加入的资源将会被复制到指定目录，与原有资源无关
      * <p>
      * 若存在同名文件，那么被加入文件将重命名，重名后的文件以返还值形式返回。
+     * <p>
+     * 内容寻址模式下若已加入过内容相同的资源，那么不再复制，返回已存在资源的路径。
      *
      * @param res 资源
      * @return 加入后文件在容器的绝对路径
@@ -51,9 +92,86 @@ public class ResDir extends VirtualContainer {
         if (res == null || Files.notExists(res)) {
             return null;
         }
+        if (digestIndex != null && !Files.isDirectory(res)) {
+            return addAddressed(res);
+        }
         return this.putFileWithPath(res);
     }
 
+    /**
+     * 以内容寻址方式加入资源
+     * <p>
+     * 先计算摘要，摘要已存在时直接返回已有资源，否则按常规方式加入（含重名处理与流式打包）。
+     *
+     * @param res 资源
+     * @return 加入后文件在容器的绝对路径
+     * @throws IOException 文件复制过程中发生的异常
+     */
+    private Path addAddressed(Path res) throws IOException {
+        String digest = digest(res);
+        Path exist = lookup(digest);
+        if (exist != null) {
+            return exist;
+        }
+        Path p = this.putFileWithPath(res);
+        digestIndex.put(digest, p);
+        return p;
+    }
+
+    /**
+     * 通过摘要查找已加入的资源
+     *
+     * @param digest 摘要
+     * @return 资源路径，不存在返回null
+     */
+    private Path lookup(String digest) {
+        Path exist = digestIndex.get(digest);
+        if (exist == null) {
+            return null;
+        }
+        if (Files.notExists(exist) && getPackageWriter() == null) {
+            // 资源已被删除
+            digestIndex.remove(digest);
+            return null;
+        }
+        return exist;
+    }
+
+    /**
+     * 计算文件摘要
+     *
+     * @param file 文件
+     * @return 摘要十六进制字符串
+     * @throws IOException 文件读取异常
+     */
+    private static String digest(Path file) throws IOException {
+        MessageDigest md = newDigest();
+        byte[] buf = new byte[8192];
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                md.update(buf, 0, n);
+            }
+        }
+        return toHex(md.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
 
     /**
      * 获取容器中的资源
@@ -4,9 +4,9 @@ import org.dom4j.DocumentException;
 import org.dom4j.Element;
 import org.ofdrw.core.signatures.Signatures;
 
-import java.io.File;
 import java.io.FileNotFoundException;
 import java.nio.file.Path;
+import java.util.List;
 
 /**
  * 签名容器
@@ -38,19 +38,15 @@ public class SignsDir extends VirtualContainer {
      * 初始化容器
      */
     private void initContainer() {
-        File fullDirFile = new File(getSysAbsPath());
-        File[] files = fullDirFile.listFiles();
-        if (files != null) {
-            // 遍历容器中已经有的签名目录，初始签名数量
-            for (File f : files) {
-                String dirName = f.getName();
-                // 签名目录名为： Sign_N
-                if (dirName.startsWith(SignDir.SignContainerPrefix)) {
-                    String numb = dirName.replace(SignDir.SignContainerPrefix, "");
-                    int num = Integer.parseInt(numb);
-                    if (maxSignIndex <= num) {
-                        maxSignIndex = num + 1;
-                    }
+        List<String> files = listNames();
+        // 遍历容器中已经有的签名目录，初始签名数量
+        for (String dirName : files) {
+            // 签名目录名为： Sign_N
+            if (dirName.startsWith(SignDir.SignContainerPrefix)) {
+                String numb = dirName.replace(SignDir.SignContainerPrefix, "");
+                int num = Integer.parseInt(numb);
+                if (maxSignIndex <= num) {
+                    maxSignIndex = num + 1;
                 }
             }
         }
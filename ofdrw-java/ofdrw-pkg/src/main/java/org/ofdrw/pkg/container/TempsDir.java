@@ -98,7 +98,7 @@ public class TempsDir extends VirtualContainer {
     public Integer getMaxTempIndex() throws IOException {
         if (maxTempIndex < 0) {
             Holder<Integer> maxIndexHolder = new Holder<>(-1);
-            try (Stream<Path> stream = Files.list(this.getContainerPath())) {
+            try (Stream<Path> stream = this.list()) {
                 stream.forEach((item) -> {
                     String fileName = item.getFileName().toString().toLowerCase();
                     // 不是目录 并且 文件名以 Annot_ 开头
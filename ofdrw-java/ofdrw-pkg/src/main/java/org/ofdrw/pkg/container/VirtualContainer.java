@@ -1,25 +1,21 @@
 package org.ofdrw.pkg.container;
 
-import org.apache.commons.io.FileUtils;
-import org.bouncycastle.jcajce.provider.digest.SM3;
 import org.dom4j.DocumentException;
 import org.dom4j.Element;
 import org.ofdrw.core.DefaultElementProxy;
+import org.ofdrw.core.TrackedDocumentFactory;
 import org.ofdrw.core.basicType.ST_Loc;
 import org.ofdrw.pkg.tool.ElemCup;
+import org.ofdrw.pkg.tool.OFDPackageWriter;
 
 import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardOpenOption;
-import java.security.MessageDigest;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.text.SimpleDateFormat;
-import java.util.Arrays;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * 虚拟容器对象
@@ -34,6 +30,14 @@ public class VirtualContainer implements Closeable {
      */
     private String fullPath;
 
+    /**
+     * 容器所处路径
+     * <p>
+     * 路径可以位于任意的文件系统中（如：操作系统文件系统、ZIP文件系统），
+     * 容器内所有文件均通过该路径解析，不依赖默认文件系统。
+     */
+    private Path containerPath;
+
     /**
      * 目录名称
      */
@@ -50,19 +54,28 @@ public class VirtualContainer implements Closeable {
     private Map<String, Element> fileCache;
 
     /**
-     * 用于保存读取到的文件的Hash
+     * 用于保存读取到的文件的版本号
      * 因为读取操作导致文档加载到缓存，
      * 但是文件在flush时候，反序列丢失格式字符等
-     * 导致文件改动。
+     * 导致文件改动，因此只有版本号发生变化的文件才写入。
      */
-    private Map<String, byte[]> fileSrcHash;
-    private MessageDigest digest;
+    private Map<String, Long> fileSrcVersion;
 
     /**
      * 目录中的虚拟容器缓存
      */
     private Map<String, VirtualContainer> dirCache;
 
+    /**
+     * 被监视修改的文件名称
+     */
+    private Set<String> watched;
+
+    /**
+     * 容器树的修改计数，仅根容器使用
+     */
+    private final AtomicLong modCount = new AtomicLong();
+
 
     /**
      * 获取虚拟容器的名称
@@ -76,8 +89,8 @@ public class VirtualContainer implements Closeable {
     private VirtualContainer() {
         fileCache = new HashMap<>(7);
         dirCache = new HashMap<>(5);
-        fileSrcHash = new HashMap<>(7);
-        digest = null;
+        fileSrcVersion = new HashMap<>(7);
+        watched = new HashSet<>(3);
         this.parent = this;
     }
 
@@ -101,8 +114,10 @@ public class VirtualContainer implements Closeable {
                 throw new RuntimeException("无法创建指定目录", e);
             }
         }
-        this.fullPath = fullDir.toAbsolutePath().toString();
-        this.name = fullDir.getFileName().toString();
+        this.containerPath = fullDir.toAbsolutePath();
+        this.fullPath = containerPath.toString();
+        // 文件系统根目录没有文件名（如ZIP文件系统的根 "/"）
+        this.name = containerPath.getFileName() == null ? "" : containerPath.getFileName().toString();
 
     }
 
@@ -118,7 +133,7 @@ public class VirtualContainer implements Closeable {
         if (parent == null) {
             throw new IllegalArgumentException("根路径(parent)为空");
         }
-        Path fullPath = Paths.get(parent.toAbsolutePath().toString(), dirName);
+        Path fullPath = parent.toAbsolutePath().resolve(dirName);
         if (Files.notExists(fullPath) || !Files.isDirectory(fullPath)) {
             try {
                 fullPath = Files.createDirectories(fullPath);
@@ -129,7 +144,8 @@ public class VirtualContainer implements Closeable {
         if (!Files.isDirectory(parent)) {
             throw new IllegalStateException("请传入基础目录路径，而不是文件");
         }
-        this.fullPath = fullPath.toAbsolutePath().toString();
+        this.containerPath = fullPath.toAbsolutePath();
+        this.fullPath = containerPath.toString();
         this.name = dirName;
     }
 
@@ -167,21 +183,33 @@ public class VirtualContainer implements Closeable {
             return null;
         }
         String fileName = file.getFileName().toString();
-        Path target = Paths.get(fullPath, fileName);
+        Path target = containerPath.resolve(fileName);
+        // 流式打包模式下，文件可能已经写入OFD包
+        OFDPackageWriter writer = getPackageWriter();
+        if (writer != null && Files.notExists(target)) {
+            String absPath = getAbsLoc().cat(fileName).toString();
+            if (writer.sameContent(absPath, file)) {
+                return target;
+            } else if (writer.contains(absPath)) {
+                String prefix = new SimpleDateFormat("yyyyMMddHHmmss_").format(new Date());
+                target = containerPath.resolve(prefix + fileName);
+            }
+        }
         // 如果文件已经在目录中那么不做任何事情
         if (Files.exists(target) || target.toAbsolutePath().toString()
                 .equals(file.toAbsolutePath().toString())) {
-            if (FileUtils.contentEquals(target.toFile(), file.toFile())) {
+            if (contentEquals(target, file)) {
                 // 两个文件一致，那么不做任何改变，返回已经存在的文件路径
                 return target;
             } else {
                 // 修改更名文件名称，添加前缀时间防止冲突
                 String prefix = new SimpleDateFormat("yyyyMMddHHmmss_").format(new Date());
-                target = Paths.get(fullPath, prefix + fileName);
+                target = containerPath.resolve(prefix + fileName);
             }
         }
         // 复制文件到指定目录
         Files.copy(file, target);
+        modified();
         return target;
     }
 
@@ -200,7 +228,7 @@ public class VirtualContainer implements Closeable {
      * @throws IOException 文件复制异常
      */
     public VirtualContainer addRaw(String fileName, InputStream in) throws IOException {
-        Path target = Paths.get(fullPath, fileName);
+        Path target = containerPath.resolve(fileName);
         byte[] buffer = new byte[4096];
         int n = 0;
         try (final OutputStream out = Files.newOutputStream(
@@ -211,6 +239,7 @@ public class VirtualContainer implements Closeable {
                 out.write(buffer, 0, n);
             }
         }
+        modified();
         return this;
     }
 
@@ -232,7 +261,15 @@ public class VirtualContainer implements Closeable {
             // 如果是代理元素对象那么取出被代理的对象存储
             element = ((DefaultElementProxy) element).getProxy();
         }
-        fileCache.put(fileName, element);
+        if (fileCache.put(fileName, element) != element) {
+            // 替换为新的对象，需要在flush时写入
+            fileSrcVersion.remove(fileName);
+            forget(fileName);
+            if (watched.contains(fileName)) {
+                TrackedDocumentFactory.watch(element, modCounter());
+            }
+            modified();
+        }
         return this;
     }
 
@@ -364,7 +401,11 @@ public class VirtualContainer implements Closeable {
             return getContainerPath();
         }
         // 在相同目录中则组装
-        Path res = Paths.get(fullPath, dst);
+        Path res = containerPath;
+        for (String item : dst) {
+            res = res.resolve(item);
+        }
+        awaitEntry(res);
         if (Files.notExists(res)) {
             return null;
         }
@@ -383,38 +424,120 @@ public class VirtualContainer implements Closeable {
         if (fileName == null || fileName.length() == 0) {
             throw new IllegalArgumentException("文件名不能为空");
         }
-        Element element = fileCache.get(fileName);
+        Element element = getCachedObj(fileName);
         if (element == null) {
             // 缓存中不存在，从文件目录中尝试读取
             Path file = getFile(fileName);
             // 反序列化文件为对象
-            element = ElemCup.inject(file);
-            // 计算并存储刚读取到对象序列化后的Hash
-            fileSrcHash.put(fileName, objectHash(element));
+            element = cacheLoaded(fileName, ElemCup.inject(file));
+        }
+        return element;
+    }
+
+    /**
+     * 获取缓存中的元素对象，不读取文件
+     *
+     * @param fileName 文件名
+     * @return 元素对象（不含代理），不在缓存中时返回null
+     */
+    public Element getCachedObj(String fileName) {
+        Element element = fileCache.get(fileName);
+        if (element != null) {
+            access(fileName);
+        }
+        return element;
+    }
+
+    /**
+     * 缓存从文件读取的元素对象
+     * <p>
+     * 用于在容器之外完成文件解析（如 {@link ElemCup#inject(Path)}）的场景，
+     * 若缓存中已经存在该文件的元素，那么丢弃传入的元素，返回缓存中的元素。
+     *
+     * @param fileName 文件名
+     * @param element  从文件读取的元素对象
+     * @return 缓存中的元素对象
+     */
+    public Element cacheLoaded(String fileName, Element element) {
+        if (fileName == null || fileName.length() == 0) {
+            throw new IllegalArgumentException("文件名不能为空");
+        }
+        Element cached = fileCache.get(fileName);
+        if (cached == null) {
+            // 记录刚读取到对象的版本号
+            fileSrcVersion.put(fileName, TrackedDocumentFactory.versionOf(element));
             // 从文件加载元素，那么缓存该元素对象
             fileCache.put(fileName, element);
+            if (watched.contains(fileName)) {
+                TrackedDocumentFactory.watch(element, modCounter());
+            }
+            cached = element;
         }
-        return element;
+        access(fileName);
+        return cached;
     }
 
     /**
-     * 计算获取的对象的序列化Hash值
+     * 记录元素访问
      *
-     * @param element 文档对象
-     * @return Hash
-     * @throws DocumentException 文档读取和计算过程中异常
+     * @param fileName 文件名
      */
-    private byte[] objectHash(Element element) throws DocumentException {
-        try {
-            if (digest == null) {
-                digest = new SM3.Digest();
+    private void access(String fileName) {
+        if (fileSrcVersion.containsKey(fileName)) {
+            // 从文件加载的元素受缓存上限约束
+            ElementCache cache = getElementCache();
+            if (cache != null) {
+                cache.access(this, fileName);
+            }
+        }
+    }
+
+    /**
+     * 从缓存中淘汰元素
+     * <p>
+     * 元素被修改时先写入文件，写入失败时元素保留在缓存中，由 {@link #flush()} 再次写入。
+     *
+     * @param fileName 文件名
+     * @return true - 已淘汰；false - 元素不在缓存中或写入失败
+     */
+    boolean evict(String fileName) {
+        Element element = fileCache.get(fileName);
+        if (element == null) {
+            return false;
+        }
+        if (fileChanged(fileName, element)) {
+            try {
+                ElemCup.dumpUpNS(element, containerPath.resolve(fileName));
+            } catch (IOException e) {
+                return false;
+            }
+        }
+        fileCache.remove(fileName);
+        fileSrcVersion.remove(fileName);
+        return true;
+    }
+
+    /**
+     * 从缓存上限中移除元素记录
+     *
+     * @param fileName 文件名
+     */
+    private void forget(String fileName) {
+        ElementCache cache = getElementCache();
+        if (cache != null) {
+            cache.remove(this, fileName);
+        }
+    }
+
+    /**
+     * 从缓存上限中移除当前容器所有元素记录
+     */
+    private void forgetAll() {
+        ElementCache cache = getElementCache();
+        if (cache != null) {
+            for (String fileName : fileCache.keySet()) {
+                cache.remove(this, fileName);
             }
-            byte[] bin = ElemCup.dump(element);
-            digest.reset();
-            digest.update(bin);
-            return digest.digest();
-        } catch (IOException e) {
-            throw new DocumentException("文档计算摘要过程中异常", e);
         }
     }
 
@@ -426,19 +549,12 @@ public class VirtualContainer implements Closeable {
      * @return true - 已经被改动;false - 未改动
      */
     private boolean fileChanged(String filename, Element element) {
-        if (digest == null) {
+        Long srcVersion = fileSrcVersion.get(filename);
+        if (srcVersion == null) {
             return true;
         }
-        byte[] srcHash = fileSrcHash.get(filename);
-        if (srcHash == null) {
-            return true;
-        }
-        try {
-            byte[] nowHash = objectHash(element);
-            return !Arrays.equals(srcHash, nowHash);
-        } catch (DocumentException e) {
-            throw new RuntimeException(e);
-        }
+        long nowVersion = TrackedDocumentFactory.versionOf(element);
+        return nowVersion < 0 || nowVersion != srcVersion;
     }
 
     /**
@@ -452,7 +568,8 @@ public class VirtualContainer implements Closeable {
         if (fileName == null || fileName.length() == 0) {
             throw new IllegalArgumentException("文件名为空");
         }
-        Path res = Paths.get(fullPath, fileName);
+        Path res = containerPath.resolve(fileName);
+        awaitEntry(res);
         if (Files.isDirectory(res) || Files.notExists(res)) {
             throw new FileNotFoundException("无法在目录: " + fullPath + "中找到，文件 [ " + fileName + " ]");
         }
@@ -483,7 +600,7 @@ public class VirtualContainer implements Closeable {
         // 检查缓存
         VirtualContainer target = dirCache.get(name);
         if (target == null) {
-            Path p = Paths.get(fullPath, name);
+            Path p = containerPath.resolve(name);
             // 如果目录不存在那么创建，如果已经存在那么就是加载
             R ct = mapper.apply(p);
             // 设置父母路径
@@ -506,7 +623,8 @@ public class VirtualContainer implements Closeable {
      * @throws FileNotFoundException 文件不存在
      */
     public <R extends VirtualContainer> R getContainer(String name, Function<Path, R> mapper) throws FileNotFoundException {
-        Path p = Paths.get(fullPath, name);
+        Path p = containerPath.resolve(name);
+        awaitEntry(p);
         if (Files.notExists(p) || !Files.isDirectory(p)) {
             throw new FileNotFoundException("容器内无法找名为：" + name + "目录");
         }
@@ -552,7 +670,7 @@ public class VirtualContainer implements Closeable {
      * @return 文件系统路径
      */
     public Path getContainerPath() {
-        return Paths.get(fullPath);
+        return containerPath;
     }
 
     /**
@@ -580,7 +698,8 @@ public class VirtualContainer implements Closeable {
         Element element = fileCache.get(fileName);
         if (element == null) {
             // 缓存中不存在，从文件目录中尝试读取
-            Path res = Paths.get(fullPath, fileName);
+            Path res = containerPath.resolve(fileName);
+            awaitEntry(res);
             return !Files.isDirectory(res) && !Files.notExists(res);
         } else {
             return true;
@@ -599,12 +718,15 @@ public class VirtualContainer implements Closeable {
         if (fileName == null || fileName.length() == 0) {
             return;
         }
+        forget(fileName);
         fileCache.remove(fileName);
-        Path res = Paths.get(fullPath, fileName);
+        fileSrcVersion.remove(fileName);
+        Path res = containerPath.resolve(fileName).normalize();
         // 检查是否具有相同前缀，防止路径攻击
-        if (res.toAbsolutePath().toString().startsWith(fullPath)) {
+        if (res.startsWith(containerPath)) {
             // 删除文件
             Files.delete(res);
+            modified();
         }
     }
 
@@ -617,10 +739,14 @@ public class VirtualContainer implements Closeable {
             Path path = getContainerPath();
             // 删除整个文件目录
             if (Files.exists(path)) {
-                FileUtils.deleteDirectory(path.toFile());
+                deleteDirectory(path);
             }
+            forgetAll();
             this.fileCache.clear();
+            this.fileSrcVersion.clear();
             this.dirCache.clear();
+            this.watched.clear();
+            modified();
         } catch (Exception e) {
             System.err.println("容器删除异常: " + e.getMessage());
         }
@@ -635,7 +761,7 @@ public class VirtualContainer implements Closeable {
         // 刷新元素对象到指定目录
         for (Map.Entry<String, Element> kv : fileCache.entrySet()) {
             String filename = kv.getKey();
-            Path filePath = Paths.get(fullPath, filename);
+            Path filePath = containerPath.resolve(filename);
             Element element = kv.getValue();
             // 序列化为文件
             // 检查文件是否被修改，只有被修改的文件才能够非flush
@@ -647,10 +773,165 @@ public class VirtualContainer implements Closeable {
         for (VirtualContainer container : dirCache.values()) {
             container.flush();
         }
+        forgetAll();
         fileCache.clear();
+        fileSrcVersion.clear();
         dirCache.clear();
     }
 
+    /**
+     * 提交容器内容
+     * <p>
+     * 在流式打包模式下（{@link OFDDir#streamTo(OutputStream)}），
+     * 将容器及其子容器中的对象和文件直接写入OFD包，并从缓存与工作目录中移除，目录结构保留。
+     * <p>
+     * 提交后的文件内容已经确定，无法再读取或修改。
+     * <p>
+     * 非流式打包模式下不做任何操作。
+     *
+     * @throws IOException 写入OFD包IO异常
+     */
+    public void commit() throws IOException {
+        OFDPackageWriter writer = getPackageWriter();
+        if (writer == null) {
+            return;
+        }
+        ST_Loc base = getAbsLoc();
+        // 缓存中的对象直接序列化到OFD包中
+        for (Map.Entry<String, Element> kv : fileCache.entrySet()) {
+            String filename = kv.getKey();
+            writer.putElement(base.cat(filename).toString(), kv.getValue());
+            Files.deleteIfExists(containerPath.resolve(filename));
+        }
+        forgetAll();
+        fileCache.clear();
+        fileSrcVersion.clear();
+        modified();
+        for (String item : listNames()) {
+            Path p = containerPath.resolve(item);
+            if (Files.isDirectory(p)) {
+                VirtualContainer child = dirCache.get(item);
+                if (child == null) {
+                    child = new VirtualContainer(p).setParent(this);
+                }
+                child.commit();
+            } else {
+                writer.putFile(base.cat(item).toString(), p);
+                Files.delete(p);
+            }
+        }
+    }
+
+    /**
+     * 获取流式打包写入器
+     *
+     * @return 写入器，非流式打包模式返回null
+     */
+    protected OFDPackageWriter getPackageWriter() {
+        if (parent == null || parent == this) {
+            return null;
+        }
+        return parent.getPackageWriter();
+    }
+
+    /**
+     * 获取尚未到达的容器文件
+     *
+     * @return 尚未到达的容器文件，容器内容完整时返回null
+     */
+    protected PendingEntries getPendingEntries() {
+        if (parent == null || parent == this) {
+            return null;
+        }
+        return parent.getPendingEntries();
+    }
+
+    /**
+     * 等待文件或目录到达
+     *
+     * @param path 文件或目录路径
+     */
+    private void awaitEntry(Path path) {
+        PendingEntries pending = getPendingEntries();
+        if (pending != null) {
+            pending.await(path);
+        }
+    }
+
+    /**
+     * 等待容器目录中的文件到达
+     */
+    private void awaitList() {
+        PendingEntries pending = getPendingEntries();
+        if (pending != null) {
+            pending.awaitList(containerPath);
+        }
+    }
+
+    /**
+     * 监视文件修改
+     * <p>
+     * 被监视文件在缓存中的元素发生修改时，容器树的修改计数（{@link #getModCount()}）递增，
+     * 元素被淘汰后重新加载或被替换时继续监视。
+     *
+     * @param fileName 文件名称
+     */
+    public void watchFile(String fileName) {
+        if (fileName == null || fileName.length() == 0) {
+            return;
+        }
+        watched.add(fileName);
+        Element element = fileCache.get(fileName);
+        if (element != null) {
+            TrackedDocumentFactory.watch(element, modCounter());
+        }
+    }
+
+    /**
+     * 获取容器树的修改计数
+     * <p>
+     * 容器树中任意容器写入或删除文件、加入或替换对象，以及被监视文件（{@link #watchFile(String)}）
+     * 的元素发生修改时递增；元素的加载、淘汰与写回不改变容器内容，不计数。
+     * <p>
+     * 计数不变则期间容器内容未被修改，可据此判断由容器内容得到的结果是否仍然有效。
+     *
+     * @return 修改计数
+     */
+    public long getModCount() {
+        return modCounter().get();
+    }
+
+    /**
+     * 获取根容器的修改计数器
+     *
+     * @return 修改计数器
+     */
+    private AtomicLong modCounter() {
+        if (parent == null || parent == this) {
+            return modCount;
+        }
+        return parent.modCounter();
+    }
+
+    /**
+     * 记录容器内容发生修改
+     */
+    protected void modified() {
+        modCounter().incrementAndGet();
+    }
+
+    /**
+     * 获取元素缓存上限
+     *
+     * @return 缓存上限，未设置返回null
+     */
+    protected ElementCache getElementCache() {
+        if (parent == null || parent == this) {
+            return null;
+        }
+        return parent.getElementCache();
+    }
+
     /**
      * 从缓存中刷新指定容器到文件系统中
      *
@@ -682,10 +963,15 @@ public class VirtualContainer implements Closeable {
         }
         Element element = fileCache.get(name);
         if (element != null) {
-            Path filePath = Paths.get(fullPath, name);
+            Path filePath = containerPath.resolve(name);
             // 检查文件是否被修改，只有被修改的文件才能够非flush
             if (fileChanged(name, element)) {
                 ElemCup.dumpUpNS(element, filePath);
+                // 文件已与对象一致，以当前版本号作为新的基准
+                long version = TrackedDocumentFactory.versionOf(element);
+                if (version >= 0) {
+                    fileSrcVersion.put(name, version);
+                }
             }
         }
         return this;
@@ -714,7 +1000,7 @@ public class VirtualContainer implements Closeable {
      * @throws IOException 文件复制异常
      */
     public void putFile(String fileName, InputStream in) throws IOException {
-        Path target = Paths.get(fullPath, fileName);
+        Path target = containerPath.resolve(fileName);
         byte[] buffer = new byte[4096];
         int n = 0;
         try (OutputStream out = Files.newOutputStream(
@@ -725,6 +1011,7 @@ public class VirtualContainer implements Closeable {
                 out.write(buffer, 0, n);
             }
         }
+        modified();
     }
 
     /**
@@ -737,16 +1024,135 @@ public class VirtualContainer implements Closeable {
         if (data == null || data.length == 0) {
             data = new byte[0];
         }
-        Path target = Paths.get(fullPath, fileName);
+        Path target = containerPath.resolve(fileName);
         try (OutputStream out = Files.newOutputStream(
                 target,
                 StandardOpenOption.CREATE,
                 StandardOpenOption.TRUNCATE_EXISTING)) {
             out.write(data);
         }
+        modified();
+    }
+
+
+    /**
+     * 列出容器目录下的文件和子目录
+     * <p>
+     * 容器内容尚未完整到达时（见 {@link PendingEntries}），先等待目录中的文件到达再列出。
+     *
+     * @return 文件和子目录路径流，由调用者负责关闭
+     * @throws IOException 目录读取异常
+     */
+    protected Stream<Path> list() throws IOException {
+        awaitList();
+        return Files.list(containerPath);
+    }
+
+    /**
+     * 获取容器目录下所有文件和子目录的名称
+     *
+     * @return 名称列表，容器目录不存在时返回空列表
+     */
+    protected List<String> listNames() {
+        List<String> res = new ArrayList<>();
+        awaitList();
+        if (!Files.isDirectory(containerPath)) {
+            return res;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(containerPath)) {
+            for (Path item : stream) {
+                Path fileName = item.getFileName();
+                if (fileName == null) {
+                    continue;
+                }
+                // ZIP文件系统中的目录名称可能以 "/" 结尾
+                String itemName = fileName.toString();
+                if (itemName.endsWith("/")) {
+                    itemName = itemName.substring(0, itemName.length() - 1);
+                }
+                res.add(itemName);
+            }
+        } catch (IOException e) {
+            // ignore
+        }
+        return res;
+    }
+
+    /**
+     * 比较两个文件内容是否一致
+     *
+     * @param a 文件a
+     * @param b 文件b
+     * @return true - 一致；false - 不一致
+     * @throws IOException 文件读取异常
+     */
+    private static boolean contentEquals(Path a, Path b) throws IOException {
+        if (Files.size(a) != Files.size(b)) {
+            return false;
+        }
+        byte[] bufA = new byte[4096];
+        byte[] bufB = new byte[4096];
+        try (InputStream inA = new BufferedInputStream(Files.newInputStream(a));
+             InputStream inB = new BufferedInputStream(Files.newInputStream(b))) {
+            while (true) {
+                int n = readFully(inA, bufA);
+                int m = readFully(inB, bufB);
+                if (n != m) {
+                    return false;
+                }
+                if (n <= 0) {
+                    return true;
+                }
+                for (int i = 0; i < n; i++) {
+                    if (bufA[i] != bufB[i]) {
+                        return false;
+                    }
+                }
+            }
+        }
     }
 
+    /**
+     * 尽可能读满缓冲区
+     *
+     * @param in  输入流
+     * @param buf 缓冲区
+     * @return 读取到的字节数，流结束返回-1
+     * @throws IOException 读取异常
+     */
+    private static int readFully(InputStream in, byte[] buf) throws IOException {
+        int total = 0;
+        while (total < buf.length) {
+            int n = in.read(buf, total, buf.length - total);
+            if (n == -1) {
+                break;
+            }
+            total += n;
+        }
+        return total == 0 ? -1 : total;
+    }
+
+    /**
+     * 递归删除目录
+     *
+     * @param dir 目录
+     * @throws IOException 删除异常
+     */
+    private static void deleteDirectory(Path dir) throws IOException {
+        Files.walkFileTree(dir, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
 
+            @Override
+            public FileVisitResult postVisitDirectory(Path d, IOException exc) throws IOException {
+                Files.delete(d);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
 
     @Override
     public void close() throws IOException {
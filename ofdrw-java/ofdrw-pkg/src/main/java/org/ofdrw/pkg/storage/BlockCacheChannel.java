@@ -0,0 +1,240 @@
+package org.ofdrw.pkg.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 带块缓存与预读的只读通道
+ * <p>
+ * 将底层通道按固定大小分块读取并缓存最近使用的块，
+ * 缓存未命中时连续读取后续若干未缓存的块（预读），相邻条目只需一次底层读取。
+ * <p>
+ * 适用于底层读取代价高的数据源，如对象存储的范围读取（Range）。
+ * <p>
+ * 该类非线程安全。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 18:30:05
+ */
+public class BlockCacheChannel implements SeekableByteChannel {
+
+    /**
+     * 默认块大小 64KB
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+    /**
+     * 默认缓存块数量
+     */
+    public static final int DEFAULT_CACHE_BLOCKS = 64;
+
+    /**
+     * 默认预读块数量（包含未命中的块）
+     */
+    public static final int DEFAULT_READ_AHEAD = 4;
+
+    private final SeekableByteChannel src;
+
+    private final int blockSize;
+
+    private final int readAhead;
+
+    /**
+     * 底层通道大小
+     */
+    private final long size;
+
+    /**
+     * 块缓存，KEY为块序号
+     */
+    private final LinkedHashMap<Long, byte[]> blocks;
+
+    private long position = 0;
+
+    /**
+     * 从底层通道读取的字节数
+     */
+    private long bytesRead = 0;
+
+    /**
+     * 底层通道读取次数
+     */
+    private long readCount = 0;
+
+    private boolean open = true;
+
+    /**
+     * 使用默认参数创建
+     *
+     * @param src 底层通道，关闭时一同关闭
+     * @throws IOException 通道大小获取异常
+     */
+    public BlockCacheChannel(SeekableByteChannel src) throws IOException {
+        this(src, DEFAULT_BLOCK_SIZE, DEFAULT_CACHE_BLOCKS, DEFAULT_READ_AHEAD);
+    }
+
+    /**
+     * 创建带块缓存的通道
+     *
+     * @param src         底层通道，关闭时一同关闭
+     * @param blockSize   块大小
+     * @param cacheBlocks 最多缓存的块数量
+     * @param readAhead   缓存未命中时一次读取的最多块数量，至少为1
+     * @throws IOException 通道大小获取异常
+     */
+    public BlockCacheChannel(SeekableByteChannel src, int blockSize, int cacheBlocks, int readAhead) throws IOException {
+        if (src == null) {
+            throw new IllegalArgumentException("底层通道(src)为空");
+        }
+        if (blockSize < 1 || cacheBlocks < 1 || readAhead < 1) {
+            throw new IllegalArgumentException("块大小、缓存块数量、预读块数量必须大于0");
+        }
+        this.src = src;
+        this.blockSize = blockSize;
+        this.readAhead = Math.min(readAhead, cacheBlocks);
+        this.size = src.size();
+        this.blocks = new LinkedHashMap<Long, byte[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, byte[]> eldest) {
+                return size() > cacheBlocks;
+            }
+        };
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        ensureOpen();
+        if (position >= size) {
+            return -1;
+        }
+        int total = 0;
+        while (dst.hasRemaining() && position < size) {
+            long index = position / blockSize;
+            byte[] block = block(index);
+            int off = (int) (position - index * blockSize);
+            int n = Math.min(dst.remaining(), block.length - off);
+            dst.put(block, off, n);
+            position += n;
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * 获取块，未缓存时连同后续未缓存的块一起读取
+     *
+     * @param index 块序号
+     * @return 块数据
+     * @throws IOException 读取异常
+     */
+    private byte[] block(long index) throws IOException {
+        byte[] block = blocks.get(index);
+        if (block != null) {
+            return block;
+        }
+        long lastBlock = (size - 1) / blockSize;
+        int count = 1;
+        while (count < readAhead && index + count <= lastBlock && !blocks.containsKey(index + count)) {
+            count++;
+        }
+        long start = index * blockSize;
+        int len = (int) Math.min((long) count * blockSize, size - start);
+        ByteBuffer buf = ByteBuffer.allocate(len);
+        src.position(start);
+        while (buf.hasRemaining()) {
+            if (src.read(buf) < 0) {
+                throw new IOException("通道数据不完整");
+            }
+        }
+        readCount++;
+        bytesRead += len;
+        byte[] data = buf.array();
+        for (int i = count - 1; i >= 0; i--) {
+            int from = i * blockSize;
+            int to = Math.min(from + blockSize, len);
+            byte[] b = new byte[to - from];
+            System.arraycopy(data, from, b, 0, b.length);
+            blocks.put(index + i, b);
+            if (i == 0) {
+                block = b;
+            }
+        }
+        return block;
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long position() throws IOException {
+        ensureOpen();
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(long newPosition) throws IOException {
+        ensureOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("位置不能为负数");
+        }
+        this.position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        ensureOpen();
+        return size;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!open) {
+            return;
+        }
+        open = false;
+        blocks.clear();
+        src.close();
+    }
+
+    /**
+     * 获取 从底层通道读取的字节数
+     *
+     * @return 字节数
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * 获取 底层通道读取次数
+     *
+     * @return 读取次数
+     */
+    public long getReadCount() {
+        return readCount;
+    }
+
+    private void ensureOpen() throws ClosedChannelException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package org.ofdrw.pkg.storage;
+
+import org.ofdrw.pkg.container.PendingEntries;
+import org.ofdrw.pkg.tool.ZipDirectory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按需范围读取的ZIP存储（只读）
+ * <p>
+ * 数据源为可随机访问的通道（{@link SeekableByteChannel}），例如对象存储的范围读取（Range）封装，
+ * 打开时仅读取ZIP中央目录并在临时目录中建立目录结构，
+ * 文件在首次访问时（{@link #await(Path)}）才从通道中读取并解压到临时目录，
+ * 列出目录内容前（{@link #awaitList(Path)}）解压该目录中的所有文件。
+ * <p>
+ * 通道读取经过块缓存与预读（{@link BlockCacheChannel}），
+ * 可以通过 {@link #getBytesRead()}、{@link #getReadCount()} 观察实际读取的数据量。
+ * <p>
+ * 需要配合 {@link org.ofdrw.pkg.container.OFDDir#setPendingEntries(PendingEntries)} 使用，
+ * 见 {@link org.ofdrw.pkg.container.OFDDir#openChannel(SeekableByteChannel)}。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 18:52:40
+ */
+public class ChannelZipStorage implements ContainerStorage, PendingEntries {
+
+    /**
+     * 带缓存的数据源通道
+     */
+    private final BlockCacheChannel ch;
+
+    /**
+     * 解压文件存放的临时目录
+     */
+    private final TempDirStorage backing;
+
+    /**
+     * 临时目录根路径
+     */
+    private final Path root;
+
+    /**
+     * 解压中的文件暂存目录，位于存储目录之外，文件完整后移动至存储目录
+     */
+    private final TempDirStorage staging;
+
+    /**
+     * 暂存文件序号
+     */
+    private long partSeq = 0;
+
+    /**
+     * 尚未解压的条目，KEY为条目名称
+     */
+    private final Map<String, ZipDirectory.Entry> entries = new HashMap<>();
+
+    /**
+     * 读取OFD包
+     *
+     * @param src OFD包数据源通道，存储关闭时一同关闭
+     * @throws IOException 中央目录读取异常或临时目录创建异常
+     */
+    public ChannelZipStorage(SeekableByteChannel src) throws IOException {
+        this(new BlockCacheChannel(src));
+    }
+
+    /**
+     * 读取OFD包
+     *
+     * @param ch 带缓存的数据源通道，存储关闭时一同关闭
+     * @throws IOException 中央目录读取异常或临时目录创建异常
+     */
+    public ChannelZipStorage(BlockCacheChannel ch) throws IOException {
+        if (ch == null) {
+            throw new IllegalArgumentException("数据源通道(ch)为空");
+        }
+        this.ch = ch;
+        this.backing = new TempDirStorage();
+        this.root = backing.getRoot().toAbsolutePath().normalize();
+        TempDirStorage part;
+        try {
+            part = new TempDirStorage(Files.createTempDirectory(root.getParent(), "ofd-part-"));
+        } catch (IOException | RuntimeException e) {
+            try {
+                backing.close();
+            } catch (IOException ex) {
+                e.addSuppressed(ex);
+            }
+            throw e;
+        }
+        this.staging = part;
+        try {
+            List<ZipDirectory.Entry> list = ZipDirectory.read(ch);
+            for (ZipDirectory.Entry e : list) {
+                Path target = root.resolve(e.getName()).normalize();
+                if (!target.startsWith(root) || target.equals(root)) {
+                    throw new IOException(String.format("不合法的路径：%s", e.getName()));
+                }
+                // 目录结构预先建立，文件在访问时解压
+                Files.createDirectories(target.getParent());
+                entries.put(root.relativize(target).toString().replace('\\', '/'), e);
+            }
+        } catch (IOException | RuntimeException e) {
+            try {
+                close();
+            } catch (IOException ex) {
+                e.addSuppressed(ex);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public Path getRoot() {
+        return root;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    /**
+     * 在文件首次访问时从通道中读取并解压
+     *
+     * @param path 存储中的文件路径
+     * @throws UncheckedIOException 文件读取异常
+     */
+    @Override
+    public synchronized void await(Path path) {
+        String name = entryName(path);
+        if (name != null && entries.containsKey(name)) {
+            extract(name);
+        }
+    }
+
+    /**
+     * 解压目录中（不含子目录）所有尚未解压的文件
+     *
+     * @param dir 存储中的目录路径
+     * @throws UncheckedIOException 文件读取异常
+     */
+    @Override
+    public synchronized void awaitList(Path dir) {
+        String name = entryName(dir);
+        if (name == null) {
+            return;
+        }
+        String prefix = name.isEmpty() ? "" : name + "/";
+        List<String> children = new ArrayList<>();
+        for (String item : entries.keySet()) {
+            if (item.startsWith(prefix) && item.indexOf('/', prefix.length()) < 0) {
+                children.add(item);
+            }
+        }
+        for (String item : children) {
+            extract(item);
+        }
+    }
+
+    /**
+     * 获取路径对应的条目名称
+     *
+     * @param path 存储中的路径
+     * @return 条目名称，存储根目录为空字符串；不在存储中或已全部解压时返回null
+     */
+    private String entryName(Path path) {
+        if (path == null || entries.isEmpty()) {
+            return null;
+        }
+        Path p = path.toAbsolutePath().normalize();
+        if (!p.startsWith(root)) {
+            return null;
+        }
+        return root.relativize(p).toString().replace('\\', '/');
+    }
+
+    /**
+     * 解压条目到存储目录
+     *
+     * @param name 条目名称
+     * @throws UncheckedIOException 文件读取异常
+     */
+    private void extract(String name) {
+        try {
+            extract(entries.get(name), root.resolve(name));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(String.format("OFD包条目读取失败：%s", name), ex);
+        }
+        entries.remove(name);
+    }
+
+    /**
+     * 读取条目并写入文件，写入完整后才出现在目标位置
+     * <p>
+     * 先写入存储目录之外的暂存文件，再原子移动到目标位置。
+     *
+     * @param e      条目
+     * @param target 目标文件
+     * @throws IOException 读取或写入异常
+     */
+    private void extract(ZipDirectory.Entry e, Path target) throws IOException {
+        Path part = staging.getRoot().resolve(Long.toString(partSeq++));
+        try {
+            try (InputStream data = ZipDirectory.open(ch, e); OutputStream out = Files.newOutputStream(part)) {
+                byte[] buf = new byte[8192];
+                int n;
+                while ((n = data.read(buf)) != -1) {
+                    out.write(buf, 0, n);
+                }
+            }
+            try {
+                Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(part);
+        }
+    }
+
+    /**
+     * 获取 从数据源读取的字节数
+     *
+     * @return 字节数
+     */
+    public long getBytesRead() {
+        return ch.getBytesRead();
+    }
+
+    /**
+     * 获取 数据源读取次数
+     *
+     * @return 读取次数
+     */
+    public long getReadCount() {
+        return ch.getReadCount();
+    }
+
+    /**
+     * 获取 数据源大小
+     *
+     * @return 字节数
+     * @throws IOException 通道已关闭
+     */
+    public long getSize() throws IOException {
+        return ch.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        entries.clear();
+        try {
+            backing.close();
+        } finally {
+            try {
+                staging.close();
+            } finally {
+                ch.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.ofdrw.pkg.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 虚拟容器存储
+ * <p>
+ * 为OFD虚拟容器（{@link org.ofdrw.pkg.container.OFDDir} 及其子容器）提供文件存储空间，
+ * 容器内所有文件均位于 {@link #getRoot()} 所在的文件系统中。
+ * <p>
+ * 内置实现：
+ * <ul>
+ *     <li>{@link TempDirStorage} 操作系统临时目录（默认）</li>
+ *     <li>{@link HeapStorage} 堆内存，适用于小文档</li>
+ *     <li>{@link MappedStorage} 内存映射的临时文件，适用于大文档</li>
+ *     <li>{@link ZipStorage} 只读的ZIP原地读取</li>
+ * </ul>
+ *
+ * @author 权观宇
+ * @since 2026-10-16 10:12:31
+ */
+public interface ContainerStorage extends Closeable {
+
+    /**
+     * 获取存储根目录
+     * <p>
+     * 根目录即为OFD虚拟容器的根目录
+     *
+     * @return 根目录路径
+     */
+    Path getRoot();
+
+    /**
+     * 存储是否只读
+     *
+     * @return true - 只读；false - 可读写
+     */
+    default boolean isReadOnly() {
+        return false;
+    }
+
+    /**
+     * 释放存储空间
+     * <p>
+     * 释放后存储中的所有文件都将不可用
+     *
+     * @throws IOException 存储释放异常
+     */
+    @Override
+    void close() throws IOException;
+}
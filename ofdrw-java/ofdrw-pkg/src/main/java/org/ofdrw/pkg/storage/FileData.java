@@ -0,0 +1,57 @@
+package org.ofdrw.pkg.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 内存文件系统中文件的数据存储
+ * <p>
+ * 实现类决定文件内容存放的位置（堆内存、内存映射文件等），
+ * 调用者负责并发控制。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 10:12:31
+ */
+interface FileData {
+
+    /**
+     * 获取文件大小
+     *
+     * @return 文件字节数
+     */
+    long size();
+
+    /**
+     * 从指定位置读取数据
+     *
+     * @param pos 读取位置
+     * @param dst 目标缓冲区
+     * @return 读取到的字节数，位置超过文件末尾时返回-1
+     * @throws IOException 读取异常
+     */
+    int read(long pos, ByteBuffer dst) throws IOException;
+
+    /**
+     * 在指定位置写入数据
+     * <p>
+     * 写入位置超过文件末尾时，中间部分以0填充
+     *
+     * @param pos 写入位置
+     * @param src 数据来源
+     * @return 写入的字节数
+     * @throws IOException 写入异常
+     */
+    int write(long pos, ByteBuffer src) throws IOException;
+
+    /**
+     * 截断文件
+     *
+     * @param size 新的文件大小，大于当前大小时不做任何操作
+     */
+    void truncate(long size);
+
+    /**
+     * 释放文件占用的存储空间
+     */
+    void release();
+}
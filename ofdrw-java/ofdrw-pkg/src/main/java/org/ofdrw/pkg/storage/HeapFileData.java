@@ -0,0 +1,95 @@
+package org.ofdrw.pkg.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 堆内存文件数据
+ * <p>
+ * 文件内容存放于可扩容的字节数组中
+ *
+ * @author 权观宇
+ * @since 2026-10-16 10:12:31
+ */
+final class HeapFileData implements FileData {
+
+    /**
+     * 数组最大长度
+     */
+    private static final int MAX_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * 数据缓冲区
+     */
+    private byte[] buf = new byte[0];
+
+    /**
+     * 文件大小
+     */
+    private int size = 0;
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public int read(long pos, ByteBuffer dst) {
+        if (pos >= size) {
+            return -1;
+        }
+        int n = (int) Math.min(dst.remaining(), size - pos);
+        dst.put(buf, (int) pos, n);
+        return n;
+    }
+
+    @Override
+    public int write(long pos, ByteBuffer src) throws IOException {
+        int n = src.remaining();
+        long end = pos + n;
+        if (end > MAX_SIZE) {
+            throw new IOException("文件大小超过堆内存存储上限");
+        }
+        ensureCapacity((int) end);
+        src.get(buf, (int) pos, n);
+        if (end > size) {
+            size = (int) end;
+        }
+        return n;
+    }
+
+    @Override
+    public void truncate(long newSize) {
+        if (newSize < size) {
+            // 清除被截断的内容，保证再次扩展时以0填充
+            Arrays.fill(buf, (int) newSize, size, (byte) 0);
+            size = (int) newSize;
+        }
+    }
+
+    @Override
+    public void release() {
+        buf = new byte[0];
+        size = 0;
+    }
+
+    /**
+     * 扩容缓冲区
+     *
+     * @param capacity 需要的最小容量
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= buf.length) {
+            return;
+        }
+        long newCapacity = Math.max(buf.length * 2L, 256);
+        if (newCapacity < capacity) {
+            newCapacity = capacity;
+        }
+        if (newCapacity > MAX_SIZE) {
+            newCapacity = MAX_SIZE;
+        }
+        buf = Arrays.copyOf(buf, (int) newCapacity);
+    }
+}
@@ -0,0 +1,36 @@
+package org.ofdrw.pkg.storage;
+
+import java.nio.file.Path;
+
+/**
+ * 堆内存存储
+ * <p>
+ * 容器文件全部存放于JVM堆内存中，不产生任何磁盘IO，
+ * 适用于小文档的高频生成场景（如服务端批量生成票据）。
+ * <p>
+ * 单个文件最大约2GB，总大小受JVM堆内存限制。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 10:12:31
+ */
+public class HeapStorage implements ContainerStorage {
+
+    /**
+     * 内存文件系统
+     */
+    private final MemoryFileSystem fs;
+
+    public HeapStorage() {
+        this.fs = new MemoryFileSystem(HeapFileData::new);
+    }
+
+    @Override
+    public Path getRoot() {
+        return fs.getPath("/");
+    }
+
+    @Override
+    public void close() {
+        fs.close();
+    }
+}
@@ -0,0 +1,143 @@
+package org.ofdrw.pkg.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * 内存映射块池
+ * <p>
+ * 将临时文件按段（Segment）映射到内存，并以固定大小的块分配给文件使用，
+ * 文件删除后块将被回收复用。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 10:12:31
+ */
+final class MappedBlockPool implements Closeable {
+
+    /**
+     * 块大小 16KB
+     */
+    static final int BLOCK_SIZE = 16 * 1024;
+
+    /**
+     * 每个映射段包含的块数量，每段 4MB
+     */
+    private static final int BLOCKS_PER_SEGMENT = 256;
+
+    /**
+     * 用于清零块的空数据
+     */
+    private static final byte[] ZERO = new byte[BLOCK_SIZE];
+
+    /**
+     * 临时文件
+     */
+    private final Path scratchFile;
+
+    /**
+     * 临时文件通道
+     */
+    private final FileChannel channel;
+
+    /**
+     * 已经映射的段
+     */
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+
+    /**
+     * 回收的块
+     */
+    private final Deque<Integer> freeBlocks = new ArrayDeque<>();
+
+    /**
+     * 已经分配过的块数量
+     */
+    private int blockCount = 0;
+
+    /**
+     * 在指定目录中创建临时文件作为映射空间
+     *
+     * @param scratchDir 临时文件所在目录，null表示操作系统临时目录
+     * @throws IOException 临时文件创建失败
+     */
+    MappedBlockPool(Path scratchDir) throws IOException {
+        if (scratchDir == null) {
+            scratchFile = Files.createTempFile("ofd-mmap-", ".tmp");
+        } else {
+            scratchFile = Files.createTempFile(scratchDir, "ofd-mmap-", ".tmp");
+        }
+        scratchFile.toFile().deleteOnExit();
+        channel = FileChannel.open(scratchFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * 分配一个块，块中内容为0
+     *
+     * @return 块号
+     * @throws IOException 映射空间扩展失败
+     */
+    synchronized int allocate() throws IOException {
+        int id;
+        if (!freeBlocks.isEmpty()) {
+            id = freeBlocks.pop();
+        } else {
+            if (blockCount == segments.size() * BLOCKS_PER_SEGMENT) {
+                long offset = (long) segments.size() * BLOCKS_PER_SEGMENT * BLOCK_SIZE;
+                segments.add(channel.map(FileChannel.MapMode.READ_WRITE, offset, (long) BLOCKS_PER_SEGMENT * BLOCK_SIZE));
+            }
+            id = blockCount++;
+        }
+        block(id).put(ZERO);
+        return id;
+    }
+
+    /**
+     * 回收块
+     *
+     * @param id 块号
+     */
+    synchronized void free(int id) {
+        freeBlocks.push(id);
+    }
+
+    /**
+     * 获取块对应的缓冲区
+     *
+     * @param id 块号
+     * @return 块缓冲区视图，position 为0，limit 为块大小
+     */
+    synchronized ByteBuffer block(int id) {
+        ByteBuffer segment = segments.get(id / BLOCKS_PER_SEGMENT).duplicate();
+        int offset = (id % BLOCKS_PER_SEGMENT) * BLOCK_SIZE;
+        segment.position(offset);
+        segment.limit(offset + BLOCK_SIZE);
+        return segment.slice();
+    }
+
+    /**
+     * 关闭映射文件并删除
+     *
+     * @throws IOException 关闭异常
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        segments.clear();
+        freeBlocks.clear();
+        channel.close();
+        try {
+            Files.deleteIfExists(scratchFile);
+        } catch (IOException e) {
+            // 部分操作系统在映射被回收前不允许删除文件，交由 deleteOnExit 处理
+        }
+    }
+}
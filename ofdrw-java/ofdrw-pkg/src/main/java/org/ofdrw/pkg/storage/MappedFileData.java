@@ -0,0 +1,139 @@
+package org.ofdrw.pkg.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * 内存映射文件数据
+ * <p>
+ * 文件内容按块存放于 {@link MappedBlockPool} 映射的临时文件中
+ *
+ * @author 权观宇
+ * @since 2026-10-16 10:12:31
+ */
+final class MappedFileData implements FileData {
+
+    private static final int BS = MappedBlockPool.BLOCK_SIZE;
+
+    /**
+     * 块池
+     */
+    private final MappedBlockPool pool;
+
+    /**
+     * 文件占用的块号
+     */
+    private int[] blocks = new int[4];
+
+    /**
+     * 占用块数量
+     */
+    private int blockNum = 0;
+
+    /**
+     * 文件大小
+     */
+    private long size = 0;
+
+    MappedFileData(MappedBlockPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public int read(long pos, ByteBuffer dst) {
+        if (pos >= size) {
+            return -1;
+        }
+        int total = (int) Math.min(dst.remaining(), size - pos);
+        int remain = total;
+        while (remain > 0) {
+            int offset = (int) (pos % BS);
+            int n = Math.min(remain, BS - offset);
+            ByteBuffer block = pool.block(blocks[(int) (pos / BS)]);
+            block.position(offset);
+            block.limit(offset + n);
+            dst.put(block);
+            pos += n;
+            remain -= n;
+        }
+        return total;
+    }
+
+    @Override
+    public int write(long pos, ByteBuffer src) throws IOException {
+        int total = src.remaining();
+        long end = pos + total;
+        ensureBlocks(end);
+        int srcLimit = src.limit();
+        while (src.hasRemaining()) {
+            int offset = (int) (pos % BS);
+            int n = Math.min(src.remaining(), BS - offset);
+            ByteBuffer block = pool.block(blocks[(int) (pos / BS)]);
+            block.position(offset);
+            src.limit(src.position() + n);
+            block.put(src);
+            src.limit(srcLimit);
+            pos += n;
+        }
+        if (end > size) {
+            size = end;
+        }
+        return total;
+    }
+
+    @Override
+    public void truncate(long newSize) {
+        if (newSize >= size) {
+            return;
+        }
+        int keep = (int) ((newSize + BS - 1) / BS);
+        for (int i = keep; i < blockNum; i++) {
+            pool.free(blocks[i]);
+        }
+        blockNum = keep;
+        // 清除最后一个块中被截断的内容，保证再次扩展时以0填充
+        int tail = (int) (newSize % BS);
+        if (tail != 0) {
+            ByteBuffer block = pool.block(blocks[keep - 1]);
+            block.position(tail);
+            while (block.hasRemaining()) {
+                block.put((byte) 0);
+            }
+        }
+        size = newSize;
+    }
+
+    @Override
+    public void release() {
+        for (int i = 0; i < blockNum; i++) {
+            pool.free(blocks[i]);
+        }
+        blockNum = 0;
+        size = 0;
+    }
+
+    /**
+     * 确保有足够的块容纳指定大小的数据
+     *
+     * @param end 数据末尾位置
+     * @throws IOException 块分配失败
+     */
+    private void ensureBlocks(long end) throws IOException {
+        long need = (end + BS - 1) / BS;
+        if (need > Integer.MAX_VALUE) {
+            throw new IOException("文件大小超过内存映射存储上限");
+        }
+        if (need > blocks.length) {
+            blocks = Arrays.copyOf(blocks, (int) Math.max(need, blocks.length * 2L));
+        }
+        while (blockNum < need) {
+            blocks[blockNum++] = pool.allocate();
+        }
+    }
+}
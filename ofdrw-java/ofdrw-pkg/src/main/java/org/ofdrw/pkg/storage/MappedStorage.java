@@ -0,0 +1,59 @@
+package org.ofdrw.pkg.storage;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 内存映射存储
+ * <p>
+ * 容器文件内容存放于内存映射的临时文件中，由操作系统负责换页，
+ * 不占用JVM堆内存，适用于包含大量图片等资源的大文档。
+ * <p>
+ * 目录结构保存在内存中，临时文件在存储关闭时删除。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 10:12:31
+ */
+public class MappedStorage implements ContainerStorage {
+
+    /**
+     * 映射块池
+     */
+    private final MappedBlockPool pool;
+
+    /**
+     * 内存文件系统
+     */
+    private final MemoryFileSystem fs;
+
+    /**
+     * 在操作系统临时目录中创建映射文件
+     *
+     * @throws IOException 映射文件创建失败
+     */
+    public MappedStorage() throws IOException {
+        this(null);
+    }
+
+    /**
+     * 在指定目录中创建映射文件
+     *
+     * @param scratchDir 映射文件所在目录，null表示操作系统临时目录
+     * @throws IOException 映射文件创建失败
+     */
+    public MappedStorage(Path scratchDir) throws IOException {
+        this.pool = new MappedBlockPool(scratchDir);
+        this.fs = new MemoryFileSystem(() -> new MappedFileData(pool));
+    }
+
+    @Override
+    public Path getRoot() {
+        return fs.getPath("/");
+    }
+
+    @Override
+    public void close() throws IOException {
+        fs.close();
+        pool.close();
+    }
+}
@@ -0,0 +1,102 @@
+package org.ofdrw.pkg.storage;
+
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.FileAttributeView;
+import java.nio.file.attribute.FileStoreAttributeView;
+
+/**
+ * 内存文件系统的文件存储
+ * <p>
+ * 每个内存文件系统只有一个文件存储，容量按JVM堆内存估计。
+ *
+ * @author 权观宇
+ * @since 2026-10-17 10:21:43
+ */
+final class MemoryFileStore extends FileStore {
+
+    /**
+     * 所属文件系统
+     */
+    private final MemoryFileSystem fs;
+
+    MemoryFileStore(MemoryFileSystem fs) {
+        this.fs = fs;
+    }
+
+    @Override
+    public String name() {
+        return fs.getId();
+    }
+
+    @Override
+    public String type() {
+        return MemoryFileSystemProvider.SCHEME;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return false;
+    }
+
+    /**
+     * 获取存储容量
+     *
+     * @return JVM最大堆内存
+     */
+    @Override
+    public long getTotalSpace() {
+        return Runtime.getRuntime().maxMemory();
+    }
+
+    /**
+     * 获取可用容量
+     *
+     * @return JVM尚可分配的堆内存
+     */
+    @Override
+    public long getUsableSpace() {
+        Runtime rt = Runtime.getRuntime();
+        return Math.max(0, rt.maxMemory() - (rt.totalMemory() - rt.freeMemory()));
+    }
+
+    @Override
+    public long getUnallocatedSpace() {
+        return getUsableSpace();
+    }
+
+    @Override
+    public boolean supportsFileAttributeView(Class<? extends FileAttributeView> type) {
+        return type == BasicFileAttributeView.class;
+    }
+
+    @Override
+    public boolean supportsFileAttributeView(String name) {
+        return "basic".equals(name);
+    }
+
+    @Override
+    public <V extends FileStoreAttributeView> V getFileStoreAttributeView(Class<V> type) {
+        return null;
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws IOException {
+        switch (attribute) {
+            case "totalSpace":
+                return getTotalSpace();
+            case "usableSpace":
+                return getUsableSpace();
+            case "unallocatedSpace":
+                return getUnallocatedSpace();
+            default:
+                throw new UnsupportedOperationException("不支持的属性: " + attribute);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name() + " (" + type() + ")";
+    }
+}
@@ -0,0 +1,665 @@
+package org.ofdrw.pkg.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.GroupPrincipal;
+import java.nio.file.attribute.UserPrincipal;
+import java.nio.file.attribute.UserPrincipalLookupService;
+import java.nio.file.attribute.UserPrincipalNotFoundException;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * 内存文件系统
+ * <p>
+ * 以树形结构在内存中保存目录与文件，文件内容由 {@link FileData} 承载，
+ * 可以是堆内存或内存映射的临时文件。
+ * <p>
+ * 所有结构变更使用文件系统级别的锁串行化。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 10:12:31
+ */
+final class MemoryFileSystem extends FileSystem {
+
+    private static final AtomicLong ID_SEQ = new AtomicLong();
+
+    /**
+     * 文件系统ID，用于URI
+     */
+    private final String id;
+
+    /**
+     * 文件内容创建工厂
+     */
+    private final Supplier<FileData> dataFactory;
+
+    /**
+     * 根目录
+     */
+    private final Dir root = new Dir();
+
+    /**
+     * 文件存储
+     */
+    private final MemoryFileStore store = new MemoryFileStore(this);
+
+    /**
+     * 已经打开的目录监视服务
+     */
+    private final List<MemoryWatchService> watchers = new CopyOnWriteArrayList<>();
+
+    /**
+     * 是否已经关闭
+     */
+    private volatile boolean open = true;
+
+    MemoryFileSystem(Supplier<FileData> dataFactory) {
+        this.id = "fs" + ID_SEQ.incrementAndGet();
+        this.dataFactory = dataFactory;
+        MemoryFileSystemProvider.INSTANCE.register(this);
+    }
+
+    /**
+     * 获取文件系统ID
+     *
+     * @return ID
+     */
+    String getId() {
+        return id;
+    }
+
+    @Override
+    public MemoryFileSystemProvider provider() {
+        return MemoryFileSystemProvider.INSTANCE;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!open) {
+            return;
+        }
+        open = false;
+        for (MemoryWatchService watcher : watchers) {
+            watcher.close();
+        }
+        release(root);
+        root.children.clear();
+        MemoryFileSystemProvider.INSTANCE.unregister(this);
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return false;
+    }
+
+    @Override
+    public String getSeparator() {
+        return "/";
+    }
+
+    @Override
+    public Iterable<Path> getRootDirectories() {
+        return Collections.<Path>singletonList(new MemoryPath(this, "/"));
+    }
+
+    @Override
+    public Iterable<FileStore> getFileStores() {
+        return Collections.<FileStore>singletonList(store);
+    }
+
+    /**
+     * 获取文件存储
+     *
+     * @return 文件系统唯一的文件存储
+     */
+    MemoryFileStore getFileStore() {
+        return store;
+    }
+
+    @Override
+    public Set<String> supportedFileAttributeViews() {
+        return Collections.singleton("basic");
+    }
+
+    @Override
+    public MemoryPath getPath(String first, String... more) {
+        if (more.length == 0) {
+            return new MemoryPath(this, first);
+        }
+        StringBuilder sb = new StringBuilder(first);
+        for (String item : more) {
+            if (item.isEmpty()) {
+                continue;
+            }
+            if (sb.length() > 0) {
+                sb.append('/');
+            }
+            sb.append(item);
+        }
+        return new MemoryPath(this, sb.toString());
+    }
+
+    @Override
+    public PathMatcher getPathMatcher(String syntaxAndPattern) {
+        int idx = syntaxAndPattern.indexOf(':');
+        if (idx <= 0) {
+            throw new IllegalArgumentException(syntaxAndPattern);
+        }
+        String syntax = syntaxAndPattern.substring(0, idx);
+        String expr = syntaxAndPattern.substring(idx + 1);
+        final Pattern pattern;
+        if (syntax.equalsIgnoreCase("regex")) {
+            pattern = Pattern.compile(expr);
+        } else if (syntax.equalsIgnoreCase("glob")) {
+            pattern = Pattern.compile(globToRegex(expr));
+        } else {
+            throw new UnsupportedOperationException("不支持的匹配语法: " + syntax);
+        }
+        return path -> pattern.matcher(path.toString()).matches();
+    }
+
+    /**
+     * 内存文件系统中的文件没有所有者，查找任何用户或用户组都将抛出 {@link UserPrincipalNotFoundException}
+     *
+     * @return 用户查找服务
+     */
+    @Override
+    public UserPrincipalLookupService getUserPrincipalLookupService() {
+        return new UserPrincipalLookupService() {
+            @Override
+            public UserPrincipal lookupPrincipalByName(String name) throws IOException {
+                throw new UserPrincipalNotFoundException(name);
+            }
+
+            @Override
+            public GroupPrincipal lookupPrincipalByGroupName(String group) throws IOException {
+                throw new UserPrincipalNotFoundException(group);
+            }
+        };
+    }
+
+    @Override
+    public WatchService newWatchService() {
+        checkOpen();
+        MemoryWatchService watcher = new MemoryWatchService(this);
+        watchers.add(watcher);
+        return watcher;
+    }
+
+    void removeWatchService(MemoryWatchService watcher) {
+        watchers.remove(watcher);
+    }
+
+    /*
+     * ------------------------ 文件操作，由 MemoryFileSystemProvider 调用 ------------------------
+     */
+
+    synchronized SeekableByteChannel newByteChannel(MemoryPath path, Set<? extends OpenOption> options) throws IOException {
+        checkOpen();
+        boolean write = options.contains(StandardOpenOption.WRITE) || options.contains(StandardOpenOption.APPEND);
+        boolean create = options.contains(StandardOpenOption.CREATE) || options.contains(StandardOpenOption.CREATE_NEW);
+        Dir parent = parentDir(path);
+        String name = fileName(path);
+        Node node = parent.children.get(name);
+        if (node == null) {
+            if (!write || !create) {
+                throw new NoSuchFileException(path.toString());
+            }
+            node = new FileNode(dataFactory.get());
+            parent.children.put(name, node);
+            parent.touch();
+            signal(path, StandardWatchEventKinds.ENTRY_CREATE);
+        } else {
+            if (write && options.contains(StandardOpenOption.CREATE_NEW)) {
+                throw new FileAlreadyExistsException(path.toString());
+            }
+            if (node instanceof Dir) {
+                throw new FileSystemException(path.toString(), null, "Is a directory");
+            }
+        }
+        FileNode file = (FileNode) node;
+        if (write && options.contains(StandardOpenOption.TRUNCATE_EXISTING)) {
+            file.data.truncate(0);
+            file.touch();
+            signal(path, StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+        return new Channel(path, file, write, options.contains(StandardOpenOption.APPEND));
+    }
+
+    synchronized List<String> list(MemoryPath dir) throws IOException {
+        checkOpen();
+        Node node = lookup(dir);
+        if (!(node instanceof Dir)) {
+            throw new NotDirectoryException(dir.toString());
+        }
+        return new ArrayList<>(((Dir) node).children.keySet());
+    }
+
+    synchronized void createDirectory(MemoryPath path) throws IOException {
+        checkOpen();
+        Dir parent = parentDir(path);
+        String name = fileName(path);
+        if (parent.children.containsKey(name)) {
+            throw new FileAlreadyExistsException(path.toString());
+        }
+        parent.children.put(name, new Dir());
+        parent.touch();
+        signal(path, StandardWatchEventKinds.ENTRY_CREATE);
+    }
+
+    synchronized void delete(MemoryPath path) throws IOException {
+        checkOpen();
+        Dir parent = parentDir(path);
+        String name = fileName(path);
+        Node node = parent.children.get(name);
+        if (node == null) {
+            throw new NoSuchFileException(path.toString());
+        }
+        if (node instanceof Dir && !((Dir) node).children.isEmpty()) {
+            throw new DirectoryNotEmptyException(path.toString());
+        }
+        parent.children.remove(name);
+        parent.touch();
+        release(node);
+        signal(path, StandardWatchEventKinds.ENTRY_DELETE);
+        if (node instanceof Dir) {
+            invalidateWatch(path);
+        }
+    }
+
+    synchronized void move(MemoryPath source, MemoryPath target, boolean replace) throws IOException {
+        checkOpen();
+        Dir srcParent = parentDir(source);
+        String srcName = fileName(source);
+        Node node = srcParent.children.get(srcName);
+        if (node == null) {
+            throw new NoSuchFileException(source.toString());
+        }
+        if (absolute(source).equals(absolute(target))) {
+            return;
+        }
+        Dir dstParent = parentDir(target);
+        String dstName = fileName(target);
+        Node exist = dstParent.children.get(dstName);
+        if (exist != null) {
+            if (!replace) {
+                throw new FileAlreadyExistsException(target.toString());
+            }
+            if (exist instanceof Dir && !((Dir) exist).children.isEmpty()) {
+                throw new DirectoryNotEmptyException(target.toString());
+            }
+            release(exist);
+        }
+        srcParent.children.remove(srcName);
+        dstParent.children.put(dstName, node);
+        srcParent.touch();
+        dstParent.touch();
+        signal(source, StandardWatchEventKinds.ENTRY_DELETE);
+        signal(target, exist == null ? StandardWatchEventKinds.ENTRY_CREATE : StandardWatchEventKinds.ENTRY_MODIFY);
+        if (node instanceof Dir) {
+            invalidateWatch(source);
+        }
+    }
+
+    synchronized BasicFileAttributes readAttributes(MemoryPath path) throws IOException {
+        checkOpen();
+        Node node = lookup(path);
+        long size = node instanceof FileNode ? ((FileNode) node).data.size() : 0;
+        return new Attributes(node, size);
+    }
+
+    synchronized void setTimes(MemoryPath path, FileTime modified, FileTime accessed, FileTime created) throws IOException {
+        checkOpen();
+        Node node = lookup(path);
+        if (modified != null) {
+            node.modified = modified;
+        }
+        if (accessed != null) {
+            node.accessed = accessed;
+        }
+        if (created != null) {
+            node.created = created;
+        }
+    }
+
+    /**
+     * 检查路径是否存在
+     *
+     * @param path 路径
+     * @throws IOException 文件不存在
+     */
+    synchronized void checkExist(MemoryPath path) throws IOException {
+        checkOpen();
+        lookup(path);
+    }
+
+    /**
+     * 向监视路径所在目录的监视键发送事件
+     *
+     * @param path 发生变化的路径
+     * @param kind 事件类型
+     */
+    private void signal(MemoryPath path, WatchEvent.Kind<Path> kind) {
+        if (watchers.isEmpty()) {
+            return;
+        }
+        List<String> names = absolute(path);
+        List<String> dir = names.subList(0, names.size() - 1);
+        String name = names.get(names.size() - 1);
+        for (MemoryWatchService watcher : watchers) {
+            watcher.signal(dir, kind, name);
+        }
+    }
+
+    /**
+     * 目录被删除或移走后，使该目录及其子目录的监视键失效
+     *
+     * @param dir 目录路径
+     */
+    private void invalidateWatch(MemoryPath dir) {
+        List<String> names = absolute(dir);
+        for (MemoryWatchService watcher : watchers) {
+            watcher.invalidate(names);
+        }
+    }
+
+    private void checkOpen() {
+        if (!open) {
+            throw new ClosedFileSystemException();
+        }
+    }
+
+    private static List<String> absolute(MemoryPath path) {
+        return ((MemoryPath) path.toAbsolutePath().normalize()).names();
+    }
+
+    private static String fileName(MemoryPath path) throws IOException {
+        List<String> names = absolute(path);
+        if (names.isEmpty()) {
+            throw new FileSystemException(path.toString(), null, "根目录不支持该操作");
+        }
+        return names.get(names.size() - 1);
+    }
+
+    private Node lookup(MemoryPath path) throws NoSuchFileException {
+        Node node = root;
+        for (String name : absolute(path)) {
+            if (!(node instanceof Dir)) {
+                throw new NoSuchFileException(path.toString());
+            }
+            node = ((Dir) node).children.get(name);
+            if (node == null) {
+                throw new NoSuchFileException(path.toString());
+            }
+        }
+        return node;
+    }
+
+    private Dir parentDir(MemoryPath path) throws IOException {
+        List<String> names = absolute(path);
+        Node node = root;
+        for (int i = 0; i < names.size() - 1; i++) {
+            node = ((Dir) node).children.get(names.get(i));
+            if (node == null) {
+                throw new NoSuchFileException(path.toString());
+            }
+            if (!(node instanceof Dir)) {
+                throw new NotDirectoryException(path.toString());
+            }
+        }
+        return (Dir) node;
+    }
+
+    private static void release(Node node) {
+        if (node instanceof FileNode) {
+            ((FileNode) node).data.release();
+        } else {
+            for (Node child : ((Dir) node).children.values()) {
+                release(child);
+            }
+        }
+    }
+
+    private static String globToRegex(String glob) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            switch (c) {
+                case '*':
+                    if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                        sb.append(".*");
+                        i++;
+                    } else {
+                        sb.append("[^/]*");
+                    }
+                    break;
+                case '?':
+                    sb.append("[^/]");
+                    break;
+                case '{':
+                    sb.append("(?:");
+                    break;
+                case '}':
+                    sb.append(')');
+                    break;
+                case ',':
+                    sb.append('|');
+                    break;
+                default:
+                    if ("\\.[]()+^$|".indexOf(c) >= 0) {
+                        sb.append('\\');
+                    }
+                    sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    /*
+     * ------------------------ 节点 ------------------------
+     */
+
+    private abstract static class Node {
+        FileTime created;
+        FileTime modified;
+        FileTime accessed;
+
+        Node() {
+            created = FileTime.fromMillis(System.currentTimeMillis());
+            modified = created;
+            accessed = created;
+        }
+
+        void touch() {
+            modified = FileTime.fromMillis(System.currentTimeMillis());
+        }
+    }
+
+    private static final class Dir extends Node {
+        final TreeMap<String, Node> children = new TreeMap<>();
+    }
+
+    private static final class FileNode extends Node {
+        final FileData data;
+
+        FileNode(FileData data) {
+            this.data = data;
+        }
+    }
+
+    private static final class Attributes implements BasicFileAttributes {
+        private final Node node;
+        private final long size;
+
+        Attributes(Node node, long size) {
+            this.node = node;
+            this.size = size;
+        }
+
+        @Override
+        public FileTime lastModifiedTime() {
+            return node.modified;
+        }
+
+        @Override
+        public FileTime lastAccessTime() {
+            return node.accessed;
+        }
+
+        @Override
+        public FileTime creationTime() {
+            return node.created;
+        }
+
+        @Override
+        public boolean isRegularFile() {
+            return node instanceof FileNode;
+        }
+
+        @Override
+        public boolean isDirectory() {
+            return node instanceof Dir;
+        }
+
+        @Override
+        public boolean isSymbolicLink() {
+            return false;
+        }
+
+        @Override
+        public boolean isOther() {
+            return false;
+        }
+
+        @Override
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public Object fileKey() {
+            return null;
+        }
+    }
+
+    /**
+     * 内存文件通道
+     */
+    private final class Channel implements SeekableByteChannel {
+        private final MemoryPath path;
+        private final FileNode file;
+        private final boolean writable;
+        private final boolean append;
+        private long position = 0;
+        private boolean closed = false;
+
+        Channel(MemoryPath path, FileNode file, boolean writable, boolean append) {
+            this.path = path;
+            this.file = file;
+            this.writable = writable;
+            this.append = append;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            synchronized (MemoryFileSystem.this) {
+                ensureOpen();
+                int n = file.data.read(position, dst);
+                if (n > 0) {
+                    position += n;
+                }
+                return n;
+            }
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            synchronized (MemoryFileSystem.this) {
+                ensureOpen();
+                if (!writable) {
+                    throw new NonWritableChannelException();
+                }
+                if (append) {
+                    position = file.data.size();
+                }
+                int n = file.data.write(position, src);
+                position += n;
+                file.touch();
+                signal(path, StandardWatchEventKinds.ENTRY_MODIFY);
+                return n;
+            }
+        }
+
+        @Override
+        public long position() throws IOException {
+            ensureOpen();
+            return position;
+        }
+
+        @Override
+        public SeekableByteChannel position(long newPosition) throws IOException {
+            ensureOpen();
+            if (newPosition < 0) {
+                throw new IllegalArgumentException();
+            }
+            position = newPosition;
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            synchronized (MemoryFileSystem.this) {
+                ensureOpen();
+                return file.data.size();
+            }
+        }
+
+        @Override
+        public SeekableByteChannel truncate(long size) throws IOException {
+            synchronized (MemoryFileSystem.this) {
+                ensureOpen();
+                if (!writable) {
+                    throw new NonWritableChannelException();
+                }
+                file.data.truncate(size);
+                file.touch();
+                signal(path, StandardWatchEventKinds.ENTRY_MODIFY);
+                if (position > size) {
+                    position = size;
+                }
+                return this;
+            }
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !closed && open;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        private void ensureOpen() throws IOException {
+            if (!isOpen()) {
+                throw new ClosedChannelException();
+            }
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package org.ofdrw.pkg.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.*;
+import java.nio.file.attribute.*;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 内存文件系统提供者
+ * <p>
+ * 仅通过 {@link HeapStorage}、{@link MappedStorage} 创建文件系统，
+ * 不支持通过 {@link #newFileSystem(URI, Map)} 创建。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 10:12:31
+ */
+final class MemoryFileSystemProvider extends FileSystemProvider {
+
+    /**
+     * URI 协议名称
+     */
+    static final String SCHEME = "ofdmem";
+
+    static final MemoryFileSystemProvider INSTANCE = new MemoryFileSystemProvider();
+
+    /**
+     * 已经打开的文件系统
+     */
+    private final Map<String, MemoryFileSystem> fileSystems = new ConcurrentHashMap<>();
+
+    private MemoryFileSystemProvider() {
+    }
+
+    void register(MemoryFileSystem fs) {
+        fileSystems.put(fs.getId(), fs);
+    }
+
+    void unregister(MemoryFileSystem fs) {
+        fileSystems.remove(fs.getId());
+    }
+
+    @Override
+    public String getScheme() {
+        return SCHEME;
+    }
+
+    @Override
+    public FileSystem newFileSystem(URI uri, Map<String, ?> env) {
+        throw new UnsupportedOperationException("请使用 HeapStorage 或 MappedStorage 创建内存文件系统");
+    }
+
+    @Override
+    public FileSystem getFileSystem(URI uri) {
+        if (!SCHEME.equalsIgnoreCase(uri.getScheme())) {
+            throw new IllegalArgumentException("URI协议不匹配: " + uri);
+        }
+        MemoryFileSystem fs = fileSystems.get(uri.getHost());
+        if (fs == null) {
+            throw new FileSystemNotFoundException(uri.toString());
+        }
+        return fs;
+    }
+
+    @Override
+    public Path getPath(URI uri) {
+        return getFileSystem(uri).getPath(uri.getPath());
+    }
+
+    @Override
+    public SeekableByteChannel newByteChannel(Path path, Set<? extends OpenOption> options, FileAttribute<?>... attrs) throws IOException {
+        MemoryPath p = MemoryPath.cast(path);
+        return p.getFileSystem().newByteChannel(p, options);
+    }
+
+    @Override
+    public InputStream newInputStream(Path path, OpenOption... options) throws IOException {
+        for (OpenOption opt : options) {
+            if (opt == StandardOpenOption.APPEND || opt == StandardOpenOption.WRITE) {
+                throw new UnsupportedOperationException("'" + opt + "' not allowed");
+            }
+        }
+        return super.newInputStream(path, options);
+    }
+
+    @Override
+    public DirectoryStream<Path> newDirectoryStream(Path dir, DirectoryStream.Filter<? super Path> filter) throws IOException {
+        final MemoryPath p = MemoryPath.cast(dir);
+        List<Path> entries = new ArrayList<>();
+        for (String name : p.getFileSystem().list(p)) {
+            Path item = p.resolve(name);
+            if (filter == null || filter.accept(item)) {
+                entries.add(item);
+            }
+        }
+        return new DirectoryStream<Path>() {
+            private boolean iterated = false;
+
+            @Override
+            public Iterator<Path> iterator() {
+                if (iterated) {
+                    throw new IllegalStateException("Iterator already obtained");
+                }
+                iterated = true;
+                return entries.iterator();
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    @Override
+    public void createDirectory(Path dir, FileAttribute<?>... attrs) throws IOException {
+        MemoryPath p = MemoryPath.cast(dir);
+        p.getFileSystem().createDirectory(p);
+    }
+
+    @Override
+    public void delete(Path path) throws IOException {
+        MemoryPath p = MemoryPath.cast(path);
+        p.getFileSystem().delete(p);
+    }
+
+    @Override
+    public void copy(Path source, Path target, CopyOption... options) throws IOException {
+        MemoryPath src = MemoryPath.cast(source);
+        MemoryPath dst = MemoryPath.cast(target);
+        boolean replace = Arrays.asList(options).contains(StandardCopyOption.REPLACE_EXISTING);
+        BasicFileAttributes attr = src.getFileSystem().readAttributes(src);
+        if (isSameFile(src, dst)) {
+            return;
+        }
+        if (exists(dst)) {
+            if (!replace) {
+                throw new FileAlreadyExistsException(dst.toString());
+            }
+            delete(dst);
+        }
+        if (attr.isDirectory()) {
+            createDirectory(dst);
+        } else {
+            Set<OpenOption> opts = new HashSet<>();
+            opts.add(StandardOpenOption.CREATE_NEW);
+            opts.add(StandardOpenOption.WRITE);
+            try (InputStream in = newInputStream(src);
+                 OutputStream out = Channels.newOutputStream(newByteChannel(dst, opts))) {
+                byte[] buf = new byte[8192];
+                int n;
+                while ((n = in.read(buf)) != -1) {
+                    out.write(buf, 0, n);
+                }
+            }
+        }
+        if (Arrays.asList(options).contains(StandardCopyOption.COPY_ATTRIBUTES)) {
+            dst.getFileSystem().setTimes(dst, attr.lastModifiedTime(), attr.lastAccessTime(), attr.creationTime());
+        }
+    }
+
+    @Override
+    public void move(Path source, Path target, CopyOption... options) throws IOException {
+        MemoryPath src = MemoryPath.cast(source);
+        MemoryPath dst = MemoryPath.cast(target);
+        boolean replace = Arrays.asList(options).contains(StandardCopyOption.REPLACE_EXISTING);
+        if (src.getFileSystem() == dst.getFileSystem()) {
+            src.getFileSystem().move(src, dst, replace);
+            return;
+        }
+        // 跨文件系统移动，复制后删除源文件
+        if (src.getFileSystem().readAttributes(src).isDirectory() && !src.getFileSystem().list(src).isEmpty()) {
+            throw new DirectoryNotEmptyException(src.toString());
+        }
+        copy(src, dst, replace
+                ? new CopyOption[]{StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES}
+                : new CopyOption[]{StandardCopyOption.COPY_ATTRIBUTES});
+        delete(src);
+    }
+
+    @Override
+    public boolean isSameFile(Path path, Path path2) throws IOException {
+        if (path.equals(path2)) {
+            return true;
+        }
+        if (!(path instanceof MemoryPath) || !(path2 instanceof MemoryPath)) {
+            return false;
+        }
+        return path.getFileSystem() == path2.getFileSystem()
+                && path.toAbsolutePath().normalize().equals(path2.toAbsolutePath().normalize());
+    }
+
+    @Override
+    public boolean isHidden(Path path) {
+        return false;
+    }
+
+    @Override
+    public FileStore getFileStore(Path path) throws IOException {
+        MemoryPath p = MemoryPath.cast(path);
+        p.getFileSystem().checkExist(p);
+        return p.getFileSystem().getFileStore();
+    }
+
+    @Override
+    public void checkAccess(Path path, AccessMode... modes) throws IOException {
+        MemoryPath p = MemoryPath.cast(path);
+        p.getFileSystem().checkExist(p);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <V extends FileAttributeView> V getFileAttributeView(Path path, Class<V> type, LinkOption... options) {
+        if (type != BasicFileAttributeView.class) {
+            return null;
+        }
+        final MemoryPath p = MemoryPath.cast(path);
+        return (V) new BasicFileAttributeView() {
+            @Override
+            public String name() {
+                return "basic";
+            }
+
+            @Override
+            public BasicFileAttributes readAttributes() throws IOException {
+                return p.getFileSystem().readAttributes(p);
+            }
+
+            @Override
+            public void setTimes(FileTime lastModifiedTime, FileTime lastAccessTime, FileTime createTime) throws IOException {
+                p.getFileSystem().setTimes(p, lastModifiedTime, lastAccessTime, createTime);
+            }
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <A extends BasicFileAttributes> A readAttributes(Path path, Class<A> type, LinkOption... options) throws IOException {
+        if (type != BasicFileAttributes.class) {
+            throw new UnsupportedOperationException("仅支持 BasicFileAttributes");
+        }
+        MemoryPath p = MemoryPath.cast(path);
+        return (A) p.getFileSystem().readAttributes(p);
+    }
+
+    @Override
+    public Map<String, Object> readAttributes(Path path, String attributes, LinkOption... options) throws IOException {
+        String attrs = attributes.startsWith("basic:") ? attributes.substring(6) : attributes;
+        BasicFileAttributes attr = readAttributes(path, BasicFileAttributes.class);
+        Map<String, Object> all = new HashMap<>();
+        all.put("lastModifiedTime", attr.lastModifiedTime());
+        all.put("lastAccessTime", attr.lastAccessTime());
+        all.put("creationTime", attr.creationTime());
+        all.put("size", attr.size());
+        all.put("isRegularFile", attr.isRegularFile());
+        all.put("isDirectory", attr.isDirectory());
+        all.put("isSymbolicLink", attr.isSymbolicLink());
+        all.put("isOther", attr.isOther());
+        all.put("fileKey", attr.fileKey());
+        if (attrs.equals("*")) {
+            return all;
+        }
+        Map<String, Object> res = new HashMap<>();
+        for (String name : attrs.split(",")) {
+            if (!all.containsKey(name)) {
+                throw new IllegalArgumentException("未知的属性: " + name);
+            }
+            res.put(name, all.get(name));
+        }
+        return res;
+    }
+
+    @Override
+    public void setAttribute(Path path, String attribute, Object value, LinkOption... options) throws IOException {
+        String name = attribute.startsWith("basic:") ? attribute.substring(6) : attribute;
+        MemoryPath p = MemoryPath.cast(path);
+        switch (name) {
+            case "lastModifiedTime":
+                p.getFileSystem().setTimes(p, (FileTime) value, null, null);
+                break;
+            case "lastAccessTime":
+                p.getFileSystem().setTimes(p, null, (FileTime) value, null);
+                break;
+            case "creationTime":
+                p.getFileSystem().setTimes(p, null, null, (FileTime) value);
+                break;
+            default:
+                throw new UnsupportedOperationException("不支持设置属性: " + attribute);
+        }
+    }
+
+    private static boolean exists(MemoryPath path) {
+        try {
+            path.getFileSystem().checkExist(path);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package org.ofdrw.pkg.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 内存文件系统路径
+ * <p>
+ * 使用 "/" 作为分隔符，"/" 开头的路径为绝对路径。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 10:12:31
+ */
+final class MemoryPath implements Path {
+
+    /**
+     * 所属文件系统
+     */
+    private final MemoryFileSystem fs;
+
+    /**
+     * 是否为绝对路径
+     */
+    private final boolean absolute;
+
+    /**
+     * 路径中的各级名称
+     */
+    private final List<String> names;
+
+    MemoryPath(MemoryFileSystem fs, String path) {
+        this.fs = fs;
+        this.absolute = path.startsWith("/");
+        List<String> items = new ArrayList<>();
+        for (String item : path.split("/")) {
+            if (!item.isEmpty()) {
+                items.add(item);
+            }
+        }
+        this.names = Collections.unmodifiableList(items);
+    }
+
+    private MemoryPath(MemoryFileSystem fs, boolean absolute, List<String> names) {
+        this.fs = fs;
+        this.absolute = absolute;
+        this.names = Collections.unmodifiableList(new ArrayList<>(names));
+    }
+
+    /**
+     * 获取路径中的各级名称
+     *
+     * @return 名称列表（只读）
+     */
+    List<String> names() {
+        return names;
+    }
+
+    /**
+     * 转换为内存文件系统路径
+     *
+     * @param path 路径
+     * @return 内存文件系统路径
+     * @throws ProviderMismatchException 路径不属于内存文件系统
+     */
+    static MemoryPath cast(Path path) {
+        if (path == null) {
+            throw new NullPointerException();
+        }
+        if (!(path instanceof MemoryPath)) {
+            throw new ProviderMismatchException();
+        }
+        return (MemoryPath) path;
+    }
+
+    @Override
+    public MemoryFileSystem getFileSystem() {
+        return fs;
+    }
+
+    @Override
+    public boolean isAbsolute() {
+        return absolute;
+    }
+
+    @Override
+    public Path getRoot() {
+        return absolute ? new MemoryPath(fs, true, Collections.<String>emptyList()) : null;
+    }
+
+    @Override
+    public Path getFileName() {
+        if (names.isEmpty()) {
+            return absolute ? null : this;
+        }
+        return new MemoryPath(fs, false, names.subList(names.size() - 1, names.size()));
+    }
+
+    @Override
+    public Path getParent() {
+        if (names.isEmpty()) {
+            return null;
+        }
+        if (names.size() == 1) {
+            return getRoot();
+        }
+        return new MemoryPath(fs, absolute, names.subList(0, names.size() - 1));
+    }
+
+    @Override
+    public int getNameCount() {
+        return names.size();
+    }
+
+    @Override
+    public Path getName(int index) {
+        if (index < 0 || index >= names.size()) {
+            throw new IllegalArgumentException("index: " + index);
+        }
+        return new MemoryPath(fs, false, names.subList(index, index + 1));
+    }
+
+    @Override
+    public Path subpath(int beginIndex, int endIndex) {
+        if (beginIndex < 0 || endIndex > names.size() || beginIndex >= endIndex) {
+            throw new IllegalArgumentException("beginIndex: " + beginIndex + ", endIndex: " + endIndex);
+        }
+        return new MemoryPath(fs, false, names.subList(beginIndex, endIndex));
+    }
+
+    @Override
+    public boolean startsWith(Path other) {
+        if (!(other instanceof MemoryPath) || other.getFileSystem() != fs) {
+            return false;
+        }
+        MemoryPath o = (MemoryPath) other;
+        if (o.absolute != absolute || o.names.size() > names.size()) {
+            return false;
+        }
+        return names.subList(0, o.names.size()).equals(o.names);
+    }
+
+    @Override
+    public boolean startsWith(String other) {
+        return startsWith(fs.getPath(other));
+    }
+
+    @Override
+    public boolean endsWith(Path other) {
+        if (!(other instanceof MemoryPath) || other.getFileSystem() != fs) {
+            return false;
+        }
+        MemoryPath o = (MemoryPath) other;
+        if (o.absolute) {
+            return this.equals(o);
+        }
+        if (o.names.size() > names.size()) {
+            return false;
+        }
+        return names.subList(names.size() - o.names.size(), names.size()).equals(o.names);
+    }
+
+    @Override
+    public boolean endsWith(String other) {
+        return endsWith(fs.getPath(other));
+    }
+
+    @Override
+    public Path normalize() {
+        List<String> res = new ArrayList<>(names.size());
+        for (String item : names) {
+            if (item.equals(".")) {
+                continue;
+            }
+            if (item.equals("..")) {
+                if (!res.isEmpty() && !res.get(res.size() - 1).equals("..")) {
+                    res.remove(res.size() - 1);
+                    continue;
+                }
+                if (absolute) {
+                    // 根目录的上级目录仍然为根目录
+                    continue;
+                }
+            }
+            res.add(item);
+        }
+        return new MemoryPath(fs, absolute, res);
+    }
+
+    @Override
+    public Path resolve(Path other) {
+        MemoryPath o = cast(other);
+        if (o.absolute) {
+            return o;
+        }
+        if (o.names.isEmpty()) {
+            return this;
+        }
+        List<String> res = new ArrayList<>(names.size() + o.names.size());
+        res.addAll(names);
+        res.addAll(o.names);
+        return new MemoryPath(fs, absolute, res);
+    }
+
+    @Override
+    public Path resolve(String other) {
+        return resolve(fs.getPath(other));
+    }
+
+    @Override
+    public Path resolveSibling(Path other) {
+        Path parent = getParent();
+        return parent == null ? other : parent.resolve(other);
+    }
+
+    @Override
+    public Path resolveSibling(String other) {
+        return resolveSibling(fs.getPath(other));
+    }
+
+    @Override
+    public Path relativize(Path other) {
+        MemoryPath o = cast(other);
+        if (o.absolute != absolute) {
+            throw new IllegalArgumentException("不同类型的路径无法计算相对路径");
+        }
+        int common = 0;
+        int max = Math.min(names.size(), o.names.size());
+        while (common < max && names.get(common).equals(o.names.get(common))) {
+            common++;
+        }
+        List<String> res = new ArrayList<>();
+        for (int i = common; i < names.size(); i++) {
+            res.add("..");
+        }
+        res.addAll(o.names.subList(common, o.names.size()));
+        return new MemoryPath(fs, false, res);
+    }
+
+    @Override
+    public URI toUri() {
+        try {
+            return new URI(MemoryFileSystemProvider.SCHEME, fs.getId(), toAbsolutePath().toString(), null);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public Path toAbsolutePath() {
+        if (absolute) {
+            return this;
+        }
+        return new MemoryPath(fs, true, names);
+    }
+
+    @Override
+    public Path toRealPath(LinkOption... options) throws IOException {
+        Path real = toAbsolutePath().normalize();
+        fs.provider().checkAccess(real);
+        return real;
+    }
+
+    @Override
+    public File toFile() {
+        throw new UnsupportedOperationException("内存文件系统中的路径无法转换为File");
+    }
+
+    @Override
+    public WatchKey register(WatchService watcher, WatchEvent.Kind<?>[] events, WatchEvent.Modifier... modifiers) throws IOException {
+        if (watcher == null) {
+            throw new NullPointerException();
+        }
+        if (!(watcher instanceof MemoryWatchService)) {
+            throw new ProviderMismatchException();
+        }
+        return ((MemoryWatchService) watcher).register(this, events);
+    }
+
+    @Override
+    public WatchKey register(WatchService watcher, WatchEvent.Kind<?>... events) throws IOException {
+        return register(watcher, events, new WatchEvent.Modifier[0]);
+    }
+
+    @Override
+    public Iterator<Path> iterator() {
+        List<Path> res = new ArrayList<>(names.size());
+        for (int i = 0; i < names.size(); i++) {
+            res.add(getName(i));
+        }
+        return res.iterator();
+    }
+
+    @Override
+    public int compareTo(Path other) {
+        return toString().compareTo(cast(other).toString());
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof MemoryPath)) {
+            return false;
+        }
+        MemoryPath o = (MemoryPath) obj;
+        return o.fs == fs && o.absolute == absolute && o.names.equals(names);
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(fs) * 31 + toString().hashCode();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        if (absolute) {
+            sb.append('/');
+        }
+        for (int i = 0; i < names.size(); i++) {
+            if (i > 0) {
+                sb.append('/');
+            }
+            sb.append(names.get(i));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,302 @@
+package org.ofdrw.pkg.storage;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 内存文件系统的目录监视服务
+ * <p>
+ * 文件的创建、删除、移动与写入在内存文件系统中执行时直接产生事件，不需要轮询。
+ * 支持 {@link StandardWatchEventKinds#ENTRY_CREATE}、{@link StandardWatchEventKinds#ENTRY_DELETE}、
+ * {@link StandardWatchEventKinds#ENTRY_MODIFY} 三类事件。
+ *
+ * @author 权观宇
+ * @since 2026-10-17 10:21:43
+ */
+final class MemoryWatchService implements WatchService {
+
+    /**
+     * 关闭时放入队列，用于唤醒等待中的线程
+     */
+    private static final WatchKey CLOSED = new Key(null, null, Collections.<String>emptyList());
+
+    /**
+     * 所属文件系统
+     */
+    private final MemoryFileSystem fs;
+
+    /**
+     * 已注册的监视键
+     */
+    private final List<Key> keys = new CopyOnWriteArrayList<>();
+
+    /**
+     * 有待取事件的监视键
+     */
+    private final LinkedBlockingDeque<WatchKey> signalled = new LinkedBlockingDeque<>();
+
+    /**
+     * 是否已经关闭
+     */
+    private volatile boolean open = true;
+
+    MemoryWatchService(MemoryFileSystem fs) {
+        this.fs = fs;
+    }
+
+    /**
+     * 注册目录监视
+     * <p>
+     * 同一目录重复注册时更新监视的事件类型并返回已有的监视键
+     *
+     * @param dir    目录
+     * @param events 事件类型
+     * @return 监视键
+     * @throws IOException 目录不存在或不是目录
+     */
+    synchronized WatchKey register(MemoryPath dir, WatchEvent.Kind<?>[] events) throws IOException {
+        if (!open) {
+            throw new ClosedWatchServiceException();
+        }
+        if (dir.getFileSystem() != fs) {
+            throw new ProviderMismatchException();
+        }
+        Set<WatchEvent.Kind<?>> kinds = new HashSet<>();
+        for (WatchEvent.Kind<?> kind : events) {
+            if (kind == StandardWatchEventKinds.ENTRY_CREATE
+                    || kind == StandardWatchEventKinds.ENTRY_DELETE
+                    || kind == StandardWatchEventKinds.ENTRY_MODIFY) {
+                kinds.add(kind);
+            } else if (kind != StandardWatchEventKinds.OVERFLOW) {
+                throw new UnsupportedOperationException("不支持的事件类型: " + kind.name());
+            }
+        }
+        if (kinds.isEmpty()) {
+            throw new IllegalArgumentException("事件类型(events)为空");
+        }
+        if (!fs.readAttributes(dir).isDirectory()) {
+            throw new NotDirectoryException(dir.toString());
+        }
+        List<String> names = ((MemoryPath) dir.toAbsolutePath().normalize()).names();
+        for (Key key : keys) {
+            if (key.dir.equals(names) && key.isValid()) {
+                key.kinds = kinds;
+                return key;
+            }
+        }
+        Key key = new Key(this, dir, names);
+        key.kinds = kinds;
+        keys.add(key);
+        return key;
+    }
+
+    /**
+     * 产生目录项事件
+     *
+     * @param dir  目录的各级名称（绝对路径）
+     * @param kind 事件类型
+     * @param name 目录项名称
+     */
+    void signal(List<String> dir, WatchEvent.Kind<Path> kind, String name) {
+        for (Key key : keys) {
+            if (key.dir.equals(dir) && key.kinds.contains(kind)) {
+                key.add(kind, fs.getPath(name));
+            }
+        }
+    }
+
+    /**
+     * 目录被删除或移走，使其下所有的监视键失效
+     *
+     * @param dir 目录的各级名称（绝对路径）
+     */
+    void invalidate(List<String> dir) {
+        for (Key key : keys) {
+            List<String> d = key.dir;
+            if (d.size() >= dir.size() && d.subList(0, dir.size()).equals(dir)) {
+                key.cancel();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!open) {
+            return;
+        }
+        open = false;
+        for (Key key : keys) {
+            key.cancel();
+        }
+        fs.removeWatchService(this);
+        signalled.clear();
+        signalled.add(CLOSED);
+    }
+
+    @Override
+    public WatchKey poll() {
+        checkOpen();
+        return checkKey(signalled.poll());
+    }
+
+    @Override
+    public WatchKey poll(long timeout, TimeUnit unit) throws InterruptedException {
+        checkOpen();
+        return checkKey(signalled.poll(timeout, unit));
+    }
+
+    @Override
+    public WatchKey take() throws InterruptedException {
+        checkOpen();
+        return checkKey(signalled.take());
+    }
+
+    private void checkOpen() {
+        if (!open) {
+            throw new ClosedWatchServiceException();
+        }
+    }
+
+    private WatchKey checkKey(WatchKey key) {
+        if (key == CLOSED) {
+            // 让其它等待中的线程同样被唤醒
+            signalled.add(CLOSED);
+            throw new ClosedWatchServiceException();
+        }
+        return key;
+    }
+
+    private void enqueue(Key key) {
+        if (open) {
+            signalled.add(key);
+        }
+    }
+
+    private void remove(Key key) {
+        keys.remove(key);
+    }
+
+    /**
+     * 监视键
+     */
+    private static final class Key implements WatchKey {
+        private final MemoryWatchService service;
+        private final Path watchable;
+        private final List<String> dir;
+        private volatile Set<WatchEvent.Kind<?>> kinds;
+        private final List<Event> events = new ArrayList<>();
+        private boolean signalled = false;
+        private volatile boolean valid = true;
+
+        Key(MemoryWatchService service, Path watchable, List<String> dir) {
+            this.service = service;
+            this.watchable = watchable;
+            this.dir = dir;
+        }
+
+        synchronized void add(WatchEvent.Kind<Path> kind, Path context) {
+            if (!valid) {
+                return;
+            }
+            if (!events.isEmpty()) {
+                // 与上一个事件相同时合并计数
+                Event last = events.get(events.size() - 1);
+                if (last.kind == kind && last.context.equals(context)) {
+                    last.count++;
+                    return;
+                }
+            }
+            events.add(new Event(kind, context));
+            if (!signalled) {
+                signalled = true;
+                service.enqueue(this);
+            }
+        }
+
+        @Override
+        public boolean isValid() {
+            return valid && service.open;
+        }
+
+        @Override
+        public synchronized List<WatchEvent<?>> pollEvents() {
+            List<WatchEvent<?>> res = new ArrayList<WatchEvent<?>>(events);
+            events.clear();
+            return res;
+        }
+
+        @Override
+        public synchronized boolean reset() {
+            if (!isValid()) {
+                return false;
+            }
+            if (signalled) {
+                if (events.isEmpty()) {
+                    signalled = false;
+                } else {
+                    service.enqueue(this);
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void cancel() {
+            valid = false;
+            service.remove(this);
+        }
+
+        @Override
+        public Watchable watchable() {
+            return watchable;
+        }
+
+        @Override
+        public String toString() {
+            return "WatchKey" + Arrays.toString(dir.toArray());
+        }
+    }
+
+    /**
+     * 目录项事件
+     */
+    private static final class Event implements WatchEvent<Path> {
+        private final Kind<Path> kind;
+        private final Path context;
+        private int count = 1;
+
+        Event(Kind<Path> kind, Path context) {
+            this.kind = kind;
+            this.context = context;
+        }
+
+        @Override
+        public Kind<Path> kind() {
+            return kind;
+        }
+
+        @Override
+        public int count() {
+            return count;
+        }
+
+        @Override
+        public Path context() {
+            return context;
+        }
+
+        @Override
+        public String toString() {
+            return kind.name() + ": " + context;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.ofdrw.pkg.storage;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * 操作系统临时目录存储
+ * <p>
+ * 容器文件存放于操作系统临时目录中，关闭时删除整个目录。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 10:12:31
+ */
+public class TempDirStorage implements ContainerStorage {
+
+    /**
+     * 临时目录
+     */
+    private final Path root;
+
+    /**
+     * 在操作系统临时目录中创建存储
+     *
+     * @throws IOException 临时目录创建失败
+     */
+    public TempDirStorage() throws IOException {
+        this(Files.createTempDirectory("ofd-tmp-"));
+    }
+
+    /**
+     * 使用指定目录作为存储
+     *
+     * @param root 存储目录，关闭时该目录将被删除
+     * @throws IOException 目录创建失败
+     */
+    public TempDirStorage(Path root) throws IOException {
+        if (root == null) {
+            throw new IllegalArgumentException("存储目录(root)为空");
+        }
+        this.root = Files.createDirectories(root).toAbsolutePath();
+    }
+
+    @Override
+    public Path getRoot() {
+        return root;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (Files.notExists(root)) {
+            return;
+        }
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
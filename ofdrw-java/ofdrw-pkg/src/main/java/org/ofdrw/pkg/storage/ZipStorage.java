@@ -0,0 +1,79 @@
+package org.ofdrw.pkg.storage;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.spi.FileSystemProvider;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * ZIP原地读取存储（只读）
+ * <p>
+ * 通过ZIP中央目录直接定位OFD包内文件，不解压到临时目录，
+ * 文件内容仅在首次访问时解压。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 10:12:31
+ */
+public class ZipStorage implements ContainerStorage {
+
+    /**
+     * ZIP文件系统
+     */
+    private final FileSystem fs;
+
+    /**
+     * 以UTF-8文件名称编码打开OFD文件
+     *
+     * @param ofdFile OFD文件路径
+     * @throws IOException ZIP文件无法打开
+     */
+    public ZipStorage(Path ofdFile) throws IOException {
+        this(ofdFile, "UTF-8");
+    }
+
+    /**
+     * 打开OFD文件
+     *
+     * @param ofdFile OFD文件路径
+     * @param charset ZIP文件名称字符集，如 GBK、UTF-8 等
+     * @throws IOException ZIP文件无法打开
+     */
+    public ZipStorage(Path ofdFile, String charset) throws IOException {
+        if (ofdFile == null || Files.notExists(ofdFile)) {
+            throw new IllegalArgumentException("OFD文件(ofdFile)不存在");
+        }
+        FileSystemProvider zipProvider = null;
+        for (FileSystemProvider provider : FileSystemProvider.installedProviders()) {
+            if ("jar".equalsIgnoreCase(provider.getScheme())) {
+                zipProvider = provider;
+                break;
+            }
+        }
+        if (zipProvider == null) {
+            throw new IOException("运行环境中不存在ZIP文件系统实现（zipfs）");
+        }
+        Map<String, Object> env = new HashMap<>(2);
+        env.put("encoding", charset == null ? "UTF-8" : charset);
+        env.put("accessMode", "readOnly");
+        // 直接通过提供者创建文件系统，不注册到全局，允许同一个文件被多次打开
+        this.fs = zipProvider.newFileSystem(ofdFile, env);
+    }
+
+    @Override
+    public Path getRoot() {
+        return fs.getPath("/");
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        fs.close();
+    }
+}
@@ -0,0 +1,192 @@
+package org.ofdrw.pkg.tool;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+
+/**
+ * OFD包条目压缩策略
+ * <p>
+ * 决定打包时每个条目使用的压缩方式：
+ * <ul>
+ *     <li>{@link ZipEntry#STORED} 不压缩，直接存储</li>
+ *     <li>{@link ZipEntry#DEFLATED} DEFLATE压缩</li>
+ * </ul>
+ * 图片（JPEG、PNG、JBIG2等）、字体等本身已经压缩的文件再次压缩几乎没有收益，
+ * 却会在生成和读取时消耗CPU，默认策略 {@link #defaultPolicy()} 对这些文件直接存储，
+ * 对XML等文本文件压缩。
+ * <p>
+ * 可以通过 {@link #store(String...)}、{@link #deflate(String...)} 按后缀名称调整，
+ * 通过 {@link #setStoreBelow(long)}、{@link #setStoreAbove(long)} 按文件大小调整，
+ * 也可以继承并重写 {@link #methodOf(String, long)} 实现自定义的策略。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 14:32:08
+ */
+public class CompressionPolicy {
+
+    /**
+     * 默认直接存储的文件后缀（已压缩的媒体与字体）
+     */
+    private static final String[] COMPRESSED_MEDIA = {
+            "jpg", "jpeg", "jpe", "jfif", "png", "gif", "jb2", "jbig2", "jp2", "j2k", "webp",
+            "otf", "ttf", "ttc", "woff", "woff2",
+            "zip", "ofd", "gz", "mp3", "mp4", "avi"
+    };
+
+    /**
+     * 后缀名称（小写） 与 压缩方式 映射
+     */
+    private final Map<String, Integer> extensions = new HashMap<>();
+
+    /**
+     * 未配置后缀名称时使用的压缩方式
+     */
+    private int defaultMethod = ZipEntry.DEFLATED;
+
+    /**
+     * 小于该大小的文件直接存储，0表示不启用
+     */
+    private long storeBelow = 0;
+
+    /**
+     * 大于该大小的文件直接存储，0表示不启用
+     */
+    private long storeAbove = 0;
+
+    /**
+     * 默认压缩策略
+     * <p>
+     * 已压缩的图片、字体等媒体文件直接存储，其余文件（XML等）DEFLATE压缩
+     *
+     * @return 新的压缩策略
+     */
+    public static CompressionPolicy defaultPolicy() {
+        return new CompressionPolicy().store(COMPRESSED_MEDIA);
+    }
+
+    /**
+     * 全部文件DEFLATE压缩
+     * <p>
+     * 与早期版本的打包方式一致
+     *
+     * @return 新的压缩策略
+     */
+    public static CompressionPolicy deflateAll() {
+        return new CompressionPolicy();
+    }
+
+    /**
+     * 指定后缀名称的文件直接存储
+     *
+     * @param ext 后缀名称，如："png"、".jpg"，不区分大小写
+     * @return this
+     */
+    public CompressionPolicy store(String... ext) {
+        return put(ZipEntry.STORED, ext);
+    }
+
+    /**
+     * 指定后缀名称的文件DEFLATE压缩
+     *
+     * @param ext 后缀名称，如："xml"，不区分大小写
+     * @return this
+     */
+    public CompressionPolicy deflate(String... ext) {
+        return put(ZipEntry.DEFLATED, ext);
+    }
+
+    /**
+     * 设置 未配置后缀名称的文件使用的压缩方式
+     *
+     * @param method {@link ZipEntry#STORED} 或 {@link ZipEntry#DEFLATED}
+     * @return this
+     */
+    public CompressionPolicy setDefaultMethod(int method) {
+        checkMethod(method);
+        this.defaultMethod = method;
+        return this;
+    }
+
+    /**
+     * 设置 小于指定大小的文件直接存储
+     * <p>
+     * 过小的文件压缩后体积几乎没有变化
+     *
+     * @param size 文件大小（字节），0表示不启用
+     * @return this
+     */
+    public CompressionPolicy setStoreBelow(long size) {
+        this.storeBelow = Math.max(0, size);
+        return this;
+    }
+
+    /**
+     * 设置 大于指定大小的文件直接存储
+     * <p>
+     * 避免大文件压缩占用过多时间
+     *
+     * @param size 文件大小（字节），0表示不启用
+     * @return this
+     */
+    public CompressionPolicy setStoreAbove(long size) {
+        this.storeAbove = Math.max(0, size);
+        return this;
+    }
+
+    /**
+     * 获取条目的压缩方式
+     *
+     * @param entryName 条目名称（包内路径）
+     * @param size      文件大小（字节），未知时为 -1
+     * @return {@link ZipEntry#STORED} 或 {@link ZipEntry#DEFLATED}
+     */
+    public int methodOf(String entryName, long size) {
+        if (size >= 0) {
+            if (storeBelow > 0 && size < storeBelow) {
+                return ZipEntry.STORED;
+            }
+            if (storeAbove > 0 && size > storeAbove) {
+                return ZipEntry.STORED;
+            }
+        }
+        Integer method = extensions.get(extension(entryName));
+        return method == null ? defaultMethod : method;
+    }
+
+    private CompressionPolicy put(int method, String... ext) {
+        if (ext == null) {
+            return this;
+        }
+        for (String e : ext) {
+            if (e == null || e.trim().isEmpty()) {
+                continue;
+            }
+            String key = e.trim().toLowerCase(Locale.ROOT);
+            if (key.startsWith(".")) {
+                key = key.substring(1);
+            }
+            extensions.put(key, method);
+        }
+        return this;
+    }
+
+    private static String extension(String name) {
+        if (name == null) {
+            return "";
+        }
+        int slash = name.lastIndexOf('/');
+        int dot = name.lastIndexOf('.');
+        if (dot <= slash) {
+            return "";
+        }
+        return name.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static void checkMethod(int method) {
+        if (method != ZipEntry.STORED && method != ZipEntry.DEFLATED) {
+            throw new IllegalArgumentException("不支持的压缩方式: " + method);
+        }
+    }
+}
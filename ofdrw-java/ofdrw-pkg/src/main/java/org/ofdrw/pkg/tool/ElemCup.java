@@ -2,11 +2,13 @@ package org.ofdrw.pkg.tool;
 
 import org.dom4j.Document;
 import org.dom4j.DocumentException;
+import org.dom4j.DocumentFactory;
 import org.dom4j.DocumentHelper;
 import org.dom4j.Element;
 import org.dom4j.io.OutputFormat;
 import org.dom4j.io.SAXReader;
 import org.dom4j.io.XMLWriter;
+import org.ofdrw.core.TrackedDocumentFactory;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -47,20 +49,44 @@ public class ElemCup {
      */
     public static boolean ENABLE_DEBUG_PRINT = false;
 
+    /**
+     * 是否使用流式序列化
+     * <p>
+     * true - 使用 {@link ElemStreamWriter} 单次遍历写出，不克隆元素，也不预先遍历修改命名空间，
+     * 输出与 XMLWriter 一致；调试模式输出时不生效。
+     * false - 使用 dom4j XMLWriter 写出（默认）
+     */
+    public static boolean ENABLE_STREAM_WRITER = false;
+
     /**
      * 从文件加载反序列化元素对象
+     * <p>
+     * 使用当前线程缓存的 SAXReader 解析，见 {@link SAXReaderFactory#obtain()}。
+     * <p>
+     * 若 SAXReader 使用默认的文档工厂，那么使用 {@link TrackedDocumentFactory} 解析，
+     * 以便通过 {@link TrackedDocumentFactory#versionOf(Element)} 判断元素是否被修改；
+     * 解析完成后恢复 SAXReader 原有的文档工厂，不影响同一线程中其它使用该实例的解析。
      *
      * @param file 文件路径对象
      * @return 反序列化的元素对象
      * @throws DocumentException 文件解析异常
      */
     public static Element inject(Path file) throws DocumentException {
-        SAXReader reader = SAXReaderFactory.create();
+        SAXReader reader = SAXReaderFactory.obtain();
+        DocumentFactory factory = reader.getDocumentFactory();
+        boolean track = factory == DocumentFactory.getInstance();
+        if (track) {
+            reader.setDocumentFactory(TrackedDocumentFactory.INSTANCE);
+        }
         try (InputStream in = Files.newInputStream(file)) {
             Document document = reader.read(in);
             return document.getRootElement();
         } catch (IOException e) {
             throw new DocumentException(e);
+        } finally {
+            if (track) {
+                reader.setDocumentFactory(factory);
+            }
         }
     }
 
@@ -85,6 +111,12 @@ public class ElemCup {
             Files.createFile(to);
         }
 
+        if (useStreamWriter()) {
+            try (OutputStream out = Files.newOutputStream(to)) {
+                new ElemStreamWriter(out, null).write(e);
+            }
+            return;
+        }
         Document doc = DocumentHelper.createDocument();
         if (e.getDocument() != null) {
             // 如果元素所属文档不为空，说明是从文件中加载得到，此时需要Clone这个对象以放入新的Document中
@@ -126,6 +158,33 @@ public class ElemCup {
             Files.createFile(to);
         }
 
+        try (OutputStream out = Files.newOutputStream(to)) {
+            dumpUpNS(e, out);
+        }
+    }
+
+    /**
+     * 序列化元素并升级命名空间，写入到输出流
+     * <p>
+     * 命名空间为 {@link org.ofdrw.core.Const#OFD_NAMESPACE}
+     * <p>
+     * 输出流不会被关闭，由调用者负责关闭。
+     *
+     * @param e   元素
+     * @param out 输出流
+     * @throws IOException IO异常
+     */
+    public static void dumpUpNS(Element e, OutputStream out) throws IOException {
+        if (e == null) {
+            return;
+        }
+        if (out == null) {
+            throw new IllegalArgumentException("文档元素序列化输出流（out）为空");
+        }
+        if (useStreamWriter()) {
+            new ElemStreamWriter(out, SpaceModifier.getExpectNs()).write(e);
+            return;
+        }
         Document doc = DocumentHelper.createDocument();
         if (e.getDocument() != null) {
             // 如果元素所属文档不为空，说明是从文件中加载得到，此时需要Clone这个对象以放入新的Document中
@@ -133,16 +192,15 @@ public class ElemCup {
         }
         doc.add(e);
         doc.accept(SpaceModifier);
-        try (OutputStream out = Files.newOutputStream(to)) {
-            XMLWriter writeToFile;
-            if (ENABLE_DEBUG_PRINT) {
-                writeToFile = new XMLWriter(out, PrettyPrint);
-            } else {
-                writeToFile = new XMLWriter(out);
-            }
-            writeToFile.write(doc);
-            writeToFile.close();
+        XMLWriter writer;
+        if (ENABLE_DEBUG_PRINT) {
+            writer = new XMLWriter(out, PrettyPrint);
+        } else {
+            writer = new XMLWriter(out);
         }
+        writer.write(doc);
+        // XMLWriter.close 会关闭输出流，此处仅刷新
+        writer.flush();
     }
 
     /**
@@ -153,6 +211,11 @@ public class ElemCup {
      * @throws IOException IO异常
      */
     public static byte[] dump(Element e) throws IOException {
+        if (useStreamWriter()) {
+            ByteArrayOutputStream bout = new ByteArrayOutputStream();
+            new ElemStreamWriter(bout, null).write(e);
+            return bout.toByteArray();
+        }
         Document doc = DocumentHelper.createDocument();
         if (e.getDocument() != null) {
             // 如果元素所属文档不为空，说明是从文件中加载得到，此时需要Clone这个对象以放入新的Document中
@@ -170,4 +233,13 @@ public class ElemCup {
         writeToFile.close();
         return bout.toByteArray();
     }
+
+    /**
+     * 是否使用流式序列化
+     *
+     * @return true - 使用流式序列化
+     */
+    private static boolean useStreamWriter() {
+        return ENABLE_STREAM_WRITER && !ENABLE_DEBUG_PRINT;
+    }
 }
@@ -0,0 +1,297 @@
+package org.ofdrw.pkg.tool;
+
+import org.dom4j.*;
+import org.dom4j.tree.DefaultElement;
+import org.ofdrw.core.DefaultElementProxy;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 元素流式序列化
+ * <p>
+ * 单次遍历元素树直接写出XML，遍历过程中完成命名空间的升级，
+ * 不克隆元素、不修改元素，也不需要预先遍历修改命名空间。
+ * <p>
+ * 输出与 {@link OFDNameSpaceModifier} 处理后再由 {@link org.dom4j.io.XMLWriter}（默认格式）写出的结果一致：
+ * <ul>
+ *     <li>文本转义 {@code < > &}，属性值额外转义 {@code "}，其他小于 0x20 的控制字符（制表、换行、回车除外）使用字符引用。</li>
+ *     <li>无内容的元素使用 {@code <a/>} 形式。</li>
+ *     <li>命名空间仅在未声明过时声明。</li>
+ * </ul>
+ * <p>
+ * 该类非线程安全，每次序列化创建新的实例。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 15:30:06
+ */
+public final class ElemStreamWriter {
+
+    /**
+     * XML声明
+     */
+    private static final String DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n";
+
+    /**
+     * 期望的命名空间，null 表示不变更命名空间
+     */
+    private final Namespace expectNs;
+
+    /**
+     * 已声明的命名空间，按声明顺序依次为前缀和URI
+     */
+    private final List<String> declared = new ArrayList<>();
+
+    private final Writer out;
+
+    /**
+     * 创建流式序列化
+     *
+     * @param out      输出流，不会被关闭
+     * @param expectNs 元素升级的命名空间，null 表示保持元素原有命名空间
+     */
+    public ElemStreamWriter(OutputStream out, Namespace expectNs) {
+        if (out == null) {
+            throw new IllegalArgumentException("输出流(out)为空");
+        }
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+        this.expectNs = expectNs;
+        // 无命名空间
+        declared.add("");
+        declared.add("");
+    }
+
+    /**
+     * 序列化元素为XML文档
+     *
+     * @param root 根元素
+     * @throws IOException IO异常
+     */
+    public void write(Element root) throws IOException {
+        out.write(DECLARATION);
+        writeElement(root, true);
+        out.flush();
+    }
+
+    private void writeElement(Element e, boolean isRoot) throws IOException {
+        Namespace ns = e.getNamespace();
+        String qualifiedName = e.getQualifiedName();
+        // 与 OFDNameSpaceModifier 一致，仅变更 DefaultElement 的命名空间
+        boolean upgrade = expectNs != null && unwrap(e) instanceof DefaultElement && !nsEqual(ns);
+        if (upgrade) {
+            ns = expectNs;
+            qualifiedName = ns.getPrefix().isEmpty() ? e.getName() : ns.getPrefix() + ":" + e.getName();
+        }
+        // 根节点命名空间变更时，删除附加的命名空间声明
+        boolean dropAdditional = upgrade && isRoot;
+
+        int mark = declared.size();
+        out.write('<');
+        out.write(qualifiedName);
+        if (isNamespaceDeclaration(ns)) {
+            declare(ns.getPrefix(), ns.getURI());
+        }
+
+        int count = e.nodeCount();
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            Node node = e.node(i);
+            if (node instanceof Namespace) {
+                Namespace additional = (Namespace) node;
+                if (dropAdditional && !additional.equals(ns)) {
+                    continue;
+                }
+                if (isNamespaceDeclaration(additional)) {
+                    declare(additional.getPrefix(), additional.getURI());
+                }
+            }
+            size++;
+        }
+        writeAttributes(e);
+
+        if (size == 0) {
+            out.write("/>");
+        } else {
+            out.write('>');
+            for (int i = 0; i < count; i++) {
+                writeNode(e.node(i));
+            }
+            out.write("</");
+            out.write(qualifiedName);
+            out.write('>');
+        }
+        while (declared.size() > mark) {
+            declared.remove(declared.size() - 1);
+        }
+    }
+
+    private void writeAttributes(Element e) throws IOException {
+        for (int i = 0, n = e.attributeCount(); i < n; i++) {
+            Attribute attr = e.attribute(i);
+            Namespace ns = attr.getNamespace();
+            if (ns != null && ns != Namespace.NO_NAMESPACE && ns != Namespace.XML_NAMESPACE) {
+                if (!ns.getURI().equals(uriOf(ns.getPrefix()))) {
+                    declare(ns.getPrefix(), ns.getURI());
+                }
+            }
+            String name = attr.getName();
+            if (name.startsWith("xmlns:")) {
+                String prefix = name.substring(6);
+                if (uriOf(prefix) == null) {
+                    declare(prefix, attr.getValue());
+                }
+            } else if (!name.equals("xmlns")) {
+                // 默认命名空间总是存在，因此 xmlns 属性不会被写出
+                out.write(' ');
+                out.write(attr.getQualifiedName());
+                out.write("=\"");
+                escape(attr.getValue(), true);
+                out.write('"');
+            }
+        }
+    }
+
+    private void writeNode(Node node) throws IOException {
+        switch (node.getNodeType()) {
+            case Node.ELEMENT_NODE:
+                writeElement((Element) node, false);
+                break;
+            case Node.TEXT_NODE:
+                String text = node.getText();
+                if (text != null) {
+                    escape(text, false);
+                }
+                break;
+            case Node.CDATA_SECTION_NODE:
+                out.write("<![CDATA[");
+                if (node.getText() != null) {
+                    out.write(node.getText());
+                }
+                out.write("]]>");
+                break;
+            case Node.ENTITY_REFERENCE_NODE:
+                out.write('&');
+                out.write(node.getName());
+                out.write(';');
+                break;
+            case Node.PROCESSING_INSTRUCTION_NODE:
+                ProcessingInstruction pi = (ProcessingInstruction) node;
+                out.write("<?");
+                out.write(pi.getName());
+                out.write(' ');
+                out.write(pi.getText());
+                out.write("?>");
+                break;
+            case Node.COMMENT_NODE:
+                out.write("<!--");
+                out.write(node.getText());
+                out.write("-->");
+                break;
+            default:
+                // 命名空间在元素开始标签中处理
+                break;
+        }
+    }
+
+    /**
+     * 转义并写出字符
+     *
+     * @param s    字符串
+     * @param attr 是否为属性值
+     */
+    private void escape(String s, boolean attr) throws IOException {
+        int start = 0;
+        int len = s.length();
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            String entity;
+            switch (c) {
+                case '<':
+                    entity = "&lt;";
+                    break;
+                case '>':
+                    entity = "&gt;";
+                    break;
+                case '&':
+                    entity = "&amp;";
+                    break;
+                case '"':
+                    entity = attr ? "&quot;" : null;
+                    break;
+                case '\t':
+                case '\n':
+                case '\r':
+                    entity = null;
+                    break;
+                default:
+                    entity = c < 32 ? "&#" + (int) c + ";" : null;
+            }
+            if (entity != null) {
+                out.write(s, start, i - start);
+                out.write(entity);
+                start = i + 1;
+            }
+        }
+        out.write(s, start, len - start);
+    }
+
+    private boolean isNamespaceDeclaration(Namespace ns) {
+        if (ns == null || ns == Namespace.XML_NAMESPACE || ns.getURI() == null) {
+            return false;
+        }
+        String uri = uriOf(ns.getPrefix() == null ? "" : ns.getPrefix());
+        return uri == null || !uri.equals(ns.getURI());
+    }
+
+    private void declare(String prefix, String uri) throws IOException {
+        if (prefix == null) {
+            prefix = "";
+        }
+        declared.add(prefix);
+        declared.add(uri);
+        if (prefix.isEmpty()) {
+            out.write(" xmlns=\"");
+        } else {
+            out.write(" xmlns:");
+            out.write(prefix);
+            out.write("=\"");
+        }
+        out.write(uri);
+        out.write('"');
+    }
+
+    /**
+     * 获取前缀当前绑定的URI
+     *
+     * @param prefix 前缀
+     * @return URI，未声明返回null
+     */
+    private String uriOf(String prefix) {
+        if (prefix == null) {
+            prefix = "";
+        }
+        for (int i = declared.size() - 2; i >= 0; i -= 2) {
+            if (declared.get(i).equals(prefix)) {
+                return declared.get(i + 1);
+            }
+        }
+        return null;
+    }
+
+    private boolean nsEqual(Namespace n) {
+        return expectNs.getPrefix().equals(n.getPrefix()) && expectNs.getText().equals(n.getText());
+    }
+
+    private static Element unwrap(Element e) {
+        while (e instanceof DefaultElementProxy) {
+            e = ((DefaultElementProxy) e).getProxy();
+        }
+        return e;
+    }
+}
@@ -0,0 +1,330 @@
+package org.ofdrw.pkg.tool;
+
+import org.dom4j.Element;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * OFD包流式写入器
+ * <p>
+ * 将已经确定的文件（页面内容、资源文件、索引文件）直接写入OFD包（ZIP）输出流，
+ * 不经过临时目录的写入与读回，适用于大文档直接输出到网络流的场景。
+ * <p>
+ * 包内每个路径只能写入一次，写入后无法修改。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 11:05:12
+ */
+public class OFDPackageWriter {
+
+    /**
+     * 目标输出流
+     */
+    private final OutputStream target;
+
+    /**
+     * ZIP输出流
+     */
+    private final ZipOutputStream zip;
+
+    /**
+     * 条目时间
+     */
+    private final FileTime fileTime;
+
+    /**
+     * 已经写入的条目名称
+     */
+    private final Set<String> entries = new HashSet<>();
+
+    /**
+     * 已写入的原始文件摘要，用于判断重复加入的文件是否一致
+     * <p>
+     * KEY: 条目名称，VALUE: SHA-256
+     */
+    private final Map<String, byte[]> fileDigest = new HashMap<>();
+
+    /**
+     * 复制缓冲区
+     */
+    private final byte[] buffer = new byte[8192];
+
+    /**
+     * 是否已经结束
+     */
+    private boolean finished = false;
+
+    /**
+     * 文件条目压缩策略
+     */
+    private CompressionPolicy compressionPolicy = CompressionPolicy.defaultPolicy();
+
+    /**
+     * 创建OFD包流式写入器
+     *
+     * @param target 输出流，由调用者负责关闭
+     */
+    public OFDPackageWriter(OutputStream target) {
+        if (target == null) {
+            throw new IllegalArgumentException("OFD包输出流(target)为空");
+        }
+        this.target = target;
+        this.zip = new ZipOutputStream(target);
+        this.fileTime = FileTime.fromMillis(System.currentTimeMillis());
+    }
+
+    /**
+     * 设置 文件条目压缩策略
+     * <p>
+     * 策略仅作用于 {@link #putFile(String, Path)} 写入的文件，元素与流总是DEFLATE压缩
+     *
+     * @param policy 压缩策略，null 表示默认策略 {@link CompressionPolicy#defaultPolicy()}
+     * @return this
+     */
+    public synchronized OFDPackageWriter setCompressionPolicy(CompressionPolicy policy) {
+        this.compressionPolicy = policy == null ? CompressionPolicy.defaultPolicy() : policy;
+        return this;
+    }
+
+    /**
+     * 获取目标输出流
+     *
+     * @return 输出流
+     */
+    public OutputStream getTarget() {
+        return target;
+    }
+
+    /**
+     * 写入元素对象，元素将被序列化并升级命名空间
+     *
+     * @param absPath 包内绝对路径，如："/Doc_0/Pages/Page_0/Content.xml"
+     * @param element 元素对象
+     * @throws IOException IO异常
+     */
+    public synchronized void putElement(String absPath, Element element) throws IOException {
+        String name = begin(absPath);
+        ElemCup.dumpUpNS(element, zip);
+        zip.closeEntry();
+        entries.add(name);
+    }
+
+    /**
+     * 写入文件
+     *
+     * @param absPath 包内绝对路径，如："/Doc_0/Res/image_1.png"
+     * @param file    文件路径
+     * @throws IOException IO异常
+     */
+    public synchronized void putFile(String absPath, Path file) throws IOException {
+        long size = Files.size(file);
+        if (compressionPolicy.methodOf(entryName(absPath), size) != ZipEntry.STORED) {
+            try (InputStream in = Files.newInputStream(file)) {
+                putRaw(absPath, in);
+            }
+            return;
+        }
+        // 不压缩的条目需要预先计算CRC
+        CRC32 crc = new CRC32();
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, n);
+            }
+        }
+        ZipEntry entry = newEntry(entryName(absPath));
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(size);
+        entry.setCompressedSize(size);
+        entry.setCrc(crc.getValue());
+        String name = begin(absPath, entry);
+        MessageDigest md = sha256();
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                zip.write(buffer, 0, n);
+                md.update(buffer, 0, n);
+            }
+        }
+        zip.closeEntry();
+        entries.add(name);
+        fileDigest.put(name, md.digest());
+    }
+
+    /**
+     * 写入流中的内容
+     *
+     * @param absPath 包内绝对路径
+     * @param in      输入流，由调用者负责关闭
+     * @throws IOException IO异常
+     */
+    public synchronized void putRaw(String absPath, InputStream in) throws IOException {
+        String name = begin(absPath);
+        MessageDigest md = sha256();
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            zip.write(buffer, 0, n);
+            md.update(buffer, 0, n);
+        }
+        zip.closeEntry();
+        entries.add(name);
+        fileDigest.put(name, md.digest());
+    }
+
+    /**
+     * 判断包内路径是否已经写入
+     *
+     * @param absPath 包内绝对路径，目录以 "/" 结尾
+     * @return true - 已经写入
+     */
+    public synchronized boolean contains(String absPath) {
+        return entries.contains(entryName(absPath));
+    }
+
+    /**
+     * 判断文件与包内已写入的文件内容是否一致
+     *
+     * @param absPath 包内绝对路径
+     * @param file    文件路径
+     * @return true - 已写入且内容一致；false - 未写入或内容不一致
+     * @throws IOException 文件读取异常
+     */
+    public synchronized boolean sameContent(String absPath, Path file) throws IOException {
+        byte[] expect = fileDigest.get(entryName(absPath));
+        if (expect == null) {
+            return false;
+        }
+        MessageDigest md = sha256();
+        try (InputStream in = Files.newInputStream(file)) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                md.update(buffer, 0, n);
+            }
+        }
+        return MessageDigest.isEqual(expect, md.digest());
+    }
+
+    /**
+     * 已写入的条目数量（含目录）
+     *
+     * @return 条目数量
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * 写入ZIP中央目录，结束写入
+     * <p>
+     * 目标输出流不会被关闭
+     *
+     * @throws IOException IO异常
+     */
+    public synchronized void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        zip.finish();
+        target.flush();
+    }
+
+    /**
+     * 是否已经结束写入
+     *
+     * @return true - 已结束
+     */
+    public synchronized boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * 开始一个文件条目，若上级目录条目不存在则先写入目录条目
+     *
+     * @param absPath 包内绝对路径
+     * @return 条目名称
+     * @throws IOException IO异常
+     */
+    private String begin(String absPath) throws IOException {
+        return begin(absPath, newEntry(entryName(absPath)));
+    }
+
+    /**
+     * 开始一个文件条目，若上级目录条目不存在则先写入目录条目
+     *
+     * @param absPath 包内绝对路径
+     * @param entry   文件条目
+     * @return 条目名称
+     * @throws IOException IO异常
+     */
+    private String begin(String absPath, ZipEntry entry) throws IOException {
+        if (finished) {
+            throw new IllegalStateException("OFD包已经结束写入");
+        }
+        String name = entryName(absPath);
+        if (name.isEmpty() || name.endsWith("/")) {
+            throw new IllegalArgumentException("非法的文件路径: " + absPath);
+        }
+        if (entries.contains(name)) {
+            throw new IllegalStateException("OFD包内已经存在文件: " + absPath);
+        }
+        int idx = name.indexOf('/');
+        while (idx != -1) {
+            String dir = name.substring(0, idx + 1);
+            if (entries.add(dir)) {
+                zip.putNextEntry(newEntry(dir));
+                zip.closeEntry();
+            }
+            idx = name.indexOf('/', idx + 1);
+        }
+        zip.putNextEntry(entry);
+        return name;
+    }
+
+    private ZipEntry newEntry(String name) {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setCreationTime(fileTime);
+        entry.setLastAccessTime(fileTime);
+        entry.setLastModifiedTime(fileTime);
+        return entry;
+    }
+
+    /**
+     * 包内绝对路径转换为ZIP条目名称
+     *
+     * @param absPath 包内绝对路径
+     * @return 条目名称
+     */
+    private static String entryName(String absPath) {
+        if (absPath == null) {
+            throw new IllegalArgumentException("包内路径(absPath)为空");
+        }
+        String name = absPath.trim().replace('\\', '/');
+        while (name.startsWith("/")) {
+            name = name.substring(1);
+        }
+        return name;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package org.ofdrw.pkg.tool;
+
+import org.dom4j.Document;
+import org.dom4j.Element;
+import org.dom4j.io.SAXReader;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * OFD包条目线性化排序
+ * <p>
+ * 按照阅读顺序确定包内文件的先后，使得流式接收OFD包时可以在包完整到达之前开始解析首页：
+ * <ol>
+ *     <li>OFD.xml 主入口；</li>
+ *     <li>每个文档的 Document.xml 以及公共资源、文档资源描述文件；</li>
+ *     <li>按页面顺序依次为：首次使用的模板页、页面资源描述文件、页面内容，以及该页面首次引用的字体、多媒体文件；</li>
+ *     <li>其余文件（注释、签名、附件等）保持原有顺序。</li>
+ * </ol>
+ * 排序仅依据包内XML的引用关系，无法解析的文件不影响打包，仅不参与排序。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 17:20:36
+ */
+final class PackageLinearizer {
+
+    /**
+     * 打包根目录
+     */
+    private final Path root;
+
+    /**
+     * 排序结果
+     */
+    private final Set<String> order = new LinkedHashSet<>();
+
+    /**
+     * 资源ID与资源文件的映射（当前文档）
+     */
+    private final Map<String, String> resFiles = new HashMap<>();
+
+    /**
+     * 已访问的页面，防止模板页循环引用
+     */
+    private final Set<String> visitedPages = new HashSet<>();
+
+    private PackageLinearizer(Path root) {
+        this.root = root;
+    }
+
+    /**
+     * 计算线性化的文件顺序
+     *
+     * @param root 打包根目录
+     * @return 应排列在包前部的文件条目名称（按顺序），不包含目录条目
+     */
+    static List<String> order(Path root) {
+        PackageLinearizer l = new PackageLinearizer(root);
+        l.walkOFD();
+        return new ArrayList<>(l.order);
+    }
+
+    private void walkOFD() {
+        Element ofd = read("OFD.xml");
+        if (ofd == null) {
+            return;
+        }
+        order.add("OFD.xml");
+        for (Element docBody : ofd.elements("DocBody")) {
+            String docRoot = docBody.elementTextTrim("DocRoot");
+            if (docRoot != null && !docRoot.isEmpty()) {
+                walkDocument(ZipDirectory.resolve("", docRoot));
+            }
+        }
+    }
+
+    private void walkDocument(String docFile) {
+        Element doc = read(docFile);
+        if (doc == null) {
+            return;
+        }
+        order.add(docFile);
+        resFiles.clear();
+        String docDir = dirOf(docFile);
+        // 模板页ID与模板页文件
+        Map<String, String> templates = new HashMap<>();
+        Element commonData = doc.element("CommonData");
+        if (commonData != null) {
+            for (Element res : commonData.elements()) {
+                String name = res.getName();
+                if ("PublicRes".equals(name) || "DocumentRes".equals(name)) {
+                    walkRes(ZipDirectory.resolve(docDir, res.getTextTrim()));
+                } else if ("TemplatePage".equals(name)) {
+                    String baseLoc = res.attributeValue("BaseLoc");
+                    if (baseLoc != null) {
+                        templates.put(res.attributeValue("ID"), ZipDirectory.resolve(docDir, baseLoc));
+                    }
+                }
+            }
+        }
+        Element pages = doc.element("Pages");
+        if (pages == null) {
+            return;
+        }
+        for (Element page : pages.elements("Page")) {
+            String baseLoc = page.attributeValue("BaseLoc");
+            if (baseLoc != null) {
+                walkPage(ZipDirectory.resolve(docDir, baseLoc), templates);
+            }
+        }
+    }
+
+    private void walkPage(String pageFile, Map<String, String> templates) {
+        if (!visitedPages.add(pageFile)) {
+            return;
+        }
+        Element page = read(pageFile);
+        if (page == null) {
+            return;
+        }
+        String pageDir = dirOf(pageFile);
+        for (Element tpl : page.elements("Template")) {
+            String tplFile = templates.get(tpl.attributeValue("TemplateID"));
+            if (tplFile != null) {
+                walkPage(tplFile, templates);
+            }
+        }
+        for (Element pageRes : page.elements("PageRes")) {
+            walkRes(ZipDirectory.resolve(pageDir, pageRes.getTextTrim()));
+        }
+        order.add(pageFile);
+        // 页面首次引用的资源文件紧随页面之后
+        walkRefs(page);
+    }
+
+    /**
+     * 收集页面内容中引用的资源文件
+     *
+     * @param e 元素
+     */
+    private void walkRefs(Element e) {
+        for (int i = 0, n = e.attributeCount(); i < n; i++) {
+            String attr = e.attribute(i).getName();
+            if ("ResourceID".equals(attr) || "Font".equals(attr)) {
+                String file = resFiles.get(e.attribute(i).getValue());
+                if (file != null) {
+                    order.add(file);
+                }
+            }
+        }
+        for (Element child : e.elements()) {
+            walkRefs(child);
+        }
+    }
+
+    /**
+     * 记录资源描述文件，并建立资源ID与资源文件的映射
+     *
+     * @param resFile 资源描述文件
+     */
+    private void walkRes(String resFile) {
+        Element res = read(resFile);
+        if (res == null) {
+            return;
+        }
+        order.add(resFile);
+        String base = dirOf(resFile);
+        String baseLoc = res.attributeValue("BaseLoc");
+        if (baseLoc != null && !baseLoc.isEmpty()) {
+            base = ZipDirectory.resolve(base, baseLoc) + "/";
+        }
+        for (Element group : res.elements()) {
+            for (Element item : group.elements()) {
+                String id = item.attributeValue("ID");
+                String loc = item.elementTextTrim("MediaFile");
+                if (loc == null) {
+                    loc = item.elementTextTrim("FontFile");
+                }
+                if (id != null && loc != null && !loc.isEmpty()) {
+                    resFiles.put(id, ZipDirectory.resolve(base, loc));
+                }
+            }
+        }
+    }
+
+    /**
+     * 读取包内XML文件
+     *
+     * @param name 条目名称
+     * @return 根元素，文件不存在或无法解析返回null
+     */
+    private Element read(String name) {
+        if (name == null || name.isEmpty()) {
+            return null;
+        }
+        Path file = root.resolve(name);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        SAXReader reader = SAXReaderFactory.obtain();
+        try (InputStream in = Files.newInputStream(file)) {
+            Document doc = reader.read(in);
+            return doc.getRootElement();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 获取条目所在目录
+     *
+     * @param name 条目名称
+     * @return 目录，以 "/" 结尾，根目录返回空字符串
+     */
+    private static String dirOf(String name) {
+        int i = name.lastIndexOf('/');
+        return i < 0 ? "" : name.substring(0, i + 1);
+    }
+}
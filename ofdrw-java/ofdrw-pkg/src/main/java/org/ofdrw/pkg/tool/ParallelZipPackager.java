@@ -0,0 +1,480 @@
+package org.ofdrw.pkg.tool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+
+/**
+ * 并行压缩打包器
+ * <p>
+ * 将目录中的文件在线程池中并行压缩（DEFLATE），再由调用线程按固定顺序写入ZIP，
+ * 每个条目的压缩方式由 {@link CompressionPolicy} 决定，
+ * 条目顺序由目录结构决定（同一目录内按名称排序），与线程调度无关；
+ * 压缩参数与 {@link java.util.zip.ZipOutputStream} 默认参数一致，压缩数据与CRC保持确定。
+ * <p>
+ * 同时处于压缩中的条目数量与文件大小之和都有上限（见 {@link #setMaxBytesInFlight(long)}），
+ * 内存占用与文件总数无关。超过 {@link #INLINE_LIMIT} 的大文件在调用线程中流式压缩。
+ * <p>
+ * 设置源OFD包（{@link #setSource(SourcePackage)}）后，未修改的文件直接复制源文件中的压缩数据，
+ * 保持原有的压缩方式，不再解压和重新压缩。
+ * <p>
+ * 开启线性化（{@link #setLinearized(boolean)}）后，条目按阅读顺序排列，见 {@link PackageLinearizer}。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 13:20:40
+ */
+public class ParallelZipPackager {
+
+    /**
+     * 在线程池中整体压缩的文件大小上限，超过该大小的文件在调用线程中流式压缩
+     */
+    public static final long INLINE_LIMIT = 32L * 1024 * 1024;
+
+    /**
+     * 默认的同时压缩文件大小之和上限
+     */
+    public static final long DEFAULT_MAX_BYTES_IN_FLIGHT = 64L * 1024 * 1024;
+
+    /**
+     * 压缩线程池
+     */
+    private final ExecutorService executor;
+
+    /**
+     * 最大同时压缩的条目数量
+     */
+    private final int maxInFlight;
+
+    /**
+     * 整体压缩的文件大小上限
+     */
+    private final long inlineLimit;
+
+    /**
+     * 已提交但尚未写入的文件大小之和上限
+     */
+    private long maxBytesInFlight = DEFAULT_MAX_BYTES_IN_FLIGHT;
+
+    /**
+     * 条目压缩策略
+     */
+    private CompressionPolicy compressionPolicy = CompressionPolicy.defaultPolicy();
+
+    /**
+     * 源OFD包，用于复制未修改的条目
+     */
+    private SourcePackage source;
+
+    /**
+     * 是否按阅读顺序排列条目
+     */
+    private boolean linearized = false;
+
+    /**
+     * 创建并行压缩打包器
+     * <p>
+     * 最大同时压缩条目数量为CPU核心数的2倍
+     *
+     * @param executor 压缩线程池，由调用者负责关闭；null 表示在调用线程中依次压缩
+     */
+    public ParallelZipPackager(ExecutorService executor) {
+        this(executor, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * 创建并行压缩打包器
+     *
+     * @param executor    压缩线程池，由调用者负责关闭；null 表示在调用线程中依次压缩
+     * @param maxInFlight 最大同时压缩的条目数量
+     */
+    public ParallelZipPackager(ExecutorService executor, int maxInFlight) {
+        this(executor, maxInFlight, INLINE_LIMIT);
+    }
+
+    ParallelZipPackager(ExecutorService executor, int maxInFlight, long inlineLimit) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("最大同时压缩条目数量(maxInFlight)必须大于0");
+        }
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.inlineLimit = inlineLimit;
+    }
+
+    /**
+     * 设置 同时压缩的文件大小之和上限
+     * <p>
+     * 每个在线程池中压缩的文件从提交到写入期间，其原始内容与压缩结果都保存在内存中，
+     * 已提交但尚未写入的文件原始大小之和不超过该上限；单个文件超过上限时，等待之前的文件写入后单独压缩。
+     *
+     * @param maxBytesInFlight 文件大小之和上限（字节），默认 {@link #DEFAULT_MAX_BYTES_IN_FLIGHT}
+     * @return this
+     */
+    public ParallelZipPackager setMaxBytesInFlight(long maxBytesInFlight) {
+        if (maxBytesInFlight < 1) {
+            throw new IllegalArgumentException("同时压缩的文件大小之和上限(maxBytesInFlight)必须大于0");
+        }
+        this.maxBytesInFlight = maxBytesInFlight;
+        return this;
+    }
+
+    /**
+     * 设置 条目压缩策略
+     *
+     * @param policy 压缩策略，null 表示默认策略 {@link CompressionPolicy#defaultPolicy()}
+     * @return this
+     */
+    public ParallelZipPackager setCompressionPolicy(CompressionPolicy policy) {
+        this.compressionPolicy = policy == null ? CompressionPolicy.defaultPolicy() : policy;
+        return this;
+    }
+
+    /**
+     * 设置 源OFD包
+     * <p>
+     * 打包目录应为源OFD包解压得到的工作目录，未修改的文件直接复制源文件中的压缩数据。
+     *
+     * @param source 源OFD包，null 表示所有文件都重新压缩
+     * @return this
+     */
+    public ParallelZipPackager setSource(SourcePackage source) {
+        this.source = source;
+        return this;
+    }
+
+    /**
+     * 设置 是否按阅读顺序排列条目（线性化）
+     * <p>
+     * 开启后 OFD.xml、Document.xml、资源描述文件以及各页面内容按阅读顺序排列在包的前部，
+     * 页面引用的字体、多媒体文件紧随首次使用它们的页面，
+     * 流式接收OFD包时无需等待整个包到达即可开始解析首页。
+     *
+     * @param linearized true - 线性化；false - 按目录结构排列（默认）
+     * @return this
+     */
+    public ParallelZipPackager setLinearized(boolean linearized) {
+        this.linearized = linearized;
+        return this;
+    }
+
+    /**
+     * 将目录打包为ZIP写入输出流
+     *
+     * @param root 打包的根目录，根目录本身不作为条目
+     * @param out  输出流，由调用者负责关闭
+     * @throws IOException IO异常
+     */
+    public void pack(Path root, OutputStream out) throws IOException {
+        pack(root, out, System.currentTimeMillis());
+    }
+
+    /**
+     * 将目录打包为ZIP写入输出流
+     *
+     * @param root 打包的根目录
+     * @param out  输出流
+     * @param time 条目修改时间
+     * @throws IOException IO异常
+     */
+    void pack(Path root, OutputStream out, long time) throws IOException {
+        if (root == null || !Files.isDirectory(root)) {
+            throw new IllegalArgumentException("打包目录(root)不存在");
+        }
+        if (out == null) {
+            throw new IllegalArgumentException("输出流(out)为空");
+        }
+        SourcePackage src = source != null && source.isAvailable() ? source : null;
+        List<Item> items = new ArrayList<>();
+        collect(root, "", src, items);
+        if (items.isEmpty()) {
+            throw new RuntimeException("目录中没有任何文件无法打包");
+        }
+        if (linearized) {
+            items = linearize(root, items);
+        }
+
+        RawZipOutput zip = new RawZipOutput(out);
+        FileChannel srcChannel = null;
+        Deque<Future<Compressed>> pending = new ArrayDeque<>();
+        // 提交位置与写入位置，写入严格按照条目顺序进行，压缩结果按提交顺序依次取出
+        int submit = 0;
+        int write = 0;
+        // 已提交但尚未写入的文件大小之和
+        long pendingBytes = 0;
+        try {
+            while (write < items.size()) {
+                // 填充压缩窗口，条目数量与文件大小之和都不超过上限，窗口为空时至少提交一个
+                while (submit < items.size() && pending.size() < maxInFlight) {
+                    Item it = items.get(submit);
+                    if (it.isParallel() && executor != null) {
+                        if (!pending.isEmpty() && pendingBytes + it.size > maxBytesInFlight) {
+                            break;
+                        }
+                        pending.addLast(executor.submit(() -> compress(it.file, it.method)));
+                        pendingBytes += it.size;
+                    }
+                    submit++;
+                }
+                Item it = items.get(write);
+                if (it.file == null) {
+                    zip.putDirectory(it.name, time);
+                } else if (it.raw != null) {
+                    // 未修改的文件直接复制源文件中的压缩数据
+                    if (srcChannel == null) {
+                        srcChannel = src.openChannel();
+                    }
+                    src.copy(srcChannel, it.raw, it.name, time, zip);
+                } else if (it.isParallel()) {
+                    Compressed d;
+                    if (executor != null) {
+                        d = await(pending.removeFirst());
+                        pendingBytes -= it.size;
+                    } else {
+                        d = compress(it.file, it.method);
+                    }
+                    zip.putEntry(it.name, time, it.method, d.crc, d.size, d.data, d.len);
+                } else if (it.method == ZipEntry.STORED) {
+                    // 不压缩的大文件需要预先计算CRC
+                    long crc = crc(it.file);
+                    try (InputStream in = Files.newInputStream(it.file)) {
+                        zip.putStored(it.name, time, crc, Files.size(it.file), in);
+                    }
+                } else {
+                    try (InputStream in = Files.newInputStream(it.file);
+                         OutputStream entry = zip.beginDeflated(it.name, time)) {
+                        copy(in, entry);
+                    }
+                }
+                write++;
+            }
+            zip.finish();
+        } finally {
+            for (Future<Compressed> f : pending) {
+                f.cancel(true);
+            }
+            if (srcChannel != null) {
+                srcChannel.close();
+            }
+        }
+    }
+
+    /**
+     * 按目录顺序收集条目，同一目录中按名称排序
+     */
+    private void collect(Path dir, String prefix, SourcePackage src, List<Item> items) throws IOException {
+        List<Path> children = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir)) {
+            for (Path p : ds) {
+                children.add(p);
+            }
+        }
+        Collections.sort(children, (a, b) -> fileName(a).compareTo(fileName(b)));
+        for (Path p : children) {
+            String name = prefix + fileName(p);
+            if (Files.isDirectory(p)) {
+                items.add(new Item(name + "/", null, 0, false, ZipEntry.STORED));
+                collect(p, name + "/", src, items);
+            } else {
+                long size = Files.size(p);
+                Item it = new Item(name, p, size, size <= inlineLimit, compressionPolicy.methodOf(name, size));
+                if (src != null) {
+                    it.raw = src.unchanged(name, p);
+                }
+                items.add(it);
+            }
+        }
+    }
+
+    /**
+     * 按阅读顺序重新排列条目
+     * <p>
+     * 目录条目紧邻其中第一个写入的文件之前，未参与排序的条目保持原有顺序排在最后。
+     *
+     * @param root  打包根目录
+     * @param items 按目录顺序收集的条目
+     * @return 重新排列的条目
+     */
+    private static List<Item> linearize(Path root, List<Item> items) {
+        Map<String, Item> byName = new HashMap<>(items.size() * 2);
+        for (Item it : items) {
+            byName.put(it.name, it);
+        }
+        Set<String> written = new HashSet<>();
+        List<Item> res = new ArrayList<>(items.size());
+        for (String name : PackageLinearizer.order(root)) {
+            Item it = byName.get(name);
+            if (it == null || it.file == null || !written.add(name)) {
+                continue;
+            }
+            // 补充尚未写入的上级目录条目
+            int i = 0;
+            while ((i = name.indexOf('/', i) + 1) > 0) {
+                Item dir = byName.get(name.substring(0, i));
+                if (dir != null && written.add(dir.name)) {
+                    res.add(dir);
+                }
+            }
+            res.add(it);
+        }
+        for (Item it : items) {
+            if (written.add(it.name)) {
+                res.add(it);
+            }
+        }
+        return res;
+    }
+
+    private static String fileName(Path p) {
+        String name = p.getFileName().toString();
+        // ZIP文件系统中的目录名称以 "/" 结尾
+        return name.endsWith("/") ? name.substring(0, name.length() - 1) : name;
+    }
+
+    /**
+     * 读取并压缩文件
+     *
+     * @param file   文件
+     * @param method 压缩方式
+     * @return 压缩结果
+     * @throws IOException IO异常
+     */
+    private static Compressed compress(Path file, int method) throws IOException {
+        byte[] raw = Files.readAllBytes(file);
+        CRC32 crc = new CRC32();
+        crc.update(raw, 0, raw.length);
+        if (method == ZipEntry.STORED) {
+            return new Compressed(crc.getValue(), raw.length, raw, raw.length);
+        }
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] data = new byte[Math.max(64, raw.length / 2)];
+            int len = 0;
+            while (!deflater.finished()) {
+                if (len == data.length) {
+                    data = Arrays.copyOf(data, data.length * 2);
+                }
+                len += deflater.deflate(data, len, data.length - len);
+            }
+            return new Compressed(crc.getValue(), raw.length, data, len);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 计算文件CRC32
+     *
+     * @param file 文件
+     * @return CRC32
+     * @throws IOException IO异常
+     */
+    private static long crc(Path file) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, n);
+            }
+        }
+        return crc.getValue();
+    }
+
+    private static Compressed await(Future<Compressed> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("打包过程被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("文件压缩失败", cause);
+        }
+    }
+
+    private static void copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+    }
+
+    /**
+     * 待打包条目
+     */
+    private static final class Item {
+        final String name;
+        final Path file;
+        /**
+         * 文件大小
+         */
+        final long size;
+        /**
+         * 文件大小不超过整体压缩上限，可以读入内存在线程池中压缩
+         */
+        final boolean fitsInMemory;
+        final int method;
+        /**
+         * 源文件中对应的未修改条目
+         */
+        ZipDirectory.Entry raw;
+
+        Item(String name, Path file, long size, boolean fitsInMemory, int method) {
+            this.name = name;
+            this.file = file;
+            this.size = size;
+            this.fitsInMemory = fitsInMemory;
+            this.method = method;
+        }
+
+        /**
+         * 是否在线程池中压缩
+         */
+        boolean isParallel() {
+            return file != null && fitsInMemory && raw == null;
+        }
+    }
+
+    /**
+     * 压缩结果
+     */
+    private static final class Compressed {
+        final long crc;
+        final long size;
+        final byte[] data;
+        final int len;
+
+        Compressed(long crc, long size, byte[] data, int len) {
+            this.crc = crc;
+            this.size = size;
+            this.data = data;
+            this.len = len;
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package org.ofdrw.pkg.tool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/**
+ * ZIP 格式底层写入
+ * <p>
+ * 与 {@link java.util.zip.ZipOutputStream} 不同，条目数据可以是已经压缩完成的原始 DEFLATE 数据，
+ * 从而允许在其他线程中完成压缩，再按顺序写入。
+ * <p>
+ * 文件名称使用UTF-8编码，条目数量或偏移超出范围时使用 ZIP64 中央目录，单个条目不超过4GB。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 13:20:40
+ */
+final class RawZipOutput {
+
+    private static final long LOCSIG = 0x04034b50L;
+    private static final long EXTSIG = 0x08074b50L;
+    private static final long CENSIG = 0x02014b50L;
+    private static final long ENDSIG = 0x06054b50L;
+    private static final long ZIP64_ENDSIG = 0x06064b50L;
+    private static final long ZIP64_LOCSIG = 0x07064b50L;
+
+    /**
+     * 通用标志：文件名称UTF-8编码
+     */
+    private static final int FLAG_UTF8 = 0x0800;
+
+    /**
+     * 通用标志：数据描述符
+     */
+    private static final int FLAG_DATA_DESCRIPTOR = 0x0008;
+
+    private static final long ZIP32_MAX = 0xFFFFFFFFL;
+
+    private static final int ZIP64_EXTRA_ID = 0x0001;
+
+    private final OutputStream out;
+
+    /**
+     * 已写入的字节数
+     */
+    private long written = 0;
+
+    /**
+     * 中央目录记录
+     */
+    private final List<Record> records = new ArrayList<>();
+
+    private final byte[] buf = new byte[8];
+
+    RawZipOutput(OutputStream out) {
+        this.out = out;
+    }
+
+    /**
+     * 写入目录条目
+     *
+     * @param name 条目名称，以 "/" 结尾
+     * @param time 修改时间（毫秒）
+     * @throws IOException IO异常
+     */
+    void putDirectory(String name, long time) throws IOException {
+        putEntry(name, time, ZipEntry.STORED, 0, 0, null, 0);
+    }
+
+    /**
+     * 写入已完成压缩的条目
+     *
+     * @param name   条目名称
+     * @param time   修改时间（毫秒）
+     * @param method 压缩方法 {@link ZipEntry#DEFLATED} 或 {@link ZipEntry#STORED}
+     * @param crc    原始数据CRC32
+     * @param size   原始数据大小
+     * @param data   条目数据（DEFLATED 时为原始 DEFLATE 数据）
+     * @param len    条目数据长度
+     * @throws IOException IO异常
+     */
+    void putEntry(String name, long time, int method, long crc, long size, byte[] data, int len) throws IOException {
+        if (size >= ZIP32_MAX || len >= ZIP32_MAX) {
+            throw new ZipException("条目超过4GB: " + name);
+        }
+        Record r = new Record(name, time, method, 0, written);
+        r.crc = crc;
+        r.size = size;
+        r.csize = len;
+        writeLocal(r);
+        if (len > 0) {
+            writeBytes(data, 0, len);
+        }
+        records.add(r);
+    }
+
+    /**
+     * 写入不压缩的条目，数据从流中复制
+     *
+     * @param name 条目名称
+     * @param time 修改时间（毫秒）
+     * @param crc  数据CRC32
+     * @param size 数据大小
+     * @param in   数据输入流，由调用者负责关闭
+     * @throws IOException IO异常，或流中数据与大小不一致
+     */
+    void putStored(String name, long time, long crc, long size, InputStream in) throws IOException {
+        putRaw(name, time, ZipEntry.STORED, 0, crc, size, size, in);
+        if (in.read() != -1) {
+            throw new ZipException("条目数据大小与预期不一致: " + name);
+        }
+    }
+
+    /**
+     * 写入条目数据已确定的条目，从流中复制指定长度的条目数据
+     * <p>
+     * 复制其他ZIP中的条目时传入原条目的通用标志，保留压缩选项等信息；
+     * 条目大小与CRC写入本地文件头，因此数据描述符标志被清除。
+     *
+     * @param name   条目名称
+     * @param time   修改时间（毫秒）
+     * @param method 压缩方法 {@link ZipEntry#DEFLATED} 或 {@link ZipEntry#STORED}
+     * @param flag   通用标志
+     * @param crc    原始数据CRC32
+     * @param size   原始数据大小
+     * @param csize  条目数据大小
+     * @param in     条目数据输入流，由调用者负责关闭
+     * @throws IOException IO异常，或流中数据不足
+     */
+    void putRaw(String name, long time, int method, int flag, long crc, long size, long csize, InputStream in) throws IOException {
+        if (size >= ZIP32_MAX || csize >= ZIP32_MAX) {
+            throw new ZipException("条目超过4GB: " + name);
+        }
+        Record r = new Record(name, time, method, flag & ~FLAG_DATA_DESCRIPTOR, written);
+        r.crc = crc;
+        r.size = size;
+        r.csize = csize;
+        writeLocal(r);
+        byte[] buffer = new byte[8192];
+        long remain = csize;
+        while (remain > 0) {
+            int n = in.read(buffer, 0, (int) Math.min(buffer.length, remain));
+            if (n == -1) {
+                throw new ZipException("条目数据大小与预期不一致: " + name);
+            }
+            writeBytes(buffer, 0, n);
+            remain -= n;
+        }
+        records.add(r);
+    }
+
+    /**
+     * 开始一个流式压缩的条目，数据大小与CRC写入数据描述符
+     *
+     * @param name 条目名称
+     * @param time 修改时间（毫秒）
+     * @return 条目数据输出流，关闭后条目结束，底层流不会被关闭
+     * @throws IOException IO异常
+     */
+    OutputStream beginDeflated(String name, long time) throws IOException {
+        final Record r = new Record(name, time, ZipEntry.DEFLATED, FLAG_DATA_DESCRIPTOR, written);
+        writeLocal(r);
+        final long dataStart = written;
+        final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        final CRC32 crc = new CRC32();
+        final byte[] obuf = new byte[8192];
+        return new OutputStream() {
+            private long size = 0;
+            private boolean closed = false;
+
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                crc.update(b, off, len);
+                size += len;
+                deflater.setInput(b, off, len);
+                while (!deflater.needsInput()) {
+                    int n = deflater.deflate(obuf);
+                    writeBytes(obuf, 0, n);
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                try {
+                    deflater.finish();
+                    while (!deflater.finished()) {
+                        int n = deflater.deflate(obuf);
+                        writeBytes(obuf, 0, n);
+                    }
+                } finally {
+                    deflater.end();
+                }
+                r.crc = crc.getValue();
+                r.size = size;
+                r.csize = written - dataStart;
+                if (r.size >= ZIP32_MAX || r.csize >= ZIP32_MAX) {
+                    throw new ZipException("条目超过4GB: " + r.name);
+                }
+                writeInt(EXTSIG);
+                writeInt(r.crc);
+                writeInt(r.csize);
+                writeInt(r.size);
+                records.add(r);
+            }
+        };
+    }
+
+    /**
+     * 写入中央目录，结束ZIP，底层输出流不会被关闭
+     *
+     * @throws IOException IO异常
+     */
+    void finish() throws IOException {
+        long cenStart = written;
+        for (Record r : records) {
+            writeCentral(r);
+        }
+        long cenLen = written - cenStart;
+        int count = records.size();
+        boolean zip64 = count >= 0xFFFF || cenStart >= ZIP32_MAX || cenLen >= ZIP32_MAX;
+        if (zip64) {
+            long zip64End = written;
+            writeInt(ZIP64_ENDSIG);
+            writeLong(44);
+            writeShort(45);
+            writeShort(45);
+            writeInt(0);
+            writeInt(0);
+            writeLong(count);
+            writeLong(count);
+            writeLong(cenLen);
+            writeLong(cenStart);
+            writeInt(ZIP64_LOCSIG);
+            writeInt(0);
+            writeLong(zip64End);
+            writeInt(1);
+        }
+        writeInt(ENDSIG);
+        writeShort(0);
+        writeShort(0);
+        writeShort(Math.min(count, 0xFFFF));
+        writeShort(Math.min(count, 0xFFFF));
+        writeInt(Math.min(cenLen, ZIP32_MAX));
+        writeInt(Math.min(cenStart, ZIP32_MAX));
+        writeShort(0);
+        out.flush();
+    }
+
+    private void writeLocal(Record r) throws IOException {
+        writeInt(LOCSIG);
+        writeShort(20);
+        writeShort(r.flag);
+        writeShort(r.method);
+        writeInt(r.dosTime);
+        if ((r.flag & FLAG_DATA_DESCRIPTOR) != 0) {
+            writeInt(0);
+            writeInt(0);
+            writeInt(0);
+        } else {
+            writeInt(r.crc);
+            writeInt(r.csize);
+            writeInt(r.size);
+        }
+        writeShort(r.nameBytes.length);
+        writeShort(0);
+        writeBytes(r.nameBytes, 0, r.nameBytes.length);
+    }
+
+    private void writeCentral(Record r) throws IOException {
+        boolean zip64 = r.offset >= ZIP32_MAX;
+        int version = zip64 ? 45 : 20;
+        writeInt(CENSIG);
+        writeShort(version);
+        writeShort(version);
+        writeShort(r.flag);
+        writeShort(r.method);
+        writeInt(r.dosTime);
+        writeInt(r.crc);
+        writeInt(r.csize);
+        writeInt(r.size);
+        writeShort(r.nameBytes.length);
+        writeShort(zip64 ? 12 : 0);
+        writeShort(0);
+        writeShort(0);
+        writeShort(0);
+        writeInt(0);
+        writeInt(zip64 ? ZIP32_MAX : r.offset);
+        writeBytes(r.nameBytes, 0, r.nameBytes.length);
+        if (zip64) {
+            writeShort(ZIP64_EXTRA_ID);
+            writeShort(8);
+            writeLong(r.offset);
+        }
+    }
+
+    private void writeShort(int v) throws IOException {
+        buf[0] = (byte) v;
+        buf[1] = (byte) (v >>> 8);
+        writeBytes(buf, 0, 2);
+    }
+
+    private void writeInt(long v) throws IOException {
+        buf[0] = (byte) v;
+        buf[1] = (byte) (v >>> 8);
+        buf[2] = (byte) (v >>> 16);
+        buf[3] = (byte) (v >>> 24);
+        writeBytes(buf, 0, 4);
+    }
+
+    private void writeLong(long v) throws IOException {
+        writeInt(v & ZIP32_MAX);
+        writeInt(v >>> 32);
+    }
+
+    private void writeBytes(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        written += len;
+    }
+
+    /**
+     * Java时间转换为DOS时间
+     *
+     * @param time 毫秒时间
+     * @return DOS时间
+     */
+    private static long dosTime(long time) {
+        LocalDateTime ldt = LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZoneId.systemDefault());
+        int year = ldt.getYear();
+        if (year < 1980) {
+            return (1 << 21) | (1 << 16);
+        }
+        return ((long) (year - 1980) << 25)
+                | (ldt.getMonthValue() << 21)
+                | (ldt.getDayOfMonth() << 16)
+                | (ldt.getHour() << 11)
+                | (ldt.getMinute() << 5)
+                | (ldt.getSecond() >> 1);
+    }
+
+    /**
+     * 条目记录
+     */
+    private static final class Record {
+        final String name;
+        final byte[] nameBytes;
+        final long dosTime;
+        final int method;
+        final int flag;
+        final long offset;
+        long crc;
+        long size;
+        long csize;
+
+        Record(String name, long time, int method, int flag, long offset) {
+            this.name = name;
+            this.nameBytes = name.getBytes(StandardCharsets.UTF_8);
+            this.dosTime = dosTime(time);
+            this.method = method;
+            this.flag = flag | FLAG_UTF8;
+            this.offset = offset;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package org.ofdrw.pkg.tool;
 
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Supplier;
 
 import org.dom4j.io.SAXReader;
@@ -18,6 +19,23 @@ public class SAXReaderFactory {
      */
     private static Supplier<SAXReader> CustomizeProducer = null;
 
+    /**
+     * 线程缓存的 SAXReader
+     * <p>
+     * SAXReader 非线程安全，每个线程持有独立的实例，解析完成后可被同一线程再次使用。
+     */
+    private static final ThreadLocal<SAXReader> CACHE = new ThreadLocal<>();
+
+    /**
+     * 创建的 SAXReader 数量
+     */
+    private static final LongAdder CREATED = new LongAdder();
+
+    /**
+     * 复用 SAXReader 的次数
+     */
+    private static final LongAdder REUSED = new LongAdder();
+
 
     /**
      * 设置用户自定义的 SAXReader 生成器
@@ -50,9 +68,61 @@ public class SAXReaderFactory {
             } catch (Exception e) {
                 // ignore
             }
+            CREATED.increment();
             return reader;
         } else {
             return CustomizeProducer.get();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 获取当前线程可复用的 SAXReader 实例
+     * <p>
+     * 同一线程内多次调用返回同一实例，避免每次解析都创建解析器并设置特性，
+     * 返回的实例仅能在当前线程中使用，且不可在解析过程中再次调用本方法获取用于嵌套解析。
+     * <p>
+     * 若用户配置了自定义生成器，那么每次都调用生成器创建，不做缓存。
+     *
+     * @return SAXReader 对象
+     */
+    public static SAXReader obtain() {
+        if (null != CustomizeProducer) {
+            return CustomizeProducer.get();
+        }
+        SAXReader reader = CACHE.get();
+        if (reader == null) {
+            reader = create();
+            CACHE.set(reader);
+        } else {
+            REUSED.increment();
+        }
+        return reader;
+    }
+
+    /**
+     * 释放当前线程缓存的 SAXReader
+     * <p>
+     * 线程池中的线程不再解析文档时调用，以便回收解析器。
+     */
+    public static void release() {
+        CACHE.remove();
+    }
+
+    /**
+     * 获取已创建的默认 SAXReader 数量
+     *
+     * @return 创建数量
+     */
+    public static long getCreatedCount() {
+        return CREATED.sum();
+    }
+
+    /**
+     * 获取 SAXReader 被复用的次数
+     *
+     * @return 复用次数
+     */
+    public static long getReusedCount() {
+        return REUSED.sum();
+    }
+}
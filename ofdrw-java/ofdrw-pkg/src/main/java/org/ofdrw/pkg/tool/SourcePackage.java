@@ -0,0 +1,156 @@
+package org.ofdrw.pkg.tool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * 源OFD包
+ * <p>
+ * 记录解压到工作目录的OFD文件的ZIP条目信息，用于增量保存：
+ * 工作目录中内容与源文件条目一致的文件在打包时直接从源文件复制压缩数据，无需重新压缩。
+ * <p>
+ * 文件是否被修改通过大小与CRC32判断，打包时读取一遍文件计算CRC32，开销远小于压缩，
+ * 工作目录中的文件不会被改动。
+ * <p>
+ * 源文件在打开后被修改或替换时，所有条目均视为已修改。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 14:48:26
+ */
+public final class SourcePackage {
+
+    /**
+     * 源OFD文件
+     */
+    private final Path file;
+
+    /**
+     * 打开时源文件的大小
+     */
+    private final long fileSize;
+
+    /**
+     * 打开时源文件的修改时间
+     */
+    private final FileTime fileTime;
+
+    /**
+     * 可复制的条目，KEY为条目名称
+     */
+    private final Map<String, ZipDirectory.Entry> entries;
+
+    private SourcePackage(Path file, long fileSize, FileTime fileTime, Map<String, ZipDirectory.Entry> entries) {
+        this.file = file;
+        this.fileSize = fileSize;
+        this.fileTime = fileTime;
+        this.entries = entries;
+    }
+
+    /**
+     * 读取源OFD文件的条目信息
+     *
+     * @param ofdFile 源OFD文件
+     * @return 源OFD包
+     * @throws IOException 文件读取异常或ZIP格式错误
+     */
+    public static SourcePackage open(Path ofdFile) throws IOException {
+        if (ofdFile == null || !Files.isRegularFile(ofdFile)) {
+            throw new IllegalArgumentException("源OFD文件(ofdFile)不存在");
+        }
+        ofdFile = ofdFile.toAbsolutePath();
+        long size = Files.size(ofdFile);
+        FileTime time = Files.getLastModifiedTime(ofdFile);
+        Map<String, ZipDirectory.Entry> entries = new HashMap<>();
+        try (FileChannel ch = FileChannel.open(ofdFile, StandardOpenOption.READ)) {
+            for (ZipDirectory.Entry e : ZipDirectory.read(ch)) {
+                entries.put(e.name, e);
+            }
+        }
+        return new SourcePackage(ofdFile, size, time, entries);
+    }
+
+    /**
+     * 获取源OFD文件
+     *
+     * @return 源OFD文件
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * 源文件是否仍然可用
+     *
+     * @return true - 源文件未被修改，可以复制条目；false - 源文件已被修改或删除
+     */
+    public boolean isAvailable() {
+        try {
+            return Files.isRegularFile(file)
+                    && Files.size(file) == fileSize
+                    && Files.getLastModifiedTime(file).equals(fileTime);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 获取与未修改文件对应的条目
+     * <p>
+     * 文件大小与条目一致时计算文件的CRC32，与条目记录的CRC32比较。
+     *
+     * @param name 条目名称
+     * @param f    工作目录中的文件
+     * @return 条目，文件已被修改或不存在对应条目时返回null
+     * @throws IOException 文件读取异常
+     */
+    ZipDirectory.Entry unchanged(String name, Path f) throws IOException {
+        ZipDirectory.Entry e = entries.get(name);
+        if (e == null || Files.size(f) != e.size) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        byte[] buf = new byte[8192];
+        try (InputStream in = Files.newInputStream(f)) {
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                crc.update(buf, 0, n);
+            }
+        }
+        return crc.getValue() == e.crc ? e : null;
+    }
+
+    /**
+     * 打开源文件用于复制条目
+     *
+     * @return 文件通道，由调用者负责关闭
+     * @throws IOException 文件打开异常
+     */
+    FileChannel openChannel() throws IOException {
+        return FileChannel.open(file, StandardOpenOption.READ);
+    }
+
+    /**
+     * 复制条目的原始压缩数据
+     *
+     * @param ch   源文件通道
+     * @param e    条目
+     * @param name 写入的条目名称
+     * @param time 条目修改时间
+     * @param zip  写入目标
+     * @throws IOException 读写异常
+     */
+    void copy(FileChannel ch, ZipDirectory.Entry e, String name, long time, RawZipOutput zip) throws IOException {
+        ch.position(ZipDirectory.dataOffset(ch, e));
+        InputStream in = Channels.newInputStream(ch);
+        zip.putRaw(name, time, e.method, e.flag, e.crc, e.size, e.csize, in);
+    }
+}
@@ -0,0 +1,353 @@
+package org.ofdrw.pkg.tool;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+
+/**
+ * ZIP中央目录
+ * <p>
+ * 仅读取ZIP文件尾部的中央目录即可得到所有条目的位置，支持ZIP64，
+ * 用于增量保存（{@link SourcePackage}）以及按需读取OFD包中的条目。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 18:30:05
+ */
+public final class ZipDirectory {
+
+    private static final int LOCSIG = 0x04034b50;
+    private static final int CENSIG = 0x02014b50;
+    private static final int ENDSIG = 0x06054b50;
+    private static final int ZIP64_ENDSIG = 0x06064b50;
+    private static final int ZIP64_LOCSIG = 0x07064b50;
+    private static final int ENDHDR = 22;
+    private static final int LOCHDR = 30;
+    private static final long ZIP32_MAX = 0xFFFFFFFFL;
+
+    private ZipDirectory() {
+    }
+
+    /**
+     * 读取中央目录中的文件条目
+     * <p>
+     * 目录、加密条目以及除 STORED、DEFLATED 以外压缩方式的条目被忽略。
+     *
+     * @param ch ZIP文件通道
+     * @return 文件条目，按中央目录顺序
+     * @throws IOException 读取异常或ZIP格式错误
+     */
+    public static List<Entry> read(SeekableByteChannel ch) throws IOException {
+        long size = ch.size();
+        if (size < ENDHDR) {
+            throw new ZipException("不是有效的ZIP文件");
+        }
+        // 查找中央目录结束记录，注释最长65535字节
+        int tailLen = (int) Math.min(size, ENDHDR + 0xFFFF);
+        ByteBuffer tail = ByteBuffer.allocate(tailLen).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(ch, tail, size - tailLen);
+        int end = -1;
+        for (int i = tailLen - ENDHDR; i >= 0; i--) {
+            if (tail.getInt(i) == ENDSIG) {
+                end = i;
+                break;
+            }
+        }
+        if (end < 0) {
+            throw new ZipException("未找到ZIP中央目录");
+        }
+        long count = tail.getShort(end + 10) & 0xFFFF;
+        long cenLen = tail.getInt(end + 12) & ZIP32_MAX;
+        long cenStart = tail.getInt(end + 16) & ZIP32_MAX;
+        long endPos = size - tailLen + end;
+        if ((count == 0xFFFF || cenLen == ZIP32_MAX || cenStart == ZIP32_MAX) && endPos >= 20) {
+            // ZIP64 中央目录结束记录
+            ByteBuffer locator = ByteBuffer.allocate(20).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(ch, locator, endPos - 20);
+            if (locator.getInt(0) == ZIP64_LOCSIG) {
+                ByteBuffer end64 = ByteBuffer.allocate(56).order(ByteOrder.LITTLE_ENDIAN);
+                readFully(ch, end64, locator.getLong(8));
+                if (end64.getInt(0) != ZIP64_ENDSIG) {
+                    throw new ZipException("ZIP64中央目录结束记录错误");
+                }
+                count = end64.getLong(32);
+                cenLen = end64.getLong(40);
+                cenStart = end64.getLong(48);
+            }
+        }
+        if (cenLen > Integer.MAX_VALUE || cenStart + cenLen > size) {
+            throw new ZipException("ZIP中央目录错误");
+        }
+        ByteBuffer cen = ByteBuffer.allocate((int) cenLen).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(ch, cen, cenStart);
+
+        List<Entry> res = new ArrayList<>();
+        int pos = 0;
+        for (long i = 0; i < count; i++) {
+            if (pos + 46 > cenLen || cen.getInt(pos) != CENSIG) {
+                throw new ZipException("ZIP中央目录条目错误");
+            }
+            int flag = cen.getShort(pos + 8) & 0xFFFF;
+            int method = cen.getShort(pos + 10) & 0xFFFF;
+            long crc = cen.getInt(pos + 16) & ZIP32_MAX;
+            long csize = cen.getInt(pos + 20) & ZIP32_MAX;
+            long usize = cen.getInt(pos + 24) & ZIP32_MAX;
+            int nameLen = cen.getShort(pos + 28) & 0xFFFF;
+            int extraLen = cen.getShort(pos + 30) & 0xFFFF;
+            int commentLen = cen.getShort(pos + 32) & 0xFFFF;
+            long offset = cen.getInt(pos + 42) & ZIP32_MAX;
+            byte[] nameBytes = new byte[nameLen];
+            cen.position(pos + 46);
+            cen.get(nameBytes);
+            // ZIP64 扩展信息
+            int extra = pos + 46 + nameLen;
+            int extraEnd = extra + extraLen;
+            while (extra + 4 <= extraEnd) {
+                int id = cen.getShort(extra) & 0xFFFF;
+                int len = cen.getShort(extra + 2) & 0xFFFF;
+                if (id == 0x0001) {
+                    int p = extra + 4;
+                    if (usize == ZIP32_MAX && p + 8 <= extraEnd) {
+                        usize = cen.getLong(p);
+                        p += 8;
+                    }
+                    if (csize == ZIP32_MAX && p + 8 <= extraEnd) {
+                        csize = cen.getLong(p);
+                        p += 8;
+                    }
+                    if (offset == ZIP32_MAX && p + 8 <= extraEnd) {
+                        offset = cen.getLong(p);
+                    }
+                }
+                extra += 4 + len;
+            }
+            pos += 46 + nameLen + extraLen + commentLen;
+
+            String name = decodeName(nameBytes, (flag & 0x0800) != 0);
+            // 跳过目录、加密条目和不支持的压缩方式
+            if (name == null || name.isEmpty() || name.endsWith("/") || name.startsWith("/")
+                    || name.contains("\\") || (flag & 0x0001) != 0
+                    || (method != ZipEntry.STORED && method != ZipEntry.DEFLATED)) {
+                continue;
+            }
+            res.add(new Entry(name, flag, method, crc, usize, csize, offset));
+        }
+        return res;
+    }
+
+    /**
+     * 获取条目数据在ZIP文件中的起始位置
+     *
+     * @param ch ZIP文件通道
+     * @param e  条目
+     * @return 压缩数据起始位置
+     * @throws IOException 读取异常或本地文件头错误
+     */
+    public static long dataOffset(SeekableByteChannel ch, Entry e) throws IOException {
+        ByteBuffer loc = ByteBuffer.allocate(LOCHDR).order(ByteOrder.LITTLE_ENDIAN);
+        readFully(ch, loc, e.offset);
+        if (loc.getInt(0) != LOCSIG) {
+            throw new ZipException("条目本地文件头错误: " + e.name);
+        }
+        return e.offset + LOCHDR + (loc.getShort(26) & 0xFFFF) + (loc.getShort(28) & 0xFFFF);
+    }
+
+    /**
+     * 打开条目数据输入流
+     * <p>
+     * 从条目本地文件头之后开始读取，DEFLATED 条目读取时解压；
+     * 读取期间不可在通道上执行其他读取，关闭输入流时不关闭通道。
+     *
+     * @param ch ZIP文件通道
+     * @param e  条目
+     * @return 未压缩数据输入流
+     * @throws IOException 读取异常或本地文件头错误
+     */
+    public static InputStream open(SeekableByteChannel ch, Entry e) throws IOException {
+        ch.position(dataOffset(ch, e));
+        InputStream in = new BoundedInputStream(ch, e.csize);
+        if (e.method == ZipEntry.DEFLATED) {
+            in = new InflaterInputStream(in, new Inflater(true), 8192);
+        }
+        return in;
+    }
+
+    /**
+     * 解析路径为包内条目名称
+     *
+     * @param baseDir 相对路径的基础目录，以 "/" 结尾或为空
+     * @param loc     路径，以 "/" 开头表示包内绝对路径
+     * @return 条目名称
+     */
+    public static String resolve(String baseDir, String loc) {
+        if (loc == null) {
+            return null;
+        }
+        loc = loc.trim().replace('\\', '/');
+        String path = loc.startsWith("/") ? loc.substring(1) : baseDir + loc;
+        List<String> parts = new ArrayList<>();
+        for (String item : path.split("/")) {
+            if (item.isEmpty() || ".".equals(item)) {
+                continue;
+            }
+            if ("..".equals(item)) {
+                if (!parts.isEmpty()) {
+                    parts.remove(parts.size() - 1);
+                }
+                continue;
+            }
+            parts.add(item);
+        }
+        return String.join("/", parts);
+    }
+
+    /**
+     * 解码条目名称，非UTF-8编码的名称尝试使用GBK解码
+     */
+    private static String decodeName(byte[] name, boolean utf8) {
+        if (utf8) {
+            return new String(name, StandardCharsets.UTF_8);
+        }
+        try {
+            return StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(name))
+                    .toString();
+        } catch (CharacterCodingException e) {
+            try {
+                return new String(name, Charset.forName("GBK"));
+            } catch (RuntimeException ex) {
+                return null;
+            }
+        }
+    }
+
+    private static void readFully(SeekableByteChannel ch, ByteBuffer buf, long position) throws IOException {
+        buf.clear();
+        ch.position(position);
+        while (buf.hasRemaining()) {
+            int n = ch.read(buf);
+            if (n < 0) {
+                throw new ZipException("ZIP文件不完整");
+            }
+        }
+        buf.flip();
+    }
+
+    /**
+     * ZIP文件条目
+     */
+    public static final class Entry {
+        final String name;
+        final int flag;
+        final int method;
+        final long crc;
+        final long size;
+        final long csize;
+        final long offset;
+
+        Entry(String name, int flag, int method, long crc, long size, long csize, long offset) {
+            this.name = name;
+            this.flag = flag;
+            this.method = method;
+            this.crc = crc;
+            this.size = size;
+            this.csize = csize;
+            this.offset = offset;
+        }
+
+        /**
+         * @return 条目名称
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return 通用标志位
+         */
+        public int getFlag() {
+            return flag;
+        }
+
+        /**
+         * @return 压缩方式，{@link ZipEntry#STORED} 或 {@link ZipEntry#DEFLATED}
+         */
+        public int getMethod() {
+            return method;
+        }
+
+        /**
+         * @return 未压缩数据的CRC32
+         */
+        public long getCrc() {
+            return crc;
+        }
+
+        /**
+         * @return 未压缩大小
+         */
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * @return 压缩后大小
+         */
+        public long getCompressedSize() {
+            return csize;
+        }
+
+        /**
+         * @return 本地文件头在ZIP文件中的位置
+         */
+        public long getOffset() {
+            return offset;
+        }
+    }
+
+    /**
+     * 读取通道中指定长度数据的输入流，关闭时不关闭通道
+     */
+    private static final class BoundedInputStream extends InputStream {
+        private final SeekableByteChannel ch;
+        private long remaining;
+
+        BoundedInputStream(SeekableByteChannel ch, long length) {
+            this.ch = ch;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            int n = read(b, 0, 1);
+            return n == -1 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = ch.read(ByteBuffer.wrap(b, off, (int) Math.min(len, remaining)));
+            if (n < 0) {
+                throw new ZipException("ZIP文件不完整");
+            }
+            remaining -= n;
+            return n;
+        }
+    }
+}
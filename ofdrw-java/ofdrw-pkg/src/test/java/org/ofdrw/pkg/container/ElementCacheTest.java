@@ -0,0 +1,143 @@
+package org.ofdrw.pkg.container;
+
+import org.apache.commons.io.FileUtils;
+import org.dom4j.DocumentException;
+import org.dom4j.Element;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * @author 权观宇
+ * @since 2026-10-16 16:40:18
+ */
+class ElementCacheTest {
+    Path base = Paths.get("target/ElementCache");
+
+    @BeforeEach
+    void setUp() throws IOException {
+        FileUtils.deleteDirectory(base.toFile());
+        for (int i = 0; i < 5; i++) {
+            Path page = base.resolve("Doc_0/Pages/Page_" + i);
+            Files.createDirectories(page);
+            Files.write(page.resolve("Content.xml"),
+                    ("<ofd:Page xmlns:ofd=\"http://www.ofdspec.org/2016\" ID=\"" + i + "\"/>").getBytes("UTF-8"));
+        }
+    }
+
+    /**
+     * 超过上限时淘汰最久未访问的元素，未修改的元素再次访问时重新加载
+     */
+    @Test
+    void evictClean() throws IOException, DocumentException {
+        ElementCache cache = new ElementCache(2);
+        OFDDir ofdDir = new OFDDir(base).setElementCache(cache);
+        PagesDir pages = ofdDir.getDocDir("Doc_0").getPages();
+
+        Element first = pages.getByIndex(0).getContent().getProxy();
+        for (int i = 1; i < 5; i++) {
+            pages.getByIndex(i).getContent();
+            Assertions.assertTrue(cache.size() <= 2);
+        }
+        Assertions.assertEquals(3, cache.getEvictedCount());
+
+        Element reload = pages.getByIndex(0).getContent().getProxy();
+        Assertions.assertNotSame(first, reload);
+        Assertions.assertEquals("0", reload.attributeValue("ID"));
+    }
+
+    /**
+     * 已修改的元素在淘汰前写入文件
+     */
+    @Test
+    void evictDirty() throws IOException, DocumentException {
+        ElementCache cache = new ElementCache(1);
+        OFDDir ofdDir = new OFDDir(base).setElementCache(cache);
+        PagesDir pages = ofdDir.getDocDir("Doc_0").getPages();
+
+        pages.getByIndex(0).getContent().addAttribute("ID", "100");
+        pages.getByIndex(1).getContent();
+        Assertions.assertEquals(1, cache.getEvictedCount());
+
+        Element reload = pages.getByIndex(0).getContent().getProxy();
+        Assertions.assertEquals("100", reload.attributeValue("ID"));
+    }
+
+    /**
+     * 已修改的元素写入失败时保留在缓存中，写入恢复后再淘汰
+     */
+    @Test
+    void evictWriteFailed() throws IOException, DocumentException {
+        ElementCache cache = new ElementCache(1);
+        OFDDir ofdDir = new OFDDir(base).setElementCache(cache);
+        PagesDir pages = ofdDir.getDocDir("Doc_0").getPages();
+        PageDir page0 = pages.getByIndex(0);
+        Element dirty = page0.getContent().getProxy();
+        dirty.addAttribute("ID", "100");
+        // 以同名目录占据文件位置，使写入失败
+        Path file = page0.getContainerPath().resolve(PageDir.ContentFileName);
+        Files.delete(file);
+        Files.createDirectory(file);
+
+        for (int i = 1; i < 5; i++) {
+            pages.getByIndex(i).getContent();
+        }
+        Assertions.assertEquals(3, cache.getEvictedCount());
+        Assertions.assertEquals(2, cache.size());
+        Assertions.assertSame(dirty, page0.getContent().getProxy());
+
+        Files.delete(file);
+        pages.getByIndex(1).getContent();
+        Assertions.assertEquals(5, cache.getEvictedCount());
+        Assertions.assertEquals(1, cache.size());
+        Element reload = page0.getContent().getProxy();
+        Assertions.assertNotSame(dirty, reload);
+        Assertions.assertEquals("100", reload.attributeValue("ID"));
+    }
+
+    /**
+     * 加入且尚未写入文件的元素不被淘汰
+     */
+    @Test
+    void putObjPinned() throws IOException, DocumentException {
+        ElementCache cache = new ElementCache(1);
+        OFDDir ofdDir = new OFDDir(base).setElementCache(cache);
+        PageDir page0 = ofdDir.getDocDir("Doc_0").getPages().getByIndex(0);
+        Element added = page0.getContent().getProxy().createCopy();
+        page0.putObj("Extra.xml", added);
+        for (int i = 1; i < 5; i++) {
+            ofdDir.getDocDir("Doc_0").getPages().getByIndex(i).getContent();
+        }
+        Assertions.assertSame(added, page0.getObj("Extra.xml"));
+        Assertions.assertEquals(1, cache.size());
+    }
+
+    /**
+     * 元素的加载、淘汰不改变修改计数，被监视的文件重新加载后仍被监视
+     */
+    @Test
+    void watchAfterEvict() throws IOException, DocumentException {
+        ElementCache cache = new ElementCache(1);
+        OFDDir ofdDir = new OFDDir(base).setElementCache(cache);
+        PagesDir pages = ofdDir.getDocDir("Doc_0").getPages();
+        PageDir page0 = pages.getByIndex(0);
+        page0.watchFile("Content.xml");
+        long count = ofdDir.getModCount();
+
+        page0.getContent();
+        for (int i = 1; i < 5; i++) {
+            // 未被监视的文件修改不计数
+            pages.getByIndex(i).getContent().addAttribute("Tag", "1");
+        }
+        Assertions.assertTrue(cache.getEvictedCount() > 0);
+        Assertions.assertEquals(count, ofdDir.getModCount());
+
+        page0.getContent().addAttribute("Tag", "1");
+        Assertions.assertTrue(ofdDir.getModCount() > count);
+    }
+}
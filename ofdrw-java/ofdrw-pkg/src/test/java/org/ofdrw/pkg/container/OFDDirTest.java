@@ -10,9 +10,14 @@ import org.ofdrw.pkg.container.content.PublicResContent;
 
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
 
 
 class OFDDirTest {
@@ -78,4 +83,49 @@ class OFDDirTest {
         Files.delete(tempFile);
         Assertions.assertTrue(Files.notExists(p));
     }
-}
\ No newline at end of file
+
+    /**
+     * 流式打包：页面提交后直接写入OFD包，工作目录中不再保留
+     */
+    @Test
+    void streaming() throws IOException {
+        Path res = Paths.get("target/streaming.ofd");
+        Path img = Paths.get("src/test/resources", "testimg.png");
+        FileUtils.deleteDirectory(p.toFile());
+        OFDDir ofdDir = new OFDDir(p).setOfd(OFDContent.ofd());
+        try (OutputStream out = Files.newOutputStream(res)) {
+            ofdDir.streamTo(out);
+            final DocDir docDir = ofdDir.newDoc()
+                    .setPublicRes(PublicResContent.res())
+                    .setDocument(DocumentContent.doc());
+            PagesDir ps = docDir.obtainPages();
+            for (int i = 0; i < 3; i++) {
+                PageDir pageDir = ps.newPageDir();
+                pageDir.setContent(PageContent.page());
+                docDir.addResource(img);
+                pageDir.commit();
+                docDir.obtainRes().commit();
+                Assertions.assertFalse(pageDir.exist(PageDir.ContentFileName));
+                Assertions.assertFalse(Files.exists(pageDir.getContainerPath().resolve(PageDir.ContentFileName)));
+            }
+            // 已经提交的相同资源不会重复加入
+            Assertions.assertFalse(Files.exists(docDir.obtainRes().getContainerPath().resolve("testimg.png")));
+            ofdDir.jar(out);
+        }
+        ofdDir.clean();
+
+        Set<String> entries = new HashSet<>();
+        try (ZipInputStream zin = new ZipInputStream(Files.newInputStream(res))) {
+            ZipEntry entry;
+            while ((entry = zin.getNextEntry()) != null) {
+                Assertions.assertTrue(entries.add(entry.getName()), "重复的条目: " + entry.getName());
+            }
+        }
+        Assertions.assertTrue(entries.contains("OFD.xml"));
+        Assertions.assertTrue(entries.contains("Doc_0/Document.xml"));
+        Assertions.assertTrue(entries.contains("Doc_0/Res/testimg.png"));
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertTrue(entries.contains("Doc_0/Pages/Page_" + i + "/Content.xml"));
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package org.ofdrw.pkg.container;
 
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.stream.Stream;
 
 class ResDirTest {
 
@@ -17,4 +21,40 @@ class ResDirTest {
         res.flush();
         System.out.println("生成目录位置: " +res.getSysAbsPath());
     }
-}
\ No newline at end of file
+
+    /**
+     * 内容寻址模式下，内容相同的资源只存储一份
+     */
+    @Test
+    void contentAddressed() throws IOException {
+        Path base = Paths.get("target/ResAddressed");
+        FileUtils.deleteDirectory(base.toFile());
+        Path src = base.resolve("src");
+        Files.createDirectories(src.resolve("other"));
+        Files.write(src.resolve("logo.png"), new byte[]{1, 2, 3});
+        Files.write(src.resolve("seal.png"), new byte[]{1, 2, 3});
+        Files.write(src.resolve("other/logo.png"), new byte[]{4, 5, 6});
+
+        ResDir res = new ResDir(base.resolve("Res")).setContentAddressed(true);
+        Path logo = res.addWithPath(src.resolve("logo.png"));
+        // 文件名不同，内容相同
+        Assertions.assertEquals(logo, res.addWithPath(src.resolve("seal.png")));
+        Assertions.assertFalse(res.exist("seal.png"));
+        // 文件名相同，内容不同
+        Path other = res.addWithPath(src.resolve("other/logo.png"));
+        Assertions.assertNotEquals(logo, other);
+        Assertions.assertArrayEquals(new byte[]{4, 5, 6}, Files.readAllBytes(other));
+        Assertions.assertEquals(other, res.addWithPath(src.resolve("other/logo.png")));
+        // 刷新后索引仍然有效
+        res.flush();
+        Assertions.assertEquals(logo, res.addWithPath(src.resolve("seal.png")));
+        try (Stream<Path> s = Files.list(res.getContainerPath())) {
+            Assertions.assertEquals(2, s.count());
+        }
+        // 资源被删除后重新加入
+        Files.delete(logo);
+        Path again = res.addWithPath(src.resolve("seal.png"));
+        Assertions.assertTrue(Files.exists(again));
+        Assertions.assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(again));
+    }
+}
@@ -2,15 +2,18 @@ package org.ofdrw.pkg.container;
 
 import org.apache.commons.io.FileUtils;
 import org.dom4j.DocumentException;
+import org.dom4j.DocumentHelper;
 import org.dom4j.Element;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.ofdrw.core.OFDElement;
+import org.ofdrw.core.TrackedDocumentFactory;
 import org.ofdrw.core.basicStructure.doc.CT_PageArea;
 import org.ofdrw.core.basicStructure.doc.Document;
 import org.ofdrw.core.basicStructure.ofd.OFD;
 import org.ofdrw.core.basicStructure.pageObj.Page;
+import org.ofdrw.core.basicType.ST_ID;
 import org.ofdrw.core.basicType.ST_Loc;
 import org.ofdrw.pkg.tool.ElemCup;
 
@@ -157,6 +160,98 @@ class VirtualContainerTest {
 
     }
 
+    /**
+     * 测试通过代理对象修改子元素后，文件能够被写入
+     *
+     * @throws IOException       no happen
+     * @throws DocumentException no happen
+     */
+    @Test
+    void testReadFileChanged() throws IOException, DocumentException {
+        Path docPath = Paths.get("src/test/resources/Document.xml");
+        VirtualContainer doc_0 = vc.obtainContainer("Doc_0", VirtualContainer::new);
+        doc_0.putFile(docPath);
+        vc.close();
+
+        VirtualContainer newVc = new VirtualContainer(Paths.get(target));
+        DocDir docDir0 = newVc.obtainContainer("Doc_0", DocDir::new);
+        Document document = docDir0.getDocument();
+        long before = TrackedDocumentFactory.versionOf(document.getProxy());
+        Assertions.assertTrue(before >= 0);
+        // 修改嵌套的子元素
+        document.getCommonData().setMaxUnitID(ST_ID.getInstance("512"));
+        Assertions.assertNotEquals(before, TrackedDocumentFactory.versionOf(document.getProxy()));
+        newVc.close();
+
+        Path vcDocPath = Paths.get(target + "/Doc_0/Document.xml");
+        Element e = ElemCup.inject(vcDocPath);
+        Assertions.assertEquals(512L, (long) new Document(e).getCommonData().getMaxUnitID().getId());
+    }
+
+    /**
+     * 测试新建的元素加入文档并刷新后，再次修改仍能被写入
+     *
+     * @throws IOException       no happen
+     * @throws DocumentException no happen
+     */
+    @Test
+    void testNewElementChangedAfterFlush() throws IOException, DocumentException {
+        Path docPath = Paths.get("src/test/resources/Document.xml");
+        VirtualContainer doc_0 = vc.obtainContainer("Doc_0", VirtualContainer::new);
+        doc_0.putFile(docPath);
+        vc.close();
+
+        VirtualContainer newVc = new VirtualContainer(Paths.get(target));
+        DocDir docDir0 = newVc.obtainContainer("Doc_0", DocDir::new);
+        Document document = docDir0.getDocument();
+        OFDElement extra = OFDElement.getInstance("Extra");
+        document.add(extra);
+        docDir0.flushFileByName(DocDir.DocumentFileName);
+
+        long before = TrackedDocumentFactory.versionOf(document.getProxy());
+        Assertions.assertTrue(before >= 0);
+        // 修改刷新前新建的元素
+        extra.addAttribute("Name", "changed");
+        extra.setText("text");
+        Assertions.assertNotEquals(before, TrackedDocumentFactory.versionOf(document.getProxy()));
+        newVc.close();
+
+        Path vcDocPath = Paths.get(target + "/Doc_0/Document.xml");
+        Element e = ElemCup.inject(vcDocPath);
+        Element saved = e.element("Extra");
+        Assertions.assertNotNull(saved);
+        Assertions.assertEquals("changed", saved.attributeValue("Name"));
+        Assertions.assertEquals("text", saved.getText());
+    }
+
+    /**
+     * 测试加入不可追踪的元素后总是写入
+     *
+     * @throws IOException       no happen
+     * @throws DocumentException no happen
+     */
+    @Test
+    void testForeignElementAlwaysWritten() throws IOException, DocumentException {
+        Path docPath = Paths.get("src/test/resources/Document.xml");
+        VirtualContainer doc_0 = vc.obtainContainer("Doc_0", VirtualContainer::new);
+        doc_0.putFile(docPath);
+        vc.close();
+
+        VirtualContainer newVc = new VirtualContainer(Paths.get(target));
+        DocDir docDir0 = newVc.obtainContainer("Doc_0", DocDir::new);
+        Document document = docDir0.getDocument();
+        Element foreign = DocumentHelper.createElement("Foreign");
+        document.add(foreign);
+        Assertions.assertEquals(-1, TrackedDocumentFactory.versionOf(document.getProxy()));
+        docDir0.flushFileByName(DocDir.DocumentFileName);
+
+        foreign.setText("text");
+        newVc.close();
+
+        Element e = ElemCup.inject(Paths.get(target + "/Doc_0/Document.xml"));
+        Assertions.assertEquals("text", e.elementText("Foreign"));
+    }
+
     @Test
     void testGetFile() throws IOException {
         FileUtils.deleteDirectory(new File("target/vc_get/"));
@@ -0,0 +1,152 @@
+package org.ofdrw.pkg.storage;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.ofdrw.core.annotation.pageannot.PageAnnot;
+import org.ofdrw.core.basicType.ST_Loc;
+import org.ofdrw.pkg.container.DocDir;
+import org.ofdrw.pkg.container.OFDDir;
+import org.ofdrw.pkg.container.PageDir;
+import org.ofdrw.pkg.container.PagesDir;
+import org.ofdrw.pkg.container.content.DocumentContent;
+import org.ofdrw.pkg.container.content.OFDContent;
+import org.ofdrw.pkg.container.content.PageContent;
+import org.ofdrw.pkg.container.content.PublicResContent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * @author 权观宇
+ * @since 2026-10-16 18:52:40
+ */
+class ChannelZipStorageTest {
+
+    /**
+     * 仅读取中央目录和访问到的条目，大文件在访问前不被读取
+     */
+    @Test
+    void rangeRead() throws Exception {
+        Path dir = Files.createTempDirectory("ofd-channel-");
+        Path big = dir.resolve("big.bin");
+        Path ofd = dir.resolve("range.ofd");
+        try {
+            byte[] data = new byte[4 * 1024 * 1024];
+            new Random(7).nextBytes(data);
+            Files.write(big, data);
+            OFDDir src = OFDDir.newOFD().setOfd(OFDContent.ofd());
+            DocDir docDir = src.newDoc()
+                    .addResource(big)
+                    .setPublicRes(PublicResContent.res())
+                    .setDocument(DocumentContent.doc());
+            PagesDir ps = docDir.obtainPages();
+            ps.newPageDir().setContent(PageContent.page());
+            src.jar(ofd);
+
+            long size = Files.size(ofd);
+            OFDDir ofdDir = OFDDir.openChannel(FileChannel.open(ofd, StandardOpenOption.READ));
+            try {
+                ChannelZipStorage storage = (ChannelZipStorage) ofdDir.getStorage();
+                Assertions.assertEquals(size, storage.getSize());
+                // 解析文档结构
+                Assertions.assertNotNull(ofdDir.getOfd());
+                DocDir doc = ofdDir.getDocByIndex(0);
+                Assertions.assertNotNull(doc.getDocument());
+                Assertions.assertNotNull(doc.getPages().getByIndex(0).getContent());
+                long structBytes = storage.getBytesRead();
+                Assertions.assertTrue(structBytes < size / 4,
+                        "读取字节数 " + structBytes + " / 文件大小 " + size);
+
+                // 访问大文件时才读取，内容一致
+                Path f = ofdDir.getFile(new ST_Loc("/Doc_0/Res/big.bin"));
+                Assertions.assertArrayEquals(data, Files.readAllBytes(f));
+                Assertions.assertTrue(storage.getBytesRead() >= data.length - 1024);
+                Assertions.assertTrue(storage.isReadOnly());
+            } finally {
+                ofdDir.close();
+            }
+        } finally {
+            Files.deleteIfExists(ofd);
+            Files.deleteIfExists(big);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    /**
+     * 列出目录时解压目录中的文件
+     */
+    @Test
+    void listDir() throws Exception {
+        Path dir = Files.createTempDirectory("ofd-channel-");
+        Path ofd = dir.resolve("list.ofd");
+        try {
+            OFDDir src = OFDDir.newOFD().setOfd(OFDContent.ofd());
+            DocDir docDir = src.newDoc()
+                    .setPublicRes(PublicResContent.res())
+                    .setDocument(DocumentContent.doc());
+            docDir.obtainPages().newPageDir()
+                    .setContent(PageContent.page())
+                    .addAnnot("Annot_3.xml", new PageAnnot());
+            src.jar(ofd);
+
+            OFDDir ofdDir = OFDDir.openChannel(FileChannel.open(ofd, StandardOpenOption.READ));
+            try {
+                PageDir pageDir = ofdDir.getDocByIndex(0).getPages().getByIndex(0);
+                Path annot = pageDir.getContainerPath().resolve("Annot_3.xml");
+                Assertions.assertFalse(Files.exists(annot));
+                Assertions.assertEquals(3, (int) pageDir.getMaxAnnotFileIndex());
+                Assertions.assertTrue(Files.exists(annot));
+                // 暂存文件不出现在存储目录中
+                try (Stream<Path> s = Files.list(pageDir.getContainerPath())) {
+                    Assertions.assertTrue(s.noneMatch(p -> p.getFileName().toString().endsWith(".part")));
+                }
+            } finally {
+                ofdDir.close();
+            }
+        } finally {
+            Files.deleteIfExists(ofd);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    /**
+     * 块缓存：缓存命中不读取底层通道，未命中时预读后续块
+     */
+    @Test
+    void blockCache() throws IOException {
+        Path f = Files.createTempFile("ofd-block-", ".bin");
+        try {
+            byte[] data = new byte[1000];
+            new Random(3).nextBytes(data);
+            Files.write(f, data);
+            try (BlockCacheChannel ch = new BlockCacheChannel(FileChannel.open(f, StandardOpenOption.READ), 100, 8, 4)) {
+                ByteBuffer buf = ByteBuffer.allocate(10);
+                ch.position(150);
+                Assertions.assertEquals(10, ch.read(buf));
+                Assertions.assertEquals(data[150], buf.get(0));
+                // 预读块 1..4
+                Assertions.assertEquals(1, ch.getReadCount());
+                Assertions.assertEquals(400, ch.getBytesRead());
+                buf.clear();
+                ch.position(480);
+                Assertions.assertEquals(10, ch.read(buf));
+                Assertions.assertEquals(data[489], buf.get(9));
+                Assertions.assertEquals(1, ch.getReadCount());
+                // 末尾未满的块
+                buf.clear();
+                ch.position(995);
+                Assertions.assertEquals(5, ch.read(buf));
+                Assertions.assertEquals(-1, ch.read(buf));
+                Assertions.assertEquals(2, ch.getReadCount());
+            }
+        } finally {
+            Files.deleteIfExists(f);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.ofdrw.pkg.storage;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.ofdrw.core.basicType.ST_Loc;
+import org.ofdrw.pkg.container.DocDir;
+import org.ofdrw.pkg.container.OFDDir;
+import org.ofdrw.pkg.container.PagesDir;
+import org.ofdrw.pkg.container.content.DocumentContent;
+import org.ofdrw.pkg.container.content.OFDContent;
+import org.ofdrw.pkg.container.content.PageContent;
+import org.ofdrw.pkg.container.content.PublicResContent;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+class ContainerStorageTest {
+    Path img = Paths.get("src/test/resources", "testimg.png");
+
+    OFDDir build(ContainerStorage storage) throws IOException {
+        OFDDir ofdDir = OFDDir.newOFD(storage)
+                .setOfd(OFDContent.ofd());
+        final DocDir docDir = ofdDir.newDoc()
+                .addResource(img)
+                .setPublicRes(PublicResContent.res())
+                .setDocument(DocumentContent.doc());
+        PagesDir ps = docDir.obtainPages();
+        ps.newPageDir().setContent(PageContent.page());
+        return ofdDir;
+    }
+
+    /**
+     * 各类存储中生成的OFD包内容应一致
+     */
+    @Test
+    void jar() throws IOException {
+        ContainerStorage[] storages = {new TempDirStorage(), new HeapStorage(), new MappedStorage()};
+        Set<String> expect = null;
+        for (ContainerStorage storage : storages) {
+            OFDDir ofdDir = build(storage);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ofdDir.jar(out);
+            Set<String> entries = entries(out.toByteArray());
+            Assertions.assertTrue(entries.contains("OFD.xml"));
+            Assertions.assertTrue(entries.contains("Doc_0/Res/testimg.png"));
+            if (expect == null) {
+                expect = entries;
+            } else {
+                Assertions.assertEquals(expect, entries);
+            }
+            // 获取容器中的文件
+            Path imgInStorage = ofdDir.getFile(new ST_Loc("/Doc_0/Res/testimg.png"));
+            Assertions.assertEquals(Files.size(img), Files.size(imgInStorage));
+
+            Path root = storage.getRoot();
+            ofdDir.clean();
+            if (storage instanceof TempDirStorage) {
+                Assertions.assertTrue(Files.notExists(root));
+            } else {
+                Assertions.assertFalse(root.getFileSystem().isOpen());
+            }
+        }
+    }
+
+    /**
+     * 内存存储打包到文件后能够以ZIP原地读取模式打开
+     */
+    @Test
+    void jarPath() throws IOException {
+        Path dst = Paths.get("target/storage-heap.ofd");
+        OFDDir ofdDir = build(new HeapStorage());
+        ofdDir.jar(dst);
+        ofdDir.clean();
+
+        try (OFDDir zip = OFDDir.openZip(dst)) {
+            Assertions.assertTrue(zip.isZipMode());
+            Assertions.assertNotNull(zip.getOfd());
+            Path imgInZip = zip.getFile(new ST_Loc("/Doc_0/Res/testimg.png"));
+            Assertions.assertEquals(Files.size(img), Files.size(imgInZip));
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * 跨越映射块边界的读写、截断
+     */
+    @Test
+    void mappedReadWrite() throws IOException {
+        byte[] data = new byte[MappedBlockPool.BLOCK_SIZE * 3 + 123];
+        new Random(7).nextBytes(data);
+        try (MappedStorage storage = new MappedStorage()) {
+            Path file = storage.getRoot().resolve("a.bin");
+            Files.write(file, data);
+            Assertions.assertArrayEquals(data, Files.readAllBytes(file));
+
+            try (OutputStream out = Files.newOutputStream(file, StandardOpenOption.APPEND)) {
+                out.write(data, 0, 10);
+            }
+            Assertions.assertEquals(data.length + 10, Files.size(file));
+
+            // 删除后块被复用，新文件内容不受影响
+            Files.delete(file);
+            Path other = storage.getRoot().resolve("b.bin");
+            Files.write(other, new byte[]{1, 2, 3});
+            Assertions.assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(other));
+        }
+    }
+
+    private static Set<String> entries(byte[] zip) throws IOException {
+        Set<String> res = new HashSet<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                res.add(entry.getName());
+            }
+        }
+        return res;
+    }
+}
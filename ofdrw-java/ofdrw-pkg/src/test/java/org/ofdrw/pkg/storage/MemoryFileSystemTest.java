@@ -0,0 +1,121 @@
+package org.ofdrw.pkg.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.UserPrincipalNotFoundException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryFileSystemTest {
+
+    /**
+     * 文件存储
+     */
+    @Test
+    void fileStore() throws IOException {
+        try (HeapStorage storage = new HeapStorage()) {
+            Path root = storage.getRoot();
+            Path file = root.resolve("a.xml");
+            Files.write(file, "<a/>".getBytes(StandardCharsets.UTF_8));
+
+            FileStore store = Files.getFileStore(file);
+            assertNotNull(store);
+            assertSame(store, root.getFileSystem().getFileStores().iterator().next());
+            assertFalse(store.isReadOnly());
+            assertTrue(store.getTotalSpace() > 0);
+            assertTrue(store.getUsableSpace() <= store.getTotalSpace());
+            assertEquals(store.getTotalSpace(), store.getAttribute("totalSpace"));
+            assertTrue(store.supportsFileAttributeView("basic"));
+            assertFalse(store.supportsFileAttributeView("posix"));
+
+            assertThrows(NoSuchFileException.class, () -> Files.getFileStore(root.resolve("none.xml")));
+        }
+    }
+
+    /**
+     * 内存文件系统中的文件没有所有者
+     */
+    @Test
+    void userPrincipalLookup() throws IOException {
+        try (HeapStorage storage = new HeapStorage()) {
+            FileSystem fs = storage.getRoot().getFileSystem();
+            assertThrows(UserPrincipalNotFoundException.class,
+                    () -> fs.getUserPrincipalLookupService().lookupPrincipalByName("root"));
+            assertThrows(UserPrincipalNotFoundException.class,
+                    () -> fs.getUserPrincipalLookupService().lookupPrincipalByGroupName("root"));
+        }
+    }
+
+    /**
+     * 目录监视
+     */
+    @Test
+    void watch() throws IOException, InterruptedException {
+        try (HeapStorage storage = new HeapStorage()) {
+            Path root = storage.getRoot();
+            Path dir = Files.createDirectories(root.resolve("Doc_0/Res"));
+            try (WatchService watcher = root.getFileSystem().newWatchService()) {
+                WatchKey key = dir.register(watcher,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY,
+                        StandardWatchEventKinds.ENTRY_DELETE);
+                assertSame(dir, key.watchable());
+                assertNull(watcher.poll());
+
+                Path file = dir.resolve("font.ttf");
+                Files.write(file, new byte[]{1, 2, 3});
+                Files.move(file, dir.resolve("font2.ttf"));
+                Files.delete(dir.resolve("font2.ttf"));
+                // 其它目录的变化不产生事件
+                Files.write(root.resolve("OFD.xml"), new byte[]{1});
+
+                assertSame(key, watcher.poll(1, TimeUnit.SECONDS));
+                Map<String, WatchEvent.Kind<?>> last = new HashMap<>();
+                List<WatchEvent<?>> events = key.pollEvents();
+                for (WatchEvent<?> event : events) {
+                    last.put(event.context().toString(), event.kind());
+                }
+                assertEquals(StandardWatchEventKinds.ENTRY_CREATE, events.get(0).kind());
+                assertEquals("font.ttf", events.get(0).context().toString());
+                assertEquals(StandardWatchEventKinds.ENTRY_DELETE, last.get("font.ttf"));
+                assertEquals(StandardWatchEventKinds.ENTRY_DELETE, last.get("font2.ttf"));
+                assertFalse(last.containsKey("OFD.xml"));
+                assertTrue(key.reset());
+                assertNull(watcher.poll());
+
+                // 删除被监视的目录后监视键失效
+                Files.delete(dir);
+                assertFalse(key.isValid());
+            }
+        }
+    }
+
+    /**
+     * 关闭监视服务后不再可用
+     */
+    @Test
+    void watchClosed() throws IOException {
+        try (HeapStorage storage = new HeapStorage()) {
+            Path root = storage.getRoot();
+            WatchService watcher = root.getFileSystem().newWatchService();
+            WatchKey key = root.register(watcher, StandardWatchEventKinds.ENTRY_CREATE);
+            watcher.close();
+            assertFalse(key.isValid());
+            assertThrows(ClosedWatchServiceException.class, watcher::poll);
+            assertThrows(ClosedWatchServiceException.class, watcher::take);
+            assertThrows(NotDirectoryException.class, () -> {
+                Path file = Files.write(root.resolve("a.xml"), new byte[]{1});
+                try (WatchService w = root.getFileSystem().newWatchService()) {
+                    file.register(w, StandardWatchEventKinds.ENTRY_CREATE);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package org.ofdrw.pkg.tool;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.ofdrw.pkg.container.OFDDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+class CompressionPolicyTest {
+
+    @Test
+    void methodOf() {
+        CompressionPolicy policy = CompressionPolicy.defaultPolicy();
+        Assertions.assertEquals(ZipEntry.STORED, policy.methodOf("Doc_0/Res/image_1.PNG", 1024));
+        Assertions.assertEquals(ZipEntry.STORED, policy.methodOf("Doc_0/Res/font.otf", 1024));
+        Assertions.assertEquals(ZipEntry.STORED, policy.methodOf("Doc_0/Res/img.jb2", 1024));
+        Assertions.assertEquals(ZipEntry.DEFLATED, policy.methodOf("Doc_0/Pages/Page_0/Content.xml", 1024));
+        Assertions.assertEquals(ZipEntry.DEFLATED, policy.methodOf("Doc_0/Res.d/noext", 1024));
+
+        policy.deflate(".png").store("bmp").setStoreBelow(100).setStoreAbove(1 << 20);
+        Assertions.assertEquals(ZipEntry.DEFLATED, policy.methodOf("a.png", 1024));
+        Assertions.assertEquals(ZipEntry.STORED, policy.methodOf("a.bmp", 1024));
+        Assertions.assertEquals(ZipEntry.STORED, policy.methodOf("OFD.xml", 99));
+        Assertions.assertEquals(ZipEntry.STORED, policy.methodOf("big.xml", (1 << 20) + 1));
+
+        Assertions.assertEquals(ZipEntry.DEFLATED, CompressionPolicy.deflateAll().methodOf("a.jpg", 1024));
+    }
+
+    /**
+     * 打包时按策略选择压缩方式
+     */
+    @Test
+    void jar() throws IOException {
+        Path dir = Paths.get("target/CompressionPolicy");
+        Path res = Paths.get("target/CompressionPolicy.ofd");
+        FileUtils.deleteDirectory(dir.toFile());
+        OFDDir ofdDir = build(dir, 3, 20);
+        ofdDir.jar(res);
+        ofdDir.clean();
+        try (ZipFile zip = new ZipFile(res.toFile())) {
+            Assertions.assertEquals(ZipEntry.STORED, zip.getEntry("Doc_0/Res/image_0.jpg").getMethod());
+            Assertions.assertEquals(ZipEntry.DEFLATED, zip.getEntry("Doc_0/Pages/Page_0/Content.xml").getMethod());
+        }
+    }
+
+    /**
+     * 更换压缩策略后重新打包，各条目的压缩方式随策略变化
+     */
+    @Test
+    void jarWithPolicy() throws IOException {
+        Path dir = Paths.get("target/CompressionPolicyPack");
+        FileUtils.deleteDirectory(dir.toFile());
+        OFDDir ofdDir = build(dir, 2, 3);
+        try {
+            Map<String, Integer> deflateAll = methods(pack(ofdDir, CompressionPolicy.deflateAll()));
+            Map<String, Integer> defaultPolicy = methods(pack(ofdDir, CompressionPolicy.defaultPolicy()));
+            Assertions.assertEquals(deflateAll.keySet(), defaultPolicy.keySet());
+            for (Map.Entry<String, Integer> kv : defaultPolicy.entrySet()) {
+                String name = kv.getKey();
+                Assertions.assertEquals(ZipEntry.DEFLATED, (int) deflateAll.get(name), name);
+                int expect = name.endsWith(".jpg") ? ZipEntry.STORED : ZipEntry.DEFLATED;
+                Assertions.assertEquals(expect, (int) kv.getValue(), name);
+            }
+            Assertions.assertTrue(defaultPolicy.containsKey("Doc_0/Res/image_1.jpg"));
+        } finally {
+            ofdDir.clean();
+        }
+    }
+
+    private static byte[] pack(OFDDir ofdDir, CompressionPolicy policy) throws IOException {
+        ofdDir.setCompressionPolicy(policy);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ofdDir.jar(out);
+        return out.toByteArray();
+    }
+
+    /**
+     * 读取包中各文件条目的压缩方式
+     */
+    private static Map<String, Integer> methods(byte[] ofd) throws IOException {
+        Map<String, Integer> res = new HashMap<>();
+        try (ZipInputStream zin = new ZipInputStream(new ByteArrayInputStream(ofd))) {
+            ZipEntry entry;
+            while ((entry = zin.getNextEntry()) != null) {
+                if (!entry.isDirectory()) {
+                    res.put(entry.getName(), entry.getMethod());
+                }
+            }
+        }
+        return res;
+    }
+
+    /**
+     * 构造含有图片资源的文档目录，图片使用随机数据模拟已压缩的内容
+     */
+    private static OFDDir build(Path dir, int images, int pages) throws IOException {
+        Random random = new Random(1);
+        OFDDir ofdDir = new OFDDir(dir);
+        Path res = Files.createDirectories(dir.resolve("Doc_0/Res"));
+        byte[] img = new byte[256 * 1024];
+        for (int i = 0; i < images; i++) {
+            random.nextBytes(img);
+            Files.write(res.resolve("image_" + i + ".jpg"), img);
+        }
+        for (int i = 0; i < pages; i++) {
+            Path page = Files.createDirectories(dir.resolve("Doc_0/Pages/Page_" + i));
+            StringBuilder sb = new StringBuilder("<ofd:Page xmlns:ofd=\"http://www.ofdspec.org/2016\"><ofd:Content><ofd:Layer ID=\"1\">");
+            for (int j = 0; j < 300; j++) {
+                sb.append("<ofd:TextObject ID=\"").append(j).append("\" Boundary=\"10 10 100 20\" Font=\"3\" Size=\"5\">")
+                        .append("<ofd:TextCode X=\"0\" Y=\"5\">").append(random.nextInt()).append("</ofd:TextCode></ofd:TextObject>");
+            }
+            sb.append("</ofd:Layer></ofd:Content></ofd:Page>");
+            Files.write(page.resolve("Content.xml"), sb.toString().getBytes("UTF-8"));
+        }
+        Files.write(dir.resolve("OFD.xml"), "<ofd:OFD xmlns:ofd=\"http://www.ofdspec.org/2016\"/>".getBytes("UTF-8"));
+        return ofdDir;
+    }
+}
@@ -0,0 +1,108 @@
+package org.ofdrw.pkg.tool;
+
+import org.dom4j.DocumentException;
+import org.dom4j.Element;
+import org.dom4j.Namespace;
+import org.dom4j.QName;
+import org.dom4j.tree.DefaultElement;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.ofdrw.core.basicStructure.doc.CT_PageArea;
+import org.ofdrw.core.basicStructure.pageObj.Page;
+import org.ofdrw.core.basicType.ST_ID;
+import org.ofdrw.core.text.text.CT_Text;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.function.Supplier;
+
+/**
+ * @author 权观宇
+ * @since 2026-10-16 15:30:06
+ */
+class ElemStreamWriterTest {
+
+    @AfterEach
+    void reset() {
+        ElemCup.ENABLE_STREAM_WRITER = false;
+    }
+
+    /**
+     * 从文件加载的元素，流式序列化与 XMLWriter 输出一致
+     */
+    @Test
+    void roundTripFile() throws DocumentException, IOException {
+        for (String name : new String[]{"Content.xml", "Document.xml", "namespace_case.xml"}) {
+            Element e = ElemCup.inject(Paths.get("src/test/resources", name));
+            assertSame(() -> e);
+        }
+    }
+
+    /**
+     * 新构造的元素（含代理对象、其他命名空间、特殊字符），流式序列化与 XMLWriter 输出一致
+     */
+    @Test
+    void roundTripBuild() throws IOException {
+        assertSame(() -> {
+            Page page = new Page();
+            page.setArea(new CT_PageArea(0, 0, 210, 297));
+            CT_Text text = new CT_Text();
+            text.setObjID(new ST_ID(1));
+            text.addAttribute("Name", "a\"b<c>&d\te\u0001");
+            text.setText("x < y && z > \"w\"\r\n\u0002");
+            page.add(text);
+            // 与容器一致，序列化被代理的对象
+            return page.getProxy();
+        });
+        assertSame(() -> {
+            Element root = new DefaultElement("Root");
+            root.addNamespace("xs", "http://example.com/xs");
+            root.addElement(new QName("Item", Namespace.get("ofd", "http://example.com/other")))
+                    .addAttribute(new QName("Attr", Namespace.get("xs", "http://example.com/xs")), "1");
+            root.addElement("Empty");
+            root.addComment("comment");
+            root.addCDATA("<cdata>");
+            return root;
+        });
+    }
+
+    /**
+     * 流式序列化不修改元素
+     */
+    @Test
+    void noSideEffect() throws IOException {
+        ElemCup.ENABLE_STREAM_WRITER = true;
+        Element root = new DefaultElement("Root");
+        root.addElement("Child");
+        ElemCup.dumpUpNS(root, new ByteArrayOutputStream());
+        Assertions.assertNull(root.getDocument());
+        Assertions.assertEquals("Root", root.getQualifiedName());
+        Assertions.assertEquals("Child", root.element("Child").getQualifiedName());
+    }
+
+    /**
+     * 分别使用两种方式序列化并比较
+     *
+     * @param producer 元素构造，每种方式使用新的元素，避免 XMLWriter 方式修改元素的影响
+     */
+    private static void assertSame(Supplier<Element> producer) throws IOException {
+        for (boolean upNS : new boolean[]{true, false}) {
+            ElemCup.ENABLE_STREAM_WRITER = true;
+            byte[] stream = dump(producer.get(), upNS);
+            ElemCup.ENABLE_STREAM_WRITER = false;
+            byte[] expect = dump(producer.get(), upNS);
+            Assertions.assertEquals(new String(expect, "UTF-8"), new String(stream, "UTF-8"));
+        }
+    }
+
+    private static byte[] dump(Element e, boolean upNS) throws IOException {
+        if (!upNS) {
+            return ElemCup.dump(e);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ElemCup.dumpUpNS(e, out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,207 @@
+package org.ofdrw.pkg.tool;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+class ParallelZipPackagerTest {
+    Path root = Paths.get("target/ParallelZip");
+    ExecutorService pool;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        FileUtils.deleteDirectory(root.toFile());
+        Random random = new Random(1);
+        for (int i = 0; i < 40; i++) {
+            Path page = root.resolve("Doc_0/Pages/Page_" + i);
+            Files.createDirectories(page);
+            StringBuilder sb = new StringBuilder("<ofd:Page xmlns:ofd=\"http://www.ofdspec.org/2016\">");
+            for (int j = 0; j < 200 + random.nextInt(500); j++) {
+                sb.append("<ofd:TextObject ID=\"").append(j).append("\"/>");
+            }
+            sb.append("</ofd:Page>");
+            Files.write(page.resolve("Content.xml"), sb.toString().getBytes("UTF-8"));
+        }
+        byte[] bin = new byte[300 * 1024];
+        random.nextBytes(bin);
+        Files.createDirectories(root.resolve("Doc_0/Res/中文目录"));
+        Files.write(root.resolve("Doc_0/Res/image_1.png"), bin);
+        Files.write(root.resolve("Doc_0/Res/中文目录/数据.txt"), "中文内容".getBytes("UTF-8"));
+        Files.write(root.resolve("OFD.xml"), "<ofd:OFD/>".getBytes("UTF-8"));
+        pool = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 包内容与逐个压缩的结果一致，且条目顺序、压缩数据确定
+     */
+    @Test
+    void pack() throws IOException {
+        long time = System.currentTimeMillis();
+        ByteArrayOutputStream a = new ByteArrayOutputStream();
+        new ParallelZipPackager(pool, 3).pack(root, a, time);
+        ByteArrayOutputStream b = new ByteArrayOutputStream();
+        new ParallelZipPackager(pool, 16).pack(root, b, time);
+        Assertions.assertArrayEquals(a.toByteArray(), b.toByteArray());
+
+        Path ofd = root.resolveSibling("parallel.ofd");
+        Files.write(ofd, a.toByteArray());
+        Map<String, Long> crc = sequentialCrc();
+        try (ZipFile zip = new ZipFile(ofd.toFile())) {
+            List<String> names = new ArrayList<>();
+            for (Enumeration<? extends ZipEntry> e = zip.entries(); e.hasMoreElements(); ) {
+                ZipEntry entry = e.nextElement();
+                names.add(entry.getName());
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                Assertions.assertEquals((long) crc.get(entry.getName()), entry.getCrc());
+                try (InputStream in = zip.getInputStream(entry)) {
+                    byte[] expect = Files.readAllBytes(root.resolve(entry.getName()));
+                    Assertions.assertArrayEquals(expect, readAll(in));
+                }
+            }
+            Assertions.assertEquals(crc.keySet(), new HashSet<>(withoutDir(names)));
+            Assertions.assertTrue(names.contains("Doc_0/Res/中文目录/数据.txt"));
+        }
+    }
+
+    /**
+     * 同时压缩的文件大小之和受限时，打包结果不变
+     */
+    @Test
+    void packByteBounded() throws IOException {
+        long time = System.currentTimeMillis();
+        ByteArrayOutputStream a = new ByteArrayOutputStream();
+        new ParallelZipPackager(pool, 16).pack(root, a, time);
+        ByteArrayOutputStream b = new ByteArrayOutputStream();
+        // 图片大于上限，需要单独压缩
+        new ParallelZipPackager(pool, 16).setMaxBytesInFlight(64 * 1024).pack(root, b, time);
+        Assertions.assertArrayEquals(a.toByteArray(), b.toByteArray());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ParallelZipPackager(pool).setMaxBytesInFlight(0));
+    }
+
+    /**
+     * 大文件在调用线程中流式压缩，使用数据描述符
+     */
+    @Test
+    void packStreamed() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ParallelZipPackager(pool, 4, 100 * 1024).pack(root, out);
+        int count = 0;
+        try (ZipInputStream zin = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zin.getNextEntry()) != null) {
+                byte[] data = readAll(zin);
+                if (!entry.isDirectory()) {
+                    Assertions.assertArrayEquals(Files.readAllBytes(root.resolve(entry.getName())), data);
+                    count++;
+                }
+            }
+        }
+        Assertions.assertEquals(43, count);
+    }
+
+    /**
+     * 线性化打包时条目按阅读顺序排列，图片紧随首次使用它的页面
+     */
+    @Test
+    void linearized() throws IOException {
+        String ns = " xmlns:ofd=\"http://www.ofdspec.org/2016\"";
+        Files.write(root.resolve("OFD.xml"), ("<ofd:OFD" + ns + "><ofd:DocBody><ofd:DocRoot>Doc_0/Document.xml</ofd:DocRoot></ofd:DocBody></ofd:OFD>").getBytes("UTF-8"));
+        Files.write(root.resolve("Doc_0/Document.xml"), ("<ofd:Document" + ns + "><ofd:CommonData><ofd:DocumentRes>DocumentRes.xml</ofd:DocumentRes></ofd:CommonData><ofd:Pages>"
+                + "<ofd:Page ID=\"1\" BaseLoc=\"Pages/Page_7/Content.xml\"/><ofd:Page ID=\"2\" BaseLoc=\"Pages/Page_3/Content.xml\"/>"
+                + "</ofd:Pages></ofd:Document>").getBytes("UTF-8"));
+        Files.write(root.resolve("Doc_0/DocumentRes.xml"), ("<ofd:Res" + ns + " BaseLoc=\"Res\"><ofd:MultiMedias><ofd:MultiMedia ID=\"5\" Type=\"Image\">"
+                + "<ofd:MediaFile>image_1.png</ofd:MediaFile></ofd:MultiMedia></ofd:MultiMedias></ofd:Res>").getBytes("UTF-8"));
+        Files.write(root.resolve("Doc_0/Pages/Page_3/Content.xml"), ("<ofd:Page" + ns + "><ofd:Content><ofd:Layer ID=\"9\"><ofd:ImageObject ID=\"10\" ResourceID=\"5\"/>"
+                + "</ofd:Layer></ofd:Content></ofd:Page>").getBytes("UTF-8"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ParallelZipPackager(pool).setLinearized(true).pack(root, out);
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream zin = new ZipInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            ZipEntry entry;
+            while ((entry = zin.getNextEntry()) != null) {
+                byte[] data = readAll(zin);
+                if (!entry.isDirectory()) {
+                    Assertions.assertArrayEquals(Files.readAllBytes(root.resolve(entry.getName())), data);
+                }
+                names.add(entry.getName());
+            }
+        }
+        Assertions.assertEquals(Arrays.asList(
+                "OFD.xml",
+                "Doc_0/Document.xml",
+                "Doc_0/DocumentRes.xml",
+                "Doc_0/Pages/Page_7/Content.xml",
+                "Doc_0/Pages/Page_3/Content.xml",
+                "Doc_0/Res/image_1.png"), withoutDir(names).subList(0, 6));
+        Assertions.assertEquals(45, withoutDir(names).size());
+        // 目录条目位于其中的文件之前
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i);
+            int slash = name.lastIndexOf('/', name.length() - 2);
+            if (slash > 0) {
+                Assertions.assertTrue(names.subList(0, i).contains(name.substring(0, slash + 1)), name);
+            }
+        }
+    }
+
+    private Map<String, Long> sequentialCrc() throws IOException {
+        Map<String, Long> res = new HashMap<>();
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(bout)) {
+            for (Path p : (Iterable<Path>) Files.walk(root).filter(Files::isRegularFile)::iterator) {
+                String name = root.relativize(p).toString().replace('\\', '/');
+                ZipEntry entry = new ZipEntry(name);
+                zip.putNextEntry(entry);
+                zip.write(Files.readAllBytes(p));
+                zip.closeEntry();
+                res.put(name, entry.getCrc());
+            }
+        }
+        return res;
+    }
+
+    private static List<String> withoutDir(List<String> names) {
+        List<String> res = new ArrayList<>();
+        for (String n : names) {
+            if (!n.endsWith("/")) {
+                res.add(n);
+            }
+        }
+        return res;
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        byte[] buf = new byte[4096];
+        int n;
+        while ((n = in.read(buf)) != -1) {
+            bout.write(buf, 0, n);
+        }
+        return bout.toByteArray();
+    }
+}
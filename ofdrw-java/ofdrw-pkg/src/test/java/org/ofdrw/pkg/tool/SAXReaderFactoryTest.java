@@ -0,0 +1,95 @@
+package org.ofdrw.pkg.tool;
+
+import org.dom4j.DocumentException;
+import org.dom4j.DocumentFactory;
+import org.dom4j.Element;
+import org.dom4j.io.SAXReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.ofdrw.core.TrackedDocumentFactory;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author 权观宇
+ * @since 2026-10-16 16:10:42
+ */
+class SAXReaderFactoryTest {
+
+    @AfterEach
+    void tearDown() {
+        SAXReaderFactory.release();
+    }
+
+    /**
+     * 同一线程复用同一解析器，不同线程使用各自的解析器
+     */
+    @Test
+    void obtain() throws InterruptedException {
+        SAXReader r1 = SAXReaderFactory.obtain();
+        long reused = SAXReaderFactory.getReusedCount();
+        SAXReader r2 = SAXReaderFactory.obtain();
+        Assertions.assertSame(r1, r2);
+        Assertions.assertTrue(SAXReaderFactory.getReusedCount() > reused);
+
+        AtomicReference<SAXReader> other = new AtomicReference<>();
+        Thread t = new Thread(() -> other.set(SAXReaderFactory.obtain()));
+        t.start();
+        t.join();
+        Assertions.assertNotNull(other.get());
+        Assertions.assertNotSame(r1, other.get());
+
+        SAXReaderFactory.release();
+        Assertions.assertNotSame(r1, SAXReaderFactory.obtain());
+    }
+
+    /**
+     * 多次加载文件仅创建一次解析器
+     */
+    @Test
+    void injectReuse() throws DocumentException {
+        Path file = Paths.get("src/test/resources/Content.xml");
+        ElemCup.inject(file);
+        long created = SAXReaderFactory.getCreatedCount();
+        for (int i = 0; i < 10; i++) {
+            Element e = ElemCup.inject(file);
+            Assertions.assertNotEquals(-1, TrackedDocumentFactory.versionOf(e));
+        }
+        Assertions.assertEquals(created, SAXReaderFactory.getCreatedCount());
+    }
+
+    /**
+     * 加载文件后线程缓存的解析器仍使用默认的文档工厂
+     */
+    @Test
+    void injectKeepsFactory() throws DocumentException {
+        ElemCup.inject(Paths.get("src/test/resources/Content.xml"));
+        SAXReader reader = SAXReaderFactory.obtain();
+        Assertions.assertSame(DocumentFactory.getInstance(), reader.getDocumentFactory());
+        Element root = reader.read(new ByteArrayInputStream("<r>ok</r>".getBytes(StandardCharsets.UTF_8)))
+                .getRootElement();
+        Assertions.assertEquals(-1, TrackedDocumentFactory.versionOf(root));
+    }
+
+    /**
+     * 复用的解析器仍然禁止 DOCTYPE，且解析失败后可继续使用
+     */
+    @Test
+    void xxe() throws DocumentException {
+        String xxe = "<?xml version=\"1.0\"?><!DOCTYPE r [<!ENTITY x SYSTEM \"file:///etc/passwd\">]><r>&x;</r>";
+        for (int i = 0; i < 2; i++) {
+            SAXReader reader = SAXReaderFactory.obtain();
+            Assertions.assertThrows(DocumentException.class,
+                    () -> reader.read(new ByteArrayInputStream(xxe.getBytes(StandardCharsets.UTF_8))));
+        }
+        Element root = SAXReaderFactory.obtain()
+                .read(new ByteArrayInputStream("<r>ok</r>".getBytes(StandardCharsets.UTF_8)))
+                .getRootElement();
+        Assertions.assertEquals("ok", root.getText());
+    }
+}
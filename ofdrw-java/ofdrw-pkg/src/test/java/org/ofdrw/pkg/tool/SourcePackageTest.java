@@ -0,0 +1,209 @@
+package org.ofdrw.pkg.tool;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+class SourcePackageTest {
+    Path base = Paths.get("target/SourcePackage");
+    Path srcOfd = base.resolve("src.ofd");
+    Path workDir = base.resolve("work");
+
+    @BeforeEach
+    void setUp() throws IOException {
+        FileUtils.deleteDirectory(base.toFile());
+        Path root = base.resolve("root");
+        Random random = new Random(2);
+        for (int i = 0; i < 5; i++) {
+            Path page = root.resolve("Doc_0/Pages/Page_" + i);
+            Files.createDirectories(page);
+            Files.write(page.resolve("Content.xml"), ("<ofd:Page ID=\"" + i + "\"/>").getBytes("UTF-8"));
+        }
+        byte[] bin = new byte[200 * 1024];
+        random.nextBytes(bin);
+        Files.createDirectories(root.resolve("Doc_0/Res"));
+        Files.write(root.resolve("Doc_0/Res/image_1.png"), bin);
+        Files.write(root.resolve("OFD.xml"), "<ofd:OFD/>".getBytes("UTF-8"));
+        // 源文件全部压缩
+        try (OutputStream out = Files.newOutputStream(srcOfd)) {
+            new ParallelZipPackager(null).setCompressionPolicy(CompressionPolicy.deflateAll()).pack(root, out);
+        }
+        // 解压到工作目录
+        try (ZipInputStream zin = new ZipInputStream(Files.newInputStream(srcOfd))) {
+            ZipEntry entry;
+            while ((entry = zin.getNextEntry()) != null) {
+                Path p = workDir.resolve(entry.getName());
+                if (entry.isDirectory()) {
+                    Files.createDirectories(p);
+                } else {
+                    Files.createDirectories(p.getParent());
+                    Files.write(p, readAll(zin));
+                }
+            }
+        }
+    }
+
+    /**
+     * 未修改的条目复制源文件压缩数据，修改和新增的条目重新写入
+     */
+    @Test
+    void incremental() throws IOException {
+        SourcePackage source = SourcePackage.open(srcOfd);
+        Assertions.assertTrue(source.isAvailable());
+        Files.write(workDir.resolve("Doc_0/Pages/Page_1/Content.xml"), "<ofd:Page ID=\"100\"/>".getBytes("UTF-8"));
+        Files.write(workDir.resolve("Doc_0/Res/new.txt"), "new".getBytes("UTF-8"));
+
+        Path out = base.resolve("out.ofd");
+        try (OutputStream o = Files.newOutputStream(out)) {
+            new ParallelZipPackager(null).setSource(source).pack(workDir, o);
+        }
+        try (ZipFile src = new ZipFile(srcOfd.toFile());
+             ZipFile zip = new ZipFile(out.toFile())) {
+            int count = 0;
+            for (Enumeration<? extends ZipEntry> e = zip.entries(); e.hasMoreElements(); ) {
+                ZipEntry entry = e.nextElement();
+                if (entry.isDirectory()) {
+                    continue;
+                }
+                count++;
+                try (InputStream in = zip.getInputStream(entry)) {
+                    Assertions.assertArrayEquals(Files.readAllBytes(workDir.resolve(entry.getName())), readAll(in));
+                }
+            }
+            Assertions.assertEquals(8, count);
+            // 默认策略下图片不压缩，复制的条目保持源文件中的压缩方式
+            ZipEntry img = zip.getEntry("Doc_0/Res/image_1.png");
+            Assertions.assertEquals(ZipEntry.DEFLATED, img.getMethod());
+            Assertions.assertEquals(src.getEntry("Doc_0/Res/image_1.png").getCompressedSize(), img.getCompressedSize());
+        }
+    }
+
+    /**
+     * 源文件被修改后不再复制
+     */
+    @Test
+    void sourceChanged() throws IOException {
+        SourcePackage source = SourcePackage.open(srcOfd);
+        Files.setLastModifiedTime(srcOfd, FileTime.fromMillis(System.currentTimeMillis() - 60_000));
+        Assertions.assertFalse(source.isAvailable());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new ParallelZipPackager(null).setSource(source).pack(workDir, out);
+        Path res = base.resolve("changed.ofd");
+        Files.write(res, out.toByteArray());
+        try (ZipFile zip = new ZipFile(res.toFile())) {
+            Assertions.assertEquals(ZipEntry.STORED, zip.getEntry("Doc_0/Res/image_1.png").getMethod());
+        }
+    }
+
+    /**
+     * 大小与修改时间不变但内容被修改的文件重新写入
+     */
+    @Test
+    void sameSizeAndTime() throws IOException {
+        SourcePackage source = SourcePackage.open(srcOfd);
+        Path page = workDir.resolve("Doc_0/Pages/Page_1/Content.xml");
+        FileTime time = Files.getLastModifiedTime(page);
+        byte[] changed = "<ofd:Page ID=\"9\"/>".getBytes("UTF-8");
+        Assertions.assertEquals(Files.size(page), changed.length);
+        Files.write(page, changed);
+        Files.setLastModifiedTime(page, time);
+
+        Path out = base.resolve("same.ofd");
+        try (OutputStream o = Files.newOutputStream(out)) {
+            new ParallelZipPackager(null).setSource(source).pack(workDir, o);
+        }
+        try (ZipFile zip = new ZipFile(out.toFile());
+             InputStream in = zip.getInputStream(zip.getEntry("Doc_0/Pages/Page_1/Content.xml"))) {
+            Assertions.assertArrayEquals(changed, readAll(in));
+        }
+    }
+
+    /**
+     * 复制的条目保留源文件中的通用标志
+     */
+    @Test
+    void keepFlags() throws IOException {
+        // 源文件中的图片条目标记为最大压缩（通用标志第1位）
+        byte[] data = Files.readAllBytes(srcOfd);
+        setFlag(data, "Doc_0/Res/image_1.png", 0x0002);
+        Files.write(srcOfd, data);
+        SourcePackage source = SourcePackage.open(srcOfd);
+
+        Path out = base.resolve("flags.ofd");
+        try (OutputStream o = Files.newOutputStream(out)) {
+            new ParallelZipPackager(null).setSource(source).pack(workDir, o);
+        }
+        int flag = -1;
+        try (FileChannel ch = FileChannel.open(out, StandardOpenOption.READ)) {
+            for (ZipDirectory.Entry e : ZipDirectory.read(ch)) {
+                if ("Doc_0/Res/image_1.png".equals(e.getName())) {
+                    flag = e.getFlag();
+                }
+            }
+        }
+        Assertions.assertEquals(0x0802, flag);
+        try (ZipFile zip = new ZipFile(out.toFile());
+             InputStream in = zip.getInputStream(zip.getEntry("Doc_0/Res/image_1.png"))) {
+            Assertions.assertArrayEquals(Files.readAllBytes(workDir.resolve("Doc_0/Res/image_1.png")), readAll(in));
+        }
+    }
+
+    /**
+     * 修改ZIP中指定条目的本地文件头与中央目录中的通用标志
+     */
+    private static void setFlag(byte[] zip, String name, int flag) {
+        byte[] n = name.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buf = ByteBuffer.wrap(zip).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i + 30 + n.length <= zip.length; i++) {
+            int flagPos, nameLenPos, namePos;
+            int sig = buf.getInt(i);
+            if (sig == 0x04034b50) {
+                flagPos = i + 6;
+                nameLenPos = i + 26;
+                namePos = i + 30;
+            } else if (sig == 0x02014b50 && i + 46 + n.length <= zip.length) {
+                flagPos = i + 8;
+                nameLenPos = i + 28;
+                namePos = i + 46;
+            } else {
+                continue;
+            }
+            if ((buf.getShort(nameLenPos) & 0xFFFF) == n.length
+                    && Arrays.equals(Arrays.copyOfRange(zip, namePos, namePos + n.length), n)) {
+                buf.putShort(flagPos, (short) (buf.getShort(flagPos) | flag));
+            }
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        byte[] buf = new byte[8192];
+        int n;
+        while ((n = in.read(buf)) != -1) {
+            bout.write(buf, 0, n);
+        }
+        return bout.toByteArray();
+    }
+}
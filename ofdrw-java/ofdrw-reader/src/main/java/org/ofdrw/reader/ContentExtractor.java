@@ -8,9 +8,11 @@ import org.ofdrw.core.basicStructure.pageObj.layer.block.TextObject;
 import org.ofdrw.core.text.TextCode;
 import org.ofdrw.reader.extractor.ExtractorFilter;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 /**
  * 内容抽取器
@@ -185,6 +187,29 @@ public class ContentExtractor {
         return txtContentList;
     }
 
+    /**
+     * 并行获取OFD内的所有文本内容
+     * <p>
+     * 各页面的文字抽取任务提交到线程池中执行，结果按页码顺序合并，与 {@link #extractAll()} 一致。
+     * 同时抽取的页面数量不超过 {@link ParallelPages#defaultMaxInFlight()}。
+     * <p>
+     * 注意：解析器需要预先开启并发模式（{@link OFDReader#setConcurrent(boolean)}），
+     * 抽取过滤器会在多个线程中被调用。
+     *
+     * @param executor 线程池
+     * @return OFD中所有文本内容
+     * @throws IllegalStateException 解析器未开启并发模式
+     */
+    public List<String> extractAll(ExecutorService executor) {
+        List<String> txtContentList = new LinkedList<>();
+        for (List<String> pageContent : getPageContents(executor)) {
+            if (pageContent != null && !pageContent.isEmpty()) {
+                txtContentList.addAll(pageContent);
+            }
+        }
+        return txtContentList;
+    }
+
     /**
      * 获取OFD内的所有TextObject
      *
@@ -216,4 +241,43 @@ public class ContentExtractor {
             }
         }
     }
+
+    /**
+     * 并行遍历所有页面
+     * <p>
+     * 页面文字在线程池中抽取，接收器在当前线程中按页码顺序调用。
+     *
+     * @param e        接受
+     * @param executor 线程池
+     * @throws IllegalStateException 解析器未开启并发模式
+     * @see #extractAll(ExecutorService)
+     */
+    public void traverse(Receiver e, ExecutorService executor) {
+        List<List<String>> pageContents = getPageContents(executor);
+        for (int i = 0; i < pageContents.size(); i++) {
+            List<String> pageContent = pageContents.get(i);
+            if (pageContent != null && !pageContent.isEmpty() && e != null) {
+                e.process(i + 1, pageContent);
+            }
+        }
+    }
+
+    /**
+     * 并行抽取所有页面的文字
+     *
+     * @param executor 线程池
+     * @return 各页面的文字，下标为 页码-1
+     * @throws IllegalStateException 解析器未开启并发模式
+     */
+    private List<List<String>> getPageContents(ExecutorService executor) {
+        if (!reader.isConcurrent()) {
+            throw new IllegalStateException("并行抽取前需要开启解析器的并发模式(OFDReader#setConcurrent)");
+        }
+        int numberOfPages = reader.getNumberOfPages();
+        List<Integer> pages = new ArrayList<>(numberOfPages);
+        for (int pageNum = 1; pageNum <= numberOfPages; pageNum++) {
+            pages.add(pageNum);
+        }
+        return ParallelPages.map(pages, executor, ParallelPages.defaultMaxInFlight(), this::getPageContent);
+    }
 }
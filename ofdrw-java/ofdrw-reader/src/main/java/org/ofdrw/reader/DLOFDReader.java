@@ -89,7 +89,7 @@ public class DLOFDReader extends OFDReader {
      */
     private void initReader() {
         try {
-            resMgt = new ResourceManage(this);
+            resMgt = new ResourceManage(this, 0, true);
             this.getResourceLocator().save();
             DocBody docBody = this.getOFDDir().getOfd().getDocBody();
             docRoot = docBody.getDocRoot();
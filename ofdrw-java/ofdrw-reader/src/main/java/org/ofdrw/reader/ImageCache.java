@@ -0,0 +1,210 @@
+package org.ofdrw.reader;
+
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 图片缓存
+ * <p>
+ * 按最近使用顺序缓存解码后的图片（以及蒙板处理后的图片、图片原始数据），
+ * 缓存占用的内存超过上限时淘汰最久未使用的图片。
+ * <p>
+ * 页眉、印章等每页都引用的图片只需解码一次，
+ * 由 {@link ResourceManage} 持有，同一个 {@link OFDReader} 的各类转换器共享。
+ * <p>
+ * 注意：缓存的图片对象被多次返回，调用者不应修改图片内容。
+ * <p>
+ * 该对象线程安全。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 20:30:12
+ */
+public final class ImageCache {
+
+    /**
+     * 默认内存上限 64MB
+     */
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+
+    /**
+     * 内存上限，单位字节
+     */
+    private final long maxBytes;
+
+    /**
+     * 缓存项，按访问顺序排列
+     */
+    private final LinkedHashMap<String, Item> items = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * 当前占用的内存，单位字节
+     */
+    private long bytes = 0;
+
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    /**
+     * 创建图片缓存
+     *
+     * @param maxBytes 内存上限，单位字节，必须大于0
+     */
+    public ImageCache(long maxBytes) {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("内存上限(maxBytes)必须大于0");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 获取图片
+     *
+     * @param key 缓存键
+     * @return 图片，不存在返回null
+     */
+    BufferedImage getImage(String key) {
+        Object v = get(key);
+        return v instanceof BufferedImage ? (BufferedImage) v : null;
+    }
+
+    /**
+     * 获取图片原始数据
+     *
+     * @param key 缓存键
+     * @return 图片数据，不存在返回null
+     */
+    byte[] getBytes(String key) {
+        Object v = get(key);
+        return v instanceof byte[] ? (byte[]) v : null;
+    }
+
+    /**
+     * 缓存图片
+     *
+     * @param key   缓存键
+     * @param image 图片
+     */
+    void put(String key, BufferedImage image) {
+        put(key, image, sizeOf(image));
+    }
+
+    /**
+     * 缓存图片原始数据
+     *
+     * @param key  缓存键
+     * @param data 图片数据
+     */
+    void put(String key, byte[] data) {
+        put(key, data, data.length);
+    }
+
+    private synchronized Object get(String key) {
+        Item item = items.get(key);
+        if (item == null) {
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        return item.value;
+    }
+
+    private synchronized void put(String key, Object value, long size) {
+        if (value == null || size > maxBytes) {
+            // 超过上限的图片不缓存
+            return;
+        }
+        Item old = items.put(key, new Item(value, size));
+        if (old != null) {
+            bytes -= old.size;
+        }
+        bytes += size;
+        Iterator<Map.Entry<String, Item>> it = items.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Item> eldest = it.next();
+            it.remove();
+            bytes -= eldest.getValue().size;
+            evictionCount++;
+        }
+    }
+
+    /**
+     * 估算图片占用的内存
+     *
+     * @param image 图片
+     * @return 字节数
+     */
+    static long sizeOf(BufferedImage image) {
+        int pixelSize = image.getColorModel().getPixelSize();
+        long bytesPerPixel = Math.max(1, (pixelSize + 7) / 8);
+        return (long) image.getWidth() * image.getHeight() * bytesPerPixel;
+    }
+
+    /**
+     * 清空缓存，不重置统计数据
+     */
+    public synchronized void clear() {
+        items.clear();
+        bytes = 0;
+    }
+
+    /**
+     * 获取 内存上限
+     *
+     * @return 字节数
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * 获取 当前占用的内存（估算值）
+     *
+     * @return 字节数
+     */
+    public synchronized long getSize() {
+        return bytes;
+    }
+
+    /**
+     * 获取 缓存命中次数
+     *
+     * @return 命中次数
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * 获取 缓存未命中次数
+     *
+     * @return 未命中次数
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * 获取 淘汰的缓存项数量
+     *
+     * @return 淘汰数量
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * 缓存项
+     */
+    private static final class Item {
+        final Object value;
+        final long size;
+
+        Item(Object value, long size) {
+            this.value = value;
+            this.size = size;
+        }
+    }
+}
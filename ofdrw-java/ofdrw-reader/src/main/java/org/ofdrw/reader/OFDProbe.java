@@ -0,0 +1,378 @@
+package org.ofdrw.reader;
+
+import org.dom4j.DocumentException;
+import org.dom4j.Element;
+import org.ofdrw.core.basicStructure.doc.CT_CommonData;
+import org.ofdrw.core.basicStructure.doc.CT_PageArea;
+import org.ofdrw.core.basicStructure.doc.Document;
+import org.ofdrw.core.basicStructure.ofd.DocBody;
+import org.ofdrw.core.basicStructure.ofd.OFD;
+import org.ofdrw.core.basicStructure.pageObj.layer.Type;
+import org.ofdrw.core.basicType.ST_Box;
+import org.ofdrw.core.basicType.ST_Loc;
+import org.ofdrw.pkg.tool.SAXReaderFactory;
+import org.ofdrw.pkg.tool.ZipDirectory;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * OFD文档概要探测
+ * <p>
+ * 不解压OFD包、不构造 {@link OFDReader}，直接通过ZIP中央目录读取默认文档的
+ * OFD.xml、Document.xml 以及各页面开头的区域（Area）信息，得到页数、页面大小以及是否含有签名，
+ * 适用于在完整解析之前对文件进行分类或路由。
+ * <p>
+ * 页面内容文件只读取到 Area 元素为止，读取数据量与页面内容大小无关。
+ * <p>
+ * 页面大小的确定方式与 {@link OFDReader#getPageSize(int)} 一致：
+ * 页面 Area &gt; 模板页 Area（图层次序最高者）&gt; 文档默认 PageArea &gt; A4。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 19:20:14
+ */
+public final class OFDProbe {
+
+    /**
+     * 流式读取页面区域使用的XML工厂，禁用DTD与外部实体
+     */
+    private static final XMLInputFactory XML_FACTORY;
+
+    static {
+        XML_FACTORY = XMLInputFactory.newInstance();
+        XML_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        XML_FACTORY.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+    }
+
+    /**
+     * 页面物理区域，按页码顺序
+     */
+    private final List<ST_Box> pageSizes;
+
+    /**
+     * 是否含有签名
+     */
+    private final boolean signature;
+
+    private OFDProbe(List<ST_Box> pageSizes, boolean signature) {
+        this.pageSizes = Collections.unmodifiableList(pageSizes);
+        this.signature = signature;
+    }
+
+    /**
+     * 探测OFD文件
+     *
+     * @param ofdFile OFD文件路径
+     * @return 文档概要
+     * @throws IOException 文件读取异常
+     * @throws BadOFDException 错误OFD结构和文件格式
+     */
+    public static OFDProbe probe(Path ofdFile) throws IOException {
+        if (ofdFile == null) {
+            throw new IllegalArgumentException("OFD文件路径(ofdFile)为空");
+        }
+        try (FileChannel ch = FileChannel.open(ofdFile, StandardOpenOption.READ)) {
+            return probe(ch);
+        }
+    }
+
+    /**
+     * 探测OFD包
+     *
+     * @param ch OFD包数据通道，探测完成后不关闭
+     * @return 文档概要
+     * @throws IOException 读取异常
+     * @throws BadOFDException 错误OFD结构和文件格式
+     */
+    public static OFDProbe probe(SeekableByteChannel ch) throws IOException {
+        if (ch == null) {
+            throw new IllegalArgumentException("OFD包数据通道(ch)为空");
+        }
+        Map<String, ZipDirectory.Entry> entries = new HashMap<>();
+        for (ZipDirectory.Entry e : ZipDirectory.read(ch)) {
+            entries.put(e.getName(), e);
+        }
+        return new Prober(ch, entries).run();
+    }
+
+    /**
+     * 获取 页数
+     *
+     * @return 页数
+     */
+    public int getNumberOfPages() {
+        return pageSizes.size();
+    }
+
+    /**
+     * 获取 所有页面的物理区域
+     *
+     * @return 页面物理区域（不可修改），按页码顺序
+     */
+    public List<ST_Box> getPageSizes() {
+        return pageSizes;
+    }
+
+    /**
+     * 获取 页面物理区域
+     *
+     * @param num 页码，从1起
+     * @return 页面物理区域
+     */
+    public ST_Box getPageSize(int num) {
+        if (num < 1 || num > pageSizes.size()) {
+            throw new IndexOutOfBoundsException(String.format("页码(%d)超出范围 [1, %d]", num, pageSizes.size()));
+        }
+        return pageSizes.get(num - 1);
+    }
+
+    /**
+     * 文档是否包含数字签名
+     * <p>
+     * 文档入口声明了签名列表文件且该文件存在于包中
+     *
+     * @return true - 含有；false - 不含；
+     */
+    public boolean hasSignature() {
+        return signature;
+    }
+
+    @Override
+    public String toString() {
+        return "OFDProbe{pages=" + pageSizes.size() + ", signature=" + signature + '}';
+    }
+
+    /**
+     * 单次探测过程
+     */
+    private static final class Prober {
+        private final SeekableByteChannel ch;
+        private final Map<String, ZipDirectory.Entry> entries;
+
+        /**
+         * 模板页区域缓存，KEY为模板页文件条目名称
+         */
+        private final Map<String, CT_PageArea> tplAreas = new HashMap<>();
+
+        Prober(SeekableByteChannel ch, Map<String, ZipDirectory.Entry> entries) {
+            this.ch = ch;
+            this.entries = entries;
+        }
+
+        OFDProbe run() throws IOException {
+            OFD ofd = new OFD(readElement("OFD.xml"));
+            DocBody docBody = ofd.getDocBody();
+            if (docBody == null || docBody.getDocRoot() == null) {
+                throw new BadOFDException("OFD.xml 中缺少文档入口（DocRoot）");
+            }
+            String docFile = ZipDirectory.resolve("", docBody.getDocRoot().toString());
+            String docDir = dirOf(docFile);
+            Document document = new Document(readElement(docFile));
+
+            // 签名列表文件路径相对于包根目录
+            boolean signature = false;
+            ST_Loc sigLoc = docBody.getSignatures();
+            if (sigLoc != null) {
+                signature = entries.containsKey(ZipDirectory.resolve("", sigLoc.toString()));
+            }
+
+            ST_Box defaultSize = null;
+            Map<String, String> templates = new HashMap<>();
+            CT_CommonData commonData = document.getCommonData();
+            if (commonData != null) {
+                CT_PageArea area = commonData.getPageArea();
+                if (area != null) {
+                    defaultSize = area.getBox();
+                }
+                for (Element tpl : commonData.elements("TemplatePage")) {
+                    String baseLoc = tpl.attributeValue("BaseLoc");
+                    if (baseLoc != null) {
+                        templates.put(tpl.attributeValue("ID"), ZipDirectory.resolve(docDir, baseLoc));
+                    }
+                }
+            }
+            if (defaultSize == null) {
+                defaultSize = new ST_Box(0, 0, 210d, 297d);
+            }
+
+            List<ST_Box> sizes = new ArrayList<>();
+            Element pages = document.element("Pages");
+            if (pages != null) {
+                for (Element page : pages.elements("Page")) {
+                    String baseLoc = page.attributeValue("BaseLoc");
+                    PageHead head = baseLoc == null ? null : readHead(ZipDirectory.resolve(docDir, baseLoc));
+                    ST_Box size = null;
+                    if (head != null) {
+                        size = head.area != null ? head.area.getBox() : templateSize(head, templates);
+                    }
+                    sizes.add(size == null ? defaultSize : size);
+                }
+            }
+            return new OFDProbe(sizes, signature);
+        }
+
+        /**
+         * 从模板页中获取页面区域，取图层次序最高的模板
+         */
+        private ST_Box templateSize(PageHead head, Map<String, String> templates) throws IOException {
+            ST_Box res = null;
+            int biggestOrder = -1;
+            for (int i = 0; i < head.templateIds.size(); i++) {
+                String tplFile = templates.get(head.templateIds.get(i));
+                if (tplFile == null) {
+                    continue;
+                }
+                CT_PageArea area;
+                if (tplAreas.containsKey(tplFile)) {
+                    area = tplAreas.get(tplFile);
+                } else {
+                    PageHead tpl = readHead(tplFile);
+                    area = tpl == null ? null : tpl.area;
+                    tplAreas.put(tplFile, area);
+                }
+                int order = head.templateOrders.get(i);
+                if (area != null && area.getBox() != null && order > biggestOrder) {
+                    res = area.getBox();
+                    biggestOrder = order;
+                }
+            }
+            return res;
+        }
+
+        /**
+         * 完整读取包内XML文件
+         */
+        private Element readElement(String name) throws IOException {
+            ZipDirectory.Entry e = entries.get(name);
+            if (e == null) {
+                throw new BadOFDException(String.format("OFD包中不存在文件：%s", name));
+            }
+            try (InputStream in = ZipDirectory.open(ch, e)) {
+                return SAXReaderFactory.obtain().read(in).getRootElement();
+            } catch (DocumentException ex) {
+                throw new BadOFDException(String.format("文件解析失败：%s", name), ex);
+            }
+        }
+
+        /**
+         * 读取页面开头的模板引用与区域信息，读到 Area 或 Content 元素即停止
+         *
+         * @param name 页面文件条目名称
+         * @return 页面开头信息，文件不存在时返回null
+         */
+        private PageHead readHead(String name) throws IOException {
+            ZipDirectory.Entry e = entries.get(name);
+            if (e == null) {
+                return null;
+            }
+            PageHead head = new PageHead();
+            try (InputStream in = ZipDirectory.open(ch, e)) {
+                XMLStreamReader r = XML_FACTORY.createXMLStreamReader(in);
+                try {
+                    int depth = 0;
+                    while (r.hasNext()) {
+                        int event = r.next();
+                        if (event == XMLStreamConstants.END_ELEMENT) {
+                            depth--;
+                            continue;
+                        }
+                        if (event != XMLStreamConstants.START_ELEMENT) {
+                            continue;
+                        }
+                        depth++;
+                        if (depth != 2) {
+                            continue;
+                        }
+                        String local = r.getLocalName();
+                        if ("Template".equals(local)) {
+                            head.templateIds.add(r.getAttributeValue(null, "TemplateID"));
+                            head.templateOrders.add(zOrder(r.getAttributeValue(null, "ZOrder")));
+                        } else if ("Area".equals(local)) {
+                            head.area = readArea(r);
+                            break;
+                        } else if (!"PageRes".equals(local)) {
+                            // Area 之后的内容无需读取
+                            break;
+                        }
+                    }
+                } finally {
+                    r.close();
+                }
+            } catch (XMLStreamException ex) {
+                throw new BadOFDException(String.format("文件解析失败：%s", name), ex);
+            }
+            return head;
+        }
+
+        /**
+         * 读取 Area 元素的各个区域
+         */
+        private static CT_PageArea readArea(XMLStreamReader r) throws XMLStreamException {
+            CT_PageArea area = new CT_PageArea();
+            while (r.hasNext()) {
+                int event = r.next();
+                if (event == XMLStreamConstants.END_ELEMENT && "Area".equals(r.getLocalName())) {
+                    break;
+                }
+                if (event != XMLStreamConstants.START_ELEMENT) {
+                    continue;
+                }
+                String local = r.getLocalName();
+                ST_Box box = ST_Box.getInstance(r.getElementText());
+                switch (local) {
+                    case "PhysicalBox":
+                        area.setPhysicalBox(box);
+                        break;
+                    case "ApplicationBox":
+                        area.setApplicationBox(box);
+                        break;
+                    case "ContentBox":
+                        area.setContentBox(box);
+                        break;
+                    case "BleedBox":
+                        area.setBleedBox(box);
+                        break;
+                    default:
+                        break;
+                }
+            }
+            return area;
+        }
+
+        private static int zOrder(String value) {
+            try {
+                return Type.getInstance(value).order();
+            } catch (IllegalArgumentException ex) {
+                return Type.Background.order();
+            }
+        }
+
+        private static String dirOf(String name) {
+            int i = name.lastIndexOf('/');
+            return i < 0 ? "" : name.substring(0, i + 1);
+        }
+    }
+
+    /**
+     * 页面开头信息
+     */
+    private static final class PageHead {
+        final List<String> templateIds = new ArrayList<>();
+        final List<Integer> templateOrders = new ArrayList<>();
+        CT_PageArea area;
+    }
+}
@@ -4,39 +4,36 @@ import org.apache.commons.io.FileUtils;
 import org.dom4j.DocumentException;
 import org.ofdrw.core.OFDElement;
 import org.ofdrw.core.annotation.Annotations;
-import org.ofdrw.core.annotation.pageannot.AnnPage;
-import org.ofdrw.core.annotation.pageannot.PageAnnot;
 import org.ofdrw.core.attachment.Attachments;
 import org.ofdrw.core.attachment.CT_Attachment;
 import org.ofdrw.core.basicStructure.doc.CT_CommonData;
 import org.ofdrw.core.basicStructure.doc.CT_PageArea;
 import org.ofdrw.core.basicStructure.doc.Document;
 import org.ofdrw.core.basicStructure.ofd.DocBody;
+import org.ofdrw.core.basicStructure.ofd.OFD;
 import org.ofdrw.core.basicStructure.pageObj.CT_TemplatePage;
 import org.ofdrw.core.basicStructure.pageObj.Page;
 import org.ofdrw.core.basicStructure.pageObj.Template;
 import org.ofdrw.core.basicStructure.pageObj.layer.Type;
-import org.ofdrw.core.basicStructure.pageTree.Pages;
 import org.ofdrw.core.basicType.ST_Box;
 import org.ofdrw.core.basicType.ST_ID;
 import org.ofdrw.core.basicType.ST_Loc;
-import org.ofdrw.core.signatures.Signature;
 import org.ofdrw.core.signatures.Signatures;
-import org.ofdrw.gm.ses.parse.SESVersionHolder;
-import org.ofdrw.gm.ses.parse.VersionParser;
-import org.ofdrw.pkg.container.DocDir;
 import org.ofdrw.pkg.container.OFDDir;
+import org.ofdrw.pkg.storage.ContainerStorage;
+import org.ofdrw.pkg.tool.SourcePackage;
 import org.ofdrw.reader.model.AnnotionEntity;
 import org.ofdrw.reader.model.StampAnnotEntity;
 import org.ofdrw.reader.model.TemplatePageEntity;
 
 import java.io.*;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * OFD解析器
@@ -75,9 +72,48 @@ public class OFDReader implements Closeable {
      */
     private ResourceManage resMgt;
 
+    /**
+     * 源OFD文件
+     * <p>
+     * 仅通过文件构造时存在，用于增量保存
+     */
+    private Path sourceFile;
+
+    /**
+     * 边接收边解压的OFD包
+     * <p>
+     * 仅在渐进读取模式下存在
+     */
+    private ProgressiveUnzipper unzipper;
+
+    /**
+     * 默认文档的页面索引，文档修改后重建
+     */
+    private volatile PageIndex pageIndex;
+
+    /**
+     * 默认文档的模板页索引，文档修改后重建
+     */
+    private volatile TemplateIndex templateIndex;
+
+    /**
+     * 默认文档的签章索引，签名文件修改后重建
+     */
+    private volatile PageAnnotIndex<StampAnnotEntity> stampIndex;
+
+    /**
+     * 默认文档的注释索引，注释文件修改后重建
+     */
+    private volatile PageAnnotIndex<AnnotionEntity> annotIndex;
+
     private OFDReader() {
     }
 
+    /**
+     * 获取Reader工作目录
+     *
+     * @return 工作目录，ZIP原地读取模式下不存在工作目录返回null
+     */
     public Path getWorkDir() {
         return workDir;
     }
@@ -109,9 +145,10 @@ public class OFDReader implements Closeable {
         // 解压文档，到临时的工作目录
         ZipUtil.unZipFileByApacheCommonCompress(ofdFile.toFile(), workDir.toAbsolutePath().toString() + File.separator);
         ofdDir = new OFDDir(workDir);
+        sourceFile = ofdFile;
         // 创建资源定位器
         rl = new ResourceLocator(ofdDir);
-        resMgt = new ResourceManage(this);
+        resMgt = new ResourceManage(this, 0, true);
     }
 
     /**
@@ -140,7 +177,69 @@ public class OFDReader implements Closeable {
         ofdDir = new OFDDir(workDir);
         // 创建资源定位器
         rl = new ResourceLocator(ofdDir);
-        resMgt = new ResourceManage(this);
+        resMgt = new ResourceManage(this, 0, true);
+    }
+
+    /**
+     * 以渐进读取模式构造 OFDReader
+     * <p>
+     * 不等待整个OFD包解压完成，在后台按到达顺序解压，
+     * 访问尚未到达的文件时等待其到达，适用于从网络等不可随机访问的流中预览文档。
+     * 配合按阅读顺序排列的OFD包（{@link OFDDir#setLinearized(boolean)}），可以在包完整到达之前解析首页。
+     * <p>
+     * 注意：
+     * <p>
+     * 1. 访问包中不存在的文件时将等待至整个包读取完成；
+     * <p>
+     * 2. 输入流由Reader负责关闭，关闭Reader时停止读取。
+     *
+     * @param stream OFD文件输入流
+     * @return OFDReader
+     * @throws IOException OFD文件操作IO异常
+     */
+    public static OFDReader progressive(InputStream stream) throws IOException {
+        return progressive(stream, null);
+    }
+
+    /**
+     * 以渐进读取模式构造 OFDReader
+     *
+     * @param stream   OFD文件输入流，由Reader负责关闭
+     * @param listener 条目到达回调，参数为包内条目名称（如 "Doc_0/Pages/Page_0/Content.xml"），在解压线程中执行；可以为null
+     * @return OFDReader
+     * @throws IOException OFD文件操作IO异常
+     * @see #progressive(InputStream)
+     */
+    public static OFDReader progressive(InputStream stream, Consumer<String> listener) throws IOException {
+        if (stream == null) {
+            throw new IllegalArgumentException("文件输入流(stream)不正确");
+        }
+        OFDReader reader = new OFDReader();
+        reader.workDir = Files.createTempDirectory("ofd-tmp-");
+        try {
+            reader.unzipper = new ProgressiveUnzipper(stream, reader.workDir, listener);
+            reader.ofdDir = new OFDDir(reader.workDir).setPendingEntries(reader.unzipper);
+            // 创建资源定位器
+            reader.rl = new ResourceLocator(reader.ofdDir);
+            reader.resMgt = new ResourceManage(reader, 0, true);
+        } catch (IOException | RuntimeException e) {
+            try {
+                reader.close();
+            } catch (IOException ex) {
+                e.addSuppressed(ex);
+            }
+            throw e;
+        }
+        return reader;
+    }
+
+    /**
+     * 获取 边接收边解压的OFD包
+     *
+     * @return 渐进读取模式下返回解压器，否则返回null
+     */
+    public ProgressiveUnzipper getUnzipper() {
+        return unzipper;
     }
 
     /**
@@ -162,7 +261,46 @@ public class OFDReader implements Closeable {
         if (!deleteOnClose) {
             closed = true;
         }
-        resMgt = new ResourceManage(this);
+        resMgt = new ResourceManage(this, 0, true);
+    }
+
+    /**
+     * 以范围读取模式构造 OFDReader
+     * <p>
+     * 仅读取ZIP中央目录以及解析过程中实际访问的条目，
+     * 适用于对象存储等远程数据源（将范围读取封装为 {@link SeekableByteChannel}）。
+     *
+     * @param ch OFD包数据源通道，Reader关闭时一同关闭
+     * @throws IOException 中央目录读取异常
+     * @see OFDDir#openChannel(SeekableByteChannel)
+     */
+    public OFDReader(SeekableByteChannel ch) throws IOException {
+        this(OFDDir.openChannel(ch));
+    }
+
+    /**
+     * 通过已经打开的OFD虚拟容器构造 OFDReader
+     * <p>
+     * 常用于ZIP原地读取模式，避免将OFD解压到临时目录：
+     * <pre>{@code
+     * try (OFDReader reader = new OFDReader(OFDDir.openZip(ofdFile))) {
+     *     // ...
+     * }
+     * }</pre>
+     * <p>
+     * Reader关闭时将释放容器存储（{@link OFDDir#getStorage()}），容器中的改动不会被写入；
+     * 不使用容器存储的磁盘目录由调用者负责删除，Reader不会删除。
+     *
+     * @param ofdDir OFD虚拟容器
+     */
+    public OFDReader(OFDDir ofdDir) {
+        if (ofdDir == null) {
+            throw new IllegalArgumentException("OFD虚拟容器(ofdDir)为空");
+        }
+        this.ofdDir = ofdDir;
+        // 创建资源定位器
+        rl = new ResourceLocator(ofdDir);
+        resMgt = new ResourceManage(this, 0, true);
     }
 
     /**
@@ -174,6 +312,70 @@ public class OFDReader implements Closeable {
         return ofdDir;
     }
 
+    /**
+     * 设置 增量保存
+     * <p>
+     * 开启后通过 {@link #getOFDDir()} 打包保存时，内容与源OFD文件中条目一致的文件
+     * 直接复制源文件中的压缩数据，仅新增和修改过的文件重新压缩，见 {@link SourcePackage}。
+     * <p>
+     * 仅通过OFD文件构造的Reader支持增量保存。
+     *
+     * @param enable true - 开启；false - 关闭（默认）
+     * @return this
+     * @throws IOException 源OFD文件读取异常或ZIP格式错误
+     */
+    public OFDReader setIncrementalSave(boolean enable) throws IOException {
+        if (!enable) {
+            ofdDir.setSourcePackage(null);
+            return this;
+        }
+        if (sourceFile == null) {
+            throw new IllegalStateException("仅通过OFD文件构造的Reader支持增量保存");
+        }
+        ofdDir.setSourcePackage(SourcePackage.open(sourceFile));
+        return this;
+    }
+
+    /**
+     * 设置 并发读取模式
+     * <p>
+     * 并发模式下资源定位器的工作目录按线程隔离（{@link ResourceLocator#setConcurrent(boolean)}），
+     * 容器查找串行化、文件解析在锁外并行，多个线程可以共享同一个 Reader 同时读取页面、资源等，共用已加载的文档与缓存。
+     * <p>
+     * 注意：
+     * <p>
+     * 1. 请在多个线程开始使用之前设置；
+     * <p>
+     * 2. 并发模式仅保证读取操作的线程安全，通过 {@link #getOFDDir()} 直接操作容器或修改文档对象仍需调用者自行同步。
+     *
+     * @param concurrent true - 并发模式；false - 单线程模式（默认）
+     * @return this
+     */
+    public OFDReader setConcurrent(boolean concurrent) {
+        rl.setConcurrent(concurrent);
+        return this;
+    }
+
+    /**
+     * 是否为并发读取模式
+     *
+     * @return true - 并发模式；false - 单线程模式
+     */
+    public boolean isConcurrent() {
+        return rl.isConcurrent();
+    }
+
+    /**
+     * 获取文档主入口对象
+     *
+     * @return 文档主入口
+     * @throws DocumentException     文档解析异常
+     * @throws FileNotFoundException OFD.xml不存在
+     */
+    private OFD ofd() throws DocumentException, FileNotFoundException {
+        return rl.get("/", new ST_Loc(OFDDir.OFDFileName), OFD::new);
+    }
+
     /**
      * 获取默认文档Doc_0中的签名列表文件的绝对路径
      *
@@ -184,7 +386,7 @@ public class OFDReader implements Closeable {
         try {
             rl.save();
             rl.cd("/");
-            DocBody docBody = ofdDir.getOfd().getDocBody();
+            DocBody docBody = ofd().getDocBody();
             // 签名列表文件路径
             ST_Loc loc = docBody.getSignatures();
             if (loc == null) {
@@ -231,7 +433,7 @@ public class OFDReader implements Closeable {
     public boolean hasSignature() {
         DocBody docBody = null;
         try {
-            docBody = ofdDir.getOfd().getDocBody();
+            docBody = ofd().getDocBody();
             ST_Loc signaturesLoc = docBody.getSignatures();
             return signaturesLoc != null;
         } catch (FileNotFoundException | DocumentException e) {
@@ -271,14 +473,33 @@ public class OFDReader implements Closeable {
      */
     public int getNumberOfPages() {
         try {
-            // 路径解析对象获取并缓存虚拟容器
-            Document document = cdDefaultDoc();
-            Pages pages = document.getPages();
-            return pages.getSize();
+            return pageIndex().size();
         } catch (FileNotFoundException | DocumentException e) {
             throw new BadOFDException("OFD解析失败，原因:" + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 获取默认文档的页面索引
+     * <p>
+     * 索引在首次使用时建立，Document.xml 未被替换或修改时复用。
+     *
+     * @return 页面索引
+     * @throws DocumentException     文档解析异常
+     * @throws FileNotFoundException Document.xml文档不存在
+     */
+    private PageIndex pageIndex() throws DocumentException, FileNotFoundException {
+        rl.save();
+        try {
+            Document document = cdDefaultDoc();
+            PageIndex idx = this.pageIndex;
+            if (idx != null && idx.isValid(document)) {
+                return idx;
+            }
+            idx = PageIndex.build(document, rl);
+            this.pageIndex = idx.isTracked() ? idx : null;
+            return idx;
         } finally {
-            // 还原原有工作区
             rl.restore();
         }
     }
@@ -295,50 +516,33 @@ public class OFDReader implements Closeable {
         }
         try {
             rl.save();
-            int index = pageNum - 1;
-            // 路径解析对象获取并缓存虚拟容器
-            Document document = cdDefaultDoc();
-            Pages pages = document.getPages();
-            List<org.ofdrw.core.basicStructure.pageTree.Page> pageList = pages.getPages();
-            if (index >= pageList.size()) {
-                throw new NumberFormatException(pageNum + "超过最大页码:" + pageList.size());
-            }
-            // 获取页面的路径
-            ST_Loc pageLoc = pageList.get(index).getBaseLoc();
+            PageIndex idx = pageIndex();
+            // 页面的容器绝对路径
+            ST_Loc pageLoc = idx.getLoc(pageNum);
 
             Page obj = rl.get(pageLoc, Page::new);
-            // 获取页面的容器绝对路径
-            pageLoc = rl.getAbsTo(pageLoc);
+            // 页面资源在页面读取时索引
+            resMgt.indexPageRes(pageLoc, obj);
             ST_Box pageSize = getPageSize(obj);
 
             // 加载模板
             ArrayList<TemplatePageEntity> templatePages = new ArrayList<>();
             for (Template item : obj.getTemplates()) {
                 TemplatePageEntity template = getTemplate(item.getTemplateID().toString());
+                if (template == null) continue;
                 Type type = Type.getInstance(item.attributeValue("ZOrder"));
                 template.setOrder(type);
                 templatePages.add(template);
             }
 
-            // Page_N 数组
-            int n = index;
-            String pageNName = new ST_Loc(pageLoc.parent()).getFileName().toLowerCase();
-            if (pageNName.matches("page_\\d+")) {
-                try {
-                    n = Integer.parseInt(pageNName.replace("page_", ""));
-                } catch (NumberFormatException e) {
-                    // ignore
-                }
-            }
-
             return new PageInfo()
                     .setIndex(pageNum)
-                    .setId(pageList.get(index).getID())
+                    .setId(idx.getId(pageNum))
                     .setObj(obj)
                     .setSize(pageSize.clone())
                     .setPageAbsLoc(pageLoc)
                     .setTemplates(templatePages)
-                    .setPageN(n);
+                    .setPageN(idx.getPageN(pageNum));
         } catch (FileNotFoundException | DocumentException e) {
 
             throw new RuntimeException("OFD解析失败，原因:" + e.getMessage(), e);
@@ -366,6 +570,8 @@ public class OFDReader implements Closeable {
 
     /**
      * 解析页面模板对象
+     * <p>
+     * 模板页面在首次访问时解析并缓存，文档未被修改时同一模板只解析一次。
      *
      * @param id 模板ID
      * @return 模板实体，如果模板不存在返还null
@@ -375,25 +581,43 @@ public class OFDReader implements Closeable {
             return null;
         }
         try {
-            final Document document = cdDefaultDoc();
-            final CT_CommonData commonData = document.getCommonData();
-            TemplatePageEntity res = null;
-            for (CT_TemplatePage item : commonData.getTemplatePages()) {
-                String itemId = item.getID().toString();
-                if (id.equals(itemId)) {
-                    ST_Loc loc = item.getBaseLoc();
-                    if (loc == null) {
-                        break;
-                    }
-                    // 加载模板内容
-                    Page page = rl.get(loc, Page::new);
-                    res = new TemplatePageEntity(item, page);
-                    break;
-                }
+            TemplateIndex idx = templateIndex();
+            CT_TemplatePage item = idx.getInfo(id);
+            if (item == null) {
+                return null;
             }
-            return res;
+            // 加载模板内容
+            Page page = idx.getPage(id, rl);
+            if (page == null) {
+                return null;
+            }
+            // 每次返回新的实体，页面中的ZOrder设置不影响缓存
+            return new TemplatePageEntity(item, page);
         } catch (DocumentException | FileNotFoundException e) {
             return null;
+        }
+    }
+
+    /**
+     * 获取默认文档的模板页索引
+     * <p>
+     * 索引在首次使用时建立，Document.xml 未被替换或修改时复用。
+     *
+     * @return 模板页索引
+     * @throws DocumentException     文档解析异常
+     * @throws FileNotFoundException Document.xml文档不存在
+     */
+    private TemplateIndex templateIndex() throws DocumentException, FileNotFoundException {
+        rl.save();
+        try {
+            Document document = enterDefaultDoc();
+            TemplateIndex idx = this.templateIndex;
+            if (idx != null && idx.isValid(document)) {
+                return idx;
+            }
+            idx = TemplateIndex.build(document, rl);
+            this.templateIndex = idx.isTracked() ? idx : null;
+            return idx;
         } finally {
             rl.restore();
         }
@@ -414,7 +638,7 @@ public class OFDReader implements Closeable {
     public Document cdDoc(int numOfDoc) throws DocumentException, FileNotFoundException {
         rl.save();
         rl.cd("/");
-        DocBody docBody = ofdDir.getOfd().getDocBody(numOfDoc);
+        DocBody docBody = ofd().getDocBody(numOfDoc);
         ST_Loc docRoot = docBody.getDocRoot();
         final Document document = rl.get(docRoot, Document::new);
         // 路径解析对象获取并缓存虚拟容器
@@ -422,6 +646,22 @@ public class OFDReader implements Closeable {
         return document;
     }
 
+    /**
+     * 切换工作目录到默认文档所在目录
+     * <p>
+     * 与 {@link #cdDefaultDoc()} 不同，该方法不保存工作区，由调用者负责保存与还原
+     *
+     * @return 文档对象
+     * @throws DocumentException     文档解析异常
+     * @throws FileNotFoundException Document.xml文档不存在
+     */
+    private Document enterDefaultDoc() throws DocumentException, FileNotFoundException {
+        ST_Loc docRoot = ofd().getDocBody().getDocRoot();
+        Document document = rl.get("/", docRoot, Document::new);
+        rl.cd(ResourceLocator.resolve("/", docRoot.parent()));
+        return document;
+    }
+
     /**
      * 获取文档对象
      *
@@ -431,15 +671,8 @@ public class OFDReader implements Closeable {
      * @throws FileNotFoundException Document.xml文档不存在
      */
     public Document getDoc(int numOfDoc) throws DocumentException, FileNotFoundException {
-        rl.save();
-        try {
-            rl.cd("/");
-            DocBody docBody = ofdDir.getOfd().getDocBody(numOfDoc);
-            ST_Loc docRoot = docBody.getDocRoot();
-            return rl.get(docRoot, Document::new);
-        } finally {
-            rl.restore();
-        }
+        DocBody docBody = ofd().getDocBody(numOfDoc);
+        return rl.get("/", docBody.getDocRoot(), Document::new);
     }
 
     /**
@@ -531,7 +764,7 @@ public class OFDReader implements Closeable {
         if (res == null) {
             Document document;
             try {
-                document = ofdDir.obtainDocDefault().getDocument();
+                document = getDoc(0);
             } catch (FileNotFoundException | DocumentException e) {
                 throw new BadOFDException("OFD解析失败，原因:" + e.getMessage(), e);
             }
@@ -575,24 +808,9 @@ public class OFDReader implements Closeable {
             throw new NumberFormatException("页码(pageNum)不能小于0");
         }
         try {
-            rl.save();
-            int index = pageNum - 1;
-            // 路径解析对象获取并缓存虚拟容器
-            Document document = cdDefaultDoc();
-            Pages pages = document.getPages();
-            List<org.ofdrw.core.basicStructure.pageTree.Page> pageList = pages.getPages();
-            if (index >= pageList.size()) {
-                throw new NumberFormatException(pageNum + "超过最大页码:" + pageList.size());
-            }
-            // 获取页面的路径
-            ST_Loc pageLoc = pageList.get(index).getBaseLoc();
-            String absolutePath = rl.toAbsolutePath(pageLoc);
-            return ST_Loc.getInstance(absolutePath);
+            return pageIndex().getLoc(pageNum);
         } catch (FileNotFoundException | DocumentException e) {
             throw new RuntimeException("OFD解析失败，原因:" + e.getMessage(), e);
-        } finally {
-            // 还原原有工作区
-            rl.restore();
         }
     }
 
@@ -607,26 +825,9 @@ public class OFDReader implements Closeable {
             throw new NumberFormatException("页码(pageNum)不能小于0");
         }
         try {
-            rl.save();
-            int index = pageNum - 1;
-            // 路径解析对象获取并缓存虚拟容器
-            Document document = cdDefaultDoc();
-            Pages pages = document.getPages();
-            List<org.ofdrw.core.basicStructure.pageTree.Page> pageList = pages.getPages();
-            if (index >= pageList.size()) {
-                throw new NumberFormatException(pageNum + "超过最大页码:" + pageList.size());
-            }
-            // 获取页面的路径
-            org.ofdrw.core.basicStructure.pageTree.Page page = pageList.get(index);
-            if (page.getID() == null) {
-                return null;
-            }
-            return page.getID();
+            return pageIndex().getId(pageNum);
         } catch (FileNotFoundException | DocumentException e) {
             throw new RuntimeException("OFD解析失败，原因:" + e.getMessage(), e);
-        } finally {
-            // 还原原有工作区
-            rl.restore();
         }
     }
 
@@ -650,12 +851,10 @@ public class OFDReader implements Closeable {
     public List<CT_Attachment> getAttachmentList() {
         rl.save();
         try {
-            DocDir docDir = ofdDir.obtainDocDefault();
-            rl.cd(docDir);
             Document document = null;
             Attachments attachments = null;
             try {
-                document = docDir.getDocument();
+                document = enterDefaultDoc();
             } catch (FileNotFoundException | DocumentException e) {
                 throw new BadOFDException(e);
             }
@@ -779,12 +978,10 @@ public class OFDReader implements Closeable {
             return null;
         }
 
-        DocDir docDir = ofdDir.obtainDocDefault();
-        rl.cd(docDir);
         Document document = null;
         Attachments attachments = null;
         try {
-            document = docDir.getDocument();
+            document = enterDefaultDoc();
         } catch (FileNotFoundException | DocumentException e) {
             throw new BadOFDException(e);
         }
@@ -818,111 +1015,99 @@ public class OFDReader implements Closeable {
 
     /**
      * 获取默认文档中的签章信息
+     * <p>
+     * 签章信息解析一次后缓存，容器内容修改后重新解析。
      *
      * @return 签章信息
      */
     public List<StampAnnotEntity> getStampAnnots() {
-        if (!hasSignature()) {
-            // 没有签名的情况下返还空集合，防止NPE
-            return Collections.emptyList();
-        }
+        return new ArrayList<>(stampIndex().all());
+    }
 
-        try {
-            rl.save();
-            // 签名列表
-            final Signatures sigFileList = getDefaultSignatures();
-            if (sigFileList == null) {
-                return Collections.emptyList();
-            }
-            ST_Loc signaturesLoc = getDefaultDocSignaturesPath();
-            // 切换目录到 Signatures.xml所在目录
-            rl.cd(signaturesLoc.parent());
-            final List<Signature> sigInfoList = sigFileList.getSignatures();
-            List<StampAnnotEntity> res = new ArrayList<>(sigInfoList.size());
-            for (Signature sigInfoItem : sigInfoList) {
-                ST_Loc signatureBaseLoc = sigInfoItem.getBaseLoc();
-                rl.save();
-                try {
-                    // 签名描述文件
-                    final org.ofdrw.core.signatures.sig.Signature sigDesp = rl.get(signatureBaseLoc, org.ofdrw.core.signatures.sig.Signature::new);
-                    try {
-                        rl.cd(signatureBaseLoc.parent());
-                        ST_Loc signedValueLoc = sigDesp.getSignedValue();
-
-                        rl.cd(signedValueLoc.parent());
-                        // 获取签名值文件
-                        final Path signedValueFile = rl.getFile(signedValueLoc);
-                        // 解析电子印章
-                        SESVersionHolder v = VersionParser.parseSES_SignatureVersion(Files.readAllBytes(signedValueFile));
-                        res.add(new StampAnnotEntity(v, sigDesp.getSignedInfo()));
-//                        SESVersionHolder sealHolder = null;
-//                        if (sigDesp.getSignedInfo().getSeal() != null) {
-//                            ST_Loc sealLoc = sigDesp.getSignedInfo().getSeal().getBaseLoc();
-//                            rl.cd(signatureBaseLoc.parent());
-//                            rl.cd(sealLoc.parent());
-//                            final Path sealFile = rl.getFile(sealLoc);
-//                            sealHolder = VersionParser.parseSES_SealVersion(Files.readAllBytes(sealFile));
-//                        }
-//                        res.add(new StampAnnotEntity(v, sealHolder, sigDesp.getSignedInfo()));
-                    } finally {
-                        rl.restore();
-                    }
-                } catch (Exception ignored) {
-                    // 忽略错误：
-                    //      文件不存在
-                    //      无法解析的印章，因为签名值可能是 电子签名值
-                }
-            }
-            return res;
-        } finally {
-            rl.restore();
-        }
+    /**
+     * 获取默认文档中指定页面上的签章信息
+     * <p>
+     * 注意：返回列表为只读列表，签章中的外观（StampAnnot）可能位于多个页面，使用时仍需按页面过滤。
+     *
+     * @param pageId 页面对象ID
+     * @return 含有该页面上签章外观的签章信息，不存在时返回空列表
+     */
+    public List<StampAnnotEntity> getStampAnnots(String pageId) {
+        return stampIndex().ofPage(pageId);
     }
 
     /**
      * 获取默认文档中的所有注释信息
+     * <p>
+     * 注释信息解析一次后缓存，容器内容修改后重新解析。
      *
      * @return 注释实体信息列表
      */
     public List<AnnotionEntity> getAnnotationEntities() {
+        return new ArrayList<>(annotIndex().all());
+    }
+
+    /**
+     * 获取默认文档中指定页面上的注释信息
+     * <p>
+     * 注意：返回列表为只读列表
+     *
+     * @param pageId 页面对象ID
+     * @return 注释实体信息列表，不存在时返回空列表
+     */
+    public List<AnnotionEntity> getAnnotationEntities(String pageId) {
+        return annotIndex().ofPage(pageId);
+    }
+
+    /**
+     * 获取默认文档的签章索引
+     * <p>
+     * 索引在首次使用时建立，容器内容未被修改时复用。
+     *
+     * @return 签章索引
+     * @throws BadOFDException 错误OFD结构和文件格式导致结构无法解析
+     */
+    private PageAnnotIndex<StampAnnotEntity> stampIndex() {
+        PageAnnotIndex<StampAnnotEntity> idx = this.stampIndex;
+        if (idx != null && idx.isValid(rl)) {
+            return idx;
+        }
         try {
-            // 路径解析对象获取并缓存虚拟容器
-            Document document = cdDefaultDoc();
-            final ST_Loc annInfosLoc = document.getAnnotations();
-            if (annInfosLoc == null || (!rl.exist(annInfosLoc.toString()))) {
-                return Collections.emptyList();
-            }
-            Annotations annotations = rl.get(annInfosLoc, Annotations::new);
-            if (annotations == null) {
-                return Collections.emptyList();
-            }
-            // 切换目录到 Annotations.xml所在文件目录
-            rl.cd(annInfosLoc.parent());
-            try {
-                List<AnnPage> annPages = annotations.getPages();
-                List<AnnotionEntity> res = new ArrayList<>(annPages.size());
-                for (AnnPage annPage : annPages) {
-                    try {
-                        final ST_Loc fileLoc = annPage.getFileLoc();
-                        final PageAnnot pageAnnot = rl.get(fileLoc, PageAnnot::new);
-                        res.add(new AnnotionEntity(annPage.getPageID().toString(), pageAnnot.getAnnots()));
-                    } catch (Exception ignore) {
-                        // 忽略无法加载的注释文件，尽力而为
-                    }
-                }
-                return res;
-            } finally {
-                rl.restore();
-            }
+            idx = PageAnnotIndex.stamps(rl);
+        } catch (FileNotFoundException | DocumentException e) {
+            throw new BadOFDException("错误OFD结构和文件格式", e);
+        }
+        this.stampIndex = idx.isTracked() ? idx : null;
+        return idx;
+    }
+
+    /**
+     * 获取默认文档的注释索引
+     * <p>
+     * 索引在首次使用时建立，容器内容未被修改时复用。
+     *
+     * @return 注释索引
+     */
+    private PageAnnotIndex<AnnotionEntity> annotIndex() {
+        PageAnnotIndex<AnnotionEntity> idx = this.annotIndex;
+        if (idx != null && idx.isValid(rl)) {
+            return idx;
+        }
+        try {
+            idx = PageAnnotIndex.annotations(rl);
         } catch (DocumentException | FileNotFoundException e) {
             throw new RuntimeException("OFD解析失败，原因:" + e.getMessage(), e);
         }
+        this.annotIndex = idx.isTracked() ? idx : null;
+        return idx;
     }
 
     /**
      * 获取资源管理器
      * <p>
      * 资源管理器获取到的对象均为只读对象
+     * <p>
+     * 资源管理器采用延迟加载，首次查找资源时才解析资源文件。
      *
      * @return 资源管理器
      */
@@ -956,7 +1141,19 @@ public class OFDReader implements Closeable {
             return;
         }
         closed = true;
-        if (workDir != null && Files.exists(workDir)) {
+        if (unzipper != null) {
+            // 停止解压后再删除工作目录
+            unzipper.close();
+        }
+        if (workDir == null) {
+            // 没有工作目录时只释放容器存储（ZIP、通道、内存等），不删除调用者提供的磁盘目录
+            ContainerStorage storage = ofdDir.getStorage();
+            if (storage != null) {
+                storage.close();
+            }
+            return;
+        }
+        if (Files.exists(workDir)) {
             try {
                 FileUtils.forceDelete(workDir.toFile());
             } catch (IOException e) {
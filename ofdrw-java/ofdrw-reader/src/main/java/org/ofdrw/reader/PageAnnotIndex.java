@@ -0,0 +1,234 @@
+package org.ofdrw.reader;
+
+import org.dom4j.DocumentException;
+import org.dom4j.Element;
+import org.ofdrw.core.TrackedDocumentFactory;
+import org.ofdrw.core.annotation.Annotations;
+import org.ofdrw.core.annotation.pageannot.AnnPage;
+import org.ofdrw.core.annotation.pageannot.PageAnnot;
+import org.ofdrw.core.basicStructure.doc.Document;
+import org.ofdrw.core.basicStructure.ofd.DocBody;
+import org.ofdrw.core.basicStructure.ofd.OFD;
+import org.ofdrw.core.basicType.ST_Loc;
+import org.ofdrw.core.signatures.Signature;
+import org.ofdrw.core.signatures.Signatures;
+import org.ofdrw.core.signatures.appearance.StampAnnot;
+import org.ofdrw.gm.ses.parse.SESVersionHolder;
+import org.ofdrw.gm.ses.parse.VersionParser;
+import org.ofdrw.pkg.container.OFDDir;
+import org.ofdrw.reader.model.AnnotionEntity;
+import org.ofdrw.reader.model.StampAnnotEntity;
+
+import java.io.FileNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 页面注释索引
+ * <p>
+ * 一次性解析默认文档中的签章（Signatures.xml、Signature.xml、SignedValue.dat）
+ * 或注释（Annotations.xml、PageAnnot），并按页面对象ID建立索引，按页面查询时间复杂度为 O(1)。
+ * <p>
+ * 索引创建后不可修改，建立时记录容器的修改计数并监视所读取的各个XML文件，
+ * 容器中的文件被写入、删除或所读取的文件被修改后（{@link #isValid(ResourceLocator)} 返回 false）需要重新建立。
+ *
+ * @param <T> 索引对象类型
+ * @author 权观宇
+ * @since 2026-10-16 21:40:12
+ */
+final class PageAnnotIndex<T> {
+
+    /**
+     * 建立索引时容器的修改计数
+     */
+    private final long modCount;
+
+    /**
+     * 所有对象，按照文件中出现的顺序
+     */
+    private List<T> all = Collections.emptyList();
+
+    /**
+     * 页面对象ID与页面上的对象
+     */
+    private final Map<String, List<T>> byPage = new HashMap<>();
+
+    /**
+     * 是否所有文件均支持修改追踪
+     */
+    private boolean tracked = true;
+
+    private PageAnnotIndex(ResourceLocator rl) {
+        this.modCount = rl.getModCount();
+    }
+
+    /**
+     * 建立签章索引
+     * <p>
+     * 无法读取的签名文件以及无法解析的签名值（如电子签名值）将被忽略
+     *
+     * @param rl 资源定位器
+     * @return 签章索引
+     * @throws DocumentException     OFD.xml或Signatures.xml解析异常
+     * @throws FileNotFoundException OFD.xml不存在
+     */
+    static PageAnnotIndex<StampAnnotEntity> stamps(ResourceLocator rl) throws DocumentException, FileNotFoundException {
+        PageAnnotIndex<StampAnnotEntity> idx = new PageAnnotIndex<>(rl);
+        DocBody docBody = idx.load(rl, "/", new ST_Loc(OFDDir.OFDFileName), OFD::new).getDocBody();
+        ST_Loc signaturesLoc = docBody.getSignatures();
+        // 文件中不存在 Signatures.xml 或是 路基上的文件不存在，都认为没有签章
+        if (signaturesLoc == null || !rl.exist("/", signaturesLoc)) {
+            return idx;
+        }
+        String signaturesAbs = ResourceLocator.resolve("/", signaturesLoc.getLoc());
+        Signatures sigFileList = idx.load(rl, "/", signaturesLoc, Signatures::new);
+        String signaturesDir = ResourceLocator.resolve(signaturesAbs, "..");
+        List<StampAnnotEntity> res = new ArrayList<>();
+        for (Signature sigInfoItem : sigFileList.getSignatures()) {
+            try {
+                ST_Loc signatureBaseLoc = sigInfoItem.getBaseLoc();
+                String signatureAbs = ResourceLocator.resolve(signaturesDir, signatureBaseLoc.getLoc());
+                // 签名描述文件
+                final org.ofdrw.core.signatures.sig.Signature sigDesp =
+                        idx.load(rl, signaturesDir, signatureBaseLoc, org.ofdrw.core.signatures.sig.Signature::new);
+                // 获取签名值文件
+                final Path signedValueFile = rl.getFile(ResourceLocator.resolve(signatureAbs, ".."), sigDesp.getSignedValue());
+                // 解析电子印章
+                SESVersionHolder v = VersionParser.parseSES_SignatureVersion(Files.readAllBytes(signedValueFile));
+                StampAnnotEntity entity = new StampAnnotEntity(v, sigDesp.getSignedInfo());
+                res.add(entity);
+                for (StampAnnot stampAnnot : entity.getStampAnnots()) {
+                    if (stampAnnot.getPageRef() != null) {
+                        idx.addToPage(stampAnnot.getPageRef().toString(), entity);
+                    }
+                }
+            } catch (Exception ignored) {
+                // 忽略错误：
+                //      文件不存在
+                //      无法解析的印章，因为签名值可能是 电子签名值
+            }
+        }
+        idx.all = Collections.unmodifiableList(res);
+        idx.seal();
+        return idx;
+    }
+
+    /**
+     * 建立注释索引
+     * <p>
+     * 无法加载的分页注释文件将被忽略
+     *
+     * @param rl 资源定位器
+     * @return 注释索引
+     * @throws DocumentException     OFD.xml、Document.xml或Annotations.xml解析异常
+     * @throws FileNotFoundException OFD.xml或Document.xml不存在
+     */
+    static PageAnnotIndex<AnnotionEntity> annotations(ResourceLocator rl) throws DocumentException, FileNotFoundException {
+        PageAnnotIndex<AnnotionEntity> idx = new PageAnnotIndex<>(rl);
+        ST_Loc docRoot = idx.load(rl, "/", new ST_Loc(OFDDir.OFDFileName), OFD::new).getDocBody().getDocRoot();
+        Document document = idx.load(rl, "/", docRoot, Document::new);
+        String docDir = ResourceLocator.resolve(ResourceLocator.resolve("/", docRoot.getLoc()), "..");
+        final ST_Loc annInfosLoc = document.getAnnotations();
+        if (annInfosLoc == null || !rl.exist(docDir, annInfosLoc)) {
+            return idx;
+        }
+        Annotations annotations = idx.load(rl, docDir, annInfosLoc, Annotations::new);
+        // Annotations.xml所在文件目录
+        String annotationsDir = ResourceLocator.resolve(ResourceLocator.resolve(docDir, annInfosLoc.getLoc()), "..");
+        List<AnnPage> annPages = annotations.getPages();
+        List<AnnotionEntity> res = new ArrayList<>(annPages.size());
+        for (AnnPage annPage : annPages) {
+            try {
+                final PageAnnot pageAnnot = idx.load(rl, annotationsDir, annPage.getFileLoc(), PageAnnot::new);
+                AnnotionEntity entity = new AnnotionEntity(annPage.getPageID().toString(), pageAnnot.getAnnots());
+                res.add(entity);
+                idx.addToPage(entity.getPageId(), entity);
+            } catch (Exception ignore) {
+                // 忽略无法加载的注释文件，尽力而为
+            }
+        }
+        idx.all = Collections.unmodifiableList(res);
+        idx.seal();
+        return idx;
+    }
+
+    /**
+     * 监视并加载文件
+     *
+     * @param rl     资源定位器
+     * @param base   基础目录，容器内绝对路径
+     * @param loc    文件路径
+     * @param mapper 对象映射构造器
+     * @param <R>    映射对象
+     * @return 对象
+     */
+    private <R> R load(ResourceLocator rl, String base, ST_Loc loc, Function<Element, R> mapper) throws DocumentException, FileNotFoundException {
+        // 先监视再读取，读取之后的修改都会被计数
+        rl.watch(base, loc);
+        Element element = rl.get(base, loc, Function.identity());
+        if (TrackedDocumentFactory.versionOf(element) < 0) {
+            tracked = false;
+        }
+        return mapper.apply(element);
+    }
+
+    private void addToPage(String pageId, T obj) {
+        List<T> list = byPage.computeIfAbsent(pageId, k -> new ArrayList<>(1));
+        if (!list.contains(obj)) {
+            list.add(obj);
+        }
+    }
+
+    /**
+     * 索引建立完成后将页面列表设为只读
+     */
+    private void seal() {
+        byPage.replaceAll((k, v) -> Collections.unmodifiableList(v));
+    }
+
+    /**
+     * 索引是否仍然有效
+     * <p>
+     * 建立索引以来容器的修改计数未变化时有效，时间复杂度为 O(1)；
+     * 不支持修改追踪的文件总是视为无效。
+     *
+     * @param rl 资源定位器
+     * @return true - 有效；false - 需要重建
+     */
+    boolean isValid(ResourceLocator rl) {
+        return tracked && rl.getModCount() == modCount;
+    }
+
+    /**
+     * 是否可以缓存
+     *
+     * @return true - 读取的文件均支持修改追踪
+     */
+    boolean isTracked() {
+        return tracked;
+    }
+
+    /**
+     * @return 所有对象，只读
+     */
+    List<T> all() {
+        return all;
+    }
+
+    /**
+     * 获取页面上的对象
+     *
+     * @param pageId 页面对象ID
+     * @return 页面上的对象，只读，不存在时为空列表
+     */
+    List<T> ofPage(String pageId) {
+        List<T> list = byPage.get(pageId);
+        return list == null ? Collections.emptyList() : list;
+    }
+}
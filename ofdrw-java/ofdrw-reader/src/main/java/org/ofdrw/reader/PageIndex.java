@@ -0,0 +1,174 @@
+package org.ofdrw.reader;
+
+import org.dom4j.Element;
+import org.ofdrw.core.TrackedDocumentFactory;
+import org.ofdrw.core.basicStructure.doc.Document;
+import org.ofdrw.core.basicStructure.pageTree.Page;
+import org.ofdrw.core.basicType.ST_ID;
+import org.ofdrw.core.basicType.ST_Loc;
+
+import java.util.List;
+
+/**
+ * 页面索引
+ * <p>
+ * 由文档的页树（Pages）一次性建立页码与页面对象ID、页面文件绝对路径的对应关系，
+ * 按页码查询时间复杂度为 O(1)。
+ * <p>
+ * 索引创建后不可修改，建立时记录 Document.xml 元素及其版本号，
+ * 文档被替换或修改后（{@link #isValid(Document)} 返回 false）需要重新建立。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 19:48:33
+ */
+final class PageIndex {
+
+    /**
+     * 建立索引时的文档元素
+     */
+    private final Element docElement;
+
+    /**
+     * 建立索引时的文档版本号
+     */
+    private final long version;
+
+    /**
+     * 页面对象ID，下标为 页码-1
+     */
+    private final ST_ID[] ids;
+
+    /**
+     * 页面文件绝对路径
+     */
+    private final ST_Loc[] locs;
+
+    /**
+     * 页面所在 Page_N 目录的序号
+     */
+    private final int[] pageNs;
+
+    private PageIndex(Element docElement, long version, int size) {
+        this.docElement = docElement;
+        this.version = version;
+        this.ids = new ST_ID[size];
+        this.locs = new ST_Loc[size];
+        this.pageNs = new int[size];
+    }
+
+    /**
+     * 建立页面索引
+     *
+     * @param document 文档对象
+     * @param rl       资源定位器，工作区需位于文档所在目录
+     * @return 页面索引
+     */
+    static PageIndex build(Document document, ResourceLocator rl) {
+        Element element = unwrap(document);
+        long version = TrackedDocumentFactory.versionOf(element);
+        List<Page> pageList = document.getPages().getPages();
+        PageIndex idx = new PageIndex(element, version, pageList.size());
+        for (int i = 0; i < pageList.size(); i++) {
+            Page page = pageList.get(i);
+            ST_Loc loc = ST_Loc.getInstance(rl.toAbsolutePath(page.getBaseLoc()));
+            idx.ids[i] = page.getID();
+            idx.locs[i] = loc;
+            idx.pageNs[i] = pageN(loc, i);
+        }
+        return idx;
+    }
+
+    /**
+     * 索引是否仍然有效
+     * <p>
+     * 文档元素未被替换且未发生修改时有效；不支持修改追踪的文档元素总是视为无效。
+     *
+     * @param document 当前的文档对象
+     * @return true - 有效；false - 需要重建
+     */
+    boolean isValid(Document document) {
+        Element element = unwrap(document);
+        return version >= 0
+                && element == docElement
+                && TrackedDocumentFactory.versionOf(element) == version;
+    }
+
+    /**
+     * 是否可以缓存
+     *
+     * @return true - 文档支持修改追踪
+     */
+    boolean isTracked() {
+        return version >= 0;
+    }
+
+    /**
+     * @return 页数
+     */
+    int size() {
+        return ids.length;
+    }
+
+    /**
+     * 获取页面对象ID
+     *
+     * @param pageNum 页码，从1起
+     * @return 页面对象ID
+     * @throws NumberFormatException 页码超出范围
+     */
+    ST_ID getId(int pageNum) {
+        return ids[check(pageNum)];
+    }
+
+    /**
+     * 获取页面文件绝对路径
+     *
+     * @param pageNum 页码，从1起
+     * @return 页面文件绝对路径
+     * @throws NumberFormatException 页码超出范围
+     */
+    ST_Loc getLoc(int pageNum) {
+        return locs[check(pageNum)];
+    }
+
+    /**
+     * 获取页面所在 Page_N 目录的序号
+     *
+     * @param pageNum 页码，从1起
+     * @return 目录序号，目录名称不符合 Page_N 格式时为 页码-1
+     * @throws NumberFormatException 页码超出范围
+     */
+    int getPageN(int pageNum) {
+        return pageNs[check(pageNum)];
+    }
+
+    private int check(int pageNum) {
+        if (pageNum <= 0) {
+            throw new NumberFormatException("页码(pageNum)不能小于0");
+        }
+        if (pageNum > ids.length) {
+            throw new NumberFormatException(pageNum + "超过最大页码:" + ids.length);
+        }
+        return pageNum - 1;
+    }
+
+    /**
+     * 解析 Page_N 目录序号
+     */
+    private static int pageN(ST_Loc pageLoc, int index) {
+        String pageNName = new ST_Loc(pageLoc.parent()).getFileName().toLowerCase();
+        if (pageNName.matches("page_\\d+")) {
+            try {
+                return Integer.parseInt(pageNName.replace("page_", ""));
+            } catch (NumberFormatException e) {
+                // ignore
+            }
+        }
+        return index;
+    }
+
+    private static Element unwrap(Document document) {
+        Element e = document.getProxy();
+        return e == null ? document : e;
+    }
+}
@@ -0,0 +1,122 @@
+package org.ofdrw.reader;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * 页面并行处理
+ * <p>
+ * 将各页面的处理任务提交到调用者提供的线程池（{@link ExecutorService}，包括 {@link java.util.concurrent.ForkJoinPool}），
+ * 按页码顺序收集结果。同时执行（已提交但结果未取回）的页面数量不超过上限，
+ * 以限制同时运行的任务与尚未取回的页面结果数量。
+ * <p>
+ * 注意：
+ * <p>
+ * 1. 页面任务在线程池中执行，共享同一个 {@link OFDReader} 时需要开启并发模式（{@link OFDReader#setConcurrent(boolean)}）；
+ * <p>
+ * 2. 调用线程会等待任务完成，不要在同一个线程池的任务中调用，以免线程池耗尽后相互等待；
+ * <p>
+ * 3. 上限不限制已解析页面对象的内存占用：通过资源定位器加载的页面在解析器关闭前缓存在容器中，
+ * 需要限制内存时请为容器设置元素缓存（{@link org.ofdrw.pkg.container.OFDDir#setElementCache(org.ofdrw.pkg.container.ElementCache)}）。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 23:02:18
+ */
+public final class ParallelPages {
+
+    /**
+     * 页面处理任务
+     *
+     * @param <T> 页面处理结果
+     */
+    @FunctionalInterface
+    public interface PageTask<T> {
+        /**
+         * 处理页面
+         *
+         * @param pageNum 页码，从1起
+         * @return 处理结果
+         * @throws Exception 处理异常
+         */
+        T apply(int pageNum) throws Exception;
+    }
+
+    private ParallelPages() {
+    }
+
+    /**
+     * 默认的同时执行页面数量上限
+     *
+     * @return 处理器数量的2倍
+     */
+    public static int defaultMaxInFlight() {
+        return Runtime.getRuntime().availableProcessors() * 2;
+    }
+
+    /**
+     * 并行处理页面
+     * <p>
+     * 任一页面处理失败时取消尚未完成的任务并抛出该异常（运行时异常原样抛出，其它异常包装为 {@link RuntimeException}）。
+     *
+     * @param pages       待处理的页码，按该顺序返回结果
+     * @param executor    线程池
+     * @param maxInFlight 同时执行的页面数量上限，不小于1
+     * @param task        页面处理任务
+     * @param <T>         页面处理结果
+     * @return 各页面的处理结果，与页码顺序一致
+     */
+    public static <T> List<T> map(List<Integer> pages, ExecutorService executor, int maxInFlight, PageTask<T> task) {
+        if (executor == null) {
+            throw new IllegalArgumentException("线程池(executor)为空");
+        }
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("同时执行的页面数量上限(maxInFlight)不能小于1");
+        }
+        List<T> res = new ArrayList<>(pages.size());
+        Deque<Future<T>> window = new ArrayDeque<>(Math.min(maxInFlight, pages.size()));
+        try {
+            for (Integer pageNum : pages) {
+                if (window.size() >= maxInFlight) {
+                    // 取回最早提交的页面后再提交新的页面
+                    res.add(await(window.poll()));
+                }
+                final int num = pageNum;
+                window.add(executor.submit(() -> task.apply(num)));
+            }
+            while (!window.isEmpty()) {
+                res.add(await(window.poll()));
+            }
+            return res;
+        } finally {
+            for (Future<T> f : window) {
+                f.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * 等待页面处理完成
+     */
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("页面处理被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException("页面处理失败，原因:" + cause.getMessage(), cause);
+        }
+    }
+}
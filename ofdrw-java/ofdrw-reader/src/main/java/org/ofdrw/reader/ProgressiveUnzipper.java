@@ -0,0 +1,254 @@
+package org.ofdrw.reader;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.ofdrw.pkg.container.PendingEntries;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.util.function.Consumer;
+
+/**
+ * 边接收边解压的OFD包
+ * <p>
+ * 在后台线程中按本地文件头顺序读取ZIP流，每个条目完整写入后才出现在工作目录中，
+ * 访问尚未到达的文件时等待（{@link #await(Path)}），直到文件到达或整个包读取完成。
+ * <p>
+ * 配合按阅读顺序排列的OFD包（{@link org.ofdrw.pkg.container.OFDDir#setLinearized(boolean)}），
+ * 可以在包完整到达之前开始解析首页。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 17:55:12
+ */
+public class ProgressiveUnzipper implements PendingEntries, Closeable {
+
+    /**
+     * 解压目录
+     */
+    private final Path workDir;
+
+    /**
+     * 写入中的条目暂存目录，条目完整后移动至解压目录
+     * <p>
+     * 位于解压目录所在的文件系统中、解压目录之外，以便原子移动且不被访问到
+     */
+    private final Path stagingDir;
+
+    /**
+     * OFD包输入流
+     */
+    private final InputStream src;
+
+    /**
+     * 条目到达回调
+     */
+    private final Consumer<String> listener;
+
+    private final Object lock = new Object();
+
+    private final Thread worker;
+
+    /**
+     * 是否读取完成（包括读取失败和被关闭）
+     */
+    private volatile boolean finished = false;
+
+    /**
+     * 是否已经关闭
+     */
+    private volatile boolean closed = false;
+
+    /**
+     * 读取过程中的异常
+     */
+    private volatile IOException error;
+
+    /**
+     * 开始在后台解压OFD包
+     *
+     * @param src      OFD包输入流，读取完成或关闭时由解压器关闭
+     * @param workDir  解压目录
+     * @param listener 条目到达回调，参数为条目名称，回调在解压线程中执行；可以为null
+     * @throws IOException 暂存目录创建异常
+     */
+    public ProgressiveUnzipper(InputStream src, Path workDir, Consumer<String> listener) throws IOException {
+        if (src == null) {
+            throw new IllegalArgumentException("文件输入流(src)为空");
+        }
+        if (workDir == null) {
+            throw new IllegalArgumentException("解压目录(workDir)为空");
+        }
+        this.src = src;
+        this.workDir = Files.createDirectories(workDir).toAbsolutePath().normalize();
+        Path parent = this.workDir.getParent();
+        this.stagingDir = Files.createTempDirectory(parent != null ? parent : this.workDir, "ofd-part-");
+        this.listener = listener;
+        this.worker = new Thread(this::run, "ofdrw-progressive-unzip");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    private void run() {
+        try (ZipArchiveInputStream zin = new ZipArchiveInputStream(src, ZipUtil.getDefaultCharset(), false, true)) {
+            ZipArchiveEntry entry;
+            int seq = 0;
+            while (!closed && (entry = zin.getNextEntry()) != null) {
+                Path f;
+                try {
+                    f = workDir.resolve(entry.getName());
+                } catch (InvalidPathException e) {
+                    // 尝试使用GBK解析
+                    f = workDir.resolve(new String(entry.getRawName(), "GBK"));
+                }
+                f = f.normalize();
+                if (!f.startsWith(workDir)) {
+                    throw new IOException(String.format("不合法的路径：%s", f));
+                }
+                if (entry.isDirectory()) {
+                    Files.createDirectories(f);
+                } else {
+                    // 写入暂存文件，完整后再移动到目标位置
+                    Path part = stagingDir.resolve(Integer.toString(seq++));
+                    try (OutputStream o = Files.newOutputStream(part)) {
+                        IOUtils.copy(zin, o);
+                    }
+                    Files.createDirectories(f.getParent());
+                    moveAtomic(part, f);
+                }
+                synchronized (lock) {
+                    lock.notifyAll();
+                }
+                if (listener != null) {
+                    listener.accept(workDir.relativize(f).toString().replace('\\', '/'));
+                }
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                error = e;
+            }
+        } catch (RuntimeException e) {
+            error = new IOException("OFD包解压异常", e);
+        } finally {
+            try {
+                FileUtils.forceDelete(stagingDir.toFile());
+            } catch (IOException e) {
+                // ignore
+            }
+            synchronized (lock) {
+                finished = true;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 将完整的暂存文件移动到目标位置
+     * <p>
+     * 暂存目录与解压目录在同一文件系统中，原子移动保证目标文件出现时内容已经完整；
+     * 仅在文件系统不支持原子移动时退化为普通移动。
+     *
+     * @param part 暂存文件
+     * @param f    目标文件
+     * @throws IOException 移动异常
+     */
+    private static void moveAtomic(Path part, Path f) throws IOException {
+        try {
+            Files.move(part, f, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(part, f, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 等待文件或目录到达
+     * <p>
+     * 文件已经存在时立即返回；否则等待直到文件到达或整个包读取完成。
+     *
+     * @param path 解压目录中的文件或目录路径
+     */
+    @Override
+    public void await(Path path) {
+        if (path == null || finished || Files.exists(path)) {
+            return;
+        }
+        synchronized (lock) {
+            while (!finished && Files.notExists(path)) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 等待整个包读取完成
+     *
+     * @throws IOException 读取过程中的异常
+     */
+    public void awaitFinished() throws IOException {
+        synchronized (lock) {
+            while (!finished) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("等待OFD包读取完成时被中断");
+                }
+            }
+        }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    /**
+     * 是否读取完成
+     *
+     * @return true - 读取完成（包括失败）；false - 仍在读取
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * 获取读取过程中的异常
+     *
+     * @return 异常，没有异常返回null
+     */
+    public IOException getError() {
+        return error;
+    }
+
+    /**
+     * 停止解压并关闭输入流
+     * <p>
+     * 等待解压线程结束，已经到达的文件保留在解压目录中。
+     *
+     * @throws IOException 输入流关闭异常
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            src.close();
+        } finally {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
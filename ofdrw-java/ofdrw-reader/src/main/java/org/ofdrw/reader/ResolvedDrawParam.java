@@ -0,0 +1,264 @@
+package org.ofdrw.reader;
+
+import org.dom4j.Element;
+import org.ofdrw.core.OFDElement;
+import org.ofdrw.core.basicType.STBase;
+import org.ofdrw.core.basicType.ST_Array;
+import org.ofdrw.core.basicType.ST_ID;
+import org.ofdrw.core.graph.pathObj.FillColor;
+import org.ofdrw.core.graph.pathObj.StrokeColor;
+import org.ofdrw.core.pageDescription.color.color.CT_Color;
+import org.ofdrw.core.pageDescription.drawParam.CT_DrawParam;
+import org.ofdrw.core.pageDescription.drawParam.LineCapType;
+import org.ofdrw.core.pageDescription.drawParam.LineJoinType;
+
+import java.io.Serializable;
+
+/**
+ * 完成继承解析的绘制参数（只读）
+ * <p>
+ * 由绘制参数沿 Relative 引用链逐级补全未设置的属性得到，
+ * 结果为不可修改的值对象，由 {@link ResourceManage#getResolvedDrawParam(String)} 按ID缓存，
+ * 每个ID只解析一次。
+ * <p>
+ * 各属性未设置时的取值与 {@link CT_DrawParam} 相同，
+ * 线宽是否在引用链中被显式设置可以通过 {@link #isLineWidthSet()} 判断。
+ * <p>
+ * 注意：颜色对象为多次返回的共享副本，调用者不应修改。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 20:52:40
+ */
+public final class ResolvedDrawParam {
+
+    /**
+     * 绘制参数ID
+     */
+    private final ST_ID id;
+
+    private final Double lineWidth;
+    private final LineJoinType join;
+    private final LineCapType cap;
+    private final Double dashOffset;
+    private final double[] dashPattern;
+    private final Double miterLimit;
+    private final FillColor fillColor;
+    private final StrokeColor strokeColor;
+
+    private ResolvedDrawParam(ST_ID id, Double lineWidth, LineJoinType join, LineCapType cap,
+                              Double dashOffset, double[] dashPattern, Double miterLimit,
+                              FillColor fillColor, StrokeColor strokeColor) {
+        this.id = id;
+        this.lineWidth = lineWidth;
+        this.join = join;
+        this.cap = cap;
+        this.dashOffset = dashOffset;
+        this.dashPattern = dashPattern;
+        this.miterLimit = miterLimit;
+        this.fillColor = fillColor;
+        this.strokeColor = strokeColor;
+    }
+
+    /**
+     * 使用上一级的解析结果补全绘制参数
+     *
+     * @param current 绘制参数
+     * @param parent  Relative 引用的绘制参数的解析结果，没有引用时为null
+     * @return 解析结果
+     */
+    static ResolvedDrawParam of(CT_DrawParam current, ResolvedDrawParam parent) {
+        Double lineWidth = number(current, "LineWidth");
+        String joinStr = current.attributeValue("Join");
+        LineJoinType join = joinStr == null ? null : LineJoinType.getInstance(joinStr);
+        String capStr = current.attributeValue("Cap");
+        LineCapType cap = capStr == null ? null : LineCapType.getInstance(capStr);
+        Double dashOffset = number(current, "DashOffset");
+        double[] dashPattern = null;
+        ST_Array arr = ST_Array.getInstance(current.attributeValue("DashPattern"));
+        if (arr != null) {
+            Double[] values = arr.toDouble();
+            dashPattern = new double[values.length];
+            for (int i = 0; i < values.length; i++) {
+                dashPattern[i] = values[i];
+            }
+        }
+        Double miterLimit = number(current, "MiterLimit");
+        Element fill = current.getOFDElement("FillColor");
+        FillColor fillColor = fill == null ? null : new FillColor(detach(fill));
+        Element stroke = current.getOFDElement("StrokeColor");
+        StrokeColor strokeColor = stroke == null ? null : new StrokeColor(detach(stroke));
+
+        if (parent != null) {
+            // 本级绘制属性覆盖其引用的绘制参数中的同名属性
+            lineWidth = lineWidth == null ? parent.lineWidth : lineWidth;
+            join = join == null ? parent.join : join;
+            cap = cap == null ? parent.cap : cap;
+            dashOffset = dashOffset == null ? parent.dashOffset : dashOffset;
+            dashPattern = dashPattern == null ? parent.dashPattern : dashPattern;
+            miterLimit = miterLimit == null ? parent.miterLimit : miterLimit;
+            fillColor = fillColor == null ? parent.fillColor : fillColor;
+            strokeColor = strokeColor == null ? parent.strokeColor : strokeColor;
+        }
+        return new ResolvedDrawParam(current.getID(), lineWidth, join, cap,
+                dashOffset, dashPattern, miterLimit, fillColor, strokeColor);
+    }
+
+    /**
+     * 使用解析结果补充目标元素中未设置的线条属性
+     * <p>
+     * 适用于绘制参数和图元对象，颜色不做补充
+     *
+     * @param target 目标元素
+     */
+    void fillAttributes(OFDElement target) {
+        if (lineWidth != null && target.attributeValue("LineWidth") == null) {
+            target.addAttribute("LineWidth", STBase.fmt(lineWidth));
+        }
+        if (join != null && target.attributeValue("Join") == null) {
+            target.addAttribute("Join", join.toString());
+        }
+        if (cap != null && target.attributeValue("Cap") == null) {
+            target.addAttribute("Cap", cap.toString());
+        }
+        if (dashOffset != null && target.attributeValue("DashOffset") == null) {
+            target.addAttribute("DashOffset", STBase.fmt(dashOffset));
+        }
+        if (dashPattern != null && target.attributeValue("DashPattern") == null) {
+            target.addAttribute("DashPattern", getDashPattern().toString());
+        }
+        if (miterLimit != null && target.attributeValue("MiterLimit") == null) {
+            target.addAttribute("MiterLimit", STBase.fmt(miterLimit));
+        }
+    }
+
+    /**
+     * 获取 绘制参数ID
+     *
+     * @return 绘制参数ID
+     */
+    public ST_ID getID() {
+        return id;
+    }
+
+    /**
+     * 获取 线宽
+     *
+     * @return 线宽，未设置时为默认值 0.353
+     */
+    public double getLineWidth() {
+        return lineWidth == null ? 0.353d : lineWidth;
+    }
+
+    /**
+     * @return true - 线宽已设置
+     */
+    public boolean isLineWidthSet() {
+        return lineWidth != null;
+    }
+
+    /**
+     * 获取 线条连接样式
+     *
+     * @return 线条连接样式，未设置时为默认值 Miter
+     */
+    public LineJoinType getJoin() {
+        return join == null ? LineJoinType.Miter : join;
+    }
+
+    /**
+     * 获取 线端点样式
+     *
+     * @return 线端点样式，未设置时为默认值 Butt
+     */
+    public LineCapType getCap() {
+        return cap == null ? LineCapType.Butt : cap;
+    }
+
+    /**
+     * 获取 虚线重复样式开始的位置
+     *
+     * @return 开始位置，未设置时为默认值 0
+     */
+    public double getDashOffset() {
+        return dashOffset == null ? 0d : dashOffset;
+    }
+
+    /**
+     * 获取 线条虚线的重复样式
+     *
+     * @return 虚线重复样式（新的副本），未设置时为null
+     */
+    public ST_Array getDashPattern() {
+        if (dashPattern == null) {
+            return null;
+        }
+        Double[] values = new Double[dashPattern.length];
+        for (int i = 0; i < dashPattern.length; i++) {
+            values[i] = dashPattern[i];
+        }
+        return new ST_Array((Serializable[]) values);
+    }
+
+    /**
+     * 获取 Join的截断值
+     *
+     * @return 截断值，未设置时为默认值 3.528
+     */
+    public double getMiterLimit() {
+        return miterLimit == null ? 3.528d : miterLimit;
+    }
+
+    /**
+     * 获取 填充颜色
+     *
+     * @return 填充颜色（共享副本，不可修改），未设置时为null
+     */
+    public FillColor getFillColor() {
+        return fillColor;
+    }
+
+    /**
+     * 获取 勾边颜色
+     *
+     * @return 勾边颜色（共享副本，不可修改），未设置时为null
+     */
+    public CT_Color getStrokeColor() {
+        return strokeColor;
+    }
+
+    /**
+     * 转换为绘制参数对象
+     * <p>
+     * 每次调用生成新的对象，可以自由修改
+     *
+     * @return 补全后的绘制参数，不含 Relative 属性
+     */
+    public CT_DrawParam toDrawParam() {
+        CT_DrawParam res = new CT_DrawParam();
+        if (id != null) {
+            res.setID(id);
+        }
+        fillAttributes(res);
+        if (fillColor != null) {
+            res.setFillColor(fillColor);
+        }
+        if (strokeColor != null) {
+            res.setStrokeColor(strokeColor);
+        }
+        return res;
+    }
+
+    private static Double number(OFDElement e, String name) {
+        String str = e.attributeValue(name);
+        if (str == null || str.trim().length() == 0) {
+            return null;
+        }
+        return Double.parseDouble(str);
+    }
+
+    private static Element detach(Element e) {
+        Element copy = (Element) e.clone();
+        copy.setParent(null);
+        return copy;
+    }
+}
@@ -4,13 +4,16 @@ import org.dom4j.DocumentException;
 import org.dom4j.Element;
 import org.ofdrw.core.basicType.ST_Loc;
 import org.ofdrw.pkg.container.*;
+import org.ofdrw.pkg.tool.ElemCup;
 
 import java.io.FileNotFoundException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import java.util.function.Function;
 import java.util.regex.Pattern;
 
@@ -18,6 +21,13 @@ import java.util.regex.Pattern;
  * 资源定位器
  * <p>
  * 通过给与的资源地址获取对应的资源文件或对象
+ * <p>
+ * 定位器维护一个工作目录，相对路径以工作目录为基础解析（{@link #cd(String)}、{@link #save()}、{@link #restore()}），
+ * 也可以使用以显式基础目录解析的无状态方法，如 {@link #get(String, ST_Loc, Function)}，不依赖也不改变工作目录。
+ * <p>
+ * 开启并发模式（{@link #setConcurrent(boolean)}）后每个线程拥有独立的工作目录，
+ * 多个线程可以共享同一个定位器：容器的查找在定位器内部串行化，
+ * 文件的解析在锁外进行，同一文件同时只解析一次。
  *
  * @author 权观宇
  * @since 2020-04-08 20:05:14
@@ -43,26 +53,32 @@ public class ResourceLocator {
     private OFDDir ofdDir;
 
     /**
-     * 当前目录
+     * 容器查找与元素缓存访问的锁
      */
-    private LinkedList<String> workDir = new LinkedList<>();
+    private final Object lock = new Object();
 
+    /**
+     * 解析中的文件，KEY为文件路径
+     */
+    private final ConcurrentHashMap<Path, FutureTask<Element>> loading = new ConcurrentHashMap<>();
 
     /**
-     * 保存的路径栈
-     * <p>
-     * 每次调用Save都会入栈
+     * 工作区
      */
-    private LinkedList<LinkedList<String>> savedStack = new LinkedList<>();
+    private WorkState shared = new WorkState();
+
+    /**
+     * 并发模式下各线程的工作区，非并发模式为null
+     */
+    private volatile ThreadLocal<WorkState> local;
 
 
     private ResourceLocator() {
     }
 
     public ResourceLocator(OFDDir ofdDir) {
-        this.ofdDir = ofdDir;
         // 默认工作目录为OFD容器的根目录
-        this.workDir.add("/");
+        this.ofdDir = ofdDir;
     }
 
     /***
@@ -85,15 +101,54 @@ public class ResourceLocator {
         this.cd(vc.getAbsLoc().getLoc());
     }
 
+    /**
+     * 设置 并发模式
+     * <p>
+     * 并发模式下每个线程拥有独立的工作目录（初始为根目录）与路径栈，
+     * 请在多个线程开始使用定位器之前设置。
+     *
+     * @param concurrent true - 并发模式；false - 所有线程共享工作目录（默认）
+     * @return this
+     */
+    public ResourceLocator setConcurrent(boolean concurrent) {
+        if (concurrent && local == null) {
+            local = ThreadLocal.withInitial(WorkState::new);
+        } else if (!concurrent && local != null) {
+            local = null;
+            shared = new WorkState();
+        }
+        return this;
+    }
+
+    /**
+     * 是否为并发模式
+     *
+     * @return true - 并发模式；false - 非并发模式
+     */
+    public boolean isConcurrent() {
+        return local != null;
+    }
+
+    /**
+     * 获取当前线程使用的工作区
+     *
+     * @return 工作区
+     */
+    private WorkState state() {
+        ThreadLocal<WorkState> l = local;
+        return l == null ? shared : l.get();
+    }
+
     /**
      * 保存当前工作路径
      *
      * @return this
      */
     public ResourceLocator save() {
-        LinkedList<String> toBeSaveWd = new LinkedList<>(workDir);
+        WorkState st = state();
+        LinkedList<String> toBeSaveWd = new LinkedList<>(st.workDir);
         // 入栈
-        savedStack.addFirst(toBeSaveWd);
+        st.savedStack.addFirst(toBeSaveWd);
         return this;
     }
 
@@ -105,11 +160,12 @@ public class ResourceLocator {
      * @return this
      */
     public ResourceLocator restore() {
-        if (!savedStack.isEmpty()) {
-            workDir.clear();
+        WorkState st = state();
+        if (!st.savedStack.isEmpty()) {
+            st.workDir.clear();
             // 出栈
-            LinkedList<String> lastSaved = savedStack.removeFirst();
-            workDir.addAll(lastSaved);
+            LinkedList<String> lastSaved = st.savedStack.removeFirst();
+            st.workDir.addAll(lastSaved);
         }
         return this;
     }
@@ -137,10 +193,42 @@ public class ResourceLocator {
         if (path == null || path.trim().isEmpty()) {
             return pwd();
         }
-        LinkedList<String> workDirCopy = new LinkedList<>(workDir);
+        LinkedList<String> workDirCopy = new LinkedList<>(state().workDir);
+        walk(workDirCopy, path);
+        return join(workDirCopy);
+    }
+
+    /**
+     * 以指定目录为基础解析路径
+     * <p>
+     * 不依赖也不改变工作目录，可以在多个线程中同时调用。
+     *
+     * @param base 基础目录，容器内绝对路径，为null时以根目录为基础
+     * @param loc  路径，以 "/" 开头时为容器内绝对路径
+     * @return 容器内绝对路径
+     */
+    public static String resolve(String base, String loc) {
+        LinkedList<String> wd = new LinkedList<>();
+        wd.add("/");
+        if (base != null) {
+            walk(wd, base);
+        }
+        if (loc != null) {
+            walk(wd, loc);
+        }
+        return join(wd);
+    }
+
+    /**
+     * 在路径序列上依次应用路径中的各级目录
+     *
+     * @param wd   路径序列，首个元素为 "/"
+     * @param path 路径，以 "/" 开头时从根目录开始
+     */
+    private static void walk(LinkedList<String> wd, String path) {
         if (path.startsWith("/")) {
-            workDirCopy.clear();
-            workDirCopy.add("/");
+            wd.clear();
+            wd.add("/");
         }
         for (String item : path.split("/")) {
             item = item.trim();
@@ -148,15 +236,14 @@ public class ResourceLocator {
                 // 表示但前目录不做任何操作
                 continue;
             } else if (item.equals("..")) {
-                workDirCopy.removeLast();
-                if (workDirCopy.isEmpty()) {
-                    workDirCopy.add("/");
+                wd.removeLast();
+                if (wd.isEmpty()) {
+                    wd.add("/");
                 }
             } else {
-                workDirCopy.add(item);
+                wd.add(item);
             }
         }
-        return pwd(workDirCopy);
     }
 
 
@@ -193,7 +280,7 @@ public class ResourceLocator {
      * @throws ErrorPathException 路径不存在
      */
     public ResourceLocator cd(String path) {
-        return cd(workDir, path);
+        return cd(state().workDir, path);
     }
 
     /**
@@ -218,8 +305,7 @@ public class ResourceLocator {
         }
         // 转换路径为绝对路径
         String absPath = toAbsolutePath(path);
-        String ofwTmp = ofdDir.getSysAbsPath();
-        Path sysPath = Paths.get(ofwTmp + absPath);
+        Path sysPath = toSysPath(absPath);
         if (Files.exists(sysPath) && Files.isDirectory(sysPath)) {
             // 刷新工作区到指定区域
             workDir.clear();
@@ -245,16 +331,15 @@ public class ResourceLocator {
      * @return true -存在，false - 不存在
      */
     public boolean exist(String path) {
-        String ofwTmp = ofdDir.getSysAbsPath();
-        String fullPath = "";
+        Path fullPath;
         if (path.startsWith("/")) {
             // 绝对路径
-            fullPath = ofwTmp + path;
+            fullPath = toSysPath(path);
         } else {
             // 相对路径
-            fullPath = Paths.get(ofwTmp, pwd(), path).toAbsolutePath().toString();
+            fullPath = toSysPath(pwd()).resolve(path);
         }
-        return Files.exists(Paths.get(fullPath));
+        return Files.exists(fullPath);
     }
 
     /**
@@ -264,9 +349,7 @@ public class ResourceLocator {
      * @return true -存在，false - 不存在
      */
     public boolean exist(LinkedList<String> workDir) {
-        String pwd = pwd(workDir);
-        String ofwTmp = ofdDir.getSysAbsPath();
-        Path path = Paths.get(ofwTmp + pwd);
+        Path path = toSysPath(pwd(workDir));
         return Files.exists(path);
     }
 
@@ -278,12 +361,37 @@ public class ResourceLocator {
      * @return true -存在，false - 不存在
      */
     public boolean dirExit(LinkedList<String> workDir) {
-        String pwd = pwd(workDir);
-        String ofwTmp = ofdDir.getSysAbsPath();
-        Path path = Paths.get(ofwTmp + pwd);
+        Path path = toSysPath(pwd(workDir));
         return Files.exists(path) && Files.isDirectory(path);
     }
 
+    /**
+     * 容器内绝对路径转换为容器所在文件系统中的路径
+     * <p>
+     * 容器可能位于操作系统文件系统，也可能位于ZIP等其他文件系统中，
+     * 因此路径总是以容器根路径为基础解析。
+     *
+     * @param absPath 容器内绝对路径
+     * @return 文件系统中的路径
+     */
+    private Path toSysPath(String absPath) {
+        Path root = ofdDir.getContainerPath();
+        String rel = absPath;
+        while (rel.startsWith("/")) {
+            rel = rel.substring(1);
+        }
+        if (rel.isEmpty()) {
+            return root;
+        }
+        Path res = root.resolve(rel);
+        // 渐进读取模式下等待文件到达
+        PendingEntries pending = ofdDir.getPendingEntries();
+        if (pending != null) {
+            pending.await(res);
+        }
+        return res;
+    }
+
 
     /**
      * 打印工作目录 Print Work Directory
@@ -293,7 +401,7 @@ public class ResourceLocator {
      * @return 工作目录路径
      */
     public String pwd() {
-        return pwd(this.workDir);
+        return join(state().workDir);
     }
 
 
@@ -304,6 +412,16 @@ public class ResourceLocator {
      * @return 工作目录路径
      */
     public String pwd(List<String> workDir) {
+        return join(workDir);
+    }
+
+    /**
+     * 拼接路径序列
+     *
+     * @param workDir 路径序列
+     * @return 路径
+     */
+    private static String join(List<String> workDir) {
         if (workDir.size() == 1) {
             return "/";
         }
@@ -340,7 +458,7 @@ public class ResourceLocator {
         }
 
         // 查询工作目录
-        LinkedList<String> wd = new LinkedList<>(this.workDir);
+        LinkedList<String> wd = new LinkedList<>(state().workDir);
         // 文件名称
         String fileName;
         int indexOf = loc.lastIndexOf('/');
@@ -389,7 +507,7 @@ public class ResourceLocator {
             throw new FileNotFoundException("路径为空（loc）");
         }
         // 查询工作目录
-        LinkedList<String> wd = new LinkedList<>(this.workDir);
+        LinkedList<String> wd = new LinkedList<>(state().workDir);
         // 文件名称
         String fileName;
         int indexOf = loc.lastIndexOf('/');
@@ -400,10 +518,7 @@ public class ResourceLocator {
         } else {
             fileName = loc;
         }
-        // 查找并获取文件所处路径
-        VirtualContainer vc = getContainer(wd);
-        Element element = vc.getObj(fileName);
-        return mapper.apply(element);
+        return getObj(wd, fileName, mapper);
     }
 
     /**
@@ -430,7 +545,7 @@ public class ResourceLocator {
             throw new FileNotFoundException("路径为空（loc）");
         }
         // 查询工作目录
-        LinkedList<String> wd = new LinkedList<>(this.workDir);
+        LinkedList<String> wd = new LinkedList<>(state().workDir);
         // 文件名称
         String fileName;
         int indexOf = loc.lastIndexOf('/');
@@ -441,9 +556,194 @@ public class ResourceLocator {
         } else {
             fileName = loc;
         }
-        // 查找并获取文件所处路径
-        VirtualContainer vc = getContainer(wd);
-        return vc.getFile(fileName);
+        synchronized (lock) {
+            // 查找并获取文件所处路径
+            VirtualContainer vc = getContainer0(wd);
+            return vc.getFile(fileName);
+        }
+    }
+
+    /**
+     * 获取容器中的文件对象
+     *
+     * @param dir      文件所在目录的路径序列
+     * @param fileName 文件名称
+     * @param mapper   对象映射构造器
+     * @param <R>      映射对象
+     * @return 对象
+     * @throws FileNotFoundException 文件不存在
+     * @throws DocumentException     文件解析异常
+     */
+    private <R> R getObj(LinkedList<String> dir, String fileName, Function<Element, R> mapper) throws FileNotFoundException, DocumentException {
+        VirtualContainer vc;
+        Element element;
+        Path file = null;
+        synchronized (lock) {
+            // 查找并获取文件所处路径
+            vc = getContainer0(dir);
+            element = vc.getCachedObj(fileName);
+            if (element == null) {
+                file = vc.getFile(fileName);
+            }
+        }
+        if (element == null) {
+            element = load(vc, fileName, file);
+        }
+        return mapper.apply(element);
+    }
+
+    /**
+     * 在锁外解析文件并加入容器缓存
+     * <p>
+     * 多个线程同时加载同一文件时只解析一次，其余线程等待解析结果。
+     *
+     * @param vc       文件所在容器
+     * @param fileName 文件名称
+     * @param file     文件路径
+     * @return 容器缓存中的元素对象
+     * @throws DocumentException 文件解析异常
+     */
+    private Element load(VirtualContainer vc, String fileName, Path file) throws DocumentException {
+        FutureTask<Element> task = new FutureTask<>(() -> {
+            Element parsed = ElemCup.inject(file);
+            synchronized (lock) {
+                return vc.cacheLoaded(fileName, parsed);
+            }
+        });
+        FutureTask<Element> running = loading.putIfAbsent(file, task);
+        if (running == null) {
+            running = task;
+            try {
+                task.run();
+            } finally {
+                loading.remove(file, task);
+            }
+        }
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DocumentException("等待文件解析时被中断：" + file, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof DocumentException) {
+                throw (DocumentException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new DocumentException(cause);
+        }
+    }
+
+    /**
+     * 以指定目录为基础获取资源对象
+     * <p>
+     * 不依赖也不改变工作目录，可以在多个线程中同时调用。
+     *
+     * @param base   基础目录，容器内绝对路径，为null时以根目录为基础
+     * @param loc    路径地址
+     * @param mapper 对象映射构造器
+     * @param <R>    映射对象
+     * @return 对象
+     * @throws FileNotFoundException 文件不存在
+     * @throws DocumentException     文件解析异常
+     * @see #resolve(String, String)
+     */
+    public <R> R get(String base, ST_Loc loc, Function<Element, R> mapper) throws FileNotFoundException, DocumentException {
+        if (loc == null || loc.getLoc().trim().isEmpty()) {
+            throw new FileNotFoundException("路径为空（loc）");
+        }
+        LinkedList<String> dir = split(resolve(base, loc.getLoc()));
+        if (dir.size() <= 1) {
+            throw new FileNotFoundException("路径不是文件：" + loc);
+        }
+        String fileName = dir.removeLast();
+        return getObj(dir, fileName, mapper);
+    }
+
+    /**
+     * 以指定目录为基础获取文件
+     * <p>
+     * 不依赖也不改变工作目录，可以在多个线程中同时调用。
+     *
+     * @param base 基础目录，容器内绝对路径，为null时以根目录为基础
+     * @param loc  路径
+     * @return 系统文件路径
+     * @throws FileNotFoundException 文件或路径不存在
+     */
+    public Path getFile(String base, ST_Loc loc) throws FileNotFoundException {
+        if (loc == null || loc.getLoc().trim().isEmpty()) {
+            throw new FileNotFoundException("路径为空（loc）");
+        }
+        LinkedList<String> dir = split(resolve(base, loc.getLoc()));
+        if (dir.size() <= 1) {
+            throw new FileNotFoundException("路径不是文件：" + loc);
+        }
+        String fileName = dir.removeLast();
+        synchronized (lock) {
+            return getContainer0(dir).getFile(fileName);
+        }
+    }
+
+    /**
+     * 以指定目录为基础监视文件修改
+     * <p>
+     * 文件的元素被修改或文件被替换后 {@link #getModCount()} 递增，见 {@link VirtualContainer#watchFile(String)}。
+     *
+     * @param base 基础目录，容器内绝对路径，为null时以根目录为基础
+     * @param loc  文件路径
+     * @throws FileNotFoundException 文件所在目录不存在
+     */
+    public void watch(String base, ST_Loc loc) throws FileNotFoundException {
+        if (loc == null || loc.getLoc().trim().isEmpty()) {
+            throw new FileNotFoundException("路径为空（loc）");
+        }
+        LinkedList<String> dir = split(resolve(base, loc.getLoc()));
+        if (dir.size() <= 1) {
+            throw new FileNotFoundException("路径不是文件：" + loc);
+        }
+        String fileName = dir.removeLast();
+        synchronized (lock) {
+            getContainer0(dir).watchFile(fileName);
+        }
+    }
+
+    /**
+     * 获取容器的修改计数
+     *
+     * @return 修改计数，见 {@link VirtualContainer#getModCount()}
+     */
+    public long getModCount() {
+        return ofdDir.getModCount();
+    }
+
+    /**
+     * 以指定目录为基础判断路径是否存在
+     *
+     * @param base 基础目录，容器内绝对路径，为null时以根目录为基础
+     * @param loc  路径
+     * @return true -存在，false - 不存在
+     */
+    public boolean exist(String base, ST_Loc loc) {
+        if (loc == null) {
+            return false;
+        }
+        return Files.exists(toSysPath(resolve(base, loc.getLoc())));
+    }
+
+    /**
+     * 容器内绝对路径转换为路径序列
+     *
+     * @param absPath 容器内绝对路径
+     * @return 路径序列，首个元素为 "/"
+     */
+    private static LinkedList<String> split(String absPath) {
+        LinkedList<String> wd = new LinkedList<>();
+        wd.add("/");
+        walk(wd, absPath);
+        return wd;
     }
 
 
@@ -455,6 +755,12 @@ public class ResourceLocator {
      * @throws FileNotFoundException 路径不存在
      */
     public VirtualContainer getContainer(LinkedList<String> workDir) throws FileNotFoundException {
+        synchronized (lock) {
+            return getContainer0(workDir);
+        }
+    }
+
+    private VirtualContainer getContainer0(LinkedList<String> workDir) throws FileNotFoundException {
         VirtualContainer vc = ofdDir;
         for (String item : workDir) {
             if (item.equals("/")) {
@@ -493,7 +799,7 @@ public class ResourceLocator {
         this.save();
         try {
             this.cd(containerPath);
-            return getContainer(this.workDir);
+            return getContainer(state().workDir);
         } finally {
             this.restore();
         }
@@ -503,4 +809,25 @@ public class ResourceLocator {
     public String toString() {
         return pwd();
     }
+
+    /**
+     * 工作区
+     */
+    private static final class WorkState {
+        /**
+         * 当前目录
+         */
+        final LinkedList<String> workDir = new LinkedList<>();
+
+        /**
+         * 保存的路径栈
+         * <p>
+         * 每次调用Save都会入栈
+         */
+        final LinkedList<LinkedList<String>> savedStack = new LinkedList<>();
+
+        WorkState() {
+            workDir.add("/");
+        }
+    }
 }
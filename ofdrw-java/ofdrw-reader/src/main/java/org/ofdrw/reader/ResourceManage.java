@@ -8,6 +8,7 @@ import org.ofdrw.core.basicStructure.doc.CT_CommonData;
 import org.ofdrw.core.basicStructure.doc.Document;
 import org.ofdrw.core.basicStructure.ofd.DocBody;
 import org.ofdrw.core.basicStructure.ofd.OFD;
+import org.ofdrw.core.basicStructure.pageObj.Page;
 import org.ofdrw.core.basicStructure.pageObj.layer.block.ImageObject;
 import org.ofdrw.core.basicStructure.res.CT_MultiMedia;
 import org.ofdrw.core.basicStructure.res.MediaType;
@@ -32,8 +33,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 资源管理器（只读）
@@ -44,6 +48,10 @@ import java.util.Map;
  * <p>
  * 注意：资源管理器提供的资源对象均为只读对象（副本），不允许对资源进行修改,所有提供的对象
  * 中文档的相对路径均在加载时转换为绝对路径。
+ * <p>
+ * 延迟加载模式下创建时不解析任何文件，首次查找资源时才建立资源ID到资源文件位置的索引，
+ * 资源对象在被访问时才经由资源定位器读取资源文件、复制并转换路径，索引不持有资源文件中的元素；该模式还会索引页面资源（PageRes），
+ * 页面资源在通过 {@link OFDReader#getPageInfo(int)} 读取页面时索引，获取资源列表时索引所有页面。
  *
  * @author 权观宇
  * @since 2021-04-10 11:06:00
@@ -52,37 +60,93 @@ public class ResourceManage {
     /**
      * 颜色空间
      */
-    private final Map<String, CT_ColorSpace> colorSpaceMap = new HashMap<>();
+    private final Map<String, CT_ColorSpace> colorSpaceMap = new ConcurrentHashMap<>();
     /**
      * 绘制参数
      */
-    private final Map<String, CT_DrawParam> drawParamMap = new HashMap<>();
+    private final Map<String, CT_DrawParam> drawParamMap = new ConcurrentHashMap<>();
+    /**
+     * 完成继承解析的绘制参数缓存
+     */
+    private final Map<String, ResolvedDrawParam> resolvedDrawParamMap = new ConcurrentHashMap<>();
     /**
      * 字形
      */
-    private final Map<String, CT_Font> fontMap = new HashMap<>();
+    private final Map<String, CT_Font> fontMap = new ConcurrentHashMap<>();
     /**
      * 多媒体对象
      */
-    private final Map<String, CT_MultiMedia> multiMediaMap = new HashMap<>();
+    private final Map<String, CT_MultiMedia> multiMediaMap = new ConcurrentHashMap<>();
     /**
      * 矢量图像
      */
-    private final Map<String, CT_VectorG> compositeGraphicUnitMap = new HashMap<>();
+    private final Map<String, CT_VectorG> compositeGraphicUnitMap = new ConcurrentHashMap<>();
 
     /**
      * 所有资源和ID的映射表
      */
-    private final Map<String, OFDElement> allResMap = new HashMap<>();
+    private final Map<String, OFDElement> allResMap = new ConcurrentHashMap<>();
 
     /**
      * 文档公共数据结构
      */
-    private CT_CommonData commonData;
+    private volatile CT_CommonData commonData;
 
 
     private final OFDReader ofdReader;
 
+    /**
+     * 是否延迟加载资源
+     */
+    private final boolean lazy;
+
+    /**
+     * 延迟加载的文档序号
+     */
+    private int docNum;
+
+    /**
+     * 延迟加载模式下尚未复制的资源所在的资源文件，KEY为资源ID
+     * <p>
+     * 只记录资源文件的位置，资源文件元素可以被容器的元素缓存淘汰
+     */
+    private final Map<String, ResEntry> resIndex = new ConcurrentHashMap<>();
+
+    /**
+     * 延迟加载模式下已索引页面资源的页面，值为页面文件的容器内绝对路径
+     */
+    private final Set<String> indexedPages = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 延迟加载模式下已确认不存在的资源ID，索引新的资源时移除
+     */
+    private final Set<String> missing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 资源索引建立的程度，取值为 INDEX_NONE、INDEX_DOC、INDEX_ALL
+     */
+    private volatile int indexLevel = INDEX_NONE;
+
+    /**
+     * 尚未建立索引
+     */
+    private static final int INDEX_NONE = 0;
+
+    /**
+     * 已索引公共资源与文档资源
+     */
+    private static final int INDEX_DOC = 1;
+
+    /**
+     * 已索引包括所有页面资源在内的全部资源
+     */
+    private static final int INDEX_ALL = 2;
+
+    /**
+     * 图片缓存，null 表示不缓存
+     */
+    private volatile ImageCache imageCache = new ImageCache(ImageCache.DEFAULT_MAX_BYTES);
+
     /**
      * 创建资源管理器
      * <p>
@@ -92,6 +156,7 @@ public class ResourceManage {
      */
     public ResourceManage(OFDReader ofdReader) {
         this.ofdReader = ofdReader;
+        this.lazy = false;
         try {
             loadDefaultDoc();
         } catch (Exception e) {
@@ -106,7 +171,21 @@ public class ResourceManage {
      * @param docNum    文档序号，从0起
      */
     public ResourceManage(OFDReader ofdReader, int docNum) {
+        this(ofdReader, docNum, false);
+    }
+
+    /**
+     * 指定文档与加载方式创建资源管理器
+     * <p>
+     * 延迟加载模式下创建时不读取任何文件，文档结构异常将在首次查找资源时抛出。
+     *
+     * @param ofdReader OFD解析器
+     * @param docNum    文档序号，从0起
+     * @param lazy      true - 延迟加载，访问资源时才加载；false - 创建时加载全部文档资源
+     */
+    public ResourceManage(OFDReader ofdReader, int docNum, boolean lazy) {
         this.ofdReader = ofdReader;
+        this.lazy = lazy;
         try {
             loadDoc(docNum);
         } catch (Exception e) {
@@ -123,7 +202,7 @@ public class ResourceManage {
      * @return 绘制参数，不存在返回null
      */
     public CT_DrawParam getDrawParam(String id) {
-        return drawParamMap.get(id);
+        return lookup(drawParamMap, id);
     }
 
     /**
@@ -136,11 +215,59 @@ public class ResourceManage {
         if (id == null) {
             return null;
         }
-        CT_DrawParam current = drawParamMap.get(id);
+        CT_DrawParam current = getDrawParam(id);
         // 使用继承属性填充本机
         return superDrawParam(current);
     }
 
+    /**
+     * 获取完成继承解析的绘制参数
+     * <p>
+     * 沿 Relative 引用链补全未设置的属性，每个ID只解析一次，结果被缓存。
+     * 引用链中出现循环引用时在重复出现的位置断开。
+     * <p>
+     * 与 {@link #getDrawParamFinal(String)} 相比不复制文档对象，适用于逐图元调用的场景。
+     *
+     * @param id 资源ID
+     * @return 解析后的绘制参数，不存在返回null
+     */
+    public ResolvedDrawParam getResolvedDrawParam(String id) {
+        if (id == null) {
+            return null;
+        }
+        ResolvedDrawParam res = resolvedDrawParamMap.get(id);
+        if (res != null) {
+            return res;
+        }
+        return resolveDrawParam(id, new HashSet<>());
+    }
+
+    /**
+     * 解析绘制参数的引用链
+     *
+     * @param id       资源ID
+     * @param visiting 引用链上正在解析的ID
+     * @return 解析后的绘制参数，不存在或循环引用时返回null
+     */
+    private ResolvedDrawParam resolveDrawParam(String id, Set<String> visiting) {
+        ResolvedDrawParam res = resolvedDrawParamMap.get(id);
+        if (res != null) {
+            return res;
+        }
+        CT_DrawParam current = getDrawParam(id);
+        if (current == null || !visiting.add(id)) {
+            return null;
+        }
+        ResolvedDrawParam parent = null;
+        ST_RefID relative = current.getRelative();
+        if (relative != null) {
+            parent = resolveDrawParam(relative.toString(), visiting);
+        }
+        res = ResolvedDrawParam.of(current, parent);
+        ResolvedDrawParam exist = resolvedDrawParamMap.putIfAbsent(id, res);
+        return exist == null ? res : exist;
+    }
+
     /**
      * 寻找继承属性用于覆盖当前为空的属性
      *
@@ -157,36 +284,13 @@ public class ResourceManage {
         if (relative == null) {
             return current;
         }
-        // 递归的寻找上一级继承的参数的最终参数
-        CT_DrawParam parent = getDrawParamFinal(relative.toString());
+        // 上一级继承的参数的最终参数
+        ResolvedDrawParam parent = getResolvedDrawParam(relative.toString());
         if (parent == null) {
             return current;
         }
         // 本次绘制属性将覆盖其引用的绘制参数中的同名属性。
-        if (current.attributeValue("LineWidth") == null
-                && parent.attributeValue("LineWidth") != null) {
-            current.addAttribute("LineWidth", parent.attributeValue("LineWidth"));
-        }
-        if (current.attributeValue("Join") == null
-                && parent.attributeValue("Join") != null) {
-            current.addAttribute("Join", parent.attributeValue("Join"));
-        }
-        if (current.attributeValue("Cap") == null
-                && parent.attributeValue("Cap") != null) {
-            current.addAttribute("Cap", parent.attributeValue("Cap"));
-        }
-        if (current.attributeValue("DashOffset") == null
-                && parent.attributeValue("DashOffset") != null) {
-            current.addAttribute("DashOffset", parent.attributeValue("DashOffset"));
-        }
-        if (current.attributeValue("DashPattern") == null
-                && parent.attributeValue("DashPattern") != null) {
-            current.addAttribute("DashPattern", parent.attributeValue("DashPattern"));
-        }
-        if (current.attributeValue("MiterLimit") == null
-                && parent.attributeValue("MiterLimit") != null) {
-            current.addAttribute("MiterLimit", parent.attributeValue("MiterLimit"));
-        }
+        parent.fillAttributes(current);
         if (current.getFillColor() == null
                 && parent.getFillColor() != null) {
             current.setFillColor(parent.getFillColor());
@@ -207,6 +311,19 @@ public class ResourceManage {
      * @return 继承到的绘制参数
      */
     public CT_DrawParam superDrawParam(CT_GraphicUnit<?> current) {
+        ResolvedDrawParam parent = resolveDrawParam(current);
+        return parent == null ? null : parent.toDrawParam();
+    }
+
+    /**
+     * 补充 图元信息 通过引用的配置参数
+     * <p>
+     * 尝试将图元中描述的线条属性和引用的绘制参数进行合并，颜色由调用者按需补充。
+     *
+     * @param current 当前图元对象
+     * @return 继承到的绘制参数，图元未引用绘制参数或绘制参数不存在时返回null
+     */
+    public ResolvedDrawParam resolveDrawParam(CT_GraphicUnit<?> current) {
         if (current == null) {
             return null;
         }
@@ -214,38 +331,13 @@ public class ResourceManage {
         if (drawParam == null) {
             return null;
         }
-        CT_DrawParam parent = getDrawParamFinal(drawParam.toString());
+        ResolvedDrawParam parent = getResolvedDrawParam(drawParam.toString());
         if (parent == null) {
             return null;
         }
         // 本次绘制属性将覆盖其引用的绘制参数中的同名属性。
-        if (current.attributeValue("LineWidth") == null
-                && parent.attributeValue("LineWidth") != null) {
-            current.addAttribute("LineWidth", parent.attributeValue("LineWidth"));
-        }
-        if (current.attributeValue("Join") == null
-                && parent.attributeValue("Join") != null) {
-            current.addAttribute("Join", parent.attributeValue("Join"));
-        }
-        if (current.attributeValue("Cap") == null
-                && parent.attributeValue("Cap") != null) {
-            current.addAttribute("Cap", parent.attributeValue("Cap"));
-        }
-        if (current.attributeValue("DashOffset") == null
-                && parent.attributeValue("DashOffset") != null) {
-            current.addAttribute("DashOffset", parent.attributeValue("DashOffset"));
-        }
-        if (current.attributeValue("DashPattern") == null
-                && parent.attributeValue("DashPattern") != null) {
-            current.addAttribute("DashPattern", parent.attributeValue("DashPattern"));
-        }
-        if (current.attributeValue("MiterLimit") == null
-                && parent.attributeValue("MiterLimit") != null) {
-            current.addAttribute("MiterLimit", parent.attributeValue("MiterLimit"));
-        }
+        parent.fillAttributes(current);
         return parent;
-
-
     }
 
     /**
@@ -257,7 +349,7 @@ public class ResourceManage {
      * @return 多媒体对象，不存在返回null
      */
     public CT_MultiMedia getMultiMedia(String id) {
-        return multiMediaMap.get(id);
+        return lookup(multiMediaMap, id);
     }
 
     /**
@@ -268,6 +360,13 @@ public class ResourceManage {
      * @throws IOException IO异常
      */
     public BufferedImage getImage(String refID) throws IOException {
+        final ImageCache cache = this.imageCache;
+        if (cache != null) {
+            BufferedImage image = cache.getImage(refID);
+            if (image != null) {
+                return image;
+            }
+        }
         CT_MultiMedia multiMedia = getMultiMedia(refID);
         if (multiMedia == null) return null;
         if (MediaType.Image != multiMedia.getType()) return null;
@@ -277,19 +376,24 @@ public class ResourceManage {
         if (loc == null) return null;
         final ResourceLocator rl = ofdReader.getResourceLocator();
         rl.save();
+        BufferedImage image;
         try {
             final Path imgPath = rl.getFile(loc);
             try (InputStream in = Files.newInputStream(imgPath)) {
                 final String fileName = loc.getFileName().toLowerCase();
                 if (fileName.endsWith(".jb2") || fileName.endsWith(".gbig2")) {
-                    return ImageUtils.readJB2(in);
+                    image = ImageUtils.readJB2(in);
                 } else {
-                    return ImageIO.read(in);
+                    image = ImageIO.read(in);
                 }
             }
         } finally {
             rl.restore();
         }
+        if (cache != null && image != null) {
+            cache.put(refID, image);
+        }
+        return image;
     }
 
     /**
@@ -300,6 +404,14 @@ public class ResourceManage {
      * @throws IOException IO异常
      */
     public byte[] getImageByteArray(String refID) throws IOException {
+        final ImageCache cache = this.imageCache;
+        final String key = "raw:" + refID;
+        if (cache != null) {
+            byte[] data = cache.getBytes(key);
+            if (data != null) {
+                return data;
+            }
+        }
         CT_MultiMedia multiMedia = getMultiMedia(refID);
         if (multiMedia == null) return null;
         if (MediaType.Image != multiMedia.getType()) return null;
@@ -312,7 +424,11 @@ public class ResourceManage {
         try {
             final Path imgPath = rl.getFile(loc);
             try (InputStream in = Files.newInputStream(imgPath)) {
-                return IOUtils.toByteArray(in);
+                byte[] data = IOUtils.toByteArray(in);
+                if (cache != null) {
+                    cache.put(key, data);
+                }
+                return data;
             }
         } finally {
             rl.restore();
@@ -336,12 +452,49 @@ public class ResourceManage {
         BufferedImage image = getImage(resourceID.toString());
         if (image == null) return null;
         if (imageObject.getImageMask() != null) {
+            // 蒙板处理后的图像以图片与蒙板ID的组合缓存
+            final ImageCache cache = this.imageCache;
+            final String key = resourceID + "&mask:" + imageObject.getImageMask();
+            if (cache != null) {
+                BufferedImage masked = cache.getImage(key);
+                if (masked != null) {
+                    return masked;
+                }
+            }
             BufferedImage mask = getImage(imageObject.getImageMask().toString());
-            if (mask != null) image = ImageUtils.renderMask(image, mask);
+            if (mask != null) {
+                image = ImageUtils.renderMask(image, mask);
+                if (cache != null) {
+                    cache.put(key, image);
+                }
+            }
         }
         return image;
     }
 
+    /**
+     * 设置 图片缓存
+     * <p>
+     * 默认使用上限为 {@link ImageCache#DEFAULT_MAX_BYTES} 的缓存，
+     * 通过 {@link OFDReader#getResMgt()} 获取资源管理器的各类转换器共享同一个缓存。
+     *
+     * @param imageCache 图片缓存，null 表示不缓存，每次获取图片时重新解码
+     * @return this
+     */
+    public ResourceManage setImageCache(ImageCache imageCache) {
+        this.imageCache = imageCache;
+        return this;
+    }
+
+    /**
+     * 获取 图片缓存
+     *
+     * @return 图片缓存，可能为null
+     */
+    public ImageCache getImageCache() {
+        return imageCache;
+    }
+
     /**
      * 获取 字形
      * <p>
@@ -351,7 +504,7 @@ public class ResourceManage {
      * @return 字形，不存在返回null
      */
     public CT_Font getFont(String id) {
-        return fontMap.get(id);
+        return lookup(fontMap, id);
     }
 
     /**
@@ -364,6 +517,9 @@ public class ResourceManage {
      */
     public CT_ColorSpace getColorSpace(String id) {
         if (id == null) {
+            if (lazy) {
+                ensureIndex(INDEX_DOC);
+            }
             ST_RefID defaultCSIdRef = commonData.getDefaultCS();
             if (defaultCSIdRef == null) {
                 return null;
@@ -371,7 +527,7 @@ public class ResourceManage {
             id = defaultCSIdRef.toString();
         }
 
-        return colorSpaceMap.get(id);
+        return lookup(colorSpaceMap, id);
     }
 
 
@@ -384,7 +540,7 @@ public class ResourceManage {
      * @return 矢量图形，不存在返回null
      */
     public CT_VectorG getCompositeGraphicUnit(String id) {
-        return compositeGraphicUnitMap.get(id);
+        return lookup(compositeGraphicUnitMap, id);
     }
 
     /**
@@ -399,25 +555,172 @@ public class ResourceManage {
      * @throws IOException       文件读写异常
      * @throws DocumentException 文档解析异常
      */
-    public ResourceManage loadDoc(int docNum) throws IOException, DocumentException {
-
-        final OFDDir ofdDir = ofdReader.getOFDDir();
-        // 根目录: /OFD.xml
-        final OFD ofd = ofdDir.getOfd();
-        final DocBody docBody = ofd.getDocBody(docNum);
-
+    public synchronized ResourceManage loadDoc(int docNum) throws IOException, DocumentException {
         // 由于每个文档的ID体系都是独立的，所以资源也是独立的
         // 这里对上一个文档的资源进行清理
         colorSpaceMap.clear();
         drawParamMap.clear();
+        resolvedDrawParamMap.clear();
         fontMap.clear();
         multiMediaMap.clear();
         compositeGraphicUnitMap.clear();
+        allResMap.clear();
+        resIndex.clear();
+        indexedPages.clear();
+        missing.clear();
+        this.docNum = docNum;
+        indexLevel = INDEX_NONE;
+        if (lazy) {
+            // 首次查找资源时再建立索引
+            return this;
+        }
         // 重新加载资源
-        loadDocRes(docBody);
+        loadDocRes(docBody(docNum), false);
         return this;
     }
 
+    /**
+     * 获取文档描述信息
+     *
+     * @param docNum 文档序号，从0起
+     * @return 文档描述信息
+     */
+    private DocBody docBody(int docNum) throws IOException, DocumentException {
+        // 根目录: /OFD.xml，经由资源定位器读取以便与其他线程的读取同步
+        final OFD ofd = ofdReader.getResourceLocator().get("/", new ST_Loc(OFDDir.OFDFileName), OFD::new);
+        return ofd.getDocBody(docNum);
+    }
+
+    /**
+     * 查找资源，延迟加载模式下按需加载
+     *
+     * @param map 资源映射表
+     * @param id  资源ID
+     * @param <T> 资源类型
+     * @return 资源对象，不存在返回null
+     */
+    private <T> T lookup(Map<String, T> map, String id) {
+        if (id == null) {
+            return null;
+        }
+        T res = map.get(id);
+        if (res == null && lazy) {
+            materialize(id);
+            res = map.get(id);
+        }
+        return res;
+    }
+
+    /**
+     * 复制索引中的资源对象并加入资源映射表
+     * <p>
+     * 在公共资源、文档资源以及已读取页面的页面资源中查找（见 {@link #indexPageRes(ST_Loc, Page)}），
+     * 找不到的资源ID被记录，再次查找时直接返回。
+     * <p>
+     * 资源所在的资源文件经由资源定位器重新获取，同一资源文件中尚未加载的资源一并加载。
+     *
+     * @param id 资源ID
+     */
+    private void materialize(String id) {
+        if (missing.contains(id)) {
+            return;
+        }
+        synchronized (this) {
+            ensureIndex(INDEX_DOC);
+            ResEntry entry = resIndex.get(id);
+            if (entry == null) {
+                if (!allResMap.containsKey(id)) {
+                    missing.add(id);
+                }
+                // 资源不存在或已被其他线程加载
+                return;
+            }
+            final ResourceLocator rl = ofdReader.getResourceLocator();
+            try {
+                rl.save();
+                rl.cd(entry.dir);
+                Res res = rl.get("/", new ST_Loc(entry.file), Res::new);
+                final ST_Loc baseLoc = res.getBaseLoc();
+                for (OFDResource ofdResource : res.getResources()) {
+                    for (OFDElement item : itemsOf(ofdResource)) {
+                        final String itemId = item.getObjID().toString();
+                        if (resIndex.get(itemId) == entry) {
+                            register(rl, baseLoc, item);
+                            resIndex.remove(itemId);
+                        }
+                    }
+                }
+            } catch (Exception e) {
+                // 无法加载的资源视为不存在
+            } finally {
+                rl.restore();
+                resIndex.remove(id);
+            }
+        }
+    }
+
+    /**
+     * 索引页面资源（PageRes）
+     * <p>
+     * 延迟加载模式下页面资源在页面被读取时索引，每个页面只索引一次，
+     * 查找资源时不再为了未知的资源ID解析所有页面；非延迟加载模式下不做任何操作。
+     *
+     * @param pageLoc 页面文件的容器内绝对路径
+     * @param page    页面对象
+     */
+    void indexPageRes(ST_Loc pageLoc, Page page) {
+        if (!lazy || pageLoc == null || page == null
+                || indexLevel == INDEX_ALL || indexedPages.contains(pageLoc.getLoc())) {
+            return;
+        }
+        synchronized (this) {
+            if (indexLevel == INDEX_ALL || !indexedPages.add(pageLoc.getLoc())) {
+                return;
+            }
+            ensureIndex(INDEX_DOC);
+            loadPageRes(ofdReader.getResourceLocator(), pageLoc, page);
+        }
+    }
+
+    /**
+     * 延迟加载模式下加载所有资源
+     */
+    private void loadAll() {
+        if (!lazy) {
+            return;
+        }
+        synchronized (this) {
+            ensureIndex(INDEX_ALL);
+            for (String id : new ArrayList<>(resIndex.keySet())) {
+                materialize(id);
+            }
+        }
+    }
+
+    /**
+     * 建立资源索引
+     *
+     * @param level 需要达到的索引程度
+     */
+    private synchronized void ensureIndex(int level) {
+        if (indexLevel >= level) {
+            return;
+        }
+        try {
+            final DocBody docBody = docBody(docNum);
+            if (indexLevel < INDEX_DOC) {
+                loadDocRes(docBody, false);
+                indexLevel = INDEX_DOC;
+            }
+            if (level >= INDEX_ALL) {
+                loadDocRes(docBody, true);
+                indexLevel = INDEX_ALL;
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("文档结构解析异常", e);
+        }
+    }
+
     /**
      * 多文档资源加载
      *
@@ -429,37 +732,85 @@ public class ResourceManage {
         // 根目录: /OFD.xml
         final OFD ofd = ofdDir.getOfd();
         // 加载OFD中出现的第一个文档
-        loadDocRes(ofd.getDocBody());
+        loadDocRes(ofd.getDocBody(), false);
     }
 
     /**
      * 加载文档中的资源
      *
      * @param docBody 文档描述信息
+     * @param pageRes true - 加载页面资源；false - 加载公共资源与文档资源
      * @throws IOException       文件读写异常
      * @throws DocumentException 文档解析异常
      */
-    private void loadDocRes(DocBody docBody) throws IOException, DocumentException {
+    private void loadDocRes(DocBody docBody, boolean pageRes) throws IOException, DocumentException {
         final ResourceLocator rl = ofdReader.getResourceLocator();
         try {
             rl.save();
+            rl.restWd();
             final ST_Loc docRoot = docBody.getDocRoot();
             // 路径解析对象获取并缓存虚拟容器
             Document document = rl.get(docRoot, Document::new);
             rl.cd(docRoot.parent());
 
+            if (pageRes) {
+                // 页面资源（PageRes），同一文档中资源ID不重复，已加载的资源优先
+                for (org.ofdrw.core.basicStructure.pageTree.Page page : document.getPages().getPages()) {
+                    loadPageRes(rl, page.getBaseLoc());
+                }
+                return;
+            }
+
             commonData = new CT_CommonData((Element) document.getCommonData().clone());
             // 公共资源（PublicRes）
             for (ST_Loc pubResLoc : commonData.getPublicResList()) {
-                loadResFile(rl, pubResLoc);
+                loadResFile(rl, pubResLoc, false);
             }
 
             // 文档资源序列（DocumentRes）
             for (ST_Loc docResLoc : commonData.getDocumentResList()) {
-                loadResFile(rl, docResLoc);
+                loadResFile(rl, docResLoc, false);
             }
+        } finally {
+            rl.restore();
+        }
+    }
 
-            // 页面资源，暂时忽略
+    /**
+     * 加载页面中引用的资源文件
+     * <p>
+     * 页面无法解析时忽略该页面的资源
+     *
+     * @param rl      资源加载器，工作区位于文档所在目录
+     * @param pageLoc 页面文件位置
+     */
+    private void loadPageRes(ResourceLocator rl, ST_Loc pageLoc) {
+        if (pageLoc == null) {
+            return;
+        }
+        try {
+            loadPageRes(rl, pageLoc, rl.get(pageLoc, Page::new));
+        } catch (Exception e) {
+            // 忽略无法解析的页面
+        }
+    }
+
+    /**
+     * 加载已解析页面中引用的资源文件
+     *
+     * @param rl      资源加载器，相对路径的页面位置以工作区为基础
+     * @param pageLoc 页面文件位置
+     * @param page    页面对象
+     */
+    private void loadPageRes(ResourceLocator rl, ST_Loc pageLoc, Page page) {
+        try {
+            rl.save();
+            rl.cd(pageLoc.parent());
+            for (ST_Loc resLoc : page.getPageResList()) {
+                loadResFile(rl, resLoc, true);
+            }
+        } catch (Exception e) {
+            // 忽略页面所在目录不存在的页面
         } finally {
             rl.restore();
         }
@@ -468,12 +819,15 @@ public class ResourceManage {
     /**
      * 加载资源文文件中描述的资源对象
      * <p>
+     * 延迟加载模式下只记录资源所在的资源文件，不复制资源对象。
+     * <p>
      * 该方法不应该抛出异常所有异常均应该被忽略以便程序继续执行
      *
-     * @param rl     资源加载器
-     * @param resLoc 资源文件位置
+     * @param rl      资源加载器
+     * @param resLoc  资源文件位置
+     * @param pageRes 是否是页面资源，页面资源不覆盖已有的同ID资源
      */
-    private void loadResFile(ResourceLocator rl, ST_Loc resLoc) {
+    private void loadResFile(ResourceLocator rl, ST_Loc resLoc, boolean pageRes) {
         if (resLoc == null) {
             return;
         }
@@ -483,76 +837,19 @@ public class ResourceManage {
             Res res = rl.get(resLoc, Res::new);
             // 如果资源文件的通用存储路径
             final ST_Loc baseLoc = res.getBaseLoc();
+            final ResEntry entry = lazy ? new ResEntry(rl.toAbsolutePath(resLoc), rl.pwd()) : null;
             // 遍历每一个资源对象
             for (OFDResource ofdResource : res.getResources()) {
-                // 颜色空间
-                if (ofdResource instanceof ColorSpaces) {
-                    for (CT_ColorSpace colorSpace : ((ColorSpaces) ofdResource).getColorSpaces()) {
-                        // 复制副本，作为只读对象
-                        CT_ColorSpace item = new CT_ColorSpace((Element) colorSpace.clone());
-                        // 如果文件路径存在，则转换为绝对路径
-                        if (item.getProfile() != null) {
-                            // 转换文件路径为绝对地址
-                            ST_Loc absProfile = abs(rl, baseLoc, item.getProfile());
-                            // 替换地址
-                            item.setProfile(absProfile);
-                        }
-                        colorSpaceMap.put(item.getID().toString(), item);
-                        allResMap.put(item.getID().toString(), item);
-                    }
-                    continue;
-                }
-                // 绘制参数
-                if (ofdResource instanceof DrawParams) {
-                    for (CT_DrawParam drawParam : ((DrawParams) ofdResource).getDrawParams()) {
-                        // 复制副本，作为只读对象
-                        CT_DrawParam item = new CT_DrawParam(drawParam.clone());
-                        drawParamMap.put(item.getID().toString(), item);
-                        allResMap.put(item.getID().toString(), item);
+                for (OFDElement item : itemsOf(ofdResource)) {
+                    final String id = item.getObjID().toString();
+                    if (pageRes && (allResMap.containsKey(id) || resIndex.containsKey(id))) {
+                        continue;
                     }
-                    continue;
-                }
-                // 字体
-                if (ofdResource instanceof Fonts) {
-                    for (CT_Font font : ((Fonts) ofdResource).getFonts()) {
-                        // 复制副本，作为只读对象
-                        CT_Font item = new CT_Font((Element) font.clone());
-                        // 如果地址存在，则转换为绝对路径
-                        if (item.getFontFile() != null) {
-                            // 转换文件路径为绝对地址
-                            ST_Loc absFontFile = abs(rl, baseLoc, item.getFontFile());
-                            // 替换地址
-                            item.setFontFile(absFontFile);
-                        }
-                        fontMap.put(item.getID().toString(), item);
-                        allResMap.put(item.getID().toString(), item);
-                    }
-                    continue;
-                }
-                // 媒体对象
-                if (ofdResource instanceof MultiMedias) {
-                    for (CT_MultiMedia multiMedia : ((MultiMedias) ofdResource).getMultiMedias()) {
-                        // 复制副本，作为只读对象
-                        CT_MultiMedia item = new CT_MultiMedia((Element) multiMedia.clone());
-                        // 如果地址存在，则转换为绝对路径
-                        if (item.getMediaFile() != null) {
-                            // 转换文件路径为绝对地址
-                            ST_Loc absMediaFile = abs(rl, baseLoc, item.getMediaFile());
-                            item.setMediaFile(absMediaFile);
-                        }
-                        multiMediaMap.put(item.getID().toString(), item);
-                        allResMap.put(item.getID().toString(), item);
-                    }
-                    continue;
-                }
-
-                // 矢量图形
-                if (ofdResource instanceof CompositeGraphicUnits) {
-                    for (CT_VectorG ctVectorG : ((CompositeGraphicUnits) ofdResource).getCompositeGraphicUnits()) {
-                        // 复制副本，作为只读对象
-                        CT_VectorG item = new CT_VectorG((Element) ctVectorG.clone());
-                        compositeGraphicUnitMap.put(item.getID().toString(), item);
-                        allResMap.put(item.getID().toString(), item);
+                    if (lazy) {
+                        resIndex.put(id, entry);
+                        missing.remove(id);
+                    } else {
+                        register(rl, baseLoc, item);
                     }
                 }
             }
@@ -563,6 +860,105 @@ public class ResourceManage {
         }
     }
 
+    /**
+     * 获取资源描述中的各个资源对象
+     *
+     * @param ofdResource 资源描述
+     * @return 资源对象列表
+     */
+    private static List<? extends OFDElement> itemsOf(OFDResource ofdResource) {
+        // 颜色空间
+        if (ofdResource instanceof ColorSpaces) {
+            return ((ColorSpaces) ofdResource).getColorSpaces();
+        }
+        // 绘制参数
+        if (ofdResource instanceof DrawParams) {
+            return ((DrawParams) ofdResource).getDrawParams();
+        }
+        // 字体
+        if (ofdResource instanceof Fonts) {
+            return ((Fonts) ofdResource).getFonts();
+        }
+        // 媒体对象
+        if (ofdResource instanceof MultiMedias) {
+            return ((MultiMedias) ofdResource).getMultiMedias();
+        }
+        // 矢量图形
+        if (ofdResource instanceof CompositeGraphicUnits) {
+            return ((CompositeGraphicUnits) ofdResource).getCompositeGraphicUnits();
+        }
+        return new ArrayList<>(0);
+    }
+
+    /**
+     * 复制资源对象并加入资源映射表
+     *
+     * @param rl      资源加载器，工作区位于资源文件所在目录
+     * @param baseLoc 资源文件的通用存储路径
+     * @param src     资源对象
+     */
+    private void register(ResourceLocator rl, ST_Loc baseLoc, OFDElement src) {
+        // 颜色空间
+        if (src instanceof CT_ColorSpace) {
+            // 复制副本，作为只读对象
+            CT_ColorSpace item = new CT_ColorSpace((Element) src.clone());
+            // 如果文件路径存在，则转换为绝对路径
+            if (item.getProfile() != null) {
+                // 转换文件路径为绝对地址
+                ST_Loc absProfile = abs(rl, baseLoc, item.getProfile());
+                // 替换地址
+                item.setProfile(absProfile);
+            }
+            colorSpaceMap.put(item.getID().toString(), item);
+            allResMap.put(item.getID().toString(), item);
+            return;
+        }
+        // 绘制参数
+        if (src instanceof CT_DrawParam) {
+            // 复制副本，作为只读对象
+            CT_DrawParam item = new CT_DrawParam(((CT_DrawParam) src).clone());
+            drawParamMap.put(item.getID().toString(), item);
+            allResMap.put(item.getID().toString(), item);
+            return;
+        }
+        // 字体
+        if (src instanceof CT_Font) {
+            // 复制副本，作为只读对象
+            CT_Font item = new CT_Font((Element) src.clone());
+            // 如果地址存在，则转换为绝对路径
+            if (item.getFontFile() != null) {
+                // 转换文件路径为绝对地址
+                ST_Loc absFontFile = abs(rl, baseLoc, item.getFontFile());
+                // 替换地址
+                item.setFontFile(absFontFile);
+            }
+            fontMap.put(item.getID().toString(), item);
+            allResMap.put(item.getID().toString(), item);
+            return;
+        }
+        // 媒体对象
+        if (src instanceof CT_MultiMedia) {
+            // 复制副本，作为只读对象
+            CT_MultiMedia item = new CT_MultiMedia((Element) src.clone());
+            // 如果地址存在，则转换为绝对路径
+            if (item.getMediaFile() != null) {
+                // 转换文件路径为绝对地址
+                ST_Loc absMediaFile = abs(rl, baseLoc, item.getMediaFile());
+                item.setMediaFile(absMediaFile);
+            }
+            multiMediaMap.put(item.getID().toString(), item);
+            allResMap.put(item.getID().toString(), item);
+            return;
+        }
+        // 矢量图形
+        if (src instanceof CT_VectorG) {
+            // 复制副本，作为只读对象
+            CT_VectorG item = new CT_VectorG((Element) src.clone());
+            compositeGraphicUnitMap.put(item.getID().toString(), item);
+            allResMap.put(item.getID().toString(), item);
+        }
+    }
+
     /**
      * 获取资源的绝对地址
      *
@@ -606,6 +1002,7 @@ public class ResourceManage {
      * @return 颜色空间列表
      */
     public List<CT_ColorSpace> getColorSpaces() {
+        loadAll();
         return new ArrayList<CT_ColorSpace>(colorSpaceMap.values());
     }
 
@@ -617,6 +1014,7 @@ public class ResourceManage {
      * @return 绘制参数
      */
     public List<CT_DrawParam> getDrawParams() {
+        loadAll();
         return new ArrayList<>(drawParamMap.values());
     }
 
@@ -628,6 +1026,7 @@ public class ResourceManage {
      * @return 字形
      */
     public List<CT_Font> getFonts() {
+        loadAll();
         return new ArrayList<>(fontMap.values());
     }
 
@@ -639,6 +1038,7 @@ public class ResourceManage {
      * @return 媒体对象
      */
     public List<CT_MultiMedia> getMultiMedias() {
+        loadAll();
         return new ArrayList<>(multiMediaMap.values());
     }
 
@@ -650,6 +1050,7 @@ public class ResourceManage {
      * @return 矢量图形
      */
     public List<CT_VectorG> getCompositeGraphicUnits() {
+        loadAll();
         return new ArrayList<>(compositeGraphicUnitMap.values());
     }
 
@@ -669,6 +1070,25 @@ public class ResourceManage {
      * @return 资源对象，null
      */
     public OFDElement get(String id) {
-        return allResMap.get(id);
+        return lookup(allResMap, id);
+    }
+
+    /**
+     * 资源索引项，同一资源文件中的资源共用
+     */
+    private static final class ResEntry {
+        /**
+         * 资源文件的绝对路径
+         */
+        final String file;
+        /**
+         * 资源文件所在目录的绝对路径
+         */
+        final String dir;
+
+        ResEntry(String file, String dir) {
+            this.file = file;
+            this.dir = dir;
+        }
     }
 }
@@ -0,0 +1,147 @@
+package org.ofdrw.reader;
+
+import org.dom4j.DocumentException;
+import org.dom4j.Element;
+import org.ofdrw.core.TrackedDocumentFactory;
+import org.ofdrw.core.basicStructure.doc.Document;
+import org.ofdrw.core.basicStructure.pageObj.CT_TemplatePage;
+import org.ofdrw.core.basicStructure.pageObj.Page;
+import org.ofdrw.core.basicType.ST_Loc;
+
+import java.io.FileNotFoundException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 模板页索引
+ * <p>
+ * 由文档公共数据（CommonData）中的模板页列表一次性建立模板ID与模板信息、模板页面文件绝对路径的对应关系，
+ * 模板页面内容在首次访问时加载并缓存，同一模板在索引有效期内只解析一次。
+ * <p>
+ * 与 {@link PageIndex} 相同，建立时记录 Document.xml 元素及其版本号，
+ * 文档被替换或修改后（{@link #isValid(Document)} 返回 false）需要重新建立。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 22:05:47
+ */
+final class TemplateIndex {
+
+    /**
+     * 建立索引时的文档元素
+     */
+    private final Element docElement;
+
+    /**
+     * 建立索引时的文档版本号
+     */
+    private final long version;
+
+    /**
+     * 模板ID与模板信息
+     */
+    private final Map<String, CT_TemplatePage> infos = new HashMap<>();
+
+    /**
+     * 模板ID与模板页面文件绝对路径
+     */
+    private final Map<String, ST_Loc> locs = new HashMap<>();
+
+    /**
+     * 已加载的模板页面
+     */
+    private final Map<String, Page> pages = new ConcurrentHashMap<>();
+
+    private TemplateIndex(Element docElement, long version) {
+        this.docElement = docElement;
+        this.version = version;
+    }
+
+    /**
+     * 建立模板页索引
+     * <p>
+     * ID重复时以首个出现的模板为准
+     *
+     * @param document 文档对象
+     * @param rl       资源定位器，工作区需位于文档所在目录
+     * @return 模板页索引
+     */
+    static TemplateIndex build(Document document, ResourceLocator rl) {
+        Element element = unwrap(document);
+        TemplateIndex idx = new TemplateIndex(element, TrackedDocumentFactory.versionOf(element));
+        for (CT_TemplatePage item : document.getCommonData().getTemplatePages()) {
+            String id = item.getID().toString();
+            if (idx.infos.containsKey(id)) {
+                continue;
+            }
+            idx.infos.put(id, item);
+            ST_Loc loc = item.getBaseLoc();
+            if (loc != null) {
+                idx.locs.put(id, ST_Loc.getInstance(rl.toAbsolutePath(loc)));
+            }
+        }
+        return idx;
+    }
+
+    /**
+     * 索引是否仍然有效
+     * <p>
+     * 文档元素未被替换且未发生修改时有效；不支持修改追踪的文档元素总是视为无效。
+     *
+     * @param document 当前的文档对象
+     * @return true - 有效；false - 需要重建
+     */
+    boolean isValid(Document document) {
+        Element element = unwrap(document);
+        return version >= 0
+                && element == docElement
+                && TrackedDocumentFactory.versionOf(element) == version;
+    }
+
+    /**
+     * 是否可以缓存
+     *
+     * @return true - 文档支持修改追踪
+     */
+    boolean isTracked() {
+        return version >= 0;
+    }
+
+    /**
+     * 获取模板信息
+     *
+     * @param id 模板ID
+     * @return 模板信息，不存在返回null
+     */
+    CT_TemplatePage getInfo(String id) {
+        return infos.get(id);
+    }
+
+    /**
+     * 获取模板页面内容，首次访问时加载
+     *
+     * @param id 模板ID
+     * @param rl 资源定位器
+     * @return 模板页面，模板不存在或未指定内容描述文件时返回null
+     * @throws FileNotFoundException 模板页面文件不存在
+     * @throws DocumentException     模板页面文件解析异常
+     */
+    Page getPage(String id, ResourceLocator rl) throws FileNotFoundException, DocumentException {
+        Page page = pages.get(id);
+        if (page != null) {
+            return page;
+        }
+        ST_Loc loc = locs.get(id);
+        if (loc == null) {
+            return null;
+        }
+        page = rl.get("/", loc, Page::new);
+        Page prev = pages.putIfAbsent(id, page);
+        return prev == null ? page : prev;
+    }
+
+    private static Element unwrap(Document document) {
+        Element e = document.getProxy();
+        return e == null ? document : e;
+    }
+}
@@ -34,6 +34,15 @@ public class ZipUtil {
         ZipUtil.charset = charset;
     }
 
+    /**
+     * 获取解压默认字符集
+     *
+     * @return 字符集
+     */
+    static String getDefaultCharset() {
+        return charset;
+    }
+
     /**
      * 默认字符集：GBK
      * 若ZIP压缩包中有默认字符集，则以压缩包中的字符集为准
@@ -20,6 +20,7 @@ import org.ofdrw.core.text.font.CT_Font;
 import org.ofdrw.core.text.text.CT_Text;
 import org.ofdrw.reader.DeltaTool;
 import org.ofdrw.reader.OFDReader;
+import org.ofdrw.reader.ParallelPages;
 import org.ofdrw.reader.ResourceLocator;
 
 import java.awt.*;
@@ -28,9 +29,11 @@ import java.awt.font.TextAttribute;
 import java.awt.geom.AffineTransform;
 import java.io.FileNotFoundException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 /**
  * 关键字抽取
@@ -98,8 +101,32 @@ public class KeywordExtractor {
      * @throws DocumentException     文档解析异常
      */
     public static List<KeywordPosition> getKeyWordPositionList(OFDReader reader, String[] keywords, int[] pages) throws FileNotFoundException, DocumentException {
-        Map<TextCode, KeywordResource> boundaryMapping = new HashMap<>(8);
+        return getKeyWordPositionList(reader, keywords, pages, null);
+    }
 
+    /**
+     * 并行获取关键字坐标列表(坐标单位毫米mm)
+     * <p>
+     * 各页面相互独立，页面检索任务提交到线程池中执行，结果按页码顺序合并，与逐页检索的结果一致。
+     * 同时检索的页面数量不超过 {@link ParallelPages#defaultMaxInFlight()}。
+     * <p>
+     * 注意：使用线程池时解析器需要预先开启并发模式（{@link OFDReader#setConcurrent(boolean)}），
+     * 多个页面共用的字体与模板页在检索过程中只读，由各页面任务共享。
+     *
+     * @param reader   OFD解析器
+     * @param keywords 关键字列表
+     * @param pages    要检索的页码，从1开始，不超过最大页码；为null或空时检索所有页面
+     * @param executor 线程池，为null时在当前线程中逐页检索
+     * @return 关键字坐标列表
+     * @throws FileNotFoundException 文件不存在异常
+     * @throws DocumentException     文档解析异常
+     * @throws IllegalStateException 使用线程池时解析器未开启并发模式
+     */
+    public static List<KeywordPosition> getKeyWordPositionList(OFDReader reader, String[] keywords, int[] pages, ExecutorService executor)
+            throws FileNotFoundException, DocumentException {
+        if (executor != null && !reader.isConcurrent()) {
+            throw new IllegalStateException("并行检索前需要开启解析器的并发模式(OFDReader#setConcurrent)");
+        }
         ResourceLocator locator = reader.getResourceLocator();
         //创建OFD和Document对象
         OFD ofd = locator.get(Const.INDEX_FILE, OFD::new);
@@ -114,8 +141,6 @@ public class KeywordExtractor {
         //获取模板字典
         Map<ST_ID, Page> templatePage = getTemplatePage(locator, dataDir, document);
 
-        //创建文字定位列表
-        List<TextCode> textCodeList = new ArrayList<>();
         int numberOfPages = reader.getNumberOfPages();
 
         boolean hasPageLimit = pages != null && pages.length > 0;
@@ -126,174 +151,127 @@ public class KeywordExtractor {
                 }
             }
         }
+        //按页码顺序确定待检索页面
+        List<Integer> pageList = new ArrayList<>();
         for (int page = 1; page <= numberOfPages; page++) {
             if (hasPageLimit) {
                 for (int i : pages) {
                     if (i == page) {
-                        preparedContextData(reader, textCodeList, boundaryMapping, fontMapping, templatePage, page);
+                        pageList.add(page);
                         break;
                     }
                 }
             } else {
-                preparedContextData(reader, textCodeList, boundaryMapping, fontMapping, templatePage, page);
+                pageList.add(page);
             }
         }
-
+        //所有关键字编译为一个匹配自动机，每页文字只扫描一遍
+        KeywordMatcher matcher = new KeywordMatcher(keywords);
         List<KeywordPosition> positionList = new ArrayList<>();
-        //处理文字定位
-        for (int i = 0; i < textCodeList.size(); i++) {
-            TextCode textCode = textCodeList.get(i);
-            if (textCode != null) {
-                String content = textCode.getContent();
-                if (content != null && !"".equals(content.trim())) {
-                    for (String keyword : keywords) {
-                        int textIndex = content.indexOf(keyword);
-                        if (textIndex != -1) {
-                            //完整包含关键字
-                            addNormalKeyword(keyword, boundaryMapping, positionList, textCode, textIndex);
-                        } else if (keyword.indexOf(content) == 0 && i != textCodeList.size() - 1) {
-                            //前缀匹配关键字
-                            addPrefixBreakTextCodeList(keyword, boundaryMapping, textCodeList, positionList, i, textCode);
-                        } else {
-                            int startIndex = checkPostfixMatch(content, keyword);
-                            //后缀匹配关键字
-                            if (startIndex != -1) {
-                                addPostfixBreakTextCodeList(keyword, boundaryMapping, textCodeList, positionList, i, startIndex, textCode);
-                            }
-                        }
-                    }
-                }
+        if (executor == null) {
+            for (int page : pageList) {
+                matchPage(reader, matcher, keywords, positionList, fontMapping, templatePage, page);
             }
+            return positionList;
         }
 
+        List<List<KeywordPosition>> pageResults = ParallelPages.map(pageList, executor, ParallelPages.defaultMaxInFlight(), page -> {
+            List<KeywordPosition> pagePositions = new ArrayList<>();
+            matchPage(reader, matcher, keywords, pagePositions, fontMapping, templatePage, page);
+            return pagePositions;
+        });
+        for (List<KeywordPosition> pagePositions : pageResults) {
+            positionList.addAll(pagePositions);
+        }
         return positionList;
     }
 
-
     /**
-     * 检查后缀匹配
+     * 检索页面中的关键字
+     * <p>
+     * 页面中非空白的文字定位（TextCode）按顺序拼接为一个文本流，使用匹配自动机扫描一遍，
+     * 命中位置映射回文字定位：位于同一文字定位内时按单个文字定位计算位置，
+     * 跨越多个文字定位（断字断行）时合并各文字定位的区域。
+     * <p>
+     * 同一关键字的多次出现互不重叠；结果按照 起始文字定位、关键字顺序、起始位置 排列。
      *
-     * @param content 待匹配文本
-     * @param keyword 关键字
-     * @return 是/否 匹配
+     * @param reader          OFD解析器
+     * @param matcher         关键字匹配自动机
+     * @param keywords        关键字列表
+     * @param positionList    [out]关键字位置列表
+     * @param fontMapping     字体映射对象
+     * @param templatePageMap 模板数据
+     * @param pageNumber      页码
      */
-    private static int checkPostfixMatch(String content, String keyword) {
-        int startIndex;
-        boolean match = true;
-        if ((startIndex = content.lastIndexOf(keyword.charAt(0))) != -1) {
-            for (int j = startIndex, k = 0; j < content.length(); j++, k++) {
-                if (content.charAt(j) != keyword.charAt(k)) {
-                    match = false;
-                    break;
-                }
+    private static void matchPage(OFDReader reader, KeywordMatcher matcher, String[] keywords, List<KeywordPosition> positionList,
+                                  Map<ST_ID, CT_Font> fontMapping, Map<ST_ID, Page> templatePageMap, int pageNumber) {
+        Map<TextCode, KeywordResource> boundaryMapping = new HashMap<>(8);
+        List<TextCode> pageCodes = new ArrayList<>();
+        preparedContextData(reader, pageCodes, boundaryMapping, fontMapping, templatePageMap, pageNumber);
+
+        //拼接页面文本流，记录每个文字定位在文本流中的起始位置
+        StringBuilder stream = new StringBuilder();
+        List<TextCode> codes = new ArrayList<>(pageCodes.size());
+        int[] offsets = new int[pageCodes.size()];
+        for (TextCode code : pageCodes) {
+            String content = code.getContent();
+            if (content == null || "".equals(content.trim())) {
+                continue;
             }
+            offsets[codes.size()] = stream.length();
+            codes.add(code);
+            stream.append(content);
         }
-        return match ? startIndex : -1;
-    }
-
-    /**
-     * 处理后缀匹配断字断行文本定位关键字
-     *
-     * @param keyword         关键字字符串
-     * @param boundaryMapping 映射对象
-     * @param textCodeList    文本定位列表
-     * @param positionList    关键字位置列表
-     * @param textCodeIndex   TextCode位置
-     * @param startIndex      TextCode文本起始位置
-     * @param textCode        第一个文字定位
-     */
-    private static void addPostfixBreakTextCodeList(String keyword, Map<TextCode, KeywordResource> boundaryMapping, List<TextCode> textCodeList,
-                                                    List<KeywordPosition> positionList, int textCodeIndex, int startIndex, TextCode textCode) {
-        //文字定位合并列表
-        List<TextCode> mergeTextCodeList = new ArrayList<>();
-        //加入合并列表
-        mergeTextCodeList.add(textCode);
-        //匹配下一个字
-        searchNextText(keyword, textCodeList, mergeTextCodeList, boundaryMapping, textCodeIndex, textCode.getContent().substring(startIndex), textCode);
-        //判断是否包含
-        StringBuilder builder = new StringBuilder();
-        for (TextCode code : mergeTextCodeList) {
-            builder.append(code.getContent());
+        if (codes.isEmpty()) {
+            return;
         }
-        if (builder.indexOf(keyword) != -1) {
-            mergeKeywordPosition(keyword, startIndex, positionList, mergeTextCodeList, boundaryMapping);
-        }
-
-    }
-
-    /**
-     * 处理前缀匹配断字断行文本定位关键字
-     *
-     * @param keyword         关键字字符串
-     * @param boundaryMapping 映射对象
-     * @param textCodeList    文本定位列表
-     * @param positionList    关键字位置列表
-     * @param textCodeIndex   定位起始位置
-     * @param textCode        第一个文字定位
-     */
-    private static void addPrefixBreakTextCodeList(String keyword, Map<TextCode, KeywordResource> boundaryMapping, List<TextCode> textCodeList,
-                                                   List<KeywordPosition> positionList, int textCodeIndex, TextCode textCode) {
-        //文字定位合并列表
-        List<TextCode> mergeTextCodeList = new ArrayList<>();
-        //加入合并列表
-        mergeTextCodeList.add(textCode);
-        //匹配下一个字
-        searchNextText(keyword, textCodeList, mergeTextCodeList, boundaryMapping, textCodeIndex, textCode.getContent(), textCode);
-        //判断是否包含
-        StringBuilder builder = new StringBuilder();
-        for (TextCode code : mergeTextCodeList) {
-            builder.append(code.getContent());
-        }
-        if (builder.indexOf(keyword) != -1) {
-            mergeKeywordPosition(keyword, 0, positionList, mergeTextCodeList, boundaryMapping);
+        final int count = codes.size();
+
+        //命中记录：起始文字定位序号、关键字序号、起始位置、结束文字定位序号
+        List<int[]> hits = new ArrayList<>();
+        int[] lastEnd = new int[keywords.length];
+        matcher.match(stream, (k, start, end) -> {
+            if (start < lastEnd[k]) {
+                //与同一关键字的上一次出现重叠
+                return;
+            }
+            lastEnd[k] = end;
+            hits.add(new int[]{codeIndexOf(offsets, count, start), k, start, codeIndexOf(offsets, count, end - 1)});
+        });
+        hits.sort((x, y) -> {
+            for (int i = 0; i < 3; i++) {
+                if (x[i] != y[i]) {
+                    return Integer.compare(x[i], y[i]);
+                }
+            }
+            return 0;
+        });
+
+        for (int[] hit : hits) {
+            int first = hit[0], last = hit[3];
+            String keyword = keywords[hit[1]];
+            int textIndex = hit[2] - offsets[first];
+            if (first == last) {
+                //完整包含关键字
+                addNormalKeyword(keyword, boundaryMapping, positionList, codes.get(first), textIndex);
+            } else {
+                //断字断行关键字
+                mergeKeywordPosition(keyword, textIndex, positionList, codes.subList(first, last + 1), boundaryMapping);
+            }
         }
     }
 
-
     /**
-     * 检索下一个文本定位节点
+     * 获取文本流位置所在的文字定位序号
      *
-     * @param keyword           关键字字符串
-     * @param textCodeList      文本定位列表
-     * @param mergeTextCodeList 合并的TextCode列表
-     * @param boundaryMapping   文本资源映射对象
-     * @param textCodeIndex     TextCode位置
-     * @param firstMatchString  最先匹配字符串
-     * @param textCode          第一个匹配文字
+     * @param offsets 各文字定位在文本流中的起始位置
+     * @param count   文字定位数量
+     * @param pos     文本流位置
+     * @return 文字定位序号
      */
-    private static void searchNextText(String keyword, List<TextCode> textCodeList, List<TextCode> mergeTextCodeList,
-                                       Map<TextCode, KeywordResource> boundaryMapping, int textCodeIndex, String firstMatchString,
-                                       TextCode textCode) {
-        StringBuilder mergeText = new StringBuilder(firstMatchString);
-        KeywordResource kr = boundaryMapping.get(textCode);
-        if (kr != null) {
-            int currentPage = kr.getPage();
-            for (int j = textCodeIndex + 1; j < textCodeList.size(); j++) {
-                TextCode next = textCodeList.get(j);
-                if ("".equals(next.getContent().trim())) {
-                    continue;
-                }
-                KeywordResource nextKr = boundaryMapping.get(next);
-                if (nextKr != null) {
-                    //不是同一页则不定位
-                    if (currentPage != nextKr.getPage()) {
-                        break;
-                    }
-                    //自然顺序检索
-                    mergeText.append(next.getContent());
-                    String mergeTextString = mergeText.toString();
-                    if (mergeTextString.equals(keyword) || mergeTextString.startsWith(keyword)) {
-                        mergeTextCodeList.add(next);
-                        break;
-                    }
-                    if (keyword.startsWith(mergeTextString)) {
-                        mergeTextCodeList.add(next);
-                    } else {
-                        break;
-                    }
-                }
-            }
-        }
+    private static int codeIndexOf(int[] offsets, int count, int pos) {
+        int i = Arrays.binarySearch(offsets, 0, count, pos);
+        return i >= 0 ? i : -i - 2;
     }
 
     /**
@@ -311,29 +289,20 @@ public class KeywordExtractor {
         if (kr != null) {
             CT_Text ctText = kr.getText();
             if (ctText.getBoundary() != null) {
-                String content = textCode.getContent();
-                boolean hasNextKeyword = true;
-
-                while (hasNextKeyword) {
-                    double fHeight = strHeight(keyword, getFont(ctText, kr.getFont()));
-                    List<Float> deltaX = DeltaTool.getDelta(textCode.getDeltaX(), textCode.getContent().length());
-                    List<Float> deltaY = DeltaTool.getDelta(textCode.getDeltaY(), textCode.getContent().length());
-
-                    KeywordPosition position;
-                    ST_Array ctm = ctText.getCTM();
-                    int keywordLength = keyword.length();
-                    if (ctm != null) {
-                        position = getCtmKeywordPosition(textCode, textIndex, kr.getPage(), ctText, fHeight, ctm, deltaX, deltaY, keywordLength);
-                    } else {
-                        position = getKeywordPosition(textCode, textIndex, kr.getPage(), ctText, fHeight, deltaX, deltaY, keywordLength);
-                    }
-
-                    position.setKeyword(keyword);
-                    positionList.add(position);
-
-                    textIndex = content.indexOf(keyword, textIndex + keywordLength);
-                    hasNextKeyword = textIndex != -1;
+                double fHeight = strHeight(keyword, getFont(ctText, kr.getFont()));
+                List<Float> deltaX = DeltaTool.getDelta(textCode.getDeltaX(), textCode.getContent().length());
+                List<Float> deltaY = DeltaTool.getDelta(textCode.getDeltaY(), textCode.getContent().length());
+
+                KeywordPosition position;
+                ST_Array ctm = ctText.getCTM();
+                int keywordLength = keyword.length();
+                if (ctm != null) {
+                    position = getCtmKeywordPosition(textCode, textIndex, kr.getPage(), ctText, fHeight, ctm, deltaX, deltaY, keywordLength);
+                } else {
+                    position = getKeywordPosition(textCode, textIndex, kr.getPage(), ctText, fHeight, deltaX, deltaY, keywordLength);
                 }
+                position.setKeyword(keyword);
+                positionList.add(position);
             }
         }
     }
@@ -0,0 +1,184 @@
+package org.ofdrw.reader.keyword;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 多关键字匹配自动机（Aho–Corasick）
+ * <p>
+ * 由关键字列表一次性构造，对文本只扫描一遍即可找到所有关键字的所有出现位置，
+ * 匹配耗时与关键字数量无关。
+ * <p>
+ * 构造完成后不可修改，可以在多个线程中同时使用。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 22:41:06
+ */
+final class KeywordMatcher {
+
+    /**
+     * 匹配结果接收器
+     */
+    @FunctionalInterface
+    interface Listener {
+        /**
+         * 找到关键字
+         *
+         * @param keywordIndex 关键字在构造列表中的序号
+         * @param start        起始位置（包含）
+         * @param end          结束位置（不包含）
+         */
+        void onMatch(int keywordIndex, int start, int end);
+    }
+
+    /**
+     * 各节点的转移字符，升序排列
+     */
+    private final char[][] labels;
+
+    /**
+     * 各节点转移字符对应的子节点
+     */
+    private final int[][] children;
+
+    /**
+     * 失配指针
+     */
+    private final int[] fail;
+
+    /**
+     * 输出指针，失配链上最近的含有关键字的节点，不存在为 -1
+     */
+    private final int[] dict;
+
+    /**
+     * 以节点结尾的关键字序号，不存在为空数组
+     */
+    private final int[][] outputs;
+
+    /**
+     * 关键字长度
+     */
+    private final int[] lengths;
+
+    /**
+     * 构造匹配自动机
+     * <p>
+     * 为null或空的关键字不参与匹配
+     *
+     * @param keywords 关键字列表
+     */
+    KeywordMatcher(String[] keywords) {
+        lengths = new int[keywords.length];
+        // 构造字典树
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<List<Integer>> out = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        out.add(new ArrayList<>(0));
+        for (int k = 0; k < keywords.length; k++) {
+            String keyword = keywords[k];
+            if (keyword == null || keyword.isEmpty()) {
+                continue;
+            }
+            lengths[k] = keyword.length();
+            int node = 0;
+            for (int i = 0; i < keyword.length(); i++) {
+                Integer next = trie.get(node).get(keyword.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    out.add(new ArrayList<>(0));
+                    trie.get(node).put(keyword.charAt(i), next);
+                }
+                node = next;
+            }
+            out.get(node).add(k);
+        }
+
+        int n = trie.size();
+        labels = new char[n][];
+        children = new int[n][];
+        outputs = new int[n][];
+        for (int i = 0; i < n; i++) {
+            Map<Character, Integer> m = trie.get(i);
+            labels[i] = new char[m.size()];
+            children[i] = new int[m.size()];
+            int j = 0;
+            for (Map.Entry<Character, Integer> e : m.entrySet()) {
+                labels[i][j] = e.getKey();
+                children[i][j] = e.getValue();
+                j++;
+            }
+            List<Integer> o = out.get(i);
+            outputs[i] = new int[o.size()];
+            for (j = 0; j < o.size(); j++) {
+                outputs[i][j] = o.get(j);
+            }
+        }
+
+        // 按层次建立失配指针与输出指针
+        fail = new int[n];
+        dict = new int[n];
+        Arrays.fill(dict, -1);
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : children[0]) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int j = 0; j < labels[node].length; j++) {
+                char c = labels[node][j];
+                int child = children[node][j];
+                int f = fail[node];
+                int target;
+                while ((target = next(f, c)) < 0 && f != 0) {
+                    f = fail[f];
+                }
+                fail[child] = target < 0 ? 0 : target;
+                int fc = fail[child];
+                dict[child] = outputs[fc].length > 0 ? fc : dict[fc];
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * 在文本中查找所有关键字
+     * <p>
+     * 结果按照结束位置升序回调，同一位置结束的关键字按长度降序回调
+     *
+     * @param text     文本
+     * @param listener 匹配结果接收器
+     */
+    void match(CharSequence text, Listener listener) {
+        int node = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int target;
+            while ((target = next(node, c)) < 0 && node != 0) {
+                node = fail[node];
+            }
+            node = target < 0 ? 0 : target;
+            for (int hit = outputs[node].length > 0 ? node : dict[node]; hit >= 0; hit = dict[hit]) {
+                for (int k : outputs[hit]) {
+                    listener.onMatch(k, i + 1 - lengths[k], i + 1);
+                }
+            }
+        }
+    }
+
+    /**
+     * 节点的字符转移
+     *
+     * @return 子节点，不存在返回 -1
+     */
+    private int next(int node, char c) {
+        int j = Arrays.binarySearch(labels[node], c);
+        return j < 0 ? -1 : children[node][j];
+    }
+}
@@ -0,0 +1,96 @@
+package org.ofdrw.reader.stream;
+
+/**
+ * 页面内容事件处理器
+ * <p>
+ * 事件按照对象在 Content.xml 中出现的顺序回调，图层、页块与文字对象的开始和结束成对出现，
+ * 图形、图像、复合对象在元素读取完成后回调一次。
+ * <p>
+ * 所有方法均有空的默认实现，只需覆盖关心的事件。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 22:20:31
+ */
+public interface PageContentHandler {
+
+    /**
+     * 图层开始
+     *
+     * @param layer 图层事件，属性包含 ID、Type、DrawParam
+     */
+    default void startLayer(PageObjectEvent layer) {
+    }
+
+    /**
+     * 图层结束
+     *
+     * @param layer 图层事件
+     */
+    default void endLayer(PageObjectEvent layer) {
+    }
+
+    /**
+     * 页块开始，页块可以嵌套
+     *
+     * @param block 页块事件
+     */
+    default void startPageBlock(PageObjectEvent block) {
+    }
+
+    /**
+     * 页块结束
+     *
+     * @param block 页块事件
+     */
+    default void endPageBlock(PageObjectEvent block) {
+    }
+
+    /**
+     * 文字对象开始
+     *
+     * @param text 文字对象事件
+     */
+    default void startTextObject(PageObjectEvent text) {
+    }
+
+    /**
+     * 文字对象中的文字定位
+     *
+     * @param text     所属文字对象事件
+     * @param textCode 文字定位事件
+     */
+    default void textCode(PageObjectEvent text, TextCodeEvent textCode) {
+    }
+
+    /**
+     * 文字对象结束
+     *
+     * @param text 文字对象事件
+     */
+    default void endTextObject(PageObjectEvent text) {
+    }
+
+    /**
+     * 图形对象
+     *
+     * @param path 图形对象事件，含有路径数据
+     */
+    default void pathObject(PageObjectEvent path) {
+    }
+
+    /**
+     * 图像对象
+     *
+     * @param image 图像对象事件
+     */
+    default void imageObject(PageObjectEvent image) {
+    }
+
+    /**
+     * 复合对象
+     *
+     * @param composite 复合对象事件
+     */
+    default void compositeObject(PageObjectEvent composite) {
+    }
+}
@@ -0,0 +1,241 @@
+package org.ofdrw.reader.stream;
+
+import org.ofdrw.core.basicType.ST_Loc;
+import org.ofdrw.reader.BadOFDException;
+import org.ofdrw.reader.OFDReader;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 页面内容流式读取
+ * <p>
+ * 使用 StAX 顺序读取页面 Content.xml 中的图层与页块对象，
+ * 通过 {@link PageContentHandler} 回调轻量事件，不构造 dom4j 文档树，
+ * 读取过程中只保留当前所在的图层、页块与文字对象，适用于文字抽取、关键字检索等只读场景。
+ * <p>
+ * 注意：
+ * <p>
+ * 1. 读取的是容器中页面文件的内容，已加载到内存但尚未写入文件的页面修改不可见；
+ * <p>
+ * 2. 只读取页面自身的内容，不包含模板页，模板页可以通过 {@link #read(InputStream, PageContentHandler)} 单独读取。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 22:20:31
+ */
+public final class PageContentStream {
+
+    /**
+     * 流式读取使用的XML工厂，禁用DTD与外部实体
+     */
+    private static final XMLInputFactory XML_FACTORY;
+
+    static {
+        XML_FACTORY = XMLInputFactory.newInstance();
+        XML_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        XML_FACTORY.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        XML_FACTORY.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    private PageContentStream() {
+    }
+
+    /**
+     * 流式读取默认文档中指定页面的内容
+     *
+     * @param reader  OFD解析器
+     * @param pageNum 页码，从1起
+     * @param handler 事件处理器
+     * @throws IOException           页面文件读取异常
+     * @throws NumberFormatException 页码超出范围
+     * @throws BadOFDException       页面文件解析异常
+     */
+    public static void read(OFDReader reader, int pageNum, PageContentHandler handler) throws IOException {
+        if (reader == null) {
+            throw new IllegalArgumentException("OFD解析器(reader)为空");
+        }
+        ST_Loc pageLoc = reader.getPageAbsLoc(pageNum);
+        Path file = reader.getResourceLocator().getFile("/", pageLoc);
+        try (InputStream in = Files.newInputStream(file)) {
+            read(in, handler);
+        }
+    }
+
+    /**
+     * 流式读取页面内容
+     *
+     * @param in      页面（或模板页）Content.xml 文件流，读取完成后不关闭
+     * @param handler 事件处理器
+     * @throws BadOFDException 页面文件解析异常
+     */
+    public static void read(InputStream in, PageContentHandler handler) {
+        if (in == null) {
+            throw new IllegalArgumentException("页面文件流(in)为空");
+        }
+        if (handler == null) {
+            throw new IllegalArgumentException("事件处理器(handler)为空");
+        }
+        try {
+            XMLStreamReader r = XML_FACTORY.createXMLStreamReader(in);
+            try {
+                parse(r, handler);
+            } finally {
+                r.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new BadOFDException("页面内容解析失败，原因:" + e.getMessage(), e);
+        }
+    }
+
+    private static void parse(XMLStreamReader r, PageContentHandler handler) throws XMLStreamException {
+        // 当前所在的图层、页块与文字对象
+        Deque<PageObjectEvent> open = new ArrayDeque<>();
+        boolean inContent = false;
+        while (r.hasNext()) {
+            int event = r.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                if (!inContent) {
+                    continue;
+                }
+                String local = r.getLocalName();
+                if ("Content".equals(local)) {
+                    // 页面内容之后的元素无需读取
+                    return;
+                }
+                PageObjectEvent.Kind kind = PageObjectEvent.Kind.of(local);
+                if (kind == null || open.isEmpty() || open.peek().getKind() != kind) {
+                    continue;
+                }
+                PageObjectEvent ev = open.pop();
+                switch (kind) {
+                    case Layer:
+                        handler.endLayer(ev);
+                        break;
+                    case PageBlock:
+                        handler.endPageBlock(ev);
+                        break;
+                    case TextObject:
+                        handler.endTextObject(ev);
+                        break;
+                    default:
+                        break;
+                }
+                continue;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            String local = r.getLocalName();
+            if (!inContent) {
+                // 跳过 Template、PageRes、Area 等页面描述信息
+                inContent = "Content".equals(local);
+                continue;
+            }
+            PageObjectEvent.Kind kind = PageObjectEvent.Kind.of(local);
+            if (kind == null) {
+                if ("TextCode".equals(local) && !open.isEmpty() && open.peek().getKind() == PageObjectEvent.Kind.TextObject) {
+                    TextCodeEvent code = new TextCodeEvent(
+                            r.getAttributeValue(null, "X"),
+                            r.getAttributeValue(null, "Y"),
+                            r.getAttributeValue(null, "DeltaX"),
+                            r.getAttributeValue(null, "DeltaY"),
+                            r.getElementText());
+                    handler.textCode(open.peek(), code);
+                } else {
+                    // 颜色、裁剪区、动作等子元素
+                    skip(r);
+                }
+                continue;
+            }
+            PageObjectEvent ev = new PageObjectEvent(kind, attributes(r));
+            switch (kind) {
+                case Layer:
+                    open.push(ev);
+                    handler.startLayer(ev);
+                    break;
+                case PageBlock:
+                    open.push(ev);
+                    handler.startPageBlock(ev);
+                    break;
+                case TextObject:
+                    open.push(ev);
+                    handler.startTextObject(ev);
+                    break;
+                case PathObject:
+                    ev.setAbbreviatedData(readAbbreviatedData(r));
+                    handler.pathObject(ev);
+                    break;
+                case ImageObject:
+                    skip(r);
+                    handler.imageObject(ev);
+                    break;
+                case CompositeObject:
+                    skip(r);
+                    handler.compositeObject(ev);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * 读取当前元素的所有属性
+     */
+    private static Map<String, String> attributes(XMLStreamReader r) {
+        int n = r.getAttributeCount();
+        Map<String, String> res = new HashMap<>(n * 2);
+        for (int i = 0; i < n; i++) {
+            res.put(r.getAttributeLocalName(i), r.getAttributeValue(i));
+        }
+        return res;
+    }
+
+    /**
+     * 读取图形对象中的路径数据，读取完成后位于图形对象的结束标签
+     */
+    private static String readAbbreviatedData(XMLStreamReader r) throws XMLStreamException {
+        String data = null;
+        int depth = 1;
+        while (depth > 0 && r.hasNext()) {
+            int event = r.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                if (depth == 1 && "AbbreviatedData".equals(r.getLocalName())) {
+                    // getElementText 读取到结束标签，深度不变
+                    data = r.getElementText();
+                } else {
+                    depth++;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        return data;
+    }
+
+    /**
+     * 跳过当前元素及其子元素，完成后位于当前元素的结束标签
+     */
+    private static void skip(XMLStreamReader r) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0 && r.hasNext()) {
+            int event = r.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package org.ofdrw.reader.stream;
+
+import org.ofdrw.core.basicType.ST_Box;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * 页面对象事件
+ * <p>
+ * 流式读取页面内容时，图层（Layer）、页块（PageBlock）以及各类图元对象对应的轻量事件，
+ * 仅包含元素的属性，不包含子元素（颜色、边框、裁剪区等）。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 22:20:31
+ */
+public final class PageObjectEvent {
+
+    /**
+     * 事件对应的页面对象类型
+     */
+    public enum Kind {
+        /**
+         * 图层 Layer
+         */
+        Layer,
+        /**
+         * 页块 PageBlock
+         */
+        PageBlock,
+        /**
+         * 文字对象 TextObject
+         */
+        TextObject,
+        /**
+         * 图形对象 PathObject
+         */
+        PathObject,
+        /**
+         * 图像对象 ImageObject
+         */
+        ImageObject,
+        /**
+         * 复合对象 CompositeObject
+         */
+        CompositeObject;
+
+        /**
+         * 通过元素名称获取类型
+         *
+         * @param localName 元素名称（不含命名空间前缀）
+         * @return 类型，不是页面对象时返回null
+         */
+        static Kind of(String localName) {
+            switch (localName) {
+                case "Layer":
+                    return Layer;
+                case "PageBlock":
+                    return PageBlock;
+                case "TextObject":
+                    return TextObject;
+                case "PathObject":
+                    return PathObject;
+                case "ImageObject":
+                    return ImageObject;
+                case "CompositeObject":
+                    return CompositeObject;
+                default:
+                    return null;
+            }
+        }
+    }
+
+    private final Kind kind;
+
+    private final Map<String, String> attributes;
+
+    /**
+     * 图形对象的路径数据（AbbreviatedData）
+     */
+    private String abbreviatedData;
+
+    PageObjectEvent(Kind kind, Map<String, String> attributes) {
+        this.kind = kind;
+        this.attributes = Collections.unmodifiableMap(attributes);
+    }
+
+    /**
+     * 获取 页面对象类型
+     *
+     * @return 页面对象类型
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * 获取 对象ID
+     *
+     * @return 对象ID，可能为null
+     */
+    public String getID() {
+        return attributes.get("ID");
+    }
+
+    /**
+     * 获取 外接矩形
+     *
+     * @return 外接矩形，图层、页块或未设置时为null
+     */
+    public ST_Box getBoundary() {
+        String boundary = attributes.get("Boundary");
+        return boundary == null ? null : ST_Box.getInstance(boundary);
+    }
+
+    /**
+     * 获取 属性值
+     *
+     * @param name 属性名称，如 Font、Size、ResourceID、CTM
+     * @return 属性值，不存在返回null
+     */
+    public String getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    /**
+     * 获取 所有属性
+     *
+     * @return 属性名称与属性值（只读）
+     */
+    public Map<String, String> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * 获取 图形对象的路径数据
+     *
+     * @return 路径数据，非图形对象时为null
+     */
+    public String getAbbreviatedData() {
+        return abbreviatedData;
+    }
+
+    void setAbbreviatedData(String abbreviatedData) {
+        this.abbreviatedData = abbreviatedData;
+    }
+
+    @Override
+    public String toString() {
+        return kind + attributes.toString();
+    }
+}
@@ -0,0 +1,80 @@
+package org.ofdrw.reader.stream;
+
+/**
+ * 文字定位事件
+ * <p>
+ * 对应文字对象中的一个 TextCode 元素，坐标与字符间距保持文件中的原始文本。
+ *
+ * @author 权观宇
+ * @since 2026-10-16 22:20:31
+ */
+public final class TextCodeEvent {
+
+    private final String x;
+
+    private final String y;
+
+    private final String deltaX;
+
+    private final String deltaY;
+
+    private final String content;
+
+    TextCodeEvent(String x, String y, String deltaX, String deltaY, String content) {
+        this.x = x;
+        this.y = y;
+        this.deltaX = deltaX;
+        this.deltaY = deltaY;
+        this.content = content;
+    }
+
+    /**
+     * 获取 第一个文字的字形原点横坐标
+     *
+     * @return 横坐标，未设置时为null
+     */
+    public Double getX() {
+        return x == null ? null : Double.parseDouble(x);
+    }
+
+    /**
+     * 获取 第一个文字的字形原点纵坐标
+     *
+     * @return 纵坐标，未设置时为null
+     */
+    public Double getY() {
+        return y == null ? null : Double.parseDouble(y);
+    }
+
+    /**
+     * 获取 X方向字符间距
+     *
+     * @return 字符间距原始文本（可能含有 g 压缩格式），未设置时为null
+     */
+    public String getDeltaX() {
+        return deltaX;
+    }
+
+    /**
+     * 获取 Y方向字符间距
+     *
+     * @return 字符间距原始文本（可能含有 g 压缩格式），未设置时为null
+     */
+    public String getDeltaY() {
+        return deltaY;
+    }
+
+    /**
+     * 获取 文字内容
+     *
+     * @return 文字内容
+     */
+    public String getContent() {
+        return content;
+    }
+
+    @Override
+    public String toString() {
+        return content;
+    }
+}
@@ -10,9 +10,13 @@ import java.awt.*;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * 内容抽取测试用例
@@ -100,4 +104,32 @@ class ContentExtractorTest {
             });
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 并行提取所有页面出现的文本
+     */
+    @Test
+    void extractAllParallel() throws IOException {
+        Path src = Paths.get("src/test/resources/keyword.ofd");
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try (OFDReader reader = new OFDReader(src)) {
+            ContentExtractor extractor = new ContentExtractor(reader);
+            List<String> expected = extractor.extractAll();
+            List<String> expectedTraverse = new ArrayList<>();
+            extractor.traverse((pageNum, contents) -> expectedTraverse.add(pageNum + ":" + contents));
+
+            // 未开启并发模式
+            assertThrows(IllegalStateException.class, () -> extractor.extractAll(pool));
+
+            reader.setConcurrent(true);
+            List<String> pageContent = extractor.extractAll(pool);
+            assertEquals(expected, pageContent);
+
+            List<String> traverse = new ArrayList<>();
+            extractor.traverse((pageNum, contents) -> traverse.add(pageNum + ":" + contents), pool);
+            assertEquals(expectedTraverse, traverse);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
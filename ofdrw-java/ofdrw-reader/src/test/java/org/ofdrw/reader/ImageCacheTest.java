@@ -0,0 +1,65 @@
+package org.ofdrw.reader;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * @author 权观宇
+ * @since 2026-10-16 20:30:12
+ */
+class ImageCacheTest {
+
+    /**
+     * 重复获取同一图片资源时只解码一次
+     */
+    @Test
+    void resMgt() throws IOException {
+        try (OFDReader reader = new OFDReader(Paths.get("src/test/resources/keyword.ofd"))) {
+            ResourceManage resMgt = reader.getResMgt();
+            ImageCache cache = resMgt.getImageCache();
+            Assertions.assertNotNull(cache);
+
+            BufferedImage first = resMgt.getImage("5");
+            Assertions.assertNotNull(first);
+            Assertions.assertSame(first, resMgt.getImage("5"));
+            Assertions.assertEquals(1, cache.getMissCount());
+            Assertions.assertEquals(1, cache.getHitCount());
+            Assertions.assertEquals(ImageCache.sizeOf(first), cache.getSize());
+
+            byte[] data = resMgt.getImageByteArray("5");
+            Assertions.assertSame(data, resMgt.getImageByteArray("5"));
+            Assertions.assertEquals(2, cache.getHitCount());
+
+            // 关闭缓存后每次重新解码
+            resMgt.setImageCache(null);
+            Assertions.assertNotSame(resMgt.getImage("5"), resMgt.getImage("5"));
+        }
+    }
+
+    /**
+     * 超过内存上限时淘汰最久未使用的图片
+     */
+    @Test
+    void budget() {
+        // 每张图片 10*10*4 = 400 字节
+        ImageCache cache = new ImageCache(1000);
+        cache.put("a", new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB));
+        cache.put("b", new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB));
+        Assertions.assertNotNull(cache.getImage("a"));
+        cache.put("c", new BufferedImage(10, 10, BufferedImage.TYPE_INT_ARGB));
+        Assertions.assertEquals(800, cache.getSize());
+        Assertions.assertEquals(1, cache.getEvictionCount());
+        Assertions.assertNull(cache.getImage("b"));
+        Assertions.assertNotNull(cache.getImage("a"));
+        Assertions.assertNotNull(cache.getImage("c"));
+
+        // 超过上限的图片不缓存
+        cache.put("big", new BufferedImage(100, 100, BufferedImage.TYPE_INT_ARGB));
+        Assertions.assertNull(cache.getImage("big"));
+        Assertions.assertEquals(800, cache.getSize());
+    }
+}
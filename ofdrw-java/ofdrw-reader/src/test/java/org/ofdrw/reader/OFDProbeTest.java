@@ -0,0 +1,49 @@
+package org.ofdrw.reader;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.ofdrw.core.basicType.ST_Box;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * @author 权观宇
+ * @since 2026-10-16 19:20:14
+ */
+class OFDProbeTest {
+
+    /**
+     * 探测结果与 OFDReader 解析结果一致
+     */
+    @Test
+    void probe() throws IOException {
+        String[] files = {"helloworld.ofd", "发票示例.ofd", "keyword.ofd", "AddAttachment.ofd", "helloworld_with_pageblock.ofd"};
+        for (String name : files) {
+            Path src = Paths.get("src/test/resources", name);
+            OFDProbe probe = OFDProbe.probe(src);
+            try (OFDReader reader = new OFDReader(src)) {
+                Assertions.assertEquals(reader.getNumberOfPages(), probe.getNumberOfPages(), name);
+                Assertions.assertEquals(reader.hasSignature(), probe.hasSignature(), name);
+                for (int i = 1; i <= probe.getNumberOfPages(); i++) {
+                    ST_Box expect = reader.getPageSize(i);
+                    ST_Box actual = probe.getPageSize(i);
+                    Assertions.assertEquals(expect.toString(), actual.toString(), name + " 第" + i + "页");
+                }
+            }
+        }
+    }
+
+    /**
+     * 探测结果不可修改
+     */
+    @Test
+    void immutable() throws IOException {
+        OFDProbe probe = OFDProbe.probe(Paths.get("src/test/resources/helloworld.ofd"));
+        List<ST_Box> sizes = probe.getPageSizes();
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> sizes.add(new ST_Box(0, 0, 1, 1)));
+        Assertions.assertThrows(IndexOutOfBoundsException.class, () -> probe.getPageSize(0));
+    }
+}
@@ -1,19 +1,38 @@
 package org.ofdrw.reader;
 
 import org.dom4j.DocumentException;
+import org.apache.commons.io.FileUtils;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.ofdrw.core.OFDElement;
 import org.ofdrw.core.attachment.CT_Attachment;
+import org.ofdrw.core.basicStructure.doc.CT_CommonData;
+import org.ofdrw.core.basicStructure.doc.CT_PageArea;
+import org.ofdrw.core.basicStructure.doc.Document;
 import org.ofdrw.core.basicStructure.ofd.DocBody;
 import org.ofdrw.core.basicStructure.ofd.OFD;
 import org.ofdrw.core.basicStructure.ofd.docInfo.CT_DocInfo;
+import org.ofdrw.core.basicStructure.pageObj.CT_TemplatePage;
+import org.ofdrw.core.basicStructure.pageObj.Content;
 import org.ofdrw.core.basicStructure.pageObj.Page;
+import org.ofdrw.core.basicStructure.pageObj.Template;
+import org.ofdrw.core.basicStructure.pageObj.layer.Type;
+import org.ofdrw.core.basicStructure.pageTree.Pages;
+import org.ofdrw.core.basicStructure.res.Res;
+import org.ofdrw.core.basicStructure.res.resources.DrawParams;
 import org.ofdrw.core.basicType.ST_Box;
+import org.ofdrw.core.basicType.ST_ID;
+import org.ofdrw.core.basicType.ST_Loc;
+import org.ofdrw.core.basicType.ST_RefID;
 import org.ofdrw.pkg.container.DocDir;
+import org.ofdrw.pkg.container.ElementCache;
+import org.ofdrw.core.pageDescription.drawParam.CT_DrawParam;
 import org.ofdrw.pkg.container.OFDDir;
+import org.ofdrw.pkg.container.PageDir;
 import org.ofdrw.pkg.container.ResDir;
 import org.ofdrw.pkg.container.VirtualContainer;
 import org.ofdrw.reader.model.StampAnnotEntity;
+import org.ofdrw.reader.model.TemplatePageEntity;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
@@ -23,7 +42,11 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -120,6 +143,133 @@ class OFDReaderTest {
         }
     }
 
+    /**
+     * 并发模式下多个线程共享同一个 Reader
+     */
+    @Test
+    void concurrent() throws Exception {
+        Path signed = Paths.get("src/test/resources/keyword.ofd");
+        try (OFDReader reader = new OFDReader(signed).setConcurrent(true)) {
+            int n = reader.getNumberOfPages();
+            String expect = reader.getPageInfo(1).getPageAbsLoc() + "|" + reader.getStampAnnots().size()
+                    + "|" + reader.getAttachmentList().size();
+            ExecutorService pool = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<String>> res = new ArrayList<>();
+                for (int i = 0; i < 64; i++) {
+                    res.add(pool.submit(() -> {
+                        ResourceLocator rl = reader.getResourceLocator();
+                        rl.save();
+                        try {
+                            rl.cd("/Doc_0/Pages");
+                            assertEquals(n, reader.getNumberOfPages());
+                            String r = reader.getPageInfo(1).getPageAbsLoc() + "|" + reader.getStampAnnots().size()
+                                    + "|" + reader.getAttachmentList().size();
+                            // 其他线程的操作不影响当前线程的工作目录
+                            assertEquals("/Doc_0/Pages", rl.pwd());
+                            return r;
+                        } finally {
+                            rl.restore();
+                        }
+                    }));
+                }
+                for (Future<String> f : res) {
+                    assertEquals(expect, f.get());
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * 页面索引在文档修改后重建
+     */
+    @Test
+    void pageIndex() throws IOException, DocumentException {
+        try (OFDReader reader = new OFDReader(src)) {
+            int n = reader.getNumberOfPages();
+            ST_Loc loc = reader.getPageAbsLoc(1);
+            assertEquals(loc, reader.getPageInfo(1).getPageAbsLoc());
+            assertEquals(reader.getPageObjectId(1), reader.getPageList().get(0).getId());
+
+            Document document = reader.cdDefaultDoc();
+            reader.getResourceLocator().restore();
+            document.getPages().addPage(new org.ofdrw.core.basicStructure.pageTree.Page(999, "Pages/Page_0/Content.xml"));
+            assertEquals(n + 1, reader.getNumberOfPages());
+            assertEquals(999L, reader.getPageObjectId(n + 1).getId().longValue());
+            assertEquals(loc, reader.getPageAbsLoc(n + 1));
+            assertThrows(NumberFormatException.class, () -> reader.getPageAbsLoc(n + 2));
+        }
+    }
+
+    /**
+     * 延迟加载的资源与立即加载的资源一致
+     */
+    @Test
+    void lazyResourceManage() throws IOException {
+        Path src = Paths.get("src/test/resources/发票示例.ofd");
+        try (OFDReader reader = new OFDReader(src)) {
+            ResourceManage eager = new ResourceManage(reader, 0, false);
+            ResourceManage lazy = new ResourceManage(reader, 0, true);
+            assertFalse(eager.getFonts().isEmpty());
+            for (org.ofdrw.core.text.font.CT_Font font : eager.getFonts()) {
+                String id = font.getID().toString();
+                assertNotNull(lazy.getFont(id));
+                assertEquals(font.getFontFile(), lazy.getFont(id).getFontFile());
+            }
+            assertNull(lazy.get("-1"));
+            assertTrue(lazy.getFonts().size() >= eager.getFonts().size());
+        }
+    }
+
+    /**
+     * 延迟加载模式下页面资源在页面读取时索引
+     */
+    @Test
+    void lazyPageRes() throws IOException {
+        Path ofd = Files.createTempFile("pageres-", ".ofd");
+        try {
+            CT_CommonData cdata = new CT_CommonData()
+                    .setMaxUnitID(50)
+                    .setPageArea(new CT_PageArea(0, 0, 210, 297));
+            Document document = new Document()
+                    .setCommonData(cdata)
+                    .setPages(new Pages()
+                            .addPage(new org.ofdrw.core.basicStructure.pageTree.Page(1, "Pages/Page_0/Content.xml"))
+                            .addPage(new org.ofdrw.core.basicStructure.pageTree.Page(2, "Pages/Page_1/Content.xml")));
+            OFDDir ofdDir = OFDDir.newOFD()
+                    .setOfd(new OFD().addDocBody(new DocBody().setDocRoot(new ST_Loc("Doc_0/Document.xml"))));
+            DocDir docDir = ofdDir.newDoc().setDocument(document);
+            for (int i = 0; i < 2; i++) {
+                docDir.obtainPages().newPageDir()
+                        .setContent(new Page().setContent(new Content()).addPageRes(new ST_Loc(PageDir.PageResFileName)))
+                        .setPageRes(new Res().addResource(new DrawParams()
+                                .addDrawParam(new CT_DrawParam().setLineWidth(1d + i).setID(new ST_ID(40 + i)))));
+            }
+            ofdDir.jar(ofd);
+            ofdDir.close();
+
+            try (OFDReader reader = new OFDReader(ofd)) {
+                // 资源索引不持有资源文件元素，资源文件被淘汰后仍能找到资源
+                reader.getOFDDir().setElementCache(new ElementCache(1));
+                ResourceManage resMgt = reader.getResMgt();
+                // 页面尚未读取，找不到的资源被记录
+                assertNull(resMgt.getDrawParam("41"));
+                assertNull(resMgt.getDrawParam("41"));
+
+                reader.getPageInfo(2);
+                assertEquals(2d, resMgt.getDrawParam("41").getLineWidth().doubleValue());
+                assertNull(resMgt.getDrawParam("40"));
+
+                reader.getPageInfo(1);
+                assertEquals(1d, resMgt.getDrawParam("40").getLineWidth().doubleValue());
+            }
+        } finally {
+            Files.deleteIfExists(ofd);
+        }
+    }
+
 
     @Test
     public void testReader() throws Exception {
@@ -183,10 +333,70 @@ class OFDReaderTest {
             final List<StampAnnotEntity> stampAnnots = ofdReader.getStampAnnots();
             System.out.println(stampAnnots.size());
             assertEquals(1, stampAnnots.size());
+            // 解析结果被缓存，返回的列表为副本
+            List<StampAnnotEntity> again = ofdReader.getStampAnnots();
+            assertNotSame(stampAnnots, again);
+            assertSame(stampAnnots.get(0), again.get(0));
+            stampAnnots.clear();
+            assertEquals(1, ofdReader.getStampAnnots().size());
+            final String pageId = ofdReader.getPageObjectId(1).toString();
+            assertEquals(again, ofdReader.getStampAnnots(pageId));
+            assertTrue(ofdReader.getStampAnnots("-1").isEmpty());
+            assertTrue(ofdReader.getAnnotationEntities("-1").isEmpty());
+
+            // 修改页面内容不影响索引，容器内容修改后重建
+            ofdReader.getPageInfo(1).getObj().addAttribute("Tag", "1");
+            assertSame(again.get(0), ofdReader.getStampAnnots().get(0));
+            ofdReader.getOFDDir().putObj("Extra.xml", OFDElement.getInstance("Extra"));
+            assertNotSame(again.get(0), ofdReader.getStampAnnots().get(0));
         }
     }
 
 
+    /**
+     * 模板页面只解析一次，返回的实体相互独立
+     */
+    @Test
+    void getTemplate() throws IOException {
+        Path ofd = Files.createTempFile("template-", ".ofd");
+        try {
+            CT_CommonData cdata = new CT_CommonData()
+                    .setMaxUnitID(10)
+                    .setPageArea(new CT_PageArea(0, 0, 210, 297))
+                    .addTemplatePage(new CT_TemplatePage()
+                            .setID(new ST_ID(2))
+                            .setZOrder(Type.Background)
+                            .setBaseLoc(new ST_Loc("Temps/Temp_0.xml")));
+            Document document = new Document()
+                    .setCommonData(cdata)
+                    .setPages(new Pages()
+                            .addPage(new org.ofdrw.core.basicStructure.pageTree.Page(1, "Pages/Page_0/Content.xml")));
+            OFDDir ofdDir = OFDDir.newOFD()
+                    .setOfd(new OFD().addDocBody(new DocBody().setDocRoot(new ST_Loc("Doc_0/Document.xml"))));
+            DocDir docDir = ofdDir.newDoc().setDocument(document);
+            docDir.obtainTemps().add("Temp_0.xml", new Page().setContent(new Content()));
+            docDir.obtainPages().newPageDir()
+                    .setContent(new Page().setContent(new Content()).addTemplate(new Template().setTemplateID(new ST_RefID(2))));
+            ofdDir.jar(ofd);
+            ofdDir.close();
+
+            try (OFDReader reader = new OFDReader(ofd)) {
+                TemplatePageEntity t1 = reader.getTemplate("2");
+                TemplatePageEntity t2 = reader.getTemplate("2");
+                assertNotNull(t1);
+                assertSame(t1.getPage(), t2.getPage());
+                assertNotSame(t1, t2);
+                t1.setOrder(Type.Foreground);
+                assertNotEquals(t1.getZOrder(), t2.getZOrder());
+                assertNull(reader.getTemplate("-1"));
+                // 页面引用的模板使用同一缓存
+                assertSame(t1.getPage(), reader.getPageInfo(1).getOrderRelatedPageList().get(0));
+            }
+        } finally {
+            Files.deleteIfExists(ofd);
+        }
+    }
+
     @Test
     void getPageSize() throws Exception {
         Path path = Paths.get("src/test/resources/发票示例.ofd");
@@ -195,4 +405,40 @@ class OFDReaderTest {
             System.out.println(pageSize);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * ZIP原地读取模式，不解压到临时目录
+     */
+    @Test
+    void zipMode() throws IOException {
+        Path path = Paths.get("src/test/resources/发票示例.ofd");
+        try (OFDReader reader = new OFDReader(OFDDir.openZip(path))) {
+            assertNull(reader.getWorkDir());
+            assertTrue(reader.getOFDDir().isZipMode());
+            assertEquals(1, reader.getNumberOfPages());
+            assertNotNull(reader.getPage(1));
+            assertEquals(1, reader.getStampAnnots().size());
+            try (OFDReader extracted = new OFDReader(path)) {
+                assertEquals(extracted.getPageSize(1).toString(), reader.getPageSize(1).toString());
+            }
+        }
+    }
+
+    /**
+     * 通过调用者的磁盘目录构造的Reader，关闭时不删除该目录
+     */
+    @Test
+    void closeKeepsCallerDir() throws IOException {
+        Path dir = Files.createTempDirectory("ofd-caller-");
+        try {
+            ZipUtil.unZipFileByApacheCommonCompress(src.toFile(), dir.toAbsolutePath() + File.separator);
+            try (OFDReader reader = new OFDReader(new OFDDir(dir))) {
+                assertEquals(1, reader.getNumberOfPages());
+            }
+            assertTrue(Files.isDirectory(dir));
+            assertTrue(Files.exists(dir.resolve("OFD.xml")));
+        } finally {
+            FileUtils.deleteDirectory(dir.toFile());
+        }
+    }
+}
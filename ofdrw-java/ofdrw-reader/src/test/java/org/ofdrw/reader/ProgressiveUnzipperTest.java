@@ -0,0 +1,134 @@
+package org.ofdrw.reader;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.ofdrw.core.basicType.ST_Loc;
+import org.ofdrw.pkg.container.PendingEntries;
+import org.ofdrw.pkg.tool.ParallelZipPackager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author 权观宇
+ * @since 2026-10-16 17:55:12
+ */
+class ProgressiveUnzipperTest {
+
+    /**
+     * 包尚未完整到达时即可解析首页，访问未到达的文件时等待
+     */
+    @Test
+    void progressive() throws Exception {
+        Path base = Paths.get("target/Progressive");
+        FileUtils.deleteDirectory(base.toFile());
+        Path unzipped = base.resolve("src");
+        ZipUtil.unZipFiles("src/test/resources/发票示例.ofd", unzipped.toString() + "/");
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        new ParallelZipPackager(null).setLinearized(true).pack(unzipped, bout);
+        byte[] pkg = bout.toByteArray();
+
+        // 最后一个条目到达前阻塞
+        CountDownLatch release = new CountDownLatch(1);
+        InputStream gated = new GatedInputStream(pkg, lastLocalHeader(pkg), release);
+        try (OFDReader reader = OFDReader.progressive(gated)) {
+            Assertions.assertEquals(1, reader.getNumberOfPages());
+            Assertions.assertNotNull(reader.getPage(1));
+            Assertions.assertFalse(reader.getUnzipper().isFinished());
+
+            // 访问文件的线程进入等待时放行
+            CountDownLatch waiting = new CountDownLatch(1);
+            PendingEntries pending = reader.getOFDDir().getPendingEntries();
+            reader.getOFDDir().setPendingEntries(path -> {
+                if (path.endsWith("Tag_Invoice.xml")) {
+                    waiting.countDown();
+                }
+                pending.await(path);
+            });
+            AtomicReference<Path> late = new AtomicReference<>();
+            Thread t = new Thread(() -> late.set(reader.getOFDDir().getFile(new ST_Loc("/Doc_0/Tags/Tag_Invoice.xml"))));
+            t.start();
+            Assertions.assertTrue(waiting.await(10, TimeUnit.SECONDS));
+            // 最后一个条目被阻塞，文件不可能已经到达
+            Assertions.assertNull(late.get());
+            Assertions.assertFalse(reader.getUnzipper().isFinished());
+
+            release.countDown();
+            t.join(10_000);
+            Assertions.assertNotNull(late.get());
+            reader.getUnzipper().awaitFinished();
+            Assertions.assertArrayEquals(Files.readAllBytes(unzipped.resolve("Doc_0/Tags/Tag_Invoice.xml")),
+                    Files.readAllBytes(late.get()));
+        }
+    }
+
+    /**
+     * 通过中央目录找到最后一个本地文件头的位置
+     */
+    private static int lastLocalHeader(byte[] zip) {
+        ByteBuffer buf = ByteBuffer.wrap(zip).order(ByteOrder.LITTLE_ENDIAN);
+        int eocd = zip.length - 22;
+        while (buf.getInt(eocd) != 0x06054b50) {
+            eocd--;
+        }
+        int count = buf.getShort(eocd + 10) & 0xFFFF;
+        int p = buf.getInt(eocd + 16);
+        int last = 0;
+        for (int i = 0; i < count; i++) {
+            last = Math.max(last, buf.getInt(p + 42));
+            p += 46 + (buf.getShort(p + 28) & 0xFFFF) + (buf.getShort(p + 30) & 0xFFFF) + (buf.getShort(p + 32) & 0xFFFF);
+        }
+        return last;
+    }
+
+    /**
+     * 读取到指定位置后阻塞，直到放行
+     */
+    private static final class GatedInputStream extends InputStream {
+        private final ByteArrayInputStream in;
+        private final int gate;
+        private final CountDownLatch release;
+        private int pos = 0;
+
+        GatedInputStream(byte[] data, int gate, CountDownLatch release) {
+            this.in = new ByteArrayInputStream(data);
+            this.gate = gate;
+            this.release = release;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return read(b, 0, 1) == -1 ? -1 : b[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (pos >= gate) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            } else {
+                len = Math.min(len, gate - pos);
+            }
+            int n = in.read(b, off, len);
+            if (n > 0) {
+                pos += n;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package org.ofdrw.reader;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.ofdrw.core.basicStructure.doc.CT_CommonData;
+import org.ofdrw.core.basicStructure.doc.CT_PageArea;
+import org.ofdrw.core.basicStructure.doc.Document;
+import org.ofdrw.core.basicStructure.ofd.DocBody;
+import org.ofdrw.core.basicStructure.ofd.OFD;
+import org.ofdrw.core.basicStructure.pageObj.Content;
+import org.ofdrw.core.basicStructure.pageObj.Page;
+import org.ofdrw.core.basicStructure.pageObj.layer.block.PathObject;
+import org.ofdrw.core.basicStructure.pageTree.Pages;
+import org.ofdrw.core.basicStructure.res.Res;
+import org.ofdrw.core.basicStructure.res.resources.DrawParams;
+import org.ofdrw.core.basicType.ST_Array;
+import org.ofdrw.core.basicType.ST_ID;
+import org.ofdrw.core.basicType.ST_Loc;
+import org.ofdrw.core.basicType.ST_RefID;
+import org.ofdrw.core.pageDescription.color.color.CT_Color;
+import org.ofdrw.core.pageDescription.drawParam.CT_DrawParam;
+import org.ofdrw.core.pageDescription.drawParam.LineCapType;
+import org.ofdrw.core.pageDescription.drawParam.LineJoinType;
+import org.ofdrw.pkg.container.DocDir;
+import org.ofdrw.pkg.container.OFDDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * @author 权观宇
+ * @since 2026-10-16 20:52:40
+ */
+class ResolvedDrawParamTest {
+
+    /**
+     * 沿引用链补全属性，结果按ID缓存
+     */
+    @Test
+    void resolve() throws IOException {
+        Path ofd = drawParamOFD();
+        try (OFDReader reader = new OFDReader(ofd)) {
+            ResourceManage resMgt = reader.getResMgt();
+            ResolvedDrawParam p = resMgt.getResolvedDrawParam("12");
+            Assertions.assertNotNull(p);
+            Assertions.assertSame(p, resMgt.getResolvedDrawParam("12"));
+            Assertions.assertEquals(0.5d, p.getLineWidth());
+            Assertions.assertTrue(p.isLineWidthSet());
+            Assertions.assertEquals(LineJoinType.Round, p.getJoin());
+            Assertions.assertEquals(LineCapType.Square, p.getCap());
+            Assertions.assertEquals("0 0 255", p.getFillColor().getValue().toString());
+            Assertions.assertEquals("255 0 0", p.getStrokeColor().getValue().toString());
+            Assertions.assertEquals("2 1", p.getDashPattern().toString());
+
+            // 未设置的属性使用默认值
+            ResolvedDrawParam root = resMgt.getResolvedDrawParam("10");
+            Assertions.assertEquals(LineCapType.Butt, root.getCap());
+            Assertions.assertEquals(3.528d, root.getMiterLimit());
+            Assertions.assertNull(root.getFillColor());
+            Assertions.assertNull(resMgt.getResolvedDrawParam("99"));
+
+            // 与逐级复制的结果一致
+            CT_DrawParam fin = resMgt.getDrawParamFinal("12");
+            Assertions.assertEquals(p.getLineWidth(), fin.getLineWidth().doubleValue());
+            Assertions.assertEquals(p.getJoin(), fin.getJoin());
+            Assertions.assertEquals(p.getCap(), fin.getCap());
+            Assertions.assertEquals(p.getStrokeColor().getValue().toString(), fin.getStrokeColor().getValue().toString());
+
+            // 补充图元属性
+            PathObject path = new PathObject(new ST_ID(30));
+            path.setDrawParam(new ST_RefID(12));
+            Assertions.assertSame(p, resMgt.resolveDrawParam(path));
+            Assertions.assertEquals(0.5d, path.getLineWidth().doubleValue());
+            Assertions.assertEquals("Square", path.attributeValue("Cap"));
+        } finally {
+            Files.deleteIfExists(ofd);
+        }
+    }
+
+    /**
+     * 循环引用在重复出现处断开
+     */
+    @Test
+    void cycle() throws IOException {
+        Path ofd = drawParamOFD();
+        try (OFDReader reader = new OFDReader(ofd)) {
+            ResourceManage resMgt = reader.getResMgt();
+            ResolvedDrawParam p = resMgt.getResolvedDrawParam("20");
+            Assertions.assertNotNull(p);
+            Assertions.assertEquals(1d, p.getLineWidth());
+            Assertions.assertEquals(LineJoinType.Bevel, p.getJoin());
+            Assertions.assertNotNull(resMgt.getDrawParamFinal("21"));
+        } finally {
+            Files.deleteIfExists(ofd);
+        }
+    }
+
+    /**
+     * 创建含有绘制参数引用链的OFD文件
+     * <p>
+     * 12 -&gt; 11 -&gt; 10，20 -&gt; 21 -&gt; 20
+     */
+    private static Path drawParamOFD() throws IOException {
+        DrawParams drawParams = new DrawParams()
+                .addDrawParam(new CT_DrawParam()
+                        .setLineWidth(2d)
+                        .setJoin(LineJoinType.Round)
+                        .setStrokeColor(CT_Color.rgb(255, 0, 0))
+                        .setID(new ST_ID(10)))
+                .addDrawParam(new CT_DrawParam()
+                        .setRelative(new ST_RefID(10))
+                        .setLineWidth(0.5d)
+                        .setFillColor(CT_Color.rgb(0, 0, 255))
+                        .setID(new ST_ID(11)))
+                .addDrawParam(new CT_DrawParam()
+                        .setRelative(new ST_RefID(11))
+                        .setCap(LineCapType.Square)
+                        .setDashPattern(new ST_Array(2, 1))
+                        .setID(new ST_ID(12)))
+                .addDrawParam(new CT_DrawParam()
+                        .setRelative(new ST_RefID(21))
+                        .setLineWidth(1d)
+                        .setID(new ST_ID(20)))
+                .addDrawParam(new CT_DrawParam()
+                        .setRelative(new ST_RefID(20))
+                        .setJoin(LineJoinType.Bevel)
+                        .setID(new ST_ID(21)));
+
+        CT_CommonData cdata = new CT_CommonData()
+                .setMaxUnitID(30)
+                .setPageArea(new CT_PageArea(0, 0, 210, 297))
+                .setPublicRes(new ST_Loc("PublicRes.xml"));
+        Document document = new Document()
+                .setCommonData(cdata)
+                .setPages(new Pages().addPage(new org.ofdrw.core.basicStructure.pageTree.Page(1, "Pages/Page_0/Content.xml")));
+        OFD ofdXml = new OFD()
+                .addDocBody(new DocBody().setDocRoot(new ST_Loc("Doc_0/Document.xml")));
+
+        OFDDir ofdDir = OFDDir.newOFD().setOfd(ofdXml);
+        DocDir docDir = ofdDir.newDoc()
+                .setPublicRes(new Res().addResource(drawParams))
+                .setDocument(document);
+        docDir.obtainPages().newPageDir().setContent(new Page().setContent(new Content()));
+        Path res = Files.createTempFile(Paths.get("target"), "drawparam-", ".ofd");
+        ofdDir.jar(res);
+        ofdDir.close();
+        return res;
+    }
+}
@@ -53,6 +53,42 @@ class ResourceLocatorTest {
         }
     }
 
+    /**
+     * 以显式基础目录解析，不改变工作目录
+     */
+    @Test
+    public void stateless() throws IOException, DocumentException {
+        assertEquals("/Doc_0/Signs/Signatures.xml", ResourceLocator.resolve("/Doc_0/Pages/Page_0", "../../Signs/Signatures.xml"));
+        assertEquals("/OFD.xml", ResourceLocator.resolve("/Doc_0", "/OFD.xml"));
+        assertEquals("/", ResourceLocator.resolve(null, ".."));
+        try (OFDReader reader = new OFDReader(src)) {
+            ResourceLocator rl = new ResourceLocator(reader.getOFDDir());
+            rl.cd("/Doc_0/Pages");
+            Document document = rl.get("/Doc_0", new ST_Loc("Document.xml"), Document::new);
+            assertNotNull(document.getPages());
+            assertTrue(rl.exist("/Doc_0", new ST_Loc("Pages/Page_0/Content.xml")));
+            assertTrue(Files.exists(rl.getFile("/Doc_0/Pages", new ST_Loc("Page_0/Content.xml"))));
+            assertEquals("/Doc_0/Pages", rl.pwd());
+        }
+    }
+
+    /**
+     * 并发模式下每个线程拥有独立的工作目录
+     */
+    @Test
+    public void concurrent() throws Exception {
+        try (OFDReader reader = new OFDReader(src)) {
+            ResourceLocator rl = new ResourceLocator(reader.getOFDDir()).setConcurrent(true);
+            rl.cd("/Doc_0");
+            String[] other = new String[1];
+            Thread t = new Thread(() -> other[0] = rl.pwd());
+            t.start();
+            t.join();
+            assertEquals("/", other[0]);
+            assertEquals("/Doc_0", rl.pwd());
+        }
+    }
+
     @Test
     public void ConstructWithVC() throws IOException {
         try (OFDReader reader = new OFDReader(src)) {
@@ -9,8 +9,11 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * 关键字抽取 调用示例
@@ -74,6 +77,30 @@ class KeywordExtractorTest {
         }
     }
 
+    /**
+     * 并行获取关键字在文档中坐标，结果与顺序获取一致
+     */
+    @Test
+    void getKeyWordPositionListParallel() throws IOException, DocumentException {
+        Path src = Paths.get("src/test/resources/keyword.ofd");
+        String[] keywords = {"办理", "不动产权"};
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try (OFDReader reader = new OFDReader(src)) {
+            List<KeywordPosition> expected = KeywordExtractor.getKeyWordPositionList(reader, keywords);
+            // 未开启并发模式
+            assertThrows(IllegalStateException.class, () -> KeywordExtractor.getKeyWordPositionList(reader, keywords, null, pool));
+
+            reader.setConcurrent(true);
+            List<KeywordPosition> positionList = KeywordExtractor.getKeyWordPositionList(reader, keywords, null, pool);
+            assertEquals(expected.size(), positionList.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).toString(), positionList.get(i).toString());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
     @Test
     void testKeyword2() throws IOException, DocumentException {
         Path src = Paths.get("src/test/resources/keyword2.ofd");
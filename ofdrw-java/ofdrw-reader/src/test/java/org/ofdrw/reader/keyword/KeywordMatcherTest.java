@@ -0,0 +1,35 @@
+package org.ofdrw.reader.keyword;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 多关键字匹配自动机
+ *
+ * @author 权观宇
+ * @since 2026-10-16 22:41:06
+ */
+class KeywordMatcherTest {
+
+    @Test
+    void match() {
+        String[] keywords = {"he", "she", "his", "hers", "", null};
+        KeywordMatcher matcher = new KeywordMatcher(keywords);
+        List<String> hits = new ArrayList<>();
+        matcher.match("ushers", (k, start, end) -> hits.add(keywords[k] + "@" + start + "-" + end));
+        assertEquals("[she@1-4, he@2-4, hers@2-6]", hits.toString());
+    }
+
+    @Test
+    void overlapAndMiss() {
+        String[] keywords = {"aa", "不动产权"};
+        KeywordMatcher matcher = new KeywordMatcher(keywords);
+        List<String> hits = new ArrayList<>();
+        matcher.match("aaa 不动产不动产权", (k, start, end) -> hits.add(keywords[k] + "@" + start));
+        assertEquals("[aa@0, aa@1, 不动产权@7]", hits.toString());
+    }
+}
@@ -0,0 +1,120 @@
+package org.ofdrw.reader.stream;
+
+import org.junit.jupiter.api.Test;
+import org.ofdrw.reader.ContentExtractor;
+import org.ofdrw.reader.OFDReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 页面内容流式读取
+ *
+ * @author 权观宇
+ * @since 2026-10-16 22:20:31
+ */
+class PageContentStreamTest {
+
+    /**
+     * 流式读取得到的文字与DOM方式抽取的文字一致
+     */
+    @Test
+    void sameTextAsExtractor() throws IOException {
+        Path src = Paths.get("src/test/resources/keyword.ofd");
+        try (OFDReader reader = new OFDReader(src)) {
+            ContentExtractor extractor = new ContentExtractor(reader);
+            for (int pageNum = 1; pageNum <= reader.getNumberOfPages(); pageNum++) {
+                List<String> texts = new ArrayList<>();
+                PageContentStream.read(reader, pageNum, new PageContentHandler() {
+                    @Override
+                    public void textCode(PageObjectEvent text, TextCodeEvent textCode) {
+                        texts.add(textCode.getContent());
+                    }
+                });
+                assertEquals(extractor.getPageContent(pageNum), texts);
+            }
+        }
+    }
+
+    /**
+     * 事件顺序与嵌套
+     */
+    @Test
+    void events() {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+                "<ofd:Page xmlns:ofd=\"http://www.ofdspec.org/2016\">" +
+                "<ofd:Area><ofd:PhysicalBox>0 0 210 297</ofd:PhysicalBox></ofd:Area>" +
+                "<ofd:Content><ofd:Layer ID=\"1\">" +
+                "<ofd:TextObject ID=\"2\" Boundary=\"10 10 50 10\" Font=\"3\" Size=\"5\">" +
+                "<ofd:FillColor Value=\"0 0 0\"/>" +
+                "<ofd:TextCode X=\"0\" Y=\"4.5\" DeltaX=\"g 2 5\">OFD</ofd:TextCode>" +
+                "</ofd:TextObject>" +
+                "<ofd:PageBlock ID=\"4\">" +
+                "<ofd:PathObject ID=\"5\" Boundary=\"0 0 10 10\"><ofd:StrokeColor Value=\"0 0 0\"/>" +
+                "<ofd:AbbreviatedData>M 0 0 L 10 10</ofd:AbbreviatedData></ofd:PathObject>" +
+                "<ofd:ImageObject ID=\"6\" Boundary=\"0 0 10 10\" ResourceID=\"7\"/>" +
+                "</ofd:PageBlock>" +
+                "</ofd:Layer></ofd:Content></ofd:Page>";
+        List<String> log = new ArrayList<>();
+        PageContentStream.read(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), new PageContentHandler() {
+            @Override
+            public void startLayer(PageObjectEvent layer) {
+                log.add("L" + layer.getID());
+            }
+
+            @Override
+            public void endLayer(PageObjectEvent layer) {
+                log.add("/L" + layer.getID());
+            }
+
+            @Override
+            public void startPageBlock(PageObjectEvent block) {
+                log.add("B" + block.getID());
+            }
+
+            @Override
+            public void endPageBlock(PageObjectEvent block) {
+                log.add("/B" + block.getID());
+            }
+
+            @Override
+            public void startTextObject(PageObjectEvent text) {
+                assertEquals("3", text.getAttribute("Font"));
+                assertEquals(50d, text.getBoundary().getWidth().doubleValue());
+                log.add("T" + text.getID());
+            }
+
+            @Override
+            public void textCode(PageObjectEvent text, TextCodeEvent textCode) {
+                assertEquals(4.5, textCode.getY().doubleValue());
+                assertEquals("g 2 5", textCode.getDeltaX());
+                log.add(textCode.getContent());
+            }
+
+            @Override
+            public void endTextObject(PageObjectEvent text) {
+                log.add("/T" + text.getID());
+            }
+
+            @Override
+            public void pathObject(PageObjectEvent path) {
+                assertEquals("M 0 0 L 10 10", path.getAbbreviatedData());
+                log.add("P" + path.getID());
+            }
+
+            @Override
+            public void imageObject(PageObjectEvent image) {
+                assertEquals("7", image.getAttribute("ResourceID"));
+                log.add("I" + image.getID());
+            }
+        });
+        assertEquals("[L1, T2, OFD, /T2, B4, P5, I6, /B4, /L1]", log.toString());
+    }
+}